@@ -36,10 +36,31 @@ export interface MachineRequest {
     maintenanceMode?: boolean;
 }
 
+export interface PageResponse<T> {
+    content: T[];
+    page: number;
+    size: number;
+    totalElements: number;
+    totalPages: number;
+    first: boolean;
+    last: boolean;
+}
+
+export interface MachinePageParams {
+    locationId?: number;
+    search?: string;
+    includeInactive?: boolean;
+    page?: number;
+    size?: number;
+}
+
 export const machineApi = {
     getAll: (search?: string) =>
         api.get<ApiResponse<Machine[]>>(`/machines${search ? `?search=${encodeURIComponent(search)}` : ''}`),
 
+    getPage: (params: MachinePageParams) =>
+        api.get<ApiResponse<PageResponse<Machine>>>('/machines/page', { params }),
+
     getById: (id: number) =>
         api.get<ApiResponse<Machine>>(`/machines/${id}`),
 
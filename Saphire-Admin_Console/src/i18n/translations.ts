@@ -40,6 +40,9 @@ export const translations = {
             saveConfirmTitle: 'Save Confirmation',
             saveConfirmMessage: 'Are you sure you want to save these changes?',
             recordDeleted: 'Record deactivated successfully',
+            page: 'Page',
+            previous: 'Previous',
+            next: 'Next',
             // Placeholders
             select: 'Select...',
             enterName: 'Enter name',
@@ -112,6 +115,7 @@ export const translations = {
             description: 'Description',
             noLogs: 'No logs found',
             retrievedSuccess: 'Logs retrieved successfully',
+            loadMore: 'Load more',
         },
         // Dashboard
         dashboard: {
@@ -503,6 +507,9 @@ export const translations = {
             saveConfirmTitle: 'Kaydetme Onayı',
             saveConfirmMessage: 'Bu değişiklikleri kaydetmek istediğinize emin misiniz?',
             recordDeleted: 'Kayıt başarıyla deaktif edildi',
+            page: 'Sayfa',
+            previous: 'Geri',
+            next: 'İleri',
             // Placeholders
             select: 'Seçiniz...',
             enterName: 'Ad giriniz',
@@ -575,6 +582,7 @@ export const translations = {
             description: 'Açıklama',
             noLogs: 'Günlük bulunamadı',
             retrievedSuccess: 'Günlükler başarıyla getirildi',
+            loadMore: 'Daha fazla yükle',
         },
         // Dashboard
         dashboard: {
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react';
 import { useBlocker } from 'react-router-dom';
-import { Plus, Pencil, Trash2, Search, CheckCircle, XCircle, MapPin, Wrench, Activity, Cpu, Hash } from 'lucide-react';
+import { Plus, Pencil, Trash2, Search, CheckCircle, XCircle, MapPin, Wrench, Activity, Cpu, Hash, ChevronLeft, ChevronRight } from 'lucide-react';
 import { machineApi } from '../../api/machine.api';
 import type { Machine, MachineRequest } from '../../api/machine.api';
 import { locationApi } from '../../api/location.api';
@@ -23,6 +23,8 @@ const statusColors: Record<string, { bg: string; text: string; gradient: string
     OFFLINE: { bg: 'bg-gray-500/10', text: 'text-gray-500', gradient: 'from-gray-500 to-gray-600' },
 };
 
+const PAGE_SIZE = 20;
+
 export default function Machines() {
     const { t } = useLanguage();
     const [machines, setMachines] = useState<Machine[]>([]);
@@ -38,6 +40,9 @@ export default function Machines() {
     const [saving, setSaving] = useState(false);
     const [showSaveConfirm, setShowSaveConfirm] = useState(false);
     const [showInactive, setShowInactive] = useState(false);
+    const [page, setPage] = useState(0);
+    const [totalPages, setTotalPages] = useState(0);
+    const [totalElements, setTotalElements] = useState(0);
 
     // Delete confirmation state
     const [deleteTarget, setDeleteTarget] = useState<Machine | null>(null);
@@ -57,6 +62,7 @@ export default function Machines() {
     useEffect(() => {
         const handler = setTimeout(() => {
             setDebouncedSearch(search);
+            setPage(0);
         }, 500);
 
         return () => {
@@ -67,12 +73,17 @@ export default function Machines() {
     const fetchData = async () => {
         setLoading(true);
         try {
-            const [machRes, locRes] = await Promise.all([
-                machineApi.getAll(debouncedSearch),
-                locationApi.getAll()
-            ]);
-            setMachines(machRes.data.data || []);
-            setLocations(locRes.data.data || []);
+            const res = await machineApi.getPage({
+                locationId: filterLocation === '' ? undefined : filterLocation,
+                search: debouncedSearch || undefined,
+                includeInactive: showInactive,
+                page,
+                size: PAGE_SIZE,
+            });
+            const result = res.data.data;
+            setMachines(result?.content || []);
+            setTotalPages(result?.totalPages || 0);
+            setTotalElements(result?.totalElements || 0);
         } catch (error) {
             console.error('Failed to fetch:', error);
         } finally {
@@ -80,9 +91,15 @@ export default function Machines() {
         }
     };
 
+    useEffect(() => {
+        locationApi.getAll()
+            .then((res) => setLocations(res.data.data || []))
+            .catch((error) => console.error('Failed to fetch locations:', error));
+    }, []);
+
     useEffect(() => {
         fetchData();
-    }, [debouncedSearch]);
+    }, [debouncedSearch, filterLocation, showInactive, page]);
 
     const handleAdd = () => {
         setEditItem(null);
@@ -146,12 +163,6 @@ export default function Machines() {
         finally { setSaving(false); }
     };
 
-    const filtered = machines.filter((m) => {
-        const matchesLocation = filterLocation === '' || m.locationId === filterLocation;
-        const matchesActive = showInactive || m.active;
-        return matchesLocation && matchesActive;
-    });
-
     return (
         <div className="space-y-4">
             {!showForm ? (
@@ -164,14 +175,14 @@ export default function Machines() {
                                     className="pl-10 pr-4 py-2 bg-[var(--color-surface)] border border-[var(--color-border)] rounded-lg text-sm focus:outline-none focus:ring-2 focus:ring-teal-500 w-64 h-[40px]" />
                             </div>
                             <div className="relative">
-                                <select value={filterLocation} onChange={(e) => setFilterLocation(e.target.value === '' ? '' : Number(e.target.value))}
+                                <select value={filterLocation} onChange={(e) => { setFilterLocation(e.target.value === '' ? '' : Number(e.target.value)); setPage(0); }}
                                     className="pl-4 pr-10 py-2 bg-[var(--color-surface)] border border-[var(--color-border)] rounded-lg text-sm focus:outline-none focus:ring-2 focus:ring-teal-500 h-[40px] appearance-none">
                                     <option value="">{t.machines.allLocations}</option>
                                     {locations.map((l) => <option key={l.id} value={l.id}>{l.name}</option>)}
                                 </select>
                             </div>
                             <button
-                                onClick={() => setShowInactive(!showInactive)}
+                                onClick={() => { setShowInactive(!showInactive); setPage(0); }}
                                 className={`flex items-center gap-2 px-3 py-2 rounded-lg border transition-all h-[40px] text-xs font-medium ${showInactive
                                     ? 'bg-teal-500/10 border-teal-500 text-teal-600 shadow-sm'
                                     : 'bg-[var(--color-surface)] border-[var(--color-border)] text-[var(--color-text-secondary)] hover:border-teal-500/50'
@@ -203,10 +214,10 @@ export default function Machines() {
                             <tbody className="divide-y divide-[var(--color-border)]">
                                 {loading ? (
                                     <tr><td colSpan={8} className="px-6 py-8 text-center text-[var(--color-text-secondary)]">{t.common.loading}</td></tr>
-                                ) : filtered.length === 0 ? (
+                                ) : machines.length === 0 ? (
                                     <tr><td colSpan={8} className="px-6 py-8 text-center text-[var(--color-text-secondary)]">{t.machines.noMachines}</td></tr>
                                 ) : (
-                                    filtered.map((machine) => {
+                                    machines.map((machine) => {
                                         const currentStatus = machine.status?.currentStatus || 'OFFLINE';
                                         const statusStyle = statusColors[currentStatus] || statusColors.OFFLINE;
                                         return (
@@ -242,6 +253,21 @@ export default function Machines() {
                                 )}
                             </tbody>
                         </table>
+                        {totalPages > 1 && (
+                            <div className="flex items-center justify-between px-6 py-3 border-t border-[var(--color-border)] text-sm text-[var(--color-text-secondary)]">
+                                <span>{t.common.page} {page + 1} / {totalPages} ({totalElements})</span>
+                                <div className="flex items-center gap-2">
+                                    <button onClick={() => setPage(page - 1)} disabled={page === 0}
+                                        className="flex items-center gap-1 px-3 py-1.5 rounded-lg border border-[var(--color-border)] hover:border-teal-500/50 disabled:opacity-40 disabled:cursor-not-allowed">
+                                        <ChevronLeft size={14} />{t.common.previous}
+                                    </button>
+                                    <button onClick={() => setPage(page + 1)} disabled={page + 1 >= totalPages}
+                                        className="flex items-center gap-1 px-3 py-1.5 rounded-lg border border-[var(--color-border)] hover:border-teal-500/50 disabled:opacity-40 disabled:cursor-not-allowed">
+                                        {t.common.next}<ChevronRight size={14} />
+                                    </button>
+                                </div>
+                            </div>
+                        )}
                     </div>
                 </>
             ) : (
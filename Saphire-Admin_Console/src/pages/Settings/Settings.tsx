@@ -10,6 +10,8 @@ interface ErrorLog {
     sourceClass: string;
     description: string;
     timestamp: string;
+    occurrences?: number;
+    lastSeen?: string;
 }
 
 export default function Settings() {
@@ -27,23 +29,25 @@ export default function Settings() {
     // Logs state
     const [logs, setLogs] = useState<ErrorLog[]>([]);
     const [isLoadingLogs, setIsLoadingLogs] = useState(true);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+
+    const fetchLogs = async (cursor?: string) => {
+        setIsLoadingLogs(true);
+        try {
+            const response = await api.get('/system/logs', { params: { size: 50, cursor } });
+            const page = response.data.data;
+            const items: ErrorLog[] = Array.isArray(page?.items) ? page.items : [];
+            setLogs(prev => (cursor ? [...prev, ...items] : items));
+            setNextCursor(page?.hasMore ? page.nextCursor : null);
+        } catch (error) {
+            console.error('Failed to fetch logs:', error);
+        } finally {
+            setIsLoadingLogs(false);
+        }
+    };
 
     useEffect(() => {
         if (activeTab === 'logs') {
-            setIsLoadingLogs(true);
-            const fetchLogs = async () => {
-                try {
-                    const response = await api.get('/system/logs');
-                    const sortedLogs = Array.isArray(response.data.data)
-                        ? [...response.data.data].sort((a, b) => new Date(b.timestamp).getTime() - new Date(a.timestamp).getTime())
-                        : [];
-                    setLogs(sortedLogs);
-                } catch (error) {
-                    console.error('Failed to fetch logs:', error);
-                } finally {
-                    setIsLoadingLogs(false);
-                }
-            };
             fetchLogs();
         }
     }, [activeTab]);
@@ -276,7 +280,7 @@ export default function Settings() {
                                     </tr>
                                 </thead>
                                 <tbody className="divide-y divide-[var(--color-border)] bg-[var(--color-surface)]">
-                                    {isLoadingLogs ? (
+                                    {isLoadingLogs && logs.length === 0 ? (
                                         <tr>
                                             <td colSpan={6} className="px-8 py-20 text-center">
                                                 <div className="flex flex-col items-center gap-4">
@@ -350,6 +354,9 @@ export default function Settings() {
                                                                         <div className="flex items-center gap-3">
                                                                             <span className="px-2 py-0.5 bg-red-500/10 rounded text-[9px] font-bold text-red-500 border border-red-500/20">EVENT ID: {log.id}</span>
                                                                             <span className="px-2 py-0.5 bg-red-500/10 rounded text-[9px] font-bold text-red-500 border border-red-500/20">IP: {log.ipAddress}</span>
+                                                                            {(log.occurrences ?? 1) > 1 && (
+                                                                                <span className="px-2 py-0.5 bg-red-500/10 rounded text-[9px] font-bold text-red-500 border border-red-500/20" title={log.lastSeen}>x{log.occurrences}</span>
+                                                                            )}
                                                                         </div>
                                                                     </div>
                                                                     <div className="p-5 bg-[var(--color-bg-secondary)] rounded-xl border border-[var(--color-border)] font-mono text-sm text-[var(--color-text)] leading-loose whitespace-pre-wrap break-all border-l-4 border-red-500 shadow-inner overflow-hidden">
@@ -365,6 +372,17 @@ export default function Settings() {
                                     )}
                                 </tbody>
                             </table>
+                            {nextCursor && (
+                                <div className="flex justify-center py-4 border-t border-[var(--color-border)]">
+                                    <button
+                                        onClick={() => fetchLogs(nextCursor)}
+                                        disabled={isLoadingLogs}
+                                        className="px-5 py-2 rounded-xl text-sm font-bold text-red-500 bg-red-500/5 hover:bg-red-500/10 transition-all disabled:opacity-50"
+                                    >
+                                        {isLoadingLogs ? t.common.loading : t.systemLogs.loadMore}
+                                    </button>
+                                </div>
+                            )}
                         </div>
                     </div>
                 </div>
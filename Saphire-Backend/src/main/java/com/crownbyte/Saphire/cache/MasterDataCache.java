@@ -0,0 +1,72 @@
+package com.crownbyte.Saphire.cache;
+
+import com.crownbyte.Saphire.entity.base.CacheRegions;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hit/miss view and manual eviction of the master data second-level cache.
+ * Writes through JPA keep the cache consistent on their own; eviction is for
+ * changes made behind Hibernate's back, e.g. SQL fixes or bulk imports.
+ */
+@Slf4j
+public class MasterDataCache {
+
+    private static final List<String> ENTITY_REGIONS = List.of(CacheRegions.MASTER_DATA, CacheRegions.QC_TEMPLATES);
+
+    private final SessionFactory sessionFactory;
+
+    public MasterDataCache(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public List<RegionSnapshot> regions() {
+        Statistics statistics = sessionFactory.getStatistics();
+        List<RegionSnapshot> regions = new ArrayList<>();
+        for (String region : ENTITY_REGIONS) {
+            regions.add(snapshot(region, statistics.getDomainDataRegionStatistics(region)));
+        }
+        String queryRegion = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+        CacheRegionStatistics queries = statistics.getQueryRegionStatistics(queryRegion);
+        if (queries != null) {
+            regions.add(snapshot(queryRegion, queries));
+        }
+        return regions;
+    }
+
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        log.info("Master data cache evicted");
+    }
+
+    private static RegionSnapshot snapshot(String region, CacheRegionStatistics statistics) {
+        long hits = statistics.getHitCount();
+        long misses = statistics.getMissCount();
+        return RegionSnapshot.builder()
+                .region(region)
+                .hits(hits)
+                .misses(misses)
+                .puts(statistics.getPutCount())
+                .hitRatio(hits + misses > 0 ? (double) hits / (hits + misses) : 0)
+                .build();
+    }
+
+    @Getter
+    @Builder
+    public static class RegionSnapshot {
+        private String region;
+        private long hits;
+        private long misses;
+        private long puts;
+        private double hitRatio;
+    }
+}
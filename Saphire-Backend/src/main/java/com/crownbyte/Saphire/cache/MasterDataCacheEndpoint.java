@@ -0,0 +1,29 @@
+package com.crownbyte.Saphire.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/mastercache}: hits, misses and puts per cache region; DELETE
+ * drops every cached entity, collection and query result.
+ */
+@Endpoint(id = "mastercache")
+@RequiredArgsConstructor
+public class MasterDataCacheEndpoint {
+
+    private final MasterDataCache cache;
+
+    @ReadOperation
+    public List<MasterDataCache.RegionSnapshot> regions() {
+        return cache.regions();
+    }
+
+    @DeleteOperation
+    public void evict() {
+        cache.evictAll();
+    }
+}
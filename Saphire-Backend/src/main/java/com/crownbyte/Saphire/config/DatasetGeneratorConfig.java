@@ -0,0 +1,22 @@
+package com.crownbyte.Saphire.config;
+
+import com.crownbyte.Saphire.datagen.DatasetSpec;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Synthetic dataset generation, active only with the {@code datagen} profile.
+ * The spec has too many knobs for individual {@code @Value}s, so it is bound as a whole.
+ */
+@Configuration
+@Profile("datagen")
+public class DatasetGeneratorConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "app.datagen")
+    public DatasetSpec datasetSpec() {
+        return new DatasetSpec();
+    }
+}
@@ -0,0 +1,67 @@
+package com.crownbyte.Saphire.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+/**
+ * Request execution mode. Setting {@code spring.threads.virtual.enabled=true} runs
+ * Tomcat requests on virtual threads when the JVM is 21 or newer; on older JVMs the
+ * flag is ignored and requests stay on the platform thread pool.
+ * <p>
+ * In virtual mode API requests additionally need a permit sized from the Hikari
+ * pool, see {@link ConnectionPermitFilter}.
+ */
+@Configuration
+@Slf4j
+public class ExecutionModeConfig {
+
+    /**
+     * Runs after the security chain so unauthenticated requests never take a permit.
+     */
+    private static final int PERMIT_FILTER_ORDER = 0;
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public FilterRegistrationBean<ConnectionPermitFilter> connectionPermitFilter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${app.execution.db-permits:0}") int configuredPermits,
+            @Value("${app.execution.permit-timeout-ms:2000}") long acquireTimeoutMillis,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        // Not every request holds a connection for its whole duration, so allow
+        // a little more concurrency than the pool has connections.
+        int permits = configuredPermits > 0 ? configuredPermits : poolSize * 2;
+        log.info("Virtual threads enabled; limiting concurrent API requests to {} (pool size {})",
+                permits, poolSize);
+
+        FilterRegistrationBean<ConnectionPermitFilter> registration = new FilterRegistrationBean<>(
+                new ConnectionPermitFilter(permits, acquireTimeoutMillis, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(PERMIT_FILTER_ORDER);
+        return registration;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void logExecutionMode(ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        if (Threading.VIRTUAL.isActive(environment)) {
+            log.info("Request execution mode: virtual threads");
+        } else if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            log.warn("spring.threads.virtual.enabled is set but the JVM is {}; virtual threads need Java 21+, "
+                    + "using platform threads", JavaVersion.getJavaVersion());
+        } else {
+            log.info("Request execution mode: platform threads");
+        }
+    }
+}
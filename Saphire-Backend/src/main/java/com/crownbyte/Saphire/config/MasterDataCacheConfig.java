@@ -0,0 +1,86 @@
+package com.crownbyte.Saphire.config;
+
+import com.crownbyte.Saphire.cache.MasterDataCache;
+import com.crownbyte.Saphire.cache.MasterDataCacheEndpoint;
+import com.crownbyte.Saphire.entity.base.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache for master data, held in local
+ * size-bounded Caffeine caches. Entities opt in with {@code @Cache} and one of
+ * the {@link CacheRegions}. JPA writes update the cache transactionally
+ * (READ_WRITE); the TTL bounds staleness from writes Hibernate cannot see,
+ * such as other instances or manual SQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.master-data-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class MasterDataCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager masterDataCacheManager(
+            @Value("${app.master-data-cache.max-master-data:20000}") long maxMasterData,
+            @Value("${app.master-data-cache.max-template-entries:200000}") long maxTemplateEntries,
+            @Value("${app.master-data-cache.max-template-versions:5000}") long maxTemplateVersions,
+            @Value("${app.master-data-cache.max-queries:10000}") long maxQueries,
+            @Value("${app.master-data-cache.ttl-minutes:10}") long ttlMinutes) {
+        // Own provider instance, so several application contexts in one JVM never share entries
+        CacheManager cacheManager = new CaffeineCachingProvider().getCacheManager();
+        Duration ttl = Duration.ofMinutes(ttlMinutes);
+        cacheManager.createCache(CacheRegions.MASTER_DATA, bounded(maxMasterData, ttl));
+        cacheManager.createCache(CacheRegions.QC_TEMPLATES, bounded(maxTemplateEntries, ttl));
+        // Published versions never change, so they are only evicted for size
+        cacheManager.createCache(CacheRegions.QC_TEMPLATE_VERSIONS, bounded(maxTemplateVersions, null));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(maxQueries, ttl));
+        // One entry per table; must outlive every cached query result, so neither bounded nor expiring
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer masterDataCacheProperties(CacheManager masterDataCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, masterDataCacheManager);
+            // A region without a cache above would be unbounded; refuse to start instead
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            // Hit/miss counters behind the hibernate.second.level.cache.* metrics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    @Bean
+    public MasterDataCache masterDataCache(EntityManagerFactory entityManagerFactory) {
+        return new MasterDataCache(entityManagerFactory);
+    }
+
+    @Bean
+    public MasterDataCacheEndpoint masterDataCacheEndpoint(MasterDataCache masterDataCache) {
+        return new MasterDataCacheEndpoint(masterDataCache);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maximumSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -1,5 +1,6 @@
 package com.crownbyte.Saphire.config;
 
+import com.crownbyte.Saphire.security.AdaptivePasswordEncoderFactory;
 import com.crownbyte.Saphire.security.JwtAuthenticationFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
@@ -14,8 +15,8 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -35,6 +36,18 @@ public class SecurityConfig {
     @org.springframework.beans.factory.annotation.Value("${app.security.cors.allowed-origins}")
     private List<String> allowedOrigins;
 
+    @org.springframework.beans.factory.annotation.Value("${app.security.password.strength:12}")
+    private int passwordStrength;
+
+    @org.springframework.beans.factory.annotation.Value("${app.security.password.target-hash-ms:250}")
+    private long passwordTargetHashMillis;
+
+    @org.springframework.beans.factory.annotation.Value("${app.security.password.min-strength:10}")
+    private int passwordMinStrength;
+
+    @org.springframework.beans.factory.annotation.Value("${app.security.password.max-strength:14}")
+    private int passwordMaxStrength;
+
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
 
@@ -50,6 +63,7 @@ public class SecurityConfig {
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/**").permitAll()
                         .requestMatchers("/api/v1/auth/**", "/api/auth/**").permitAll()
                         .requestMatchers("/error").permitAll()
+                        .requestMatchers("/actuator/sqlhotspots/**", "/actuator/mastercache/**").hasRole("ADMIN")
                         .requestMatchers("/actuator/**").permitAll()
 
                         // Swagger/OpenAPI - if you add later
@@ -65,7 +79,8 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return AdaptivePasswordEncoderFactory.create(passwordStrength, passwordTargetHashMillis,
+                passwordMinStrength, passwordMaxStrength);
     }
 
     @Bean
@@ -73,6 +88,10 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rewrites hashes with an outdated algorithm or cost after a successful login
+        if (userDetailsService instanceof UserDetailsPasswordService passwordService) {
+            authProvider.setUserDetailsPasswordService(passwordService);
+        }
         return authProvider;
     }
 
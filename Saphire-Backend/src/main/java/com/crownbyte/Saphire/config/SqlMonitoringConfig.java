@@ -0,0 +1,71 @@
+package com.crownbyte.Saphire.config;
+
+import com.crownbyte.Saphire.monitoring.InstrumentedDataSource;
+import com.crownbyte.Saphire.monitoring.SqlAccountingAspect;
+import com.crownbyte.Saphire.monitoring.SqlAccountingFilter;
+import com.crownbyte.Saphire.monitoring.SqlHotspotRegistry;
+import com.crownbyte.Saphire.monitoring.SqlHotspotsEndpoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request and per-service-method SQL accounting. Wraps the application
+ * DataSource so statements, rows and time are attributed to the request or
+ * service call that issued them; see {@code /actuator/sqlhotspots}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-monitoring.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlMonitoringConfig {
+
+    /**
+     * Ahead of the security chain so user lookups during authentication are counted.
+     */
+    private static final int SQL_FILTER_ORDER = SecurityProperties.DEFAULT_FILTER_ORDER - 1;
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof InstrumentedDataSource)) {
+                    return new InstrumentedDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public SqlHotspotRegistry sqlHotspotRegistry(
+            MeterRegistry meterRegistry,
+            @Value("${app.sql-monitoring.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+        return new SqlHotspotRegistry(meterRegistry, nPlusOneThreshold);
+    }
+
+    @Bean
+    public SqlAccountingAspect sqlAccountingAspect(SqlHotspotRegistry registry) {
+        return new SqlAccountingAspect(registry);
+    }
+
+    @Bean
+    public SqlHotspotsEndpoint sqlHotspotsEndpoint(SqlHotspotRegistry registry) {
+        return new SqlHotspotsEndpoint(registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlAccountingFilter> sqlAccountingFilter(SqlHotspotRegistry registry) {
+        FilterRegistrationBean<SqlAccountingFilter> registration =
+                new FilterRegistrationBean<>(new SqlAccountingFilter(registry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SQL_FILTER_ORDER);
+        return registration;
+    }
+}
@@ -6,12 +6,16 @@ import com.crownbyte.Saphire.dto.response.ApiResponse;
 import com.crownbyte.Saphire.dto.response.LoginResponse;
 import com.crownbyte.Saphire.dto.response.UserResponse;
 import com.crownbyte.Saphire.security.JwtService;
+import com.crownbyte.Saphire.security.LoginAttemptGuard;
 import com.crownbyte.Saphire.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,15 +29,28 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserService userService;
+    private final LoginAttemptGuard loginAttemptGuard;
 
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+            HttpServletRequest httpRequest) {
+        // The peer address; only behind a configured proxy the forwarded one (TRUSTED_PROXIES)
+        String ipAddress = httpRequest.getRemoteAddr();
+        long retryAfter = loginAttemptGuard.retryAfterSeconds(request.getUsername(), ipAddress);
+        if (retryAfter > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                    .body(ApiResponse.error("Too many failed login attempts. Try again in " + retryAfter + " seconds"));
+        }
+
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getUsername(),
                             request.getPassword()));
 
+            loginAttemptGuard.recordSuccess(request.getUsername());
+
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
             String token = jwtService.generateToken(userDetails);
 
@@ -49,6 +66,10 @@ public class AuthController {
 
             return ResponseEntity.ok(ApiResponse.success("Login successful", loginResponse));
 
+        } catch (BadCredentialsException e) {
+            loginAttemptGuard.recordFailure(request.getUsername(), ipAddress);
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Invalid username or password"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Invalid username or password"));
@@ -0,0 +1,29 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.RouteStepCycleTimeResponse;
+import com.crownbyte.Saphire.service.CycleTimeService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/cycle-times")
+@RequiredArgsConstructor
+public class CycleTimeController {
+
+    private final CycleTimeService cycleTimeService;
+
+    @GetMapping("/route-steps/{routeStepId}")
+    public ResponseEntity<ApiResponse<RouteStepCycleTimeResponse>> getRouteStepCycleTimes(
+            @PathVariable Long routeStepId) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(cycleTimeService.getRouteStepCycleTimes(routeStepId)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.DispatchQueueResponse;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.FinishedStepResponse;
+import com.crownbyte.Saphire.security.SaphireUserDetails;
+import com.crownbyte.Saphire.service.DispatchService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/dispatch")
+@RequiredArgsConstructor
+public class DispatchController {
+
+    private final DispatchService dispatchService;
+
+    /** Starts the next pending step of the machine for the calling operator. */
+    @PostMapping("/machines/{machineId}/claim")
+    public ResponseEntity<ApiResponse<DispatchedStepResponse>> claimNext(
+            @PathVariable Long machineId,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        if (user == null || !user.canAccessMachine(machineId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Not assigned to machine: " + machineId));
+        }
+        try {
+            return dispatchService.claimNext(machineId, user.getId())
+                    .map(step -> ResponseEntity.ok(ApiResponse.success("Step claimed", step)))
+                    .orElse(ResponseEntity.ok(ApiResponse.success("No pending step for machine: " + machineId,
+                            null)));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /** Closes a step running on the machine as COMPLETED or FAILED. */
+    @PostMapping("/machines/{machineId}/steps/{stepId}/finish")
+    public ResponseEntity<ApiResponse<FinishedStepResponse>> finishStep(
+            @PathVariable Long machineId,
+            @PathVariable Long stepId,
+            @Valid @RequestBody ProductionStepUpdateRequest request,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        if (user == null || !user.canAccessMachine(machineId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Not assigned to machine: " + machineId));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Step finished",
+                    dispatchService.finishStep(machineId, stepId, request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /** Queue depth and the next {@code limit} jobs (default 1) of a location. */
+    @GetMapping("/locations/{locationId}/queue")
+    public ResponseEntity<ApiResponse<DispatchQueueResponse>> getLocationQueue(
+            @PathVariable Long locationId,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        if (user == null || !user.canAccessLocation(locationId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Not assigned to location: " + locationId));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success(dispatchService.getLocationQueue(locationId, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/machines/{machineId}/queue")
+    public ResponseEntity<ApiResponse<DispatchQueueResponse>> getMachineQueue(
+            @PathVariable Long machineId,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        if (user == null || !user.canAccessMachine(machineId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Not assigned to machine: " + machineId));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success(dispatchService.getMachineQueue(machineId, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
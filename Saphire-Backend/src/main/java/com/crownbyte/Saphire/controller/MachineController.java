@@ -3,6 +3,7 @@ package com.crownbyte.Saphire.controller;
 import com.crownbyte.Saphire.dto.request.MachineRequest;
 import com.crownbyte.Saphire.dto.response.ApiResponse;
 import com.crownbyte.Saphire.dto.response.MachineResponse;
+import com.crownbyte.Saphire.dto.response.PageResponse;
 import com.crownbyte.Saphire.service.MachineService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -24,6 +25,18 @@ public class MachineController {
         return ResponseEntity.ok(ApiResponse.success(machines));
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<ApiResponse<PageResponse<MachineResponse>>> getPage(
+            @RequestParam(required = false) Long locationId,
+            @RequestParam(required = false) String search,
+            @RequestParam(defaultValue = "false") boolean includeInactive,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        PageResponse<MachineResponse> machines = machineService.getPage(locationId, search, includeInactive, page,
+                size);
+        return ResponseEntity.ok(ApiResponse.success(machines));
+    }
+
     @GetMapping("/location/{locationId}")
     public ResponseEntity<ApiResponse<List<MachineResponse>>> getByLocationId(@PathVariable Long locationId) {
         List<MachineResponse> machines = machineService.getByLocationId(locationId);
@@ -0,0 +1,71 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.request.MachineStatusEventBatchRequest;
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.LiveMachineStatusResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusIngestResponse;
+import com.crownbyte.Saphire.service.MachineStatusService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/machine-status")
+@RequiredArgsConstructor
+public class MachineStatusController {
+
+    private final MachineStatusService machineStatusService;
+
+    @PostMapping("/events")
+    public ResponseEntity<ApiResponse<MachineStatusIngestResponse>> ingest(
+            @Valid @RequestBody MachineStatusEventBatchRequest request) {
+        try {
+            MachineStatusIngestResponse result = machineStatusService.ingest(request.getEvents());
+            return ResponseEntity.ok(ApiResponse.success(result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("Invalid machine status: " + e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/live")
+    public ResponseEntity<ApiResponse<List<LiveMachineStatusResponse>>> getLive(
+            @RequestParam(required = false) Long locationId) {
+        return ResponseEntity.ok(ApiResponse.success(machineStatusService.getLive(locationId)));
+    }
+
+    @GetMapping("/live/{machineId}")
+    public ResponseEntity<ApiResponse<LiveMachineStatusResponse>> getLiveByMachineId(@PathVariable Long machineId) {
+        return machineStatusService.getLiveByMachineId(machineId)
+                .map(state -> ResponseEntity.ok(ApiResponse.success(state)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("No live status for machine: " + machineId)));
+    }
+
+    @GetMapping("/history/{machineId}")
+    public ResponseEntity<ApiResponse<MachineStatusHistoryResponse>> getHistory(
+            @PathVariable Long machineId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer maxPoints) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(machineStatusService.getHistory(machineId, from, to,
+                    maxPoints)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
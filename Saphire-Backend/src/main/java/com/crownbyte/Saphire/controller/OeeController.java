@@ -0,0 +1,66 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.OeeResponse;
+import com.crownbyte.Saphire.oee.OeeGranularity;
+import com.crownbyte.Saphire.service.OeeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/oee")
+@RequiredArgsConstructor
+public class OeeController {
+
+    private final OeeService oeeService;
+
+    @GetMapping("/machines/{machineId}")
+    public ResponseEntity<ApiResponse<List<OeeResponse>>> getMachineOee(
+            @PathVariable Long machineId,
+            @RequestParam(required = false) String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            List<OeeResponse> periods = oeeService.getMachineOee(machineId, parseGranularity(granularity), from, to);
+            return ResponseEntity.ok(ApiResponse.success(periods));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/locations/{locationId}")
+    public ResponseEntity<ApiResponse<List<OeeResponse>>> getLocationOee(
+            @PathVariable Long locationId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(oeeService.getLocationOee(locationId, from, to)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    private static OeeGranularity parseGranularity(String granularity) {
+        if (granularity == null) {
+            return null;
+        }
+        try {
+            return OeeGranularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid granularity: " + granularity);
+        }
+    }
+}
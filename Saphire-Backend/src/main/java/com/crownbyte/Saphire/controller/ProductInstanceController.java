@@ -1,8 +1,10 @@
 package com.crownbyte.Saphire.controller;
 
 import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.WorkOrderRequest;
 import com.crownbyte.Saphire.dto.response.ApiResponse;
 import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderResponse;
 import com.crownbyte.Saphire.service.ProductInstanceService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -80,6 +82,20 @@ public class ProductInstanceController {
         }
     }
 
+    @PostMapping("/work-orders")
+    public ResponseEntity<ApiResponse<WorkOrderResponse>> createWorkOrder(
+            @Valid @RequestBody WorkOrderRequest request) {
+        try {
+            WorkOrderResponse workOrder = productInstanceService.createWorkOrder(request);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Work order created with " + workOrder.getQuantity() + " instances",
+                            workOrder));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PatchMapping("/{id}/status")
     public ResponseEntity<ApiResponse<ProductInstanceResponse>> updateStatus(
             @PathVariable Long id,
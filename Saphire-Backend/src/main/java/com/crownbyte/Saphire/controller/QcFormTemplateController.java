@@ -2,14 +2,20 @@ package com.crownbyte.Saphire.controller;
 
 import com.crownbyte.Saphire.dto.request.QcFormTemplateRequest;
 import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.QcFormFieldResponse;
+import com.crownbyte.Saphire.dto.response.QcFormHeaderFieldResponse;
+import com.crownbyte.Saphire.dto.response.QcFormSectionResponse;
 import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateSummaryResponse;
 import com.crownbyte.Saphire.service.QcFormTemplateService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/qc-templates")
@@ -30,6 +36,19 @@ public class QcFormTemplateController {
         return ResponseEntity.ok(ApiResponse.success(templates));
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<ApiResponse<List<QcFormTemplateSummaryResponse>>> getAllSummaries(
+            @RequestParam(required = false) String search) {
+        List<QcFormTemplateSummaryResponse> templates = templateService.getAllSummaries(search);
+        return ResponseEntity.ok(ApiResponse.success(templates));
+    }
+
+    @GetMapping("/active/summary")
+    public ResponseEntity<ApiResponse<List<QcFormTemplateSummaryResponse>>> getActiveSummaries() {
+        List<QcFormTemplateSummaryResponse> templates = templateService.getActiveSummaries();
+        return ResponseEntity.ok(ApiResponse.success(templates));
+    }
+
     @GetMapping("/company/{companyId}")
     public ResponseEntity<ApiResponse<List<QcFormTemplateResponse>>> getByCompanyId(@PathVariable Long companyId) {
         List<QcFormTemplateResponse> templates = templateService.getByCompanyId(companyId);
@@ -42,6 +61,13 @@ public class QcFormTemplateController {
         return ResponseEntity.ok(ApiResponse.success(templates));
     }
 
+    @GetMapping("/machine/{machineId}/summary")
+    public ResponseEntity<ApiResponse<List<QcFormTemplateSummaryResponse>>> getSummariesByMachineId(
+            @PathVariable Long machineId) {
+        List<QcFormTemplateSummaryResponse> templates = templateService.getSummariesByMachineId(machineId);
+        return ResponseEntity.ok(ApiResponse.success(templates));
+    }
+
     @GetMapping("/product/{productId}")
     public ResponseEntity<ApiResponse<List<QcFormTemplateResponse>>> getByProductId(@PathVariable Long productId) {
         List<QcFormTemplateResponse> templates = templateService.getByProductId(productId);
@@ -68,6 +94,43 @@ public class QcFormTemplateController {
                         .body(ApiResponse.error("QC Template not found with id: " + id)));
     }
 
+    @GetMapping("/{id}/header-fields")
+    public ResponseEntity<ApiResponse<List<QcFormHeaderFieldResponse>>> getHeaderFields(@PathVariable Long id) {
+        return templateService.getHeaderFields(id)
+                .map(headerFields -> ResponseEntity.ok(ApiResponse.success(headerFields)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("QC Template not found with id: " + id)));
+    }
+
+    @GetMapping("/{id}/sections")
+    public ResponseEntity<ApiResponse<List<QcFormSectionResponse>>> getSections(@PathVariable Long id) {
+        return templateService.getSections(id)
+                .map(sections -> ResponseEntity.ok(ApiResponse.success(sections)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("QC Template not found with id: " + id)));
+    }
+
+    @GetMapping("/{id}/sections/{sectionId}/fields")
+    public ResponseEntity<ApiResponse<List<QcFormFieldResponse>>> getSectionFields(@PathVariable Long id,
+            @PathVariable Long sectionId) {
+        return templateService.getSectionFields(id, sectionId)
+                .map(fields -> ResponseEntity.ok(ApiResponse.success(fields)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("QC Template " + id + " has no section " + sectionId)));
+    }
+
+    @GetMapping("/{id}/versions/{version}")
+    public ResponseEntity<ApiResponse<QcFormTemplateResponse>> getVersion(@PathVariable Long id,
+            @PathVariable Integer version) {
+        return templateService.getVersion(id, version)
+                .map(template -> ResponseEntity.ok()
+                        .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate().immutable())
+                        .eTag("\"qc-template-" + id + "-v" + version + "\"")
+                        .body(ApiResponse.success(template)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("QC Template " + id + " has no version " + version)));
+    }
+
     @GetMapping("/code/{code}")
     public ResponseEntity<ApiResponse<QcFormTemplateResponse>> getByCode(@PathVariable String code) {
         return templateService.getByCode(code)
@@ -0,0 +1,56 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.InstanceScheduleResponse;
+import com.crownbyte.Saphire.dto.response.MachineScheduleResponse;
+import com.crownbyte.Saphire.security.SaphireUserDetails;
+import com.crownbyte.Saphire.service.ScheduleService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/schedule")
+@RequiredArgsConstructor
+public class ScheduleController {
+
+    private final ScheduleService scheduleService;
+
+    /** Depth, projected free time and the next {@code limit} planned steps (default 20) of a machine. */
+    @GetMapping("/machines/{machineId}")
+    public ResponseEntity<ApiResponse<MachineScheduleResponse>> getMachineSchedule(
+            @PathVariable Long machineId,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        if (user == null || !user.canAccessMachine(machineId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ApiResponse.error("Not assigned to machine: " + machineId));
+        }
+        try {
+            return ResponseEntity.ok(ApiResponse.success(scheduleService.getMachineSchedule(machineId, limit)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/instances/{productInstanceId}")
+    public ResponseEntity<ApiResponse<InstanceScheduleResponse>> getInstanceSchedule(
+            @PathVariable Long productInstanceId,
+            @AuthenticationPrincipal SaphireUserDetails user) {
+        try {
+            InstanceScheduleResponse schedule = scheduleService.getInstanceSchedule(productInstanceId);
+            if (user == null || !user.canAccessLocation(schedule.getLocationId())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(ApiResponse.error("Not assigned to location: " + schedule.getLocationId()));
+            }
+            return ResponseEntity.ok(ApiResponse.success(schedule));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
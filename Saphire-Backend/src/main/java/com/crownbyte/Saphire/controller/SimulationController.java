@@ -0,0 +1,32 @@
+package com.crownbyte.Saphire.controller;
+
+import com.crownbyte.Saphire.dto.request.SimulationRequest;
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.SimulationResponse;
+import com.crownbyte.Saphire.service.SimulationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/simulations")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPERVISOR')")
+public class SimulationController {
+
+    private final SimulationService simulationService;
+
+    /** What-if run of a hypothetical order mix against the work on the floor. */
+    @PostMapping
+    public ResponseEntity<ApiResponse<SimulationResponse>> simulate(@Valid @RequestBody SimulationRequest request) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(simulationService.simulate(request)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -1,14 +1,21 @@
 package com.crownbyte.Saphire.controller;
 
 import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.CursorPageResponse;
+import com.crownbyte.Saphire.dto.response.ErrorLogHourlyCountResponse;
 import com.crownbyte.Saphire.entity.SystemErrorLog;
 import com.crownbyte.Saphire.service.SystemErrorLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,7 +27,33 @@ public class SystemErrorLogController {
     private final SystemErrorLogService errorLogService;
 
     @GetMapping
-    public ApiResponse<List<SystemErrorLog>> getLogs() {
-        return ApiResponse.success("Logs retrieved successfully", errorLogService.getAllLogs());
+    public ResponseEntity<ApiResponse<CursorPageResponse<SystemErrorLog>>> getLogs(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sourceClass,
+            @RequestParam(required = false) String ipAddress,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPageResponse<SystemErrorLog> logs = errorLogService.getLogs(from, to, sourceClass, ipAddress,
+                    cursor, size);
+            return ResponseEntity.ok(ApiResponse.success("Logs retrieved successfully", logs));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/hourly")
+    public ResponseEntity<ApiResponse<List<ErrorLogHourlyCountResponse>>> getHourlyCounts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String sourceClass) {
+        try {
+            return ResponseEntity.ok(ApiResponse.success(errorLogService.getHourlyCounts(from, to, sourceClass)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
     }
 }
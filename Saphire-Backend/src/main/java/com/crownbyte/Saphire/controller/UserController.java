@@ -8,12 +8,14 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
+@Validated
 public class UserController {
 
     private final UserService userService;
@@ -77,6 +79,19 @@ public class UserController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<ApiResponse<List<UserResponse>>> createAll(
+            @RequestBody List<@Valid UserRequest> requests) {
+        try {
+            List<UserResponse> users = userService.createAll(requests);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success(users.size() + " users imported successfully", users));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResponse>> update(
             @PathVariable Long id,
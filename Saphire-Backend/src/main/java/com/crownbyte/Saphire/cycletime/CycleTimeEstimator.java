@@ -0,0 +1,193 @@
+package com.crownbyte.Saphire.cycletime;
+
+import com.crownbyte.Saphire.planning.PlanStep;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Learned cycle times per route step and machine, from the start and finish times of
+ * completed production steps, in place of the hand-entered setup and cycle minutes.
+ * <p>
+ * The statistics are rebuilt from the last {@code window} completed steps of each
+ * route step and machine on startup and every {@code refresh-interval-ms}, and steps
+ * finished through dispatch are added as they complete. Samples added while a rebuild
+ * is loading are replayed onto it unless it already read them. Each route step also
+ * has pooled statistics over all of its machines, used for machines without enough
+ * history of their own.
+ * <p>
+ * Planning takes the moving average once there are {@code min-samples}; until then
+ * the route step's estimated setup plus cycle minutes stay in use.
+ */
+@Component
+@Slf4j
+public class CycleTimeEstimator {
+
+    private final CycleTimeStore store;
+    private final int window;
+    private final int minSamples;
+    private final double alpha;
+    private final double outlierFactor;
+    private final int lookbackDays;
+    private final Object refreshLock = new Object();
+    private final Timer refreshTimer;
+
+    /** Keyed by route step and machine; a null machine is the route step's pooled window. Guarded by {@code this}. */
+    private Map<Key, CycleTimeWindow> windows = new HashMap<>();
+    /** Samples added while a rebuild is loading. Guarded by {@code this}. */
+    private List<CycleTimeStore.Sample> journal;
+
+    public CycleTimeEstimator(
+            CycleTimeStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.cycle-time.window:200}") int window,
+            @Value("${app.cycle-time.min-samples:5}") int minSamples,
+            @Value("${app.cycle-time.ewma-alpha:0.2}") double alpha,
+            @Value("${app.cycle-time.outlier-factor:3}") double outlierFactor,
+            @Value("${app.cycle-time.lookback-days:180}") int lookbackDays) {
+        this.store = store;
+        this.window = window;
+        this.minSamples = minSamples;
+        this.alpha = alpha;
+        this.outlierFactor = outlierFactor;
+        this.lookbackDays = lookbackDays;
+        this.refreshTimer = Timer.builder("saphire.cycle-time.refresh")
+                .description("Rebuilds of the learned cycle times")
+                .register(meterRegistry);
+        meterRegistry.gauge("saphire.cycle-time.windows", this, CycleTimeEstimator::size);
+    }
+
+    /** Runs before the capacity plan is first built, so it starts out with learned durations. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void load() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${app.cycle-time.refresh-interval-ms:3600000}",
+            initialDelayString = "${app.cycle-time.refresh-interval-ms:3600000}")
+    public void refresh() {
+        synchronized (refreshLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            try {
+                Timer.Sample timing = Timer.start();
+                List<CycleTimeStore.Sample> samples = store.loadRecentSamples(
+                        LocalDateTime.now().minusDays(lookbackDays), window);
+                Map<Key, CycleTimeWindow> next = new HashMap<>();
+                Set<Long> loaded = new HashSet<>(samples.size() * 2);
+                samples.forEach(sample -> {
+                    add(next, sample);
+                    loaded.add(sample.getStepId());
+                });
+                synchronized (this) {
+                    journal.stream().filter(sample -> !loaded.contains(sample.getStepId()))
+                            .forEach(sample -> add(next, sample));
+                    journal = null;
+                    windows = next;
+                }
+                timing.stop(refreshTimer);
+                log.info("Learned cycle times of {} route step machines from {} completed steps",
+                        next.keySet().stream().filter(key -> key.machineId() != null).count(), samples.size());
+            } catch (Exception e) {
+                synchronized (this) {
+                    journal = null;
+                }
+                log.error("Failed to learn cycle times: {}", e.getMessage());
+            }
+        }
+    }
+
+    /** Adds a completed step; call once its transaction has committed. */
+    public synchronized void stepCompleted(Long stepId, Long routeStepId, Long machineId, LocalDateTime startedAt,
+            LocalDateTime finishedAt) {
+        if (startedAt == null || !finishedAt.isAfter(startedAt)) {
+            return;
+        }
+        CycleTimeStore.Sample sample = new CycleTimeStore.Sample(stepId, routeStepId, machineId, startedAt,
+                finishedAt);
+        add(windows, sample);
+        if (journal != null) {
+            journal.add(sample);
+        }
+    }
+
+    /** Statistics of the route step on the machine, or pooled over its machines for a null machine. */
+    public synchronized CycleTimeStats stats(Long routeStepId, Long machineId) {
+        CycleTimeWindow stats = windows.get(new Key(routeStepId, machineId));
+        return stats != null ? stats.snapshot(routeStepId, machineId) : null;
+    }
+
+    /** The route step's pooled statistics first, then those of each machine it ran on. */
+    public synchronized List<CycleTimeStats> routeStepStats(Long routeStepId) {
+        List<CycleTimeStats> result = new ArrayList<>();
+        CycleTimeStats pooled = stats(routeStepId, null);
+        if (pooled == null) {
+            return result;
+        }
+        result.add(pooled);
+        windows.entrySet().stream()
+                .filter(entry -> entry.getKey().routeStepId().equals(routeStepId) && entry.getKey().machineId() != null)
+                .sorted(Map.Entry.comparingByKey((a, b) -> a.machineId().compareTo(b.machineId())))
+                .forEach(entry -> result.add(entry.getValue().snapshot(routeStepId, entry.getKey().machineId())));
+        return result;
+    }
+
+    /**
+     * Learned minutes of the route step on the machine, else pooled over its machines;
+     * null while neither has enough samples.
+     */
+    public synchronized Integer estimateMinutes(Long routeStepId, Long machineId) {
+        CycleTimeWindow stats = machineId != null ? windows.get(new Key(routeStepId, machineId)) : null;
+        if (stats == null || !stats.isEstimable()) {
+            stats = windows.get(new Key(routeStepId, null));
+        }
+        return stats != null && stats.isEstimable() ? stats.plannedMinutes() : null;
+    }
+
+    /** The steps with their learned durations, where there are any. */
+    public synchronized List<PlanStep> estimate(Collection<PlanStep> steps) {
+        List<PlanStep> result = new ArrayList<>(steps.size());
+        for (PlanStep step : steps) {
+            Integer minutes = estimateMinutes(step.getRouteStepId(), step.getMachineId());
+            result.add(minutes != null ? step.withDurationMinutes(minutes) : step);
+        }
+        return result;
+    }
+
+    public synchronized int size() {
+        return windows.size();
+    }
+
+    private void add(Map<Key, CycleTimeWindow> into, CycleTimeStore.Sample sample) {
+        int seconds = (int) Math.min(Duration.between(sample.getStartedAt(), sample.getFinishedAt()).getSeconds(),
+                Integer.MAX_VALUE);
+        window(into, new Key(sample.getRouteStepId(), sample.getMachineId())).add(seconds, sample.getFinishedAt());
+        window(into, new Key(sample.getRouteStepId(), null)).add(seconds, sample.getFinishedAt());
+    }
+
+    private CycleTimeWindow window(Map<Key, CycleTimeWindow> into, Key key) {
+        return into.computeIfAbsent(key, k -> new CycleTimeWindow(window, alpha, outlierFactor, minSamples));
+    }
+
+    private record Key(Long routeStepId, Long machineId) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.crownbyte.Saphire.cycletime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/** Learned cycle time of a route step on a machine, or on any of its machines when {@code machineId} is null. */
+@Getter
+@AllArgsConstructor
+public final class CycleTimeStats {
+
+    private final Long routeStepId;
+    private final Long machineId;
+    /** Completed steps in the window the figures are taken over. */
+    private final int samples;
+    private final int medianSeconds;
+    private final int p90Seconds;
+    private final long ewmaSeconds;
+    /** Minutes planning uses; null until there are enough samples. */
+    private final Integer estimatedMinutes;
+    private final LocalDateTime lastFinishedAt;
+}
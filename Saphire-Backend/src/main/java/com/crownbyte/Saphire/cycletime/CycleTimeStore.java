@@ -0,0 +1,53 @@
+package com.crownbyte.Saphire.cycletime;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** JDBC reads of the cycle times of completed production steps. */
+@Component
+public class CycleTimeStore {
+
+    /** Walks the partial index on completed steps by finish time (V20). */
+    private static final String RECENT_SAMPLES = "SELECT id, route_step_id, machine_id, started_at, finished_at " +
+            "FROM (SELECT ps.id, ps.route_step_id, ps.machine_id, ps.started_at, ps.finished_at, " +
+            "ROW_NUMBER() OVER (PARTITION BY ps.route_step_id, ps.machine_id " +
+            "ORDER BY ps.finished_at DESC, ps.id DESC) AS recency " +
+            "FROM production_steps ps " +
+            "WHERE ps.status = 'COMPLETED' AND ps.finished_at >= ? AND ps.machine_id IS NOT NULL " +
+            "AND ps.started_at IS NOT NULL AND ps.finished_at > ps.started_at) recent " +
+            "WHERE recency <= ? " +
+            "ORDER BY finished_at, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CycleTimeStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The last {@code perMachine} completed steps of every route step and machine that
+     * finished since {@code from}, oldest first.
+     */
+    public List<Sample> loadRecentSamples(LocalDateTime from, int perMachine) {
+        return jdbcTemplate.query(RECENT_SAMPLES,
+                (rs, row) -> new Sample(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                        rs.getTimestamp(4).toLocalDateTime(), rs.getTimestamp(5).toLocalDateTime()),
+                Timestamp.valueOf(from), perMachine);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Sample {
+        private final Long stepId;
+        private final Long routeStepId;
+        private final Long machineId;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+    }
+}
@@ -0,0 +1,110 @@
+package com.crownbyte.Saphire.cycletime;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * The most recent cycle times of one route step, on one machine or on all of them,
+ * with their median, p90 and an exponentially weighted moving average.
+ * <p>
+ * The quantiles are taken over the window only, so old samples age out. Once the
+ * window has {@code minSamples}, a sample further than {@code outlierFactor} from the
+ * median is clamped before it enters the average: a step left open over a break
+ * still counts as slow, but does not drag the estimate for the next dozen steps.
+ * Not thread-safe.
+ */
+final class CycleTimeWindow {
+
+    private final int[] seconds;
+    private final double alpha;
+    private final double outlierFactor;
+    private final int minSamples;
+
+    private int size;
+    private int next;
+    private double ewma;
+    private LocalDateTime lastFinishedAt;
+    /** Quantiles of the current window, recomputed on first read after a change. */
+    private int median;
+    private int p90;
+    private boolean sorted;
+
+    CycleTimeWindow(int capacity, double alpha, double outlierFactor, int minSamples) {
+        this.seconds = new int[capacity];
+        this.alpha = alpha;
+        this.outlierFactor = outlierFactor;
+        this.minSamples = minSamples;
+    }
+
+    void add(int sample, LocalDateTime finishedAt) {
+        if (size == 0) {
+            ewma = sample;
+        } else {
+            double clamped = sample;
+            if (size >= minSamples) {
+                int median = median();
+                clamped = Math.min(Math.max(sample, median / outlierFactor), median * outlierFactor);
+            }
+            ewma += alpha * (clamped - ewma);
+        }
+        seconds[next] = sample;
+        next = (next + 1) % seconds.length;
+        size = Math.min(size + 1, seconds.length);
+        sorted = false;
+        if (lastFinishedAt == null || finishedAt.isAfter(lastFinishedAt)) {
+            lastFinishedAt = finishedAt;
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEstimable() {
+        return size >= minSamples;
+    }
+
+    int median() {
+        quantiles();
+        return median;
+    }
+
+    int p90() {
+        quantiles();
+        return p90;
+    }
+
+    double ewma() {
+        return ewma;
+    }
+
+    /** Planned duration: the moving average rounded up to whole minutes, at least one. */
+    int plannedMinutes() {
+        return Math.max((int) Math.ceil(ewma / 60), 1);
+    }
+
+    LocalDateTime lastFinishedAt() {
+        return lastFinishedAt;
+    }
+
+    CycleTimeStats snapshot(Long routeStepId, Long machineId) {
+        return new CycleTimeStats(routeStepId, machineId, size, median(), p90(), Math.round(ewma),
+                isEstimable() ? plannedMinutes() : null, lastFinishedAt);
+    }
+
+    private void quantiles() {
+        if (sorted || size == 0) {
+            return;
+        }
+        int[] window = Arrays.copyOf(seconds, size);
+        Arrays.sort(window);
+        median = window[rank(0.5)];
+        p90 = window[rank(0.9)];
+        sorted = true;
+    }
+
+    /** Nearest-rank percentile index. */
+    private int rank(double percentile) {
+        return Math.max((int) Math.ceil(percentile * size) - 1, 0);
+    }
+}
@@ -0,0 +1,66 @@
+package com.crownbyte.Saphire.datagen;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers generated rows per table and writes them in batches.
+ * <p>
+ * Tables are flushed in the order they first received a row. The generator always
+ * appends a parent row before its children, so every batch finds its foreign keys
+ * already written.
+ */
+public abstract class DatasetSink {
+
+    private final int batchSize;
+    private final Map<String, Buffer> buffers = new LinkedHashMap<>();
+    private final Map<String, Long> rowCounts = new LinkedHashMap<>();
+    private int pending;
+
+    protected DatasetSink(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Reserves ids from the table's id sequence.
+     */
+    public abstract long[] allocateIds(String table, int count);
+
+    protected abstract void writeBatch(String table, String[] columns, List<Object[]> rows);
+
+    public void append(String table, String[] columns, Object... row) {
+        Buffer buffer = buffers.computeIfAbsent(table, t -> new Buffer(columns));
+        buffer.rows.add(row);
+        if (++pending >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        for (Map.Entry<String, Buffer> entry : buffers.entrySet()) {
+            Buffer buffer = entry.getValue();
+            if (buffer.rows.isEmpty()) {
+                continue;
+            }
+            writeBatch(entry.getKey(), buffer.columns, buffer.rows);
+            rowCounts.merge(entry.getKey(), (long) buffer.rows.size(), Long::sum);
+            buffer.rows = new ArrayList<>();
+        }
+        pending = 0;
+    }
+
+    public Map<String, Long> getRowCounts() {
+        return rowCounts;
+    }
+
+    private static final class Buffer {
+        private final String[] columns;
+        private List<Object[]> rows = new ArrayList<>();
+
+        private Buffer(String[] columns) {
+            this.columns = columns;
+        }
+    }
+}
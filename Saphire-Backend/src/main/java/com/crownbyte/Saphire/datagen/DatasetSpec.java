@@ -0,0 +1,55 @@
+package com.crownbyte.Saphire.datagen;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+/**
+ * Shape of a synthetic dataset, bound from {@code app.datagen.*}. Counts are per
+ * parent, so the totals multiply: machines = companies x locations x machines per
+ * location, and records = machines x records per machine-day x history days.
+ */
+@Getter
+@Setter
+public class DatasetSpec {
+
+    private long seed = 42;
+    /** Prefix of every generated code, username and serial number. */
+    private String codePrefix = "SYN";
+    /** Last day of generated history; defaults to today. Fix it to get byte-identical datasets. */
+    private LocalDate endDate;
+    private String userPassword = "Saphire123!";
+
+    private int companies = 2;
+    private int locationsPerCompany = 3;
+    private int machinesPerLocation = 40;
+    private int operatorsPerLocation = 12;
+    private int supervisorsPerLocation = 2;
+
+    private int productsPerCompany = 20;
+    private int routeStepsMin = 3;
+    private int routeStepsMax = 8;
+    private int machinesPerRouteStep = 2;
+    private int instancesPerProduct = 50;
+
+    private int templatesPerCompany = 40;
+    private int sectionsMin = 3;
+    private int sectionsMax = 12;
+    private int fieldsPerSectionMin = 4;
+    private int fieldsPerSectionMax = 20;
+    private double repeatableSectionRatio = 0.25;
+    private int repeatCountMax = 5;
+    private int machinesPerTemplate = 4;
+    private double approvalRatio = 0.3;
+
+    /** Mean of the Poisson distribution used for records per machine and day. */
+    private double recordsPerMachinePerDay = 3;
+    private int historyDays = 14;
+    private double failRate = 0.02;
+    private double warningRate = 0.05;
+
+    private int batchSize = 5000;
+    /** Stop the application once the dataset is written. */
+    private boolean exitOnFinish = true;
+}
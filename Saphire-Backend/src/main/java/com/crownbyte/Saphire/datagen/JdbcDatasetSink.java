@@ -0,0 +1,117 @@
+package com.crownbyte.Saphire.datagen;
+
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes generated rows with {@code COPY ... FROM STDIN} on PostgreSQL and with
+ * JDBC batch inserts on other databases. Ids come from the tables' own sequences,
+ * so the application keeps generating ids after the dataset without clashes.
+ */
+public class JdbcDatasetSink extends DatasetSink {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public JdbcDatasetSink(JdbcTemplate jdbcTemplate, int batchSize) {
+        super(batchSize);
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+
+    @Override
+    public long[] allocateIds(String table, int count) {
+        if (count == 0) {
+            return new long[0];
+        }
+        if (postgres) {
+            // OFFSET 0 keeps the sequence lookup from being inlined and repeated per row
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT nextval(s.seq) FROM generate_series(1, ?), " +
+                            "(SELECT pg_get_serial_sequence(?, 'id')::regclass AS seq OFFSET 0) s",
+                    Long.class, count, table);
+            return ids.stream().mapToLong(Long::longValue).toArray();
+        }
+        // Non-PostgreSQL targets are only used for local runs against an empty schema.
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = max + 1 + i;
+        }
+        return ids;
+    }
+
+    @Override
+    protected void writeBatch(String table, String[] columns, List<Object[]> rows) {
+        if (postgres) {
+            copy(table, columns, rows);
+        } else {
+            insert(table, columns, rows);
+        }
+    }
+
+    private void copy(String table, String[] columns, List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder(rows.size() * columns.length * 12);
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                appendCsv(csv, row[i]);
+            }
+            csv.append('\n');
+        }
+        String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+        jdbcTemplate.execute((ConnectionCallback<Long>) con -> copyIn(con, sql, csv.toString()));
+    }
+
+    private static long copyIn(Connection connection, String sql, String csv) throws SQLException {
+        try {
+            return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv));
+        } catch (IOException e) {
+            throw new SQLException("COPY failed: " + sql, e);
+        }
+    }
+
+    private void insert(String table, String[] columns, List<Object[]> rows) {
+        String placeholders = Arrays.stream(columns).map(c -> "?").collect(Collectors.joining(", "));
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES (" + placeholders + ")";
+        jdbcTemplate.batchUpdate(sql, new ArrayList<>(rows));
+    }
+
+    /**
+     * Null is an unquoted empty field; everything else is quoted so commas, quotes
+     * and newlines in text and JSON survive.
+     */
+    private static void appendCsv(StringBuilder csv, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        csv.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        csv.append('"');
+    }
+}
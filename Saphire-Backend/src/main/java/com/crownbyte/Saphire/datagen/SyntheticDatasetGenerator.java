@@ -0,0 +1,682 @@
+package com.crownbyte.Saphire.datagen;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.production.enums.InstanceStatusEnum;
+import com.crownbyte.Saphire.entity.production.enums.ProductionStepStatusEnum;
+import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.HeaderFieldTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.OverallResultEnum;
+import com.crownbyte.Saphire.entity.qc.enums.RecordStatusEnum;
+import com.crownbyte.Saphire.entity.qc.enums.ScheduleTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.TaskAssignmentTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.ValueResultEnum;
+import com.crownbyte.Saphire.entity.route.enums.StepTypeEnum;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a complete, production-shaped dataset: companies, locations, machines
+ * and their status, users with machine assignments, products with routes, QC
+ * templates with repeatable sections, task assignments, product instances with
+ * production steps, and the QC record history with one value per field and repeat.
+ * <p>
+ * A single {@link Random} seeded from the spec drives every choice in a fixed
+ * order, so the same spec and end date always produce the same rows. Rows are
+ * streamed to the {@link DatasetSink}; only master data is kept in memory.
+ */
+@Slf4j
+public class SyntheticDatasetGenerator {
+
+    static final String[] COMPANY_COLUMNS = { "id", "code", "name", "active", "created_at", "updated_at" };
+    static final String[] LOCATION_COLUMNS = { "id", "company_id", "code", "name", "active", "created_at",
+            "updated_at" };
+    static final String[] MACHINE_COLUMNS = { "id", "location_id", "code", "name", "type", "active",
+            "maintenance_mode", "created_at", "updated_at" };
+    static final String[] MACHINE_STATUS_COLUMNS = { "machine_id", "current_status", "status_since", "updated_at" };
+    static final String[] USER_COLUMNS = { "id", "username", "email", "full_name", "hashed_password", "role",
+            "active", "token_version", "created_at", "updated_at" };
+    static final String[] USER_MACHINE_COLUMNS = { "user_id", "machine_id" };
+    static final String[] PRODUCT_COLUMNS = { "id", "company_id", "code", "name", "description", "active",
+            "created_at", "updated_at" };
+    static final String[] ROUTE_COLUMNS = { "id", "product_id", "name", "version", "active", "created_at",
+            "updated_at" };
+    static final String[] ROUTE_STEP_COLUMNS = { "id", "route_id", "step_order", "step_name", "step_type",
+            "estimated_setup_minutes", "estimated_cycle_minutes", "created_at", "updated_at" };
+    static final String[] ROUTE_STEP_MACHINE_COLUMNS = { "route_step_id", "machine_id", "preference_order",
+            "created_at", "updated_at" };
+    static final String[] TEMPLATE_COLUMNS = { "id", "company_id", "code", "name", "description", "context_type",
+            "product_id", "schedule_type", "requires_approval", "allow_partial_save", "version", "active",
+            "created_by", "created_at", "updated_at" };
+    static final String[] TEMPLATE_MACHINE_COLUMNS = { "qc_template_id", "machine_id" };
+    static final String[] HEADER_FIELD_COLUMNS = { "template_id", "field_key", "label", "field_type", "field_order",
+            "required", "active", "created_at", "updated_at" };
+    static final String[] SECTION_COLUMNS = { "id", "template_id", "name", "section_order", "is_repeatable",
+            "repeat_count", "repeat_label_pattern", "has_groups", "active", "created_at", "updated_at" };
+    static final String[] FIELD_COLUMNS = { "id", "section_id", "field_key", "label", "input_type", "unit",
+            "field_order", "required", "min_value", "max_value", "target_value", "tolerance", "decimal_places",
+            "options", "width", "active", "created_at", "updated_at" };
+    static final String[] ASSIGNMENT_COLUMNS = { "id", "template_id", "type", "active", "machine_id", "created_at",
+            "updated_at" };
+    static final String[] ASSIGNMENT_USER_COLUMNS = { "assignment_id", "user_id" };
+    static final String[] SCHEDULE_COLUMNS = { "assignment_id", "day_of_week", "start_time", "end_time",
+            "created_at" };
+    static final String[] INSTANCE_COLUMNS = { "id", "product_id", "route_id", "location_id", "serial_number",
+            "status", "priority", "due_date", "started_at", "completed_at", "created_by", "created_at",
+            "updated_at" };
+    static final String[] PRODUCTION_STEP_COLUMNS = { "product_instance_id", "route_step_id", "machine_id",
+            "operator_id", "status", "started_at", "finished_at", "retry_count", "created_at", "updated_at" };
+    static final String[] RECORD_COLUMNS = { "id", "template_id", "template_version", "machine_id", "header_data",
+            "status", "overall_result", "filled_by", "started_at", "submitted_at", "approved_by", "approved_at",
+            "created_at" };
+    static final String[] VALUE_COLUMNS = { "record_id", "field_id", "repeat_index", "value_text", "value_number",
+            "value_boolean", "result", "auto_evaluated", "entered_at" };
+
+    private static final String[] MACHINE_TYPES = { "CNC", "PRESS", "MOLDING", "ASSEMBLY", "PAINT", "PACKAGING" };
+    private static final String[] UNITS = { "mm", "bar", "°C", "N", "kg", "rpm" };
+    private static final List<String> SELECT_OPTIONS = List.of("OK", "Minor", "Major");
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final int VALUE_RESULT_INDEX = 6;
+    private static final String VALUE_FAIL = ValueResultEnum.FAIL.name();
+    private static final String VALUE_WARNING = ValueResultEnum.WARNING.name();
+
+    private final DatasetSpec spec;
+    private final DatasetSink sink;
+    private final String passwordHash;
+    private final Random random;
+    private final LocalDateTime end;
+    private final LocalDateTime start;
+
+    private final List<Company> companies = new ArrayList<>();
+    private final Map<Long, Location> machineLocations = new HashMap<>();
+    private final Map<Long, List<Long>> machineOperators = new HashMap<>();
+    private final Map<Long, List<Template>> machineTemplates = new LinkedHashMap<>();
+
+    private long[] recordIds = new long[0];
+    private int nextRecordId;
+
+    public SyntheticDatasetGenerator(DatasetSpec spec, DatasetSink sink, String passwordHash) {
+        this.spec = spec;
+        this.sink = sink;
+        this.passwordHash = passwordHash;
+        this.random = new Random(spec.getSeed());
+        LocalDate endDate = spec.getEndDate() != null ? spec.getEndDate() : LocalDate.now();
+        this.end = endDate.plusDays(1).atStartOfDay();
+        this.start = end.minusDays(spec.getHistoryDays());
+    }
+
+    public void generate() {
+        long startedAt = System.currentTimeMillis();
+        for (int c = 1; c <= spec.getCompanies(); c++) {
+            companies.add(company(c));
+        }
+        log.info("Generated master data for {} companies", companies.size());
+
+        for (Company company : companies) {
+            products(company);
+            templates(company);
+        }
+        sink.flush();
+        log.info("Generated products, routes and templates");
+
+        for (Company company : companies) {
+            for (Product product : company.products) {
+                instances(company, product);
+            }
+        }
+        sink.flush();
+        log.info("Generated product instances and production steps");
+
+        records();
+        sink.flush();
+        log.info("Synthetic dataset written in {} s: {}",
+                (System.currentTimeMillis() - startedAt) / 1000, sink.getRowCounts());
+    }
+
+    // ---------------------------------------------------------------- master data
+
+    private Company company(int index) {
+        String code = spec.getCodePrefix() + "-C" + pad(index, 2);
+        Company company = new Company(sink.allocateIds("companies", 1)[0], code);
+        sink.append("companies", COMPANY_COLUMNS,
+                company.id, code, "Synthetic Company " + index, true, start, start);
+
+        long[] locationIds = sink.allocateIds("locations", spec.getLocationsPerCompany());
+        for (int l = 0; l < locationIds.length; l++) {
+            Location location = new Location(locationIds[l], code + "-L" + pad(l + 1, 2));
+            sink.append("locations", LOCATION_COLUMNS,
+                    location.id, company.id, location.code, "Plant " + index + "-" + (l + 1), true, start, start);
+            machines(location);
+            users(company, location);
+            company.locations.add(location);
+            company.machineIds.addAll(location.machineIds);
+        }
+        return company;
+    }
+
+    private void machines(Location location) {
+        long[] ids = sink.allocateIds("machines", spec.getMachinesPerLocation());
+        for (int m = 0; m < ids.length; m++) {
+            long id = ids[m];
+            String type = MACHINE_TYPES[random.nextInt(MACHINE_TYPES.length)];
+            sink.append("machines", MACHINE_COLUMNS,
+                    id, location.id, location.code + "-M" + pad(m + 1, 3), type + " " + location.code + "-" + (m + 1),
+                    type, true, random.nextInt(50) == 0, start, start);
+            sink.append("machine_status", MACHINE_STATUS_COLUMNS,
+                    id, machineStatus().name(), end.minusMinutes(random.nextInt(8 * 60)), end);
+            location.machineIds.add(id);
+            machineLocations.put(id, location);
+            machineOperators.put(id, new ArrayList<>());
+        }
+    }
+
+    private MachineStatusEnum machineStatus() {
+        int roll = random.nextInt(100);
+        if (roll < 55) {
+            return MachineStatusEnum.RUNNING;
+        } else if (roll < 75) {
+            return MachineStatusEnum.IDLE;
+        } else if (roll < 85) {
+            return MachineStatusEnum.SETUP;
+        } else if (roll < 90) {
+            return MachineStatusEnum.MAINTENANCE;
+        } else if (roll < 95) {
+            return MachineStatusEnum.BREAKDOWN;
+        }
+        return MachineStatusEnum.OFFLINE;
+    }
+
+    /**
+     * Every machine is covered by two operators; supervisors see the whole location.
+     */
+    private void users(Company company, Location location) {
+        int operators = spec.getOperatorsPerLocation();
+        long[] operatorIds = sink.allocateIds("users", operators);
+        for (int o = 0; o < operators; o++) {
+            user(operatorIds[o], location.code + "-OP" + pad(o + 1, 3), UserRoleEnum.OPERATOR);
+            location.operatorIds.add(operatorIds[o]);
+        }
+        for (int m = 0; m < location.machineIds.size() && operators > 0; m++) {
+            long machineId = location.machineIds.get(m);
+            for (int k = 0; k < Math.min(2, operators); k++) {
+                long userId = operatorIds[(m + k) % operators];
+                sink.append("user_machines", USER_MACHINE_COLUMNS, userId, machineId);
+                machineOperators.get(machineId).add(userId);
+            }
+        }
+
+        long[] supervisorIds = sink.allocateIds("users", spec.getSupervisorsPerLocation());
+        for (int s = 0; s < supervisorIds.length; s++) {
+            user(supervisorIds[s], location.code + "-SV" + pad(s + 1, 2), UserRoleEnum.SUPERVISOR);
+            for (long machineId : location.machineIds) {
+                sink.append("user_machines", USER_MACHINE_COLUMNS, supervisorIds[s], machineId);
+            }
+            location.supervisorIds.add(supervisorIds[s]);
+            company.supervisorIds.add(supervisorIds[s]);
+        }
+    }
+
+    private void user(long id, String code, UserRoleEnum role) {
+        String username = code.toLowerCase();
+        sink.append("users", USER_COLUMNS,
+                id, username, username + "@synthetic.saphire", role.name().charAt(0)
+                        + role.name().substring(1).toLowerCase() + " " + code,
+                passwordHash, role.name(), true, 0, start, start);
+    }
+
+    // ---------------------------------------------------------------- products
+
+    private void products(Company company) {
+        long[] productIds = sink.allocateIds("products", spec.getProductsPerCompany());
+        long[] routeIds = sink.allocateIds("product_routes", productIds.length);
+        for (int p = 0; p < productIds.length; p++) {
+            Product product = new Product(productIds[p], routeIds[p], company.code + "-P" + pad(p + 1, 3));
+            sink.append("products", PRODUCT_COLUMNS,
+                    product.id, company.id, product.code, "Product " + product.code, null, true, start, start);
+            sink.append("product_routes", ROUTE_COLUMNS,
+                    product.routeId, product.id, "Route " + product.code, 1, true, start, start);
+
+            int steps = between(spec.getRouteStepsMin(), spec.getRouteStepsMax());
+            long[] stepIds = sink.allocateIds("product_route_steps", steps);
+            for (int s = 0; s < steps; s++) {
+                RouteStep step = new RouteStep(stepIds[s], between(5, 45), between(10, 120));
+                sink.append("product_route_steps", ROUTE_STEP_COLUMNS,
+                        step.id, product.routeId, s + 1, "Step " + (s + 1), StepTypeEnum.SERIAL.name(),
+                        step.setupMinutes, step.cycleMinutes, start, start);
+                for (int m = 0; m < spec.getMachinesPerRouteStep(); m++) {
+                    long machineId = pick(company.machineIds);
+                    if (!step.machineIds.contains(machineId)) {
+                        step.machineIds.add(machineId);
+                        sink.append("route_step_machines", ROUTE_STEP_MACHINE_COLUMNS,
+                                step.id, machineId, step.machineIds.size(), start, start);
+                    }
+                }
+                product.steps.add(step);
+            }
+            company.products.add(product);
+        }
+    }
+
+    /**
+     * Older instances are finished, the newest are still queued; the ones in between
+     * are somewhere along their route.
+     */
+    private void instances(Company company, Product product) {
+        int count = spec.getInstancesPerProduct();
+        long[] ids = sink.allocateIds("product_instances", count);
+        long historyMinutes = spec.getHistoryDays() * 24L * 60L;
+        for (int i = 0; i < count; i++) {
+            LocalDateTime createdAt = start.plusMinutes((historyMinutes * i) / Math.max(1, count)
+                    + random.nextInt(60));
+            double age = 1.0 - (double) i / Math.max(1, count);
+            InstanceStatusEnum status = age > 0.3 ? (random.nextInt(40) == 0 ? InstanceStatusEnum.FAILED
+                    : InstanceStatusEnum.COMPLETED)
+                    : age > 0.1 ? InstanceStatusEnum.IN_PROGRESS : InstanceStatusEnum.PENDING;
+            Location location = company.locations.get(random.nextInt(company.locations.size()));
+
+            int doneSteps = switch (status) {
+                case COMPLETED -> product.steps.size();
+                case FAILED, IN_PROGRESS -> random.nextInt(product.steps.size());
+                default -> 0;
+            };
+            LocalDateTime startedAt = status == InstanceStatusEnum.PENDING ? null : createdAt.plusMinutes(30);
+            LocalDateTime cursor = startedAt;
+            List<Object[]> steps = new ArrayList<>(product.steps.size());
+            for (int s = 0; s < product.steps.size(); s++) {
+                RouteStep routeStep = product.steps.get(s);
+                long machineId = pick(routeStep.machineIds);
+                ProductionStepStatusEnum stepStatus = ProductionStepStatusEnum.PENDING;
+                LocalDateTime stepStart = null;
+                LocalDateTime stepEnd = null;
+                if (s < doneSteps) {
+                    stepStatus = ProductionStepStatusEnum.COMPLETED;
+                    stepStart = cursor;
+                    stepEnd = cursor.plusMinutes(routeStep.setupMinutes + routeStep.cycleMinutes);
+                    cursor = stepEnd;
+                } else if (s == doneSteps && status == InstanceStatusEnum.IN_PROGRESS) {
+                    stepStatus = ProductionStepStatusEnum.IN_PROGRESS;
+                    stepStart = cursor;
+                } else if (s == doneSteps && status == InstanceStatusEnum.FAILED) {
+                    stepStatus = ProductionStepStatusEnum.FAILED;
+                    stepStart = cursor;
+                    stepEnd = cursor.plusMinutes(routeStep.setupMinutes);
+                }
+                List<Long> operators = machineOperators.get(machineId);
+                Long operatorId = stepStart != null && !operators.isEmpty() ? pick(operators) : null;
+                steps.add(new Object[] { ids[i], routeStep.id, machineId, operatorId, stepStatus.name(),
+                        stepStart, stepEnd, 0, createdAt, stepEnd != null ? stepEnd : createdAt });
+            }
+
+            String serial = product.code + "-" + pad(i + 1, 6);
+            Long createdBy = location.supervisorIds.isEmpty() ? null : pick(location.supervisorIds);
+            sink.append("product_instances", INSTANCE_COLUMNS,
+                    ids[i], product.id, product.routeId, location.id, serial, status.name(), between(1, 5),
+                    createdAt.plusDays(between(3, 14)), startedAt,
+                    status == InstanceStatusEnum.COMPLETED ? cursor : null, createdBy, createdAt,
+                    cursor != null ? cursor : createdAt);
+            for (Object[] step : steps) {
+                sink.append("production_steps", PRODUCTION_STEP_COLUMNS, step);
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- templates
+
+    private void templates(Company company) {
+        int count = spec.getTemplatesPerCompany();
+        long[] ids = sink.allocateIds("qc_form_templates", count);
+        for (int t = 0; t < count; t++) {
+            Template template = new Template(ids[t], random.nextDouble() < spec.getApprovalRatio());
+            String code = company.code + "-T" + pad(t + 1, 3);
+            boolean productContext = !company.products.isEmpty() && random.nextInt(5) == 0;
+            Long productId = productContext ? company.products.get(random.nextInt(company.products.size())).id : null;
+            ScheduleTypeEnum scheduleType = ScheduleTypeEnum.values()[random.nextInt(ScheduleTypeEnum.values().length)];
+            Long createdBy = company.supervisorIds.isEmpty() ? null : company.supervisorIds.get(0);
+            sink.append("qc_form_templates", TEMPLATE_COLUMNS,
+                    template.id, company.id, code, "Inspection " + code, null,
+                    (productContext ? ContextTypeEnum.PRODUCT : ContextTypeEnum.MACHINE).name(), productId,
+                    scheduleType.name(), template.requiresApproval, true, 1, true, createdBy, start, start);
+
+            for (int m = 0; m < spec.getMachinesPerTemplate() && !company.machineIds.isEmpty(); m++) {
+                long machineId = pick(company.machineIds);
+                List<Template> templates = machineTemplates.computeIfAbsent(machineId, k -> new ArrayList<>());
+                if (!templates.contains(template)) {
+                    templates.add(template);
+                    template.machineIds.add(machineId);
+                    sink.append("qc_template_machines", TEMPLATE_MACHINE_COLUMNS, template.id, machineId);
+                }
+            }
+
+            int headers = between(3, 6);
+            for (int h = 0; h < headers; h++) {
+                String key = "h" + h;
+                sink.append("qc_form_header_fields", HEADER_FIELD_COLUMNS,
+                        template.id, key, "Header " + h, HeaderFieldTypeEnum.TEXT.name(), h, h == 0, true,
+                        start, start);
+                template.headerKeys.add(key);
+            }
+
+            sections(template);
+            assignment(template);
+        }
+    }
+
+    private void sections(Template template) {
+        int sections = between(spec.getSectionsMin(), spec.getSectionsMax());
+        long[] sectionIds = sink.allocateIds("qc_form_sections", sections);
+        for (int s = 0; s < sections; s++) {
+            boolean repeatable = random.nextDouble() < spec.getRepeatableSectionRatio();
+            int repeats = repeatable ? between(2, Math.max(2, spec.getRepeatCountMax())) : 1;
+            Section section = new Section(repeats);
+            sink.append("qc_form_sections", SECTION_COLUMNS,
+                    sectionIds[s], template.id, "Section " + (s + 1), s, repeatable, repeats,
+                    repeatable ? "Sample {n}" : null, false, true, start, start);
+
+            int fields = between(spec.getFieldsPerSectionMin(), spec.getFieldsPerSectionMax());
+            long[] fieldIds = sink.allocateIds("qc_form_fields", fields);
+            for (int f = 0; f < fields; f++) {
+                Field field = field(fieldIds[f]);
+                sink.append("qc_form_fields", FIELD_COLUMNS,
+                        field.id, sectionIds[s], "s" + s + "f" + f, "Check " + (s + 1) + "." + (f + 1),
+                        field.type.name(), field.unit, f, field.type != InputTypeEnum.TEXT, field.min, field.max,
+                        field.target, field.tolerance, field.decimalPlaces,
+                        field.type == InputTypeEnum.SELECT ? json(SELECT_OPTIONS) : null, "full", true, start, start);
+                section.fields.add(field);
+            }
+            template.sections.add(section);
+        }
+    }
+
+    /**
+     * Field mix seen in real check sheets: mostly toleranced measurements, a good
+     * share of pass/fail checks and a few text and select fields.
+     */
+    private Field field(long id) {
+        int roll = random.nextInt(100);
+        if (roll < 65) {
+            boolean decimal = roll < 55;
+            BigDecimal target = BigDecimal.valueOf(decimal ? between(5, 500) : between(50, 5000));
+            BigDecimal tolerance = decimal
+                    ? target.multiply(new BigDecimal("0.02")).setScale(3, RoundingMode.HALF_UP)
+                    : target.divide(BigDecimal.valueOf(50), 0, RoundingMode.UP);
+            BigDecimal band = tolerance.multiply(TWO);
+            return new Field(id, decimal ? InputTypeEnum.DECIMAL : InputTypeEnum.NUMBER,
+                    UNITS[random.nextInt(UNITS.length)], decimal ? 3 : 0,
+                    target.subtract(band), target.add(band), target, tolerance);
+        }
+        InputTypeEnum type = roll < 85 ? InputTypeEnum.PASS_FAIL
+                : roll < 95 ? InputTypeEnum.TEXT : InputTypeEnum.SELECT;
+        return new Field(id, type, null, 0, null, null, null, null);
+    }
+
+    /**
+     * One recurring assignment per template for the operators of its first machine,
+     * covering the two day shifts from Monday to Saturday.
+     */
+    private void assignment(Template template) {
+        if (template.machineIds.isEmpty()) {
+            return;
+        }
+        long machineId = template.machineIds.get(0);
+        long id = sink.allocateIds("task_assignments", 1)[0];
+        sink.append("task_assignments", ASSIGNMENT_COLUMNS,
+                id, template.id, TaskAssignmentTypeEnum.RECURRING.name(), true, machineId, start, start);
+        for (long userId : machineOperators.get(machineId)) {
+            sink.append("task_assignment_users", ASSIGNMENT_USER_COLUMNS, id, userId);
+        }
+        for (int day = 1; day <= 6; day++) {
+            sink.append("task_schedules", SCHEDULE_COLUMNS, id, day, LocalTime.of(6, 0), LocalTime.of(14, 0), start);
+            sink.append("task_schedules", SCHEDULE_COLUMNS, id, day, LocalTime.of(14, 0), LocalTime.of(22, 0), start);
+        }
+    }
+
+    // ---------------------------------------------------------------- records
+
+    private void records() {
+        long total = 0;
+        for (int day = 0; day < spec.getHistoryDays(); day++) {
+            LocalDateTime dayStart = start.plusDays(day);
+            for (Map.Entry<Long, List<Template>> entry : machineTemplates.entrySet()) {
+                int count = poisson(spec.getRecordsPerMachinePerDay());
+                for (int r = 0; r < count; r++) {
+                    record(entry.getKey(), pick(entry.getValue()), dayStart.plusMinutes(random.nextInt(24 * 60)));
+                    total++;
+                }
+            }
+            if ((day + 1) % 7 == 0) {
+                log.info("Generated {} days of QC history ({} records)", day + 1, total);
+            }
+        }
+    }
+
+    private void record(long machineId, Template template, LocalDateTime submittedAt) {
+        long id = nextRecordId();
+        List<Long> operators = machineOperators.get(machineId);
+        Long filledBy = operators.isEmpty() ? null : pick(operators);
+        LocalDateTime startedAt = submittedAt.minusMinutes(between(5, 30));
+
+        List<Object[]> values = new ArrayList<>();
+        boolean hasFail = false;
+        boolean hasWarning = false;
+        for (Section section : template.sections) {
+            for (int repeat = 0; repeat < section.repeats; repeat++) {
+                for (Field field : section.fields) {
+                    Object[] value = value(id, field, repeat, startedAt);
+                    hasFail |= VALUE_FAIL.equals(value[VALUE_RESULT_INDEX]);
+                    hasWarning |= VALUE_WARNING.equals(value[VALUE_RESULT_INDEX]);
+                    values.add(value);
+                }
+            }
+        }
+        OverallResultEnum overall = hasFail ? OverallResultEnum.FAIL
+                : hasWarning ? OverallResultEnum.PARTIAL : OverallResultEnum.PASS;
+
+        RecordStatusEnum status = RecordStatusEnum.SUBMITTED;
+        Long approvedBy = null;
+        LocalDateTime approvedAt = null;
+        Location location = machineLocations.get(machineId);
+        if (template.requiresApproval && submittedAt.isBefore(end.minusDays(2)) && !location.supervisorIds.isEmpty()) {
+            status = random.nextInt(20) == 0 ? RecordStatusEnum.REJECTED : RecordStatusEnum.APPROVED;
+            approvedBy = pick(location.supervisorIds);
+            approvedAt = submittedAt.plusMinutes(between(30, 12 * 60));
+        }
+
+        Map<String, Object> headerData = new LinkedHashMap<>();
+        for (String key : template.headerKeys) {
+            headerData.put(key, key + "-" + random.nextInt(1000));
+        }
+        sink.append("qc_form_records", RECORD_COLUMNS,
+                id, template.id, 1, machineId, json(headerData), status.name(), overall.name(), filledBy, startedAt,
+                submittedAt, approvedBy, approvedAt, startedAt);
+        for (Object[] value : values) {
+            sink.append("qc_form_values", VALUE_COLUMNS, value);
+        }
+    }
+
+    private Object[] value(long recordId, Field field, int repeat, LocalDateTime enteredAt) {
+        double roll = random.nextDouble();
+        ValueResultEnum result = roll < spec.getFailRate() ? ValueResultEnum.FAIL
+                : roll < spec.getFailRate() + spec.getWarningRate() ? ValueResultEnum.WARNING
+                : ValueResultEnum.PASS;
+        String text = null;
+        BigDecimal number = null;
+        Boolean bool = null;
+        switch (field.type) {
+            case DECIMAL, NUMBER -> number = measurement(field, result);
+            case PASS_FAIL -> {
+                result = result == ValueResultEnum.FAIL ? ValueResultEnum.FAIL : ValueResultEnum.PASS;
+                bool = result == ValueResultEnum.PASS;
+            }
+            case SELECT -> {
+                text = SELECT_OPTIONS.get(result.ordinal() % SELECT_OPTIONS.size());
+                result = ValueResultEnum.PASS;
+            }
+            default -> {
+                text = "OK";
+                result = ValueResultEnum.PASS;
+            }
+        }
+        return new Object[] { recordId, field.id, repeat, text, number, bool, result.name(), true, enteredAt };
+    }
+
+    /**
+     * Draws a measurement in the band that gives the intended result under the
+     * service's rules: within tolerance passes, beyond it warns, outside min/max fails.
+     */
+    private BigDecimal measurement(Field field, ValueResultEnum result) {
+        double tolerance = field.tolerance.doubleValue();
+        BigDecimal step = BigDecimal.ONE.movePointLeft(field.decimalPlaces);
+        BigDecimal band = field.tolerance.multiply(TWO);
+        BigDecimal offset = switch (result) {
+            case FAIL -> BigDecimal.valueOf(2 * tolerance * (1 + random.nextDouble() / 2))
+                    .setScale(field.decimalPlaces, RoundingMode.UP)
+                    .max(band.add(step));
+            case WARNING -> BigDecimal.valueOf(tolerance * (1 + random.nextDouble()))
+                    .setScale(field.decimalPlaces, RoundingMode.UP)
+                    .max(field.tolerance.add(step))
+                    .min(band);
+            default -> BigDecimal.valueOf(tolerance * random.nextDouble())
+                    .setScale(field.decimalPlaces, RoundingMode.DOWN);
+        };
+        return random.nextBoolean() ? field.target.add(offset) : field.target.subtract(offset);
+    }
+
+    private long nextRecordId() {
+        if (nextRecordId >= recordIds.length) {
+            recordIds = sink.allocateIds("qc_form_records", Math.max(1, spec.getBatchSize() / 10));
+            nextRecordId = 0;
+        }
+        return recordIds[nextRecordId++];
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private int between(int min, int max) {
+        return max <= min ? min : min + random.nextInt(max - min + 1);
+    }
+
+    private <T> T pick(List<T> items) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    /**
+     * Knuth's method; fine for the small means used here.
+     */
+    private int poisson(double mean) {
+        double limit = Math.exp(-mean);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private static String pad(int value, int width) {
+        String text = Integer.toString(value);
+        return text.length() >= width ? text : "0".repeat(width - text.length()) + text;
+    }
+
+    private static String json(Object value) {
+        try {
+            return JSON.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value, e);
+        }
+    }
+
+    private static final class Company {
+        private final long id;
+        private final String code;
+        private final List<Location> locations = new ArrayList<>();
+        private final List<Long> machineIds = new ArrayList<>();
+        private final List<Long> supervisorIds = new ArrayList<>();
+        private final List<Product> products = new ArrayList<>();
+
+        private Company(long id, String code) {
+            this.id = id;
+            this.code = code;
+        }
+    }
+
+    private static final class Location {
+        private final long id;
+        private final String code;
+        private final List<Long> machineIds = new ArrayList<>();
+        private final List<Long> operatorIds = new ArrayList<>();
+        private final List<Long> supervisorIds = new ArrayList<>();
+
+        private Location(long id, String code) {
+            this.id = id;
+            this.code = code;
+        }
+    }
+
+    private static final class Product {
+        private final long id;
+        private final long routeId;
+        private final String code;
+        private final List<RouteStep> steps = new ArrayList<>();
+
+        private Product(long id, long routeId, String code) {
+            this.id = id;
+            this.routeId = routeId;
+            this.code = code;
+        }
+    }
+
+    private static final class RouteStep {
+        private final long id;
+        private final int setupMinutes;
+        private final int cycleMinutes;
+        private final List<Long> machineIds = new ArrayList<>();
+
+        private RouteStep(long id, int setupMinutes, int cycleMinutes) {
+            this.id = id;
+            this.setupMinutes = setupMinutes;
+            this.cycleMinutes = cycleMinutes;
+        }
+    }
+
+    private static final class Template {
+        private final long id;
+        private final boolean requiresApproval;
+        private final List<Long> machineIds = new ArrayList<>();
+        private final List<String> headerKeys = new ArrayList<>();
+        private final List<Section> sections = new ArrayList<>();
+
+        private Template(long id, boolean requiresApproval) {
+            this.id = id;
+            this.requiresApproval = requiresApproval;
+        }
+    }
+
+    private static final class Section {
+        private final int repeats;
+        private final List<Field> fields = new ArrayList<>();
+
+        private Section(int repeats) {
+            this.repeats = repeats;
+        }
+    }
+
+    private record Field(long id, InputTypeEnum type, String unit, int decimalPlaces,
+            BigDecimal min, BigDecimal max, BigDecimal target, BigDecimal tolerance) {
+    }
+}
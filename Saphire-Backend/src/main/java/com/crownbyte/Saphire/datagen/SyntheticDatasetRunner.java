@@ -0,0 +1,50 @@
+package com.crownbyte.Saphire.datagen;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes a synthetic dataset on startup when the {@code datagen} profile is active:
+ * <pre>
+ * java -jar saphire.jar --spring.profiles.active=datagen --app.datagen.machines-per-location=100
+ * </pre>
+ * Refuses to run twice with the same code prefix, since codes and usernames are unique.
+ */
+@Component
+@Profile("datagen")
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticDatasetRunner implements ApplicationRunner {
+
+    private final DatasetSpec spec;
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM companies WHERE code LIKE ?", Integer.class, spec.getCodePrefix() + "-%");
+        if (existing != null && existing > 0) {
+            log.warn("Synthetic dataset with prefix '{}' already exists; choose another app.datagen.code-prefix",
+                    spec.getCodePrefix());
+        } else {
+            JdbcDatasetSink sink = new JdbcDatasetSink(jdbcTemplate, spec.getBatchSize());
+            log.info("Generating synthetic dataset (seed {}, {} days) using {}", spec.getSeed(),
+                    spec.getHistoryDays(), sink.isPostgres() ? "COPY" : "batch inserts");
+            new SyntheticDatasetGenerator(spec, sink, passwordEncoder.encode(spec.getUserPassword())).generate();
+        }
+
+        if (spec.isExitOnFinish()) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.crownbyte.Saphire.dispatch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pending production steps per location and per machine, kept in memory in dispatch
+ * order so "next job" and queue depth never reach the database. Only steps whose
+ * earlier route stages have completed are queued; completing a step re-reads its
+ * instance, which queues the next stage.
+ * <p>
+ * Each queue is a skip list with its own size, so readers never block and never
+ * count. Changes are applied under one lock; inside a transaction they wait for the
+ * commit, so a rolled back change never shows. The queues are rebuilt from the
+ * database on startup and every {@code queue-rebuild-interval-ms}, which also picks
+ * up writes from other instances; changes committed while a rebuild reads are
+ * replayed onto the new queues before they replace the old ones.
+ * <p>
+ * The queues are a read model: claiming a step still goes through the database.
+ */
+@Component
+@Slf4j
+public class DispatchQueues {
+
+    private final StepDispatchStore store;
+    private final Object rebuildLock = new Object();
+
+    private volatile Queues queues = new Queues();
+    /** Changes applied while a rebuild is loading, replayed onto its result. Guarded by {@code this}. */
+    private List<Consumer<Queues>> journal;
+
+    public DispatchQueues(StepDispatchStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        meterRegistry.gauge("saphire.dispatch.queued", this, q -> q.queues.byStep.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.dispatch.queue-rebuild-interval-ms:300000}",
+            initialDelayString = "${app.dispatch.queue-rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            List<QueuedStep> steps;
+            try {
+                steps = store.loadQueuedSteps();
+            } catch (Exception e) {
+                synchronized (this) {
+                    journal = null;
+                }
+                log.error("Failed to rebuild dispatch queues: {}", e.getMessage());
+                return;
+            }
+            Queues next = new Queues();
+            steps.forEach(next::put);
+            synchronized (this) {
+                journal.forEach(change -> change.accept(next));
+                journal = null;
+                queues = next;
+            }
+            log.info("Rebuilt dispatch queues with {} pending steps", steps.size());
+        }
+    }
+
+    public Optional<QueuedStep> nextAtLocation(Long locationId) {
+        return head(queues.byLocation.get(locationId), 1).stream().findFirst();
+    }
+
+    public Optional<QueuedStep> nextForMachine(Long machineId) {
+        return head(queues.byMachine.get(machineId), 1).stream().findFirst();
+    }
+
+    /** The first {@code limit} steps of the location's queue, in dispatch order. */
+    public List<QueuedStep> headAtLocation(Long locationId, int limit) {
+        return head(queues.byLocation.get(locationId), limit);
+    }
+
+    public List<QueuedStep> headForMachine(Long machineId, int limit) {
+        return head(queues.byMachine.get(machineId), limit);
+    }
+
+    public int depthAtLocation(Long locationId) {
+        StepQueue queue = queues.byLocation.get(locationId);
+        return queue != null ? queue.size.get() : 0;
+    }
+
+    public int depthForMachine(Long machineId) {
+        StepQueue queue = queues.byMachine.get(machineId);
+        return queue != null ? queue.size.get() : 0;
+    }
+
+    /** Queues new or changed pending steps, replacing earlier entries of the same steps. */
+    public void putAll(Collection<QueuedStep> steps) {
+        List<QueuedStep> copy = List.copyOf(steps);
+        afterCommit(q -> copy.forEach(q::put));
+    }
+
+    /** Takes a step off the queues, e.g. once it has been claimed. */
+    public void remove(Long stepId) {
+        afterCommit(q -> q.remove(stepId));
+    }
+
+    /**
+     * Re-reads the pending steps of an instance after its status or priority changed,
+     * or after one of its steps completed.
+     * Inside a transaction the read sees its uncommitted changes, so flush JPA
+     * changes first.
+     */
+    public void refreshInstance(Long instanceId) {
+        List<QueuedStep> steps = store.loadQueuedSteps(instanceId);
+        afterCommit(q -> {
+            q.removeInstance(instanceId);
+            steps.forEach(q::put);
+        });
+    }
+
+    public void removeInstance(Long instanceId) {
+        afterCommit(q -> q.removeInstance(instanceId));
+    }
+
+    private void afterCommit(Consumer<Queues> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<Queues> change) {
+        change.accept(queues);
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    private static List<QueuedStep> head(StepQueue queue, int limit) {
+        if (queue == null) {
+            return List.of();
+        }
+        List<QueuedStep> head = new ArrayList<>(Math.min(limit, 16));
+        Iterator<QueuedStep> steps = queue.steps.iterator();
+        while (head.size() < limit && steps.hasNext()) {
+            head.add(steps.next());
+        }
+        return head;
+    }
+
+    /** One full set of queues. Readers use the concurrent maps; writers hold the lock of the outer object. */
+    private static final class Queues {
+        private final Map<Long, StepQueue> byLocation = new ConcurrentHashMap<>();
+        private final Map<Long, StepQueue> byMachine = new ConcurrentHashMap<>();
+        private final Map<Long, QueuedStep> byStep = new ConcurrentHashMap<>();
+        private final Map<Long, Set<Long>> stepsByInstance = new HashMap<>();
+
+        private void put(QueuedStep step) {
+            remove(step.getStepId());
+            byStep.put(step.getStepId(), step);
+            byLocation.computeIfAbsent(step.getLocationId(), id -> new StepQueue()).add(step);
+            if (step.getMachineId() != null) {
+                byMachine.computeIfAbsent(step.getMachineId(), id -> new StepQueue()).add(step);
+            }
+            stepsByInstance.computeIfAbsent(step.getProductInstanceId(), id -> new HashSet<>()).add(step.getStepId());
+        }
+
+        private void remove(Long stepId) {
+            QueuedStep step = byStep.remove(stepId);
+            if (step == null) {
+                return;
+            }
+            byLocation.get(step.getLocationId()).remove(step);
+            if (step.getMachineId() != null) {
+                byMachine.get(step.getMachineId()).remove(step);
+            }
+            Set<Long> siblings = stepsByInstance.get(step.getProductInstanceId());
+            siblings.remove(stepId);
+            if (siblings.isEmpty()) {
+                stepsByInstance.remove(step.getProductInstanceId());
+            }
+        }
+
+        private void removeInstance(Long instanceId) {
+            Set<Long> stepIds = stepsByInstance.get(instanceId);
+            if (stepIds != null) {
+                new ArrayList<>(stepIds).forEach(this::remove);
+            }
+        }
+    }
+
+    private static final class StepQueue {
+        private final ConcurrentSkipListSet<QueuedStep> steps = new ConcurrentSkipListSet<>(QueuedStep.DISPATCH_ORDER);
+        private final AtomicInteger size = new AtomicInteger();
+
+        private void add(QueuedStep step) {
+            if (steps.add(step)) {
+                size.incrementAndGet();
+            }
+        }
+
+        private void remove(QueuedStep step) {
+            if (steps.remove(step)) {
+                size.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.crownbyte.Saphire.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * A pending production step as held in the in-memory dispatch queues. Immutable;
+ * a change to the step or its instance replaces the entry.
+ */
+@Getter
+@AllArgsConstructor
+public final class QueuedStep {
+
+    /** Dispatch order: highest priority first, then due date, then step id; nulls last. */
+    public static final Comparator<QueuedStep> DISPATCH_ORDER = Comparator
+            .comparing(QueuedStep::getPriority, Comparator.nullsLast(Comparator.<Integer>reverseOrder()))
+            .thenComparing(QueuedStep::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(QueuedStep::getStepId);
+
+    private final Long stepId;
+    private final Long productInstanceId;
+    private final String serialNumber;
+    private final Long routeStepId;
+    private final String stepName;
+    /** Null when the step has no machine yet; it is then only queued at its location. */
+    private final Long machineId;
+    private final Long locationId;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+}
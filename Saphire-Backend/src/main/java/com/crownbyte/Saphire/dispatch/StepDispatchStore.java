@@ -0,0 +1,284 @@
+package com.crownbyte.Saphire.dispatch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * JDBC access for step dispatch. On PostgreSQL the next step is claimed with a single
+ * {@code UPDATE ... WHERE id = (SELECT ... FOR UPDATE SKIP LOCKED)}: concurrent claims
+ * for the same machine each lock a different row instead of queueing behind one.
+ * Elsewhere (H2 in tests) candidates are read first and taken with a conditional
+ * update; callers serialize those claims per machine.
+ */
+@Component
+@Slf4j
+public class StepDispatchStore {
+
+    /** Candidates tried by the conditional claim before giving up. */
+    private static final int CANDIDATES = 8;
+
+    /**
+     * Route steps with the first step order of their stage: a PARALLEL step's stage
+     * starts at the first of the run of PARALLEL steps it belongs to, which run
+     * alongside each other; any other step is a stage of its own.
+     */
+    private static final String ROUTE_STAGES = "(SELECT s.id, s.step_name, CASE WHEN s.step_type = 'PARALLEL' " +
+            "THEN (SELECT MIN(fs.step_order) FROM product_route_steps fs WHERE fs.route_id = s.route_id " +
+            "AND fs.step_order <= s.step_order AND fs.step_type = 'PARALLEL' " +
+            "AND NOT EXISTS (SELECT 1 FROM product_route_steps mid WHERE mid.route_id = s.route_id " +
+            "AND mid.step_order > fs.step_order AND mid.step_order < s.step_order " +
+            "AND mid.step_type <> 'PARALLEL')) " +
+            "ELSE s.step_order END AS stage_start FROM product_route_steps s)";
+
+    /** Step order of the instance's earliest step that is not COMPLETED yet. */
+    private static final String FIRST_OPEN = "(SELECT MIN(prs.step_order) FROM production_steps prev " +
+            "JOIN product_route_steps prs ON prs.id = prev.route_step_id " +
+            "WHERE prev.product_instance_id = ps.product_instance_id AND prev.status <> 'COMPLETED')";
+
+    /**
+     * A step can be dispatched once every step of its instance in an earlier route
+     * stage has completed, i.e. when no open step comes before its stage.
+     */
+    private static final String PENDING_FOR_MACHINE = "FROM production_steps ps " +
+            "JOIN product_instances pi ON pi.id = ps.product_instance_id " +
+            "LEFT JOIN " + ROUTE_STAGES + " rs ON rs.id = ps.route_step_id " +
+            "WHERE ps.machine_id = ? AND ps.status = 'PENDING' AND pi.status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND (rs.id IS NULL OR rs.stage_start <= " + FIRST_OPEN + ") " +
+            "ORDER BY pi.priority DESC NULLS LAST, pi.due_date ASC NULLS LAST, ps.id ";
+
+    /**
+     * Pending steps that can be dispatched now. The earliest open step order is taken
+     * per instance in one pass rather than per step, which would be quadratic in the
+     * steps of an instance.
+     */
+    private static final String QUEUED_STEPS = "SELECT ps.id, ps.product_instance_id, pi.serial_number, " +
+            "ps.route_step_id, rs.step_name, ps.machine_id, pi.location_id, pi.priority, pi.due_date " +
+            "FROM production_steps ps " +
+            "JOIN product_instances pi ON pi.id = ps.product_instance_id " +
+            "LEFT JOIN " + ROUTE_STAGES + " rs ON rs.id = ps.route_step_id " +
+            "LEFT JOIN (SELECT prev.product_instance_id, MIN(prs.step_order) AS first_open " +
+            "FROM production_steps prev JOIN product_route_steps prs ON prs.id = prev.route_step_id " +
+            "WHERE prev.status <> 'COMPLETED' GROUP BY prev.product_instance_id) open_steps " +
+            "ON open_steps.product_instance_id = ps.product_instance_id " +
+            "WHERE ps.status = 'PENDING' AND pi.status IN ('PENDING', 'IN_PROGRESS') " +
+            "AND (rs.id IS NULL OR rs.stage_start <= open_steps.first_open)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean skipLocked;
+
+    public StepDispatchStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        this.skipLocked = "PostgreSQL".equalsIgnoreCase(database);
+        log.info("Step dispatch on {} claims with {}", database,
+                skipLocked ? "FOR UPDATE SKIP LOCKED" : "per-machine serialized conditional updates");
+    }
+
+    public boolean supportsSkipLocked() {
+        return skipLocked;
+    }
+
+    /**
+     * Moves the highest-priority pending step of the machine to IN_PROGRESS for the
+     * operator and returns its id. Must run inside a transaction.
+     */
+    public Optional<Long> claimNext(Long machineId, Long operatorId, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        if (skipLocked) {
+            List<Long> claimed = jdbcTemplate.queryForList(
+                    "UPDATE production_steps SET status = 'IN_PROGRESS', operator_id = ?, started_at = ?, " +
+                            "updated_at = ? WHERE id = (SELECT ps.id " + PENDING_FOR_MACHINE +
+                            "LIMIT 1 FOR UPDATE OF ps SKIP LOCKED) RETURNING id",
+                    Long.class, operatorId, at, at, machineId);
+            return claimed.stream().findFirst();
+        }
+
+        List<Long> candidates = jdbcTemplate.queryForList("SELECT ps.id " + PENDING_FOR_MACHINE + "LIMIT ?",
+                Long.class, machineId, CANDIDATES);
+        for (Long stepId : candidates) {
+            int updated = jdbcTemplate.update(
+                    "UPDATE production_steps SET status = 'IN_PROGRESS', operator_id = ?, started_at = ?, " +
+                            "updated_at = ? WHERE id = ? AND status = 'PENDING'",
+                    operatorId, at, at, stepId);
+            if (updated == 1) {
+                return Optional.of(stepId);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public ClaimedStep loadClaimedStep(Long stepId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT ps.id, ps.product_instance_id, pi.serial_number, pi.priority, pi.due_date, " +
+                        "ps.route_step_id, rs.step_name, rs.step_order, rs.estimated_setup_minutes, " +
+                        "rs.estimated_cycle_minutes, ps.machine_id, m.location_id, ps.operator_id, ps.started_at, " +
+                        "COALESCE(ps.retry_count, 0) " +
+                        "FROM production_steps ps " +
+                        "JOIN product_instances pi ON pi.id = ps.product_instance_id " +
+                        "JOIN product_route_steps rs ON rs.id = ps.route_step_id " +
+                        "JOIN machines m ON m.id = ps.machine_id " +
+                        "WHERE ps.id = ?",
+                (rs, row) -> {
+                    Timestamp dueDate = rs.getTimestamp(5);
+                    Timestamp startedAt = rs.getTimestamp(14);
+                    return new ClaimedStep(
+                            rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getObject(4, Integer.class),
+                            dueDate != null ? dueDate.toLocalDateTime() : null,
+                            rs.getLong(6), rs.getString(7), rs.getInt(8), rs.getInt(9), rs.getInt(10),
+                            rs.getLong(11), rs.getLong(12), rs.getObject(13, Long.class),
+                            startedAt != null ? startedAt.toLocalDateTime() : null, rs.getInt(15));
+                },
+                stepId);
+    }
+
+    /** Marks the instance started when this is its first claimed step. */
+    public void startInstance(Long instanceId, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        jdbcTemplate.update(
+                "UPDATE product_instances SET status = 'IN_PROGRESS', started_at = ?, updated_at = ? " +
+                        "WHERE id = ? AND status = 'PENDING'",
+                at, at, instanceId);
+    }
+
+    /**
+     * Points machine_status at the claimed step and operator and puts the machine in
+     * RUNNING; a machine that is already running keeps its {@code status_since}.
+     */
+    public void saveRunningStep(ClaimedStep step, LocalDateTime now, LocalDateTime estimatedFinishAt) {
+        Timestamp at = Timestamp.valueOf(now);
+        Timestamp finishAt = Timestamp.valueOf(estimatedFinishAt);
+        Object[] updateArgs = {
+                at, step.getProductInstanceId(), step.getStepId(), step.getOperatorId(), finishAt, at,
+                step.getMachineId()
+        };
+        String update = "UPDATE machine_status SET current_status = 'RUNNING', " +
+                "status_since = CASE WHEN current_status = 'RUNNING' THEN status_since ELSE ? END, " +
+                "current_instance_id = ?, current_step_id = ?, current_operator_id = ?, " +
+                "estimated_finish_at = ?, updated_at = ? WHERE machine_id = ?";
+        if (jdbcTemplate.update(update, updateArgs) != 0) {
+            return;
+        }
+        int inserted = jdbcTemplate.update(
+                "INSERT INTO machine_status (machine_id, current_status, status_since, current_instance_id, " +
+                        "current_step_id, current_operator_id, estimated_finish_at, updated_at) " +
+                        "SELECT ?, 'RUNNING', ?, ?, ?, ?, ?, ? " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM machine_status WHERE machine_id = ?)",
+                step.getMachineId(), at, step.getProductInstanceId(), step.getStepId(), step.getOperatorId(),
+                finishAt, at, step.getMachineId());
+        if (inserted == 0) {
+            // The first status report of the machine was written in the meantime
+            jdbcTemplate.update(update, updateArgs);
+        }
+    }
+
+    /**
+     * Closes the step with the given final status when it is in progress on the
+     * machine; returns false otherwise. Must run inside a transaction.
+     */
+    public boolean finishStep(Long stepId, Long machineId, String status, String failureReason,
+            String correctiveAction, String notes, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        return jdbcTemplate.update(
+                "UPDATE production_steps SET status = ?, finished_at = ?, failure_reason = ?, corrective_action = ?, " +
+                        "notes = COALESCE(?, notes), updated_at = ? " +
+                        "WHERE id = ? AND machine_id = ? AND status = 'IN_PROGRESS'",
+                status, at, failureReason, correctiveAction, notes, at, stepId, machineId) == 1;
+    }
+
+    /**
+     * Puts a step that failed on the machine back in the queue: it returns to PENDING
+     * with its retry count raised, keeping the failure and the failed attempt's times and
+     * operator until it is claimed again. Returns false unless the step was in progress
+     * on the machine. Must run inside a transaction.
+     */
+    public boolean requeueFailedStep(Long stepId, Long machineId, String failureReason, String correctiveAction,
+            String notes, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        return jdbcTemplate.update(
+                "UPDATE production_steps SET status = 'PENDING', retry_count = COALESCE(retry_count, 0) + 1, " +
+                        "finished_at = ?, failure_reason = ?, corrective_action = ?, notes = COALESCE(?, notes), " +
+                        "updated_at = ? WHERE id = ? AND machine_id = ? AND status = 'IN_PROGRESS'",
+                at, failureReason, correctiveAction, notes, at, stepId, machineId) == 1;
+    }
+
+    /** Marks the instance completed once all of its steps are. */
+    public boolean completeInstanceIfDone(Long instanceId, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        return jdbcTemplate.update(
+                "UPDATE product_instances SET status = 'COMPLETED', completed_at = ?, updated_at = ? " +
+                        "WHERE id = ? AND status = 'IN_PROGRESS' AND NOT EXISTS (SELECT 1 FROM production_steps " +
+                        "WHERE product_instance_id = ? AND status <> 'COMPLETED')",
+                at, at, instanceId, instanceId) == 1;
+    }
+
+    /** Puts the machine back to IDLE if it is still on the finished step. */
+    public boolean releaseMachine(Long machineId, Long stepId, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        return jdbcTemplate.update(
+                "UPDATE machine_status SET current_status = 'IDLE', status_since = ?, current_instance_id = NULL, " +
+                        "current_step_id = NULL, current_operator_id = NULL, estimated_finish_at = NULL, " +
+                        "updated_at = ? WHERE machine_id = ? AND current_step_id = ?",
+                at, at, machineId, stepId) == 1;
+    }
+
+    public boolean stepExists(Long stepId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM production_steps WHERE id = ?",
+                Integer.class, stepId);
+        return count != null && count > 0;
+    }
+
+    /** Every dispatchable pending step of an active instance, for rebuilding the dispatch queues. */
+    public List<QueuedStep> loadQueuedSteps() {
+        return jdbcTemplate.query(QUEUED_STEPS, (rs, row) -> toQueuedStep(rs));
+    }
+
+    /** Dispatchable pending steps of one instance; empty unless the instance is active. */
+    public List<QueuedStep> loadQueuedSteps(Long instanceId) {
+        return jdbcTemplate.query(QUEUED_STEPS + " AND pi.id = ?", (rs, row) -> toQueuedStep(rs), instanceId);
+    }
+
+    public boolean machineExists(Long machineId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM machines WHERE id = ?", Integer.class,
+                machineId);
+        return count != null && count > 0;
+    }
+
+    private static QueuedStep toQueuedStep(ResultSet rs) throws SQLException {
+        Timestamp dueDate = rs.getTimestamp(9);
+        return new QueuedStep(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getObject(4, Long.class),
+                rs.getString(5), rs.getObject(6, Long.class), rs.getLong(7), rs.getObject(8, Integer.class),
+                dueDate != null ? dueDate.toLocalDateTime() : null);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ClaimedStep {
+        private final Long stepId;
+        private final Long productInstanceId;
+        private final String serialNumber;
+        private final Integer priority;
+        private final LocalDateTime dueDate;
+        private final Long routeStepId;
+        private final String stepName;
+        private final Integer stepOrder;
+        private final int estimatedSetupMinutes;
+        private final int estimatedCycleMinutes;
+        private final Long machineId;
+        private final Long locationId;
+        private final Long operatorId;
+        private final LocalDateTime startedAt;
+        private final int retryCount;
+    }
+}
@@ -0,0 +1,19 @@
+package com.crownbyte.Saphire.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusEventBatchRequest {
+
+    @NotEmpty(message = "Events are required")
+    @Size(max = 5000, message = "At most 5000 events per batch")
+    private List<@Valid MachineStatusEventRequest> events;
+}
@@ -0,0 +1,27 @@
+package com.crownbyte.Saphire.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusEventRequest {
+
+    @NotNull(message = "Machine ID is required")
+    private Long machineId;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    /** When the device observed the state; the receive time when omitted. */
+    private LocalDateTime occurredAt;
+
+    @Size(max = 100)
+    private String source;
+}
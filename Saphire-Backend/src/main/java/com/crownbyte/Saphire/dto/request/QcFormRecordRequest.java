@@ -16,6 +16,9 @@ public class QcFormRecordRequest {
     @NotNull(message = "Template ID is required")
     private Long templateId;
 
+    // Version the form was filled against; the template's current version when absent
+    private Integer templateVersion;
+
     private Long machineId;
 
     private Long productInstanceId;
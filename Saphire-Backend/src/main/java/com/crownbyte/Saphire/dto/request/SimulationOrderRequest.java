@@ -0,0 +1,30 @@
+package com.crownbyte.Saphire.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationOrderRequest {
+
+    @NotNull(message = "Route ID is required")
+    private Long routeId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be positive")
+    @Max(value = 10000, message = "At most 10000 instances per order")
+    private Integer quantity;
+
+    private Integer priority;
+
+    private LocalDateTime dueDate;
+
+    /** When the order reaches the floor; now when not set. */
+    private LocalDateTime releaseAt;
+}
@@ -0,0 +1,32 @@
+package com.crownbyte.Saphire.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationRequest {
+
+    @NotEmpty(message = "Orders are required")
+    @Size(max = 20, message = "At most 20 orders per simulation")
+    private List<@Valid SimulationOrderRequest> orders;
+
+    /** Days simulated from now; 30 when not set. */
+    @Min(value = 1, message = "Horizon must be at least one day")
+    @Max(value = 3650, message = "Horizon must be at most 3650 days")
+    private Integer horizonDays;
+
+    /** Whether the pending and running work on the floor is simulated too; true when not set. */
+    private Boolean includeBacklog;
+
+    /** Machines taken out for the simulation, e.g. for planned maintenance. */
+    private List<Long> unavailableMachineIds;
+}
@@ -0,0 +1,35 @@
+package com.crownbyte.Saphire.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkOrderRequest {
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @NotNull(message = "Route ID is required")
+    private Long routeId;
+
+    @NotNull(message = "Location ID is required")
+    private Long locationId;
+
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be positive")
+    @Max(value = 10000, message = "At most 10000 instances per work order")
+    private Integer quantity;
+
+    private Integer priority;
+
+    private LocalDateTime dueDate;
+
+    private String notes;
+}
@@ -0,0 +1,22 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacklogImpactResponse {
+    /** Pending and running instances on the floor. */
+    private int instances;
+    /** Those with a due date, which attainment is measured on. */
+    private int withDueDate;
+    private int onTimeBefore;
+    private int onTimeAfter;
+    /** In [0, 1]; null when no instance has a due date. */
+    private Double dueDateAttainmentBefore;
+    private Double dueDateAttainmentAfter;
+    /** Instances on time without the orders but late with them. */
+    private int pushedLate;
+}
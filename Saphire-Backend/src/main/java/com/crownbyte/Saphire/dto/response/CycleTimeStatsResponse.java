@@ -0,0 +1,22 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleTimeStatsResponse {
+    /** Null for the figures pooled over all machines of the route step. */
+    private Long machineId;
+    /** Recent completed steps the figures are taken over. */
+    private int samples;
+    private int medianSeconds;
+    private int p90Seconds;
+    private long ewmaSeconds;
+    /** Minutes planning uses; null until there are enough samples. */
+    private Integer estimatedMinutes;
+    private LocalDateTime lastFinishedAt;
+}
@@ -0,0 +1,20 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchQueueResponse {
+    /** Set for a location queue. */
+    private Long locationId;
+    /** Set for a machine queue. */
+    private Long machineId;
+    /** Pending steps in the whole queue. */
+    private int depth;
+    /** The head of the queue in dispatch order; the first entry is the next job. */
+    private List<QueuedStepResponse> steps;
+}
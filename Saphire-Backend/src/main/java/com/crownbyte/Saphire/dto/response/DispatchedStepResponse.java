@@ -0,0 +1,25 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DispatchedStepResponse {
+    private Long stepId;
+    private Long productInstanceId;
+    private String serialNumber;
+    private Integer priority;
+    private LocalDateTime dueDate;
+    private Long routeStepId;
+    private String stepName;
+    private Integer stepOrder;
+    private Long machineId;
+    private Long operatorId;
+    private LocalDateTime startedAt;
+    /** Start plus the route step's setup and cycle estimates. */
+    private LocalDateTime estimatedFinishAt;
+}
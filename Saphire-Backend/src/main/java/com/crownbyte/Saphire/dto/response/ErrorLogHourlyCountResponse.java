@@ -0,0 +1,14 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorLogHourlyCountResponse {
+    private LocalDateTime hour;
+    private long occurrences;
+}
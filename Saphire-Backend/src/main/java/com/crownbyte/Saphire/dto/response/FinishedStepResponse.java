@@ -0,0 +1,24 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FinishedStepResponse {
+    private Long stepId;
+    private Long productInstanceId;
+    private String serialNumber;
+    private Long machineId;
+    private Long operatorId;
+    private String status;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    /** Whether this was the last open step of the instance. */
+    private boolean instanceCompleted;
+    /** Failed attempts so far; a FAILED step is back in the queue for another one. */
+    private int retryCount;
+}
@@ -0,0 +1,20 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InstanceScheduleResponse {
+    private Long productInstanceId;
+    private String serialNumber;
+    private Long locationId;
+    /** Planned finish of the last step; null while a step cannot be planned. */
+    private LocalDateTime estimatedCompletionAt;
+    /** Remaining steps in route order. */
+    private List<ScheduledStepResponse> steps;
+}
@@ -0,0 +1,17 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LiveMachineStatusResponse {
+    private Long machineId;
+    private Long locationId;
+    private String status;
+    private LocalDateTime since;
+    private LocalDateTime lastSeenAt;
+}
@@ -0,0 +1,20 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineScheduleResponse {
+    private Long machineId;
+    /** Planned steps on the machine, the running one included. */
+    private int depth;
+    /** When the machine runs out of planned work. */
+    private LocalDateTime freeAt;
+    /** The head of the machine's plan in start order. */
+    private List<ScheduledStepResponse> steps;
+}
@@ -0,0 +1,17 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusHistoryPointResponse {
+    private LocalDateTime start;
+    private LocalDateTime end;
+    /** Seconds spent in each state within the point, by state name. */
+    private Map<String, Long> seconds;
+}
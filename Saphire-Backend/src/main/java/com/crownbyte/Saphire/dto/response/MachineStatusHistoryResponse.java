@@ -0,0 +1,21 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusHistoryResponse {
+    private Long machineId;
+    /** RAW (one point per state interval), MINUTE or HOUR. */
+    private String resolution;
+    /** Width of each point; 0 for RAW. */
+    private long bucketSeconds;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<MachineStatusHistoryPointResponse> points;
+}
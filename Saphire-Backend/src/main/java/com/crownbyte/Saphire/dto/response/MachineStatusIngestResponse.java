@@ -0,0 +1,20 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusIngestResponse {
+    private int received;
+    /** Reports that changed a machine's state and will be persisted. */
+    private int transitions;
+    /** Reports that repeated the current state. */
+    private int heartbeats;
+    /** Reports older than one already applied, ignored. */
+    private int stale;
+    /** Reports for machine ids that do not exist, ignored. */
+    private int unknownMachines;
+}
@@ -0,0 +1,37 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OeeResponse {
+    private Long machineId;
+    private LocalDateTime periodStart;
+    private LocalDateTime periodEnd;
+    /** 1-based shift of the day; only set for shift periods. */
+    private Integer shift;
+
+    private long runningSeconds;
+    private long idleSeconds;
+    private long setupSeconds;
+    private long breakdownSeconds;
+    private long maintenanceSeconds;
+    private long offlineSeconds;
+    private long plannedSeconds;
+
+    private int completedSteps;
+    private long idealCycleSeconds;
+    private long actualCycleSeconds;
+    private int qcRecords;
+    private int qcFailed;
+
+    /** Ratios in [0, 1]; null when the period has no data for them. */
+    private Double availability;
+    private Double performance;
+    private Double quality;
+    private Double oee;
+}
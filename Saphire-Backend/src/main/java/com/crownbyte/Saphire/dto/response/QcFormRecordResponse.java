@@ -15,6 +15,7 @@ public class QcFormRecordResponse {
     private Long templateId;
     private String templateCode;
     private String templateName;
+    private Integer templateVersion;
     private Long machineId;
     private String machineName;
     private Long productInstanceId;
@@ -0,0 +1,34 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * List-screen view of a template: no header fields, sections or fields, only
+ * their counts. Clients load the parts they render through the section and
+ * field endpoints.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QcFormTemplateSummaryResponse {
+    private Long id;
+    private Long companyId;
+    private String companyName;
+    private String code;
+    private String name;
+    private String description;
+    private String contextType;
+    private Long productId;
+    private String productName;
+    private String scheduleType;
+    private Boolean requiresApproval;
+    private Boolean allowPartialSave;
+    private Integer version;
+    private Boolean active;
+    private long sectionCount;
+    private long fieldCount;
+    private LocalDateTime updatedAt;
+}
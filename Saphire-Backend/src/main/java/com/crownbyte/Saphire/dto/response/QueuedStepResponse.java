@@ -0,0 +1,21 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueuedStepResponse {
+    private Long stepId;
+    private Long productInstanceId;
+    private String serialNumber;
+    private Long routeStepId;
+    private String stepName;
+    private Long machineId;
+    private Long locationId;
+    private Integer priority;
+    private LocalDateTime dueDate;
+}
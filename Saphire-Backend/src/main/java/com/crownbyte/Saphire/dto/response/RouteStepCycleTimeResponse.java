@@ -0,0 +1,19 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RouteStepCycleTimeResponse {
+    private Long routeStepId;
+    private String stepName;
+    /** Estimated setup plus cycle minutes entered on the route step. */
+    private int configuredMinutes;
+    /** Null while the route step has no completed steps to learn from. */
+    private CycleTimeStatsResponse pooled;
+    private List<CycleTimeStatsResponse> machines;
+}
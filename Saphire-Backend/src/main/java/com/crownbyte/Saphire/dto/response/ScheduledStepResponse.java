@@ -0,0 +1,23 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScheduledStepResponse {
+    private Long stepId;
+    private Long productInstanceId;
+    private String serialNumber;
+    private Long routeStepId;
+    private String stepName;
+    private Integer stepOrder;
+    private Long machineId;
+    private boolean running;
+    /** Null when none of the step's machines is available. */
+    private LocalDateTime plannedStart;
+    private LocalDateTime plannedFinish;
+}
@@ -0,0 +1,22 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulatedMachineResponse {
+    private Long machineId;
+    private boolean available;
+    /** Busy share of the available time with the orders, in [0, 1]; null when never available. */
+    private Double utilization;
+    /** The same without the orders; null when the backlog was not simulated. */
+    private Double baselineUtilization;
+    /** Steps finished within the horizon. */
+    private int completedSteps;
+    /** Time-weighted mean and peak of the ready steps the machine could run. */
+    private double averageQueueLength;
+    private int maxQueueLength;
+}
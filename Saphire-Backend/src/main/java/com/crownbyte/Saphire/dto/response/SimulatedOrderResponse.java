@@ -0,0 +1,27 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulatedOrderResponse {
+    private Long routeId;
+    private int quantity;
+    private Integer priority;
+    private LocalDateTime dueDate;
+    /** Instances finished within the horizon. */
+    private int completed;
+    /** Instances finished by the due date; null without one. */
+    private Integer onTime;
+    /** Share of the order finished by the due date, in [0, 1]; null without one. */
+    private Double dueDateAttainment;
+    private LocalDateTime firstCompletionAt;
+    /** When the whole order is done; null when it does not finish within the horizon. */
+    private LocalDateTime lastCompletionAt;
+    /** Mean release-to-finish time of the finished instances. */
+    private Long averageLeadTimeMinutes;
+}
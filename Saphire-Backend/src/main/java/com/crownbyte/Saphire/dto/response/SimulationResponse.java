@@ -0,0 +1,24 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SimulationResponse {
+    private LocalDateTime startAt;
+    private LocalDateTime horizonEnd;
+    private List<SimulatedOrderResponse> orders;
+    /** Null when the backlog was not simulated. */
+    private BacklogImpactResponse backlog;
+    /** Machines that had work or a queue in either run. */
+    private List<SimulatedMachineResponse> machines;
+    /** Events processed by the run with the orders. */
+    private long events;
+    /** Wall-clock time of both runs. */
+    private long elapsedMillis;
+}
@@ -0,0 +1,13 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkOrderInstanceResponse {
+    private Long id;
+    private String serialNumber;
+}
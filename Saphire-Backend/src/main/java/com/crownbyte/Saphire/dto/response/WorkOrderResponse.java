@@ -0,0 +1,20 @@
+package com.crownbyte.Saphire.dto.response;
+
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkOrderResponse {
+    private Long productId;
+    private Long routeId;
+    private Long locationId;
+    private int quantity;
+    /** Production steps created per instance, one per route step. */
+    private int stepsPerInstance;
+    /** Created instances in serial number order. */
+    private List<WorkOrderInstanceResponse> instances;
+}
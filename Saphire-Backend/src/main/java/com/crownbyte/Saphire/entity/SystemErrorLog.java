@@ -28,8 +28,26 @@ public class SystemErrorLog {
 
     private LocalDateTime timestamp;
 
+    @Column(length = 64)
+    private String fingerprint;
+
+    @Builder.Default
+    private Integer occurrences = 1;
+
+    private LocalDateTime firstSeen;
+
+    private LocalDateTime lastSeen;
+
     @PrePersist
     protected void onCreate() {
-        timestamp = LocalDateTime.now();
+        if (timestamp == null) {
+            timestamp = LocalDateTime.now();
+        }
+        if (firstSeen == null) {
+            firstSeen = timestamp;
+        }
+        if (lastSeen == null) {
+            lastSeen = timestamp;
+        }
     }
 }
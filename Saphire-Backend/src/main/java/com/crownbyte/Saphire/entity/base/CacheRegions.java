@@ -0,0 +1,21 @@
+package com.crownbyte.Saphire.entity.base;
+
+/**
+ * Second-level cache regions. Each one is a size-bounded local cache created
+ * by {@code MasterDataCacheConfig}; an entity or collection mapped to a region
+ * that is not created there fails at startup.
+ */
+public final class CacheRegions {
+
+    /** Companies, locations, machines and products. */
+    public static final String MASTER_DATA = "master-data";
+
+    /** QC templates with their header fields, sections, fields and machine links. */
+    public static final String QC_TEMPLATES = "qc-templates";
+
+    /** Published template versions; immutable, so entries never expire. */
+    public static final String QC_TEMPLATE_VERSIONS = "qc-template-versions";
+
+    private CacheRegions() {
+    }
+}
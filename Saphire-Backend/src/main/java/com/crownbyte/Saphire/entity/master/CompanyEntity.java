@@ -1,13 +1,17 @@
 package com.crownbyte.Saphire.entity.master;
 
 import com.crownbyte.Saphire.entity.base.BaseEntity;
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.MASTER_DATA)
 @Table(name = "companies")
 @Getter
 @Setter
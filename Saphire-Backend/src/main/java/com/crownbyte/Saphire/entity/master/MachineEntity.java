@@ -1,11 +1,14 @@
 package com.crownbyte.Saphire.entity.master;
 
 import com.crownbyte.Saphire.entity.base.BaseEntity;
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.production.ProductionStepEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
 import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -13,6 +16,7 @@ import java.util.List;
 import java.util.Set;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.MASTER_DATA)
 @Table(name = "machines")
 @Getter
 @Setter
@@ -48,9 +52,6 @@ public class MachineEntity extends BaseEntity {
     @Column(name = "available_from")
     private LocalDateTime availableFrom;
 
-    @OneToOne(mappedBy = "machine", cascade = CascadeType.ALL)
-    private MachineStatusEntity status;
-
     @OneToMany(mappedBy = "machine")
     @Builder.Default
     private List<RouteStepMachineEntity> routeStepMachines = new ArrayList<>();
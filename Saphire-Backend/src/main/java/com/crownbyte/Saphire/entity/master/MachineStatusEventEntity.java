@@ -0,0 +1,52 @@
+package com.crownbyte.Saphire.entity.master;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One machine state transition. Rows are append-only and written in JDBC
+ * batches by {@code MachineStatusEventStore}; the mapping serves reads.
+ */
+@Entity
+@Table(name = "machine_status_events", indexes = {
+        @Index(name = "idx_machine_status_events_machine_time", columnList = "machine_id, occurred_at"),
+        @Index(name = "idx_machine_status_events_time", columnList = "occurred_at"),
+        @Index(name = "idx_machine_status_events_written", columnList = "written_at, id")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MachineStatusEventEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "machine_id", nullable = false, updatable = false)
+    private MachineEntity machine;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status", updatable = false)
+    private MachineStatusEnum previousStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private MachineStatusEnum status;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(length = 100, updatable = false)
+    private String source;
+
+    /** When the row was written; OEE aggregation reads events in this order. */
+    @Column(name = "written_at", nullable = false, updatable = false)
+    private LocalDateTime writtenAt;
+}
@@ -1,15 +1,19 @@
 package com.crownbyte.Saphire.entity.master;
 
 import com.crownbyte.Saphire.entity.base.BaseEntity;
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.production.ProductInstanceEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
 import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.MASTER_DATA)
 @Table(name = "products")
 @Getter
 @Setter
@@ -43,6 +43,10 @@ public class UserEntity extends BaseEntity {
     @Builder.Default
     private Boolean active = true;
 
+    @Column(name = "token_version", nullable = false)
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "operator")
     @Builder.Default
     private List<ProductionStepEntity> productionSteps = new ArrayList<>();
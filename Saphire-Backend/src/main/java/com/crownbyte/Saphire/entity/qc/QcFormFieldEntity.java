@@ -1,14 +1,18 @@
 package com.crownbyte.Saphire.entity.qc;
 
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import java.math.BigDecimal;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
 @Table(name = "qc_form_fields")
 @Getter
 @Setter
@@ -17,8 +21,10 @@ import java.util.List;
 @Builder
 public class QcFormFieldEntity {
 
+    // Pooled sequence (V18) so template edits can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qc_form_fields_id")
+    @SequenceGenerator(name = "qc_form_fields_id", sequenceName = "qc_form_fields_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -1,13 +1,17 @@
 package com.crownbyte.Saphire.entity.qc;
 
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.qc.enums.HeaderFieldTypeEnum;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
 @Table(name = "qc_form_header_fields")
 @Getter
 @Setter
@@ -16,8 +20,10 @@ import java.util.List;
 @Builder
 public class QcFormHeaderFieldEntity {
 
+    // Pooled sequence (V18) so template edits can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qc_form_header_fields_id")
+    @SequenceGenerator(name = "qc_form_header_fields_id", sequenceName = "qc_form_header_fields_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
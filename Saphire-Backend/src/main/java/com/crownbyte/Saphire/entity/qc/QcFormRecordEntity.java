@@ -32,6 +32,9 @@ public class QcFormRecordEntity {
     @JoinColumn(name = "template_id", nullable = false)
     private QcFormTemplateEntity template;
 
+    @Column(name = "template_version")
+    private Integer templateVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "machine_id")
     private MachineEntity machine;
@@ -1,13 +1,18 @@
 package com.crownbyte.Saphire.entity.qc;
 
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLRestriction;
 import org.hibernate.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
 @Table(name = "qc_form_sections")
 @Getter
 @Setter
@@ -16,8 +21,10 @@ import java.util.List;
 @Builder
 public class QcFormSectionEntity {
 
+    // Pooled sequence (V18) so template edits can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "qc_form_sections_id")
+    @SequenceGenerator(name = "qc_form_sections_id", sequenceName = "qc_form_sections_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -50,7 +57,10 @@ public class QcFormSectionEntity {
     @Column(name = "group_labels", columnDefinition = "jsonb")
     private List<String> groupLabels;
 
+    // Retired fields stay only for the values that reference them; edits would otherwise load every past version
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
     @OneToMany(mappedBy = "section", cascade = CascadeType.ALL, orphanRemoval = true)
+    @SQLRestriction("active = true")
     @OrderBy("fieldOrder ASC")
     @Builder.Default
     private List<QcFormFieldEntity> fields = new ArrayList<>();
@@ -1,6 +1,7 @@
 package com.crownbyte.Saphire.entity.qc;
 
 import com.crownbyte.Saphire.entity.base.BaseEntity;
+import com.crownbyte.Saphire.entity.base.CacheRegions;
 import com.crownbyte.Saphire.entity.master.CompanyEntity;
 import com.crownbyte.Saphire.entity.master.MachineEntity;
 import com.crownbyte.Saphire.entity.master.ProductEntity;
@@ -10,12 +11,15 @@ import com.crownbyte.Saphire.entity.qc.enums.ScheduleTypeEnum;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
 @Table(name = "qc_form_templates")
 @Getter
 @Setter
@@ -44,6 +48,7 @@ public class QcFormTemplateEntity extends BaseEntity {
     @Column(name = "context_type", nullable = false)
     private ContextTypeEnum contextType;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
         name = "qc_template_machines",
@@ -84,11 +89,13 @@ public class QcFormTemplateEntity extends BaseEntity {
     @JoinColumn(name = "created_by")
     private UserEntity createdBy;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
     @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("fieldOrder ASC")
     @Builder.Default
     private List<QcFormHeaderFieldEntity> headerFields = new ArrayList<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.QC_TEMPLATES)
     @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("sectionOrder ASC")
     @Builder.Default
@@ -0,0 +1,45 @@
+package com.crownbyte.Saphire.entity.qc;
+
+import com.crownbyte.Saphire.entity.base.CacheRegions;
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Type;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A published template version: the rendered template exactly as it was when
+ * the version was published. Rows are insert-only (updating one through the
+ * READ_ONLY cache fails), so they are cached without expiry.
+ */
+@Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = CacheRegions.QC_TEMPLATE_VERSIONS)
+@Table(name = "qc_form_template_versions")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QcFormTemplateVersionEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "template_id", nullable = false, updatable = false)
+    private QcFormTemplateEntity template;
+
+    @Column(nullable = false, updatable = false)
+    private Integer version;
+
+    @Type(JsonType.class)
+    @Column(columnDefinition = "jsonb", nullable = false, updatable = false)
+    private Map<String, Object> content;
+
+    @Column(name = "published_at", nullable = false, updatable = false)
+    @Builder.Default
+    private LocalDateTime publishedAt = LocalDateTime.now();
+}
@@ -0,0 +1,48 @@
+package com.crownbyte.Saphire.logging;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Occurrences of one error fingerprint collected between two flushes.
+ * The first message is kept as the sample description.
+ */
+@Getter
+public class ErrorAggregate {
+
+    private final String fingerprint;
+    private final String sourceClass;
+    private final String description;
+    private final LocalDateTime firstSeen;
+    private String ipAddress;
+    private LocalDateTime lastSeen;
+    private long count;
+
+    public ErrorAggregate(String fingerprint, String sourceClass, String ipAddress, String description,
+            LocalDateTime seenAt) {
+        this.fingerprint = fingerprint;
+        this.sourceClass = sourceClass;
+        this.ipAddress = ipAddress;
+        this.description = description;
+        this.firstSeen = seenAt;
+        this.lastSeen = seenAt;
+        this.count = 1;
+    }
+
+    void recordRepeat(String ipAddress, LocalDateTime seenAt) {
+        this.ipAddress = ipAddress;
+        if (seenAt.isAfter(lastSeen)) {
+            this.lastSeen = seenAt;
+        }
+        this.count++;
+    }
+
+    void merge(ErrorAggregate newer) {
+        this.ipAddress = newer.ipAddress;
+        if (newer.lastSeen.isAfter(lastSeen)) {
+            this.lastSeen = newer.lastSeen;
+        }
+        this.count += newer.count;
+    }
+}
@@ -0,0 +1,50 @@
+package com.crownbyte.Saphire.logging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Groups errors that differ only in their variable parts. The message is reduced
+ * to a template by masking ids, numbers and quoted values, then hashed together
+ * with the source class.
+ */
+public final class ErrorFingerprint {
+
+    private static final int MAX_TEMPLATE_LENGTH = 500;
+
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}\\b");
+    private static final Pattern QUOTED = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    private static final Pattern HEX = Pattern.compile("\\b0x[0-9a-fA-F]+\\b");
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    private ErrorFingerprint() {
+    }
+
+    public static String template(String message) {
+        if (message == null) {
+            return "";
+        }
+        String template = message.length() > MAX_TEMPLATE_LENGTH
+                ? message.substring(0, MAX_TEMPLATE_LENGTH)
+                : message;
+        template = UUID.matcher(template).replaceAll("<uuid>");
+        template = QUOTED.matcher(template).replaceAll("?");
+        template = HEX.matcher(template).replaceAll("#");
+        template = NUMBER.matcher(template).replaceAll("#");
+        return template;
+    }
+
+    public static String of(String sourceClass, String message) {
+        String key = (sourceClass != null ? sourceClass : "") + '|' + template(message);
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
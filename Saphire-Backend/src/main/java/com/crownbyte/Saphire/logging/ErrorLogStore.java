@@ -0,0 +1,132 @@
+package com.crownbyte.Saphire.logging;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes aggregated errors to system_error_logs. Each fingerprint gets at most one
+ * row per dedup window: repeats inside the window bump its counter, the first
+ * occurrence after the window opens a new row. Hourly totals per source class are
+ * kept alongside in system_error_log_hourly.
+ */
+@Component
+public class ErrorLogStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ErrorLogStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Writes the logs and the hourly totals of the aggregates in one transaction, so a
+     * failed write counts none of them and the caller can retry the same aggregates.
+     */
+    public void write(List<ErrorAggregate> aggregates, LocalDateTime windowStart) {
+        if (aggregates.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> writeInTransaction(aggregates, windowStart));
+    }
+
+    private void writeInTransaction(List<ErrorAggregate> aggregates, LocalDateTime windowStart) {
+        Timestamp window = Timestamp.valueOf(windowStart);
+
+        List<Object[]> updateArgs = new ArrayList<>(aggregates.size());
+        for (ErrorAggregate aggregate : aggregates) {
+            updateArgs.add(new Object[] {
+                    aggregate.getCount(),
+                    Timestamp.valueOf(aggregate.getLastSeen()),
+                    aggregate.getIpAddress(),
+                    aggregate.getFingerprint(),
+                    window
+            });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE system_error_logs SET occurrences = occurrences + ?, " +
+                        "last_seen = GREATEST(last_seen, ?), ip_address = ? " +
+                        "WHERE id = (SELECT MAX(id) FROM system_error_logs WHERE fingerprint = ? AND first_seen >= ?)",
+                updateArgs);
+
+        List<Object[]> insertArgs = new ArrayList<>();
+        for (int i = 0; i < aggregates.size(); i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            ErrorAggregate aggregate = aggregates.get(i);
+            Timestamp firstSeen = Timestamp.valueOf(aggregate.getFirstSeen());
+            insertArgs.add(new Object[] {
+                    aggregate.getIpAddress(),
+                    aggregate.getSourceClass(),
+                    aggregate.getDescription(),
+                    firstSeen,
+                    aggregate.getFingerprint(),
+                    aggregate.getCount(),
+                    firstSeen,
+                    Timestamp.valueOf(aggregate.getLastSeen())
+            });
+        }
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO system_error_logs (ip_address, source_class, description, timestamp, " +
+                            "fingerprint, occurrences, first_seen, last_seen) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    insertArgs);
+        }
+
+        List<Object[]> hourlyArgs = new ArrayList<>(aggregates.size());
+        for (ErrorAggregate aggregate : aggregates) {
+            hourlyArgs.add(new Object[] {
+                    Timestamp.valueOf(aggregate.getFirstSeen().truncatedTo(ChronoUnit.HOURS)),
+                    aggregate.getSourceClass() != null ? aggregate.getSourceClass() : "",
+                    aggregate.getCount()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO system_error_log_hourly (hour_start, source_class, occurrences) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (hour_start, source_class) " +
+                        "DO UPDATE SET occurrences = system_error_log_hourly.occurrences + EXCLUDED.occurrences",
+                hourlyArgs);
+    }
+
+    public Map<LocalDateTime, Long> loadHourlyCounts(LocalDateTime from, LocalDateTime to, String sourceClass) {
+        Map<LocalDateTime, Long> counts = new LinkedHashMap<>();
+        String sql = "SELECT hour_start, SUM(occurrences) FROM system_error_log_hourly " +
+                "WHERE hour_start >= ? AND hour_start < ?" +
+                (sourceClass != null ? " AND source_class = ?" : "") +
+                " GROUP BY hour_start ORDER BY hour_start";
+        Object[] args = sourceClass != null
+                ? new Object[] { Timestamp.valueOf(from), Timestamp.valueOf(to), sourceClass }
+                : new Object[] { Timestamp.valueOf(from), Timestamp.valueOf(to) };
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2));
+        }, args);
+        return counts;
+    }
+
+    /**
+     * Deletes at most {@code limit} of the oldest logs before the cutoff, returning how many went.
+     */
+    public int purgeLogsBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM system_error_logs WHERE id IN (" +
+                        "SELECT id FROM system_error_logs WHERE timestamp < ? ORDER BY timestamp LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    public int purgeHourlyBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM system_error_log_hourly WHERE hour_start < ?",
+                Timestamp.valueOf(cutoff));
+    }
+}
@@ -0,0 +1,144 @@
+package com.crownbyte.Saphire.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Buffers system errors in memory and writes them in batches, off the request thread.
+ * <p>
+ * Errors are keyed by {@link ErrorFingerprint}, so a storm of the same failure only
+ * bumps one counter. The buffer holds at most {@code max-pending} distinct
+ * fingerprints; when it is full the oldest one is dropped to make room, and drops
+ * are counted in a metric. A flush writes in chunks, and the aggregates of a chunk
+ * that failed are put back for the next try.
+ */
+@Component
+@Slf4j
+public class ErrorLogWriter {
+
+    private final ErrorLogStore store;
+    private final int maxPending;
+    private final int batchSize;
+    private final long dedupWindowSeconds;
+
+    private final LinkedHashMap<String, ErrorAggregate> pending;
+
+    private final Counter received;
+    private final Counter dropped;
+
+    public ErrorLogWriter(
+            ErrorLogStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.error-log.max-pending:1000}") int maxPending,
+            @Value("${app.error-log.batch-size:100}") int batchSize,
+            @Value("${app.error-log.dedup-window-seconds:300}") long dedupWindowSeconds) {
+        this.store = store;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.dedupWindowSeconds = dedupWindowSeconds;
+        this.pending = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ErrorAggregate> eldest) {
+                if (size() > ErrorLogWriter.this.maxPending) {
+                    dropped.increment(eldest.getValue().getCount());
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        this.received = Counter.builder("saphire.errorlog.received")
+                .description("System errors reported to the error log")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("saphire.errorlog.dropped")
+                .description("System errors dropped because the error log buffer was full")
+                .register(meterRegistry);
+        meterRegistry.gauge("saphire.errorlog.pending", this, ErrorLogWriter::pendingCount);
+    }
+
+    public void submit(String ipAddress, String sourceClass, String description) {
+        String fingerprint = ErrorFingerprint.of(sourceClass, description);
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (pending) {
+            ErrorAggregate existing = pending.get(fingerprint);
+            if (existing != null) {
+                existing.recordRepeat(ipAddress, now);
+            } else {
+                pending.put(fingerprint, new ErrorAggregate(fingerprint, sourceClass, ipAddress, description, now));
+            }
+        }
+        received.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.error-log.flush-interval-ms:2000}")
+    public void flush() {
+        List<ErrorAggregate> batch;
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+
+        // Each chunk is written atomically, so only the chunks that failed go back in the buffer
+        LocalDateTime windowStart = LocalDateTime.now().minusSeconds(dedupWindowSeconds);
+        List<ErrorAggregate> unwritten = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<ErrorAggregate> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                store.write(chunk, windowStart);
+            } catch (Exception e) {
+                log.error("Failed to write {} system error aggregates: {}", chunk.size(), e.getMessage());
+                unwritten.addAll(chunk);
+            }
+        }
+        if (!unwritten.isEmpty()) {
+            requeue(unwritten);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Puts unwritten aggregates back in front of anything reported since the flush
+     * started, so they are the first to go if the buffer overflows.
+     */
+    private void requeue(List<ErrorAggregate> unwritten) {
+        synchronized (pending) {
+            LinkedHashMap<String, ErrorAggregate> newer = new LinkedHashMap<>(pending);
+            pending.clear();
+            for (ErrorAggregate aggregate : unwritten) {
+                pending.put(aggregate.getFingerprint(), aggregate);
+            }
+            newer.forEach((fingerprint, aggregate) -> {
+                ErrorAggregate older = pending.get(fingerprint);
+                if (older != null) {
+                    older.merge(aggregate);
+                } else {
+                    pending.put(fingerprint, aggregate);
+                }
+            });
+        }
+    }
+}
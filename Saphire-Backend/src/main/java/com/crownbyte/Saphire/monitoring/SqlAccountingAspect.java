@@ -0,0 +1,41 @@
+package com.crownbyte.Saphire.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Opens a {@link SqlScope} around the outermost service call on a thread. Runs
+ * outside the transaction advice so statements flushed on commit are included.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SqlAccountingAspect {
+
+    private static final ThreadLocal<Boolean> IN_SERVICE = new ThreadLocal<>();
+
+    private final SqlHotspotRegistry registry;
+
+    @Around("within(com.crownbyte.Saphire.service..*) && within(@org.springframework.stereotype.Service *)")
+    public Object around(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (IN_SERVICE.get() != null) {
+            return joinPoint.proceed();
+        }
+
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        SqlScope scope = SqlScopeHolder.begin(targetClass.getSimpleName() + "." + joinPoint.getSignature().getName());
+        IN_SERVICE.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            IN_SERVICE.remove();
+            SqlScopeHolder.end(scope);
+            registry.record(SqlHotspotRegistry.KIND_SERVICE, scope);
+        }
+    }
+}
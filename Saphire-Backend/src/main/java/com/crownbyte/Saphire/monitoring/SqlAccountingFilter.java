@@ -0,0 +1,42 @@
+package com.crownbyte.Saphire.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link SqlScope} for each API request. Scopes are named after the
+ * matched route pattern rather than the raw URI, so /machines/1 and /machines/2
+ * are reported together.
+ */
+@RequiredArgsConstructor
+public class SqlAccountingFilter extends OncePerRequestFilter {
+
+    private final SqlHotspotRegistry registry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlScope scope = SqlScopeHolder.begin(request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlScopeHolder.end(scope);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : "UNMAPPED";
+            scope.rename(request.getMethod() + " " + route);
+            registry.record(SqlHotspotRegistry.KIND_HTTP, scope);
+        }
+    }
+}
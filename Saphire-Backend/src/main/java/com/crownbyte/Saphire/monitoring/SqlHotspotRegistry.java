@@ -0,0 +1,153 @@
+package com.crownbyte.Saphire.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates finished {@link SqlScope}s per endpoint and service method, and flags
+ * scopes that ran the same SELECT at least {@code nPlusOneThreshold} times, which
+ * almost always means an entity or association loaded once per row.
+ */
+@Slf4j
+public class SqlHotspotRegistry {
+
+    public static final String KIND_HTTP = "http";
+    public static final String KIND_SERVICE = "service";
+
+    private static final int MAX_SQL_LENGTH = 500;
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Map<String, Hotspot> hotspots = new ConcurrentHashMap<>();
+
+    public SqlHotspotRegistry(MeterRegistry meterRegistry, int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    public void record(String kind, SqlScope scope) {
+        Hotspot hotspot = hotspots.computeIfAbsent(kind + " " + scope.getName(),
+                key -> new Hotspot(kind, scope.getName()));
+        hotspot.add(scope);
+
+        DistributionSummary.builder("saphire.sql.statements")
+                .description("SQL statements executed per request or service call")
+                .tag("kind", kind)
+                .tag("scope", scope.getName())
+                .register(meterRegistry)
+                .record(scope.getStatements());
+
+        Map.Entry<String, Integer> repeated = scope.mostRepeated();
+        if (repeated != null && repeated.getValue() >= nPlusOneThreshold && isSelect(repeated.getKey())) {
+            hotspot.addNPlusOne(repeated.getKey(), repeated.getValue());
+            Counter.builder("saphire.sql.n_plus_one")
+                    .description("Requests or service calls that repeated the same SELECT")
+                    .tag("kind", kind)
+                    .tag("scope", scope.getName())
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Possible N+1 in {} {}: same statement ran {} times ({} statements total): {}",
+                    kind, scope.getName(), repeated.getValue(), scope.getStatements(),
+                    truncate(repeated.getKey()));
+        }
+    }
+
+    /**
+     * Scopes ordered by average statements per invocation, worst first.
+     */
+    public List<HotspotSnapshot> top(int limit) {
+        return hotspots.values().stream()
+                .map(Hotspot::snapshot)
+                .sorted(Comparator.comparingDouble(HotspotSnapshot::getAvgStatements).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        hotspots.clear();
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+    }
+
+    private static final class Hotspot {
+        private final String kind;
+        private final String name;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder sqlNanos = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final LongAdder nPlusOneCount = new LongAdder();
+        private final AtomicLong worstRepeat = new AtomicLong();
+        private volatile String worstRepeatedSql;
+
+        private Hotspot(String kind, String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+
+        private void add(SqlScope scope) {
+            invocations.increment();
+            statements.add(scope.getStatements());
+            rows.add(scope.getRows());
+            sqlNanos.add(scope.getSqlNanos());
+            maxStatements.accumulateAndGet(scope.getStatements(), Math::max);
+        }
+
+        private void addNPlusOne(String sql, int repeats) {
+            nPlusOneCount.increment();
+            if (repeats > worstRepeat.getAndAccumulate(repeats, Math::max)) {
+                worstRepeatedSql = truncate(sql);
+            }
+        }
+
+        private HotspotSnapshot snapshot() {
+            long calls = Math.max(1, invocations.sum());
+            return HotspotSnapshot.builder()
+                    .kind(kind)
+                    .name(name)
+                    .invocations(invocations.sum())
+                    .avgStatements((double) statements.sum() / calls)
+                    .maxStatements(maxStatements.get())
+                    .avgRows((double) rows.sum() / calls)
+                    .avgSqlMillis(sqlNanos.sum() / 1_000_000.0 / calls)
+                    .nPlusOneCount(nPlusOneCount.sum())
+                    .worstRepeat(worstRepeat.get())
+                    .worstRepeatedSql(worstRepeatedSql)
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    public static class HotspotSnapshot {
+        private String kind;
+        private String name;
+        private long invocations;
+        private double avgStatements;
+        private long maxStatements;
+        private double avgRows;
+        private double avgSqlMillis;
+        private long nPlusOneCount;
+        private long worstRepeat;
+        private String worstRepeatedSql;
+    }
+}
@@ -0,0 +1,32 @@
+package com.crownbyte.Saphire.monitoring;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/sqlhotspots}: endpoints and service methods ranked by SQL
+ * statements per call, with their worst repeated statement.
+ */
+@Endpoint(id = "sqlhotspots")
+@RequiredArgsConstructor
+public class SqlHotspotsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final SqlHotspotRegistry registry;
+
+    @ReadOperation
+    public List<SqlHotspotRegistry.HotspotSnapshot> hotspots(@Nullable Integer limit) {
+        return registry.top(limit != null && limit > 0 ? limit : DEFAULT_LIMIT);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.reset();
+    }
+}
@@ -0,0 +1,62 @@
+package com.crownbyte.Saphire.monitoring;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL activity collected while one HTTP request or service call runs.
+ * Confined to the thread that opened it.
+ */
+@Getter
+public class SqlScope {
+
+    private String name;
+    private final long startedAt = System.nanoTime();
+    private long statements;
+    private long rows;
+    private long sqlNanos;
+    private final Map<String, Integer> statementCounts = new HashMap<>();
+
+    public SqlScope(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Request scopes only learn their route pattern once the handler has been resolved.
+     */
+    void rename(String name) {
+        this.name = name;
+    }
+
+    void recordStatement(String sql, long nanos, long affectedRows) {
+        statements++;
+        sqlNanos += nanos;
+        rows += Math.max(0, affectedRows);
+        if (sql != null) {
+            statementCounts.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void recordRows(long count) {
+        rows += count;
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startedAt;
+    }
+
+    /**
+     * The statement executed most often in this scope, or null if none ran.
+     */
+    public Map.Entry<String, Integer> mostRepeated() {
+        Map.Entry<String, Integer> worst = null;
+        for (Map.Entry<String, Integer> entry : statementCounts.entrySet()) {
+            if (worst == null || entry.getValue() > worst.getValue()) {
+                worst = entry;
+            }
+        }
+        return worst;
+    }
+}
@@ -0,0 +1,63 @@
+package com.crownbyte.Saphire.monitoring;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Thread-bound stack of open {@link SqlScope}s. Every statement is counted in
+ * all scopes open on the executing thread, so a request scope sees the SQL of the
+ * service calls it makes.
+ */
+public final class SqlScopeHolder {
+
+    private static final ThreadLocal<Deque<SqlScope>> SCOPES = new ThreadLocal<>();
+
+    private SqlScopeHolder() {
+    }
+
+    public static SqlScope begin(String name) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            scopes = new ArrayDeque<>();
+            SCOPES.set(scopes);
+        }
+        SqlScope scope = new SqlScope(name);
+        scopes.push(scope);
+        return scope;
+    }
+
+    public static void end(SqlScope scope) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        scopes.remove(scope);
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return SCOPES.get() != null;
+    }
+
+    static void recordStatement(String sql, long nanos, long rows) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (SqlScope scope : scopes) {
+            scope.recordStatement(sql, nanos, rows);
+        }
+    }
+
+    static void recordRows(long count) {
+        Deque<SqlScope> scopes = SCOPES.get();
+        if (scopes == null) {
+            return;
+        }
+        for (SqlScope scope : scopes) {
+            scope.recordRows(count);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.crownbyte.Saphire.oee;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Folds new status events, completed production steps and submitted QC records
+ * into the hourly OEE aggregates.
+ * <p>
+ * Each source is read past its cursor in batches; a batch, its buckets and the moved
+ * cursor commit together, with the cursor rows locked, so every row is counted once
+ * even with several instances running. Sources are read in the order of a timestamp
+ * (when an event was written, a step finished or a record was submitted) and only
+ * once it is {@code settle-seconds} old, so rows committed late with an earlier
+ * timestamp or id are not skipped. A machine's state interval is counted when the
+ * event that ends it has been aggregated; until then it stays in oee_open_states.
+ * Closed intervals also fill the minute tier of the state history, for the part
+ * still within its retention.
+ */
+@Component
+@ConditionalOnProperty(name = "app.oee.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OeeAggregator {
+
+    private final OeeStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatches;
+    private final Duration settle;
+    private final int minuteRetentionDays;
+
+    private final Counter events;
+    private final Counter steps;
+    private final Counter qcRecords;
+
+    public OeeAggregator(
+            OeeStore store,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.oee.batch-size:5000}") int batchSize,
+            @Value("${app.oee.max-batches:100}") int maxBatches,
+            @Value("${app.oee.settle-seconds:120}") long settleSeconds,
+            @Value("${app.machine-status.minute-retention-days:14}") int minuteRetentionDays) {
+        this.store = store;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+        this.settle = Duration.ofSeconds(settleSeconds);
+        this.minuteRetentionDays = minuteRetentionDays;
+
+        this.events = rowCounter(meterRegistry, OeeStore.STATUS_EVENTS);
+        this.steps = rowCounter(meterRegistry, OeeStore.PRODUCTION_STEPS);
+        this.qcRecords = rowCounter(meterRegistry, OeeStore.QC_RECORDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.oee.aggregate-interval-ms:60000}")
+    public synchronized void aggregate() {
+        LocalDateTime upTo = LocalDateTime.now().minus(settle);
+        try {
+            for (int i = 0; i < maxBatches; i++) {
+                Boolean more = transactionTemplate.execute(status -> aggregateBatch(upTo));
+                if (!Boolean.TRUE.equals(more)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to aggregate OEE: {}", e.getMessage());
+        }
+    }
+
+    /** Folds in one batch of each source; returns whether any source has more. */
+    boolean aggregateBatch(LocalDateTime upTo) {
+        Map<String, OeeStore.Cursor> cursors = store.lockCursors();
+        OeeHours hours = new OeeHours();
+        StateMinutes minutes = new StateMinutes();
+        boolean more = foldStatusEvents(cursors.get(OeeStore.STATUS_EVENTS), upTo, hours, minutes);
+        more |= foldSteps(cursors.get(OeeStore.PRODUCTION_STEPS), upTo, hours);
+        more |= foldQcRecords(cursors.get(OeeStore.QC_RECORDS), upTo, hours);
+        store.addHours(hours.buckets());
+        store.addStateMinutes(minutes.minutes());
+        return more;
+    }
+
+    private boolean foldStatusEvents(OeeStore.Cursor cursor, LocalDateTime upTo, OeeHours hours,
+            StateMinutes minutes) {
+        List<OeeStore.StatusEvent> batch = store.loadStatusEvents(cursor, upTo, batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        Set<Long> machineIds = batch.stream().map(OeeStore.StatusEvent::getMachineId).collect(Collectors.toSet());
+        Map<Long, OeeStore.OpenState> open = store.loadOpenStates(machineIds);
+        Map<Long, OeeStore.OpenState> changed = new HashMap<>();
+        LocalDateTime minutesFrom = LocalDateTime.now().minusDays(minuteRetentionDays);
+        for (OeeStore.StatusEvent event : batch) {
+            OeeStore.OpenState current = open.get(event.getMachineId());
+            if (current != null) {
+                // An event older than the open state was superseded before it was written
+                if (event.getOccurredAt().isBefore(current.getSince())) {
+                    continue;
+                }
+                hours.addState(event.getMachineId(), current.getStatus(), current.getSince(), event.getOccurredAt());
+                LocalDateTime from = current.getSince().isAfter(minutesFrom) ? current.getSince() : minutesFrom;
+                minutes.addState(event.getMachineId(), current.getStatus(), from, event.getOccurredAt());
+            }
+            OeeStore.OpenState next = new OeeStore.OpenState(event.getMachineId(), event.getStatus(),
+                    event.getOccurredAt());
+            open.put(event.getMachineId(), next);
+            changed.put(event.getMachineId(), next);
+        }
+        store.saveOpenStates(changed.values());
+        OeeStore.StatusEvent last = batch.get(batch.size() - 1);
+        store.saveCursor(OeeStore.STATUS_EVENTS, new OeeStore.Cursor(last.getWrittenAt(), last.getId()));
+        events.increment(batch.size());
+        return batch.size() == batchSize;
+    }
+
+    private boolean foldSteps(OeeStore.Cursor cursor, LocalDateTime upTo, OeeHours hours) {
+        List<OeeStore.CompletedStep> batch = store.loadCompletedSteps(cursor, upTo, batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        for (OeeStore.CompletedStep step : batch) {
+            long actualSeconds = step.getStartedAt() != null
+                    ? Duration.between(step.getStartedAt(), step.getFinishedAt()).getSeconds()
+                    : 0;
+            hours.addStep(step.getMachineId(), step.getFinishedAt(), step.getEstimatedCycleMinutes() * 60L,
+                    actualSeconds);
+        }
+        OeeStore.CompletedStep last = batch.get(batch.size() - 1);
+        store.saveCursor(OeeStore.PRODUCTION_STEPS, new OeeStore.Cursor(last.getFinishedAt(), last.getId()));
+        steps.increment(batch.size());
+        return batch.size() == batchSize;
+    }
+
+    private boolean foldQcRecords(OeeStore.Cursor cursor, LocalDateTime upTo, OeeHours hours) {
+        List<OeeStore.QcResult> batch = store.loadQcResults(cursor, upTo, batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+        for (OeeStore.QcResult result : batch) {
+            hours.addQcRecord(result.getMachineId(), result.getSubmittedAt(), result.isFailed());
+        }
+        OeeStore.QcResult last = batch.get(batch.size() - 1);
+        store.saveCursor(OeeStore.QC_RECORDS, new OeeStore.Cursor(last.getSubmittedAt(), last.getId()));
+        qcRecords.increment(batch.size());
+        return batch.size() == batchSize;
+    }
+
+    private static Counter rowCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("saphire.oee.rows")
+                .description("Source rows folded into the hourly OEE aggregates")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,115 @@
+package com.crownbyte.Saphire.oee;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * OEE building blocks of one machine over one period: time in each state, cycle
+ * times of completed steps and QC results. Hours are stored like this in
+ * oee_hourly; shifts and days are sums of hours.
+ * <p>
+ * Planned time leaves out MAINTENANCE and OFFLINE, which are planned downtime
+ * rather than losses.
+ */
+@Getter
+public class OeeBucket {
+
+    private final Long machineId;
+    private final LocalDateTime start;
+    @Getter(AccessLevel.NONE)
+    private final long[] stateSeconds = new long[MachineStatusEnum.values().length];
+    private int completedSteps;
+    private long idealCycleSeconds;
+    private long actualCycleSeconds;
+    private int qcRecords;
+    private int qcFailed;
+
+    public OeeBucket(Long machineId, LocalDateTime start) {
+        this.machineId = machineId;
+        this.start = start;
+    }
+
+    public long getSeconds(MachineStatusEnum status) {
+        return stateSeconds[status.ordinal()];
+    }
+
+    public void addSeconds(MachineStatusEnum status, long seconds) {
+        stateSeconds[status.ordinal()] += seconds;
+    }
+
+    /**
+     * Counts one completed step; its cycle time only counts towards performance
+     * when both the estimate and the actual time are known.
+     */
+    public void addStep(long idealSeconds, long actualSeconds) {
+        completedSteps++;
+        if (idealSeconds > 0 && actualSeconds > 0) {
+            idealCycleSeconds += idealSeconds;
+            actualCycleSeconds += actualSeconds;
+        }
+    }
+
+    public void addQcRecord(boolean failed) {
+        qcRecords++;
+        if (failed) {
+            qcFailed++;
+        }
+    }
+
+    public void add(OeeBucket other) {
+        for (int i = 0; i < stateSeconds.length; i++) {
+            stateSeconds[i] += other.stateSeconds[i];
+        }
+        completedSteps += other.completedSteps;
+        idealCycleSeconds += other.idealCycleSeconds;
+        actualCycleSeconds += other.actualCycleSeconds;
+        qcRecords += other.qcRecords;
+        qcFailed += other.qcFailed;
+    }
+
+    /** Loads stored totals; the counterpart of the columns written by {@link OeeStore}. */
+    void set(long[] seconds, int completedSteps, long idealCycleSeconds, long actualCycleSeconds,
+            int qcRecords, int qcFailed) {
+        System.arraycopy(seconds, 0, stateSeconds, 0, stateSeconds.length);
+        this.completedSteps = completedSteps;
+        this.idealCycleSeconds = idealCycleSeconds;
+        this.actualCycleSeconds = actualCycleSeconds;
+        this.qcRecords = qcRecords;
+        this.qcFailed = qcFailed;
+    }
+
+    public long getPlannedSeconds() {
+        return getSeconds(MachineStatusEnum.RUNNING) + getSeconds(MachineStatusEnum.IDLE)
+                + getSeconds(MachineStatusEnum.SETUP) + getSeconds(MachineStatusEnum.BREAKDOWN);
+    }
+
+    /** Running share of planned time, or null without planned time. */
+    public Double getAvailability() {
+        long planned = getPlannedSeconds();
+        return planned > 0 ? (double) getSeconds(MachineStatusEnum.RUNNING) / planned : null;
+    }
+
+    /** Estimated over actual cycle time, capped at 1; null without timed steps. */
+    public Double getPerformance() {
+        return actualCycleSeconds > 0 ? Math.min(1.0, (double) idealCycleSeconds / actualCycleSeconds) : null;
+    }
+
+    /** Share of QC records that did not fail; null without QC records. */
+    public Double getQuality() {
+        return qcRecords > 0 ? (double) (qcRecords - qcFailed) / qcRecords : null;
+    }
+
+    /** Availability x performance x quality; null when any of them is unknown. */
+    public Double getOee() {
+        Double availability = getAvailability();
+        Double performance = getPerformance();
+        Double quality = getQuality();
+        if (availability == null || performance == null || quality == null) {
+            return null;
+        }
+        return availability * performance * quality;
+    }
+}
@@ -0,0 +1,7 @@
+package com.crownbyte.Saphire.oee;
+
+public enum OeeGranularity {
+    HOUR,
+    SHIFT,
+    DAY
+}
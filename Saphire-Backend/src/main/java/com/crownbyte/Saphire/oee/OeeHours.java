@@ -0,0 +1,85 @@
+package com.crownbyte.Saphire.oee;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Hour buckets per machine, filled from state intervals, completed steps and QC
+ * results. An interval that spans several hours is split at the hour boundaries.
+ */
+public class OeeHours {
+
+    private final Map<Key, OeeBucket> buckets = new HashMap<>();
+
+    /** Adds the time in {@code status} between {@code from} (inclusive) and {@code to} (exclusive). */
+    public void addState(Long machineId, MachineStatusEnum status, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from;
+        while (start.isBefore(to)) {
+            LocalDateTime hour = start.truncatedTo(ChronoUnit.HOURS);
+            LocalDateTime end = hour.plusHours(1);
+            if (end.isAfter(to)) {
+                end = to;
+            }
+            bucket(machineId, hour).addSeconds(status, Duration.between(start, end).getSeconds());
+            start = end;
+        }
+    }
+
+    /** Counts a step in the hour it finished. */
+    public void addStep(Long machineId, LocalDateTime finishedAt, long idealSeconds, long actualSeconds) {
+        bucket(machineId, finishedAt.truncatedTo(ChronoUnit.HOURS)).addStep(idealSeconds, actualSeconds);
+    }
+
+    public void addQcRecord(Long machineId, LocalDateTime submittedAt, boolean failed) {
+        bucket(machineId, submittedAt.truncatedTo(ChronoUnit.HOURS)).addQcRecord(failed);
+    }
+
+    public boolean isEmpty() {
+        return buckets.isEmpty();
+    }
+
+    /** The buckets ordered by machine and hour. */
+    public List<OeeBucket> buckets() {
+        return buckets.values().stream()
+                .sorted(Comparator.comparing(OeeBucket::getMachineId).thenComparing(OeeBucket::getStart))
+                .toList();
+    }
+
+    private OeeBucket bucket(Long machineId, LocalDateTime hour) {
+        return buckets.computeIfAbsent(new Key(machineId, hour), key -> new OeeBucket(machineId, hour));
+    }
+
+    private static final class Key {
+        private final Long machineId;
+        private final LocalDateTime hour;
+
+        private Key(Long machineId, LocalDateTime hour) {
+            this.machineId = machineId;
+            this.hour = hour;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return machineId.equals(other.machineId) && hour.equals(other.hour);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(machineId, hour);
+        }
+    }
+}
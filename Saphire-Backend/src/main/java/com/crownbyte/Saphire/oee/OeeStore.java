@@ -0,0 +1,309 @@
+package com.crownbyte.Saphire.oee;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access for the OEE aggregates: reads the source rows past each cursor and
+ * adds hour buckets to oee_hourly with an upsert, so folding in new rows never
+ * reads the stored totals back.
+ */
+@Component
+@RequiredArgsConstructor
+public class OeeStore {
+
+    public static final String STATUS_EVENTS = "STATUS_EVENTS";
+    public static final String PRODUCTION_STEPS = "PRODUCTION_STEPS";
+    public static final String QC_RECORDS = "QC_RECORDS";
+
+    /** Stands in for a cursor that has not moved yet. */
+    private static final Timestamp BEGINNING = Timestamp.valueOf(LocalDateTime.of(1970, 1, 1, 0, 0));
+
+    private static final String HOUR_COLUMNS = "running_seconds, idle_seconds, setup_seconds, " +
+            "maintenance_seconds, breakdown_seconds, offline_seconds, completed_steps, ideal_cycle_seconds, " +
+            "actual_cycle_seconds, qc_records, qc_failed";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Cursors by source, locked until the surrounding transaction ends. */
+    public Map<String, Cursor> lockCursors() {
+        Map<String, Cursor> cursors = new HashMap<>();
+        jdbcTemplate.query("SELECT source, last_time, last_id FROM oee_cursors FOR UPDATE", rs -> {
+            Timestamp lastTime = rs.getTimestamp(2);
+            cursors.put(rs.getString(1),
+                    new Cursor(lastTime != null ? lastTime.toLocalDateTime() : null, rs.getLong(3)));
+        });
+        return cursors;
+    }
+
+    public void saveCursor(String source, Cursor cursor) {
+        jdbcTemplate.update("UPDATE oee_cursors SET last_time = ?, last_id = ? WHERE source = ?",
+                cursor.getLastTime() != null ? Timestamp.valueOf(cursor.getLastTime()) : null,
+                cursor.getLastId(), source);
+    }
+
+    /** Status events written after the cursor and no later than {@code upTo}, in write order. */
+    public List<StatusEvent> loadStatusEvents(Cursor after, LocalDateTime upTo, int limit) {
+        Timestamp lastTime = after.getLastTime() != null ? Timestamp.valueOf(after.getLastTime()) : BEGINNING;
+        return jdbcTemplate.query(
+                "SELECT id, machine_id, status, occurred_at, written_at FROM machine_status_events " +
+                        "WHERE written_at <= ? AND (written_at > ? OR (written_at = ? AND id > ?)) " +
+                        "ORDER BY written_at, id LIMIT ?",
+                (rs, row) -> new StatusEvent(rs.getLong(1), rs.getLong(2),
+                        MachineStatusEnum.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime(),
+                        rs.getTimestamp(5).toLocalDateTime()),
+                Timestamp.valueOf(upTo), lastTime, lastTime, after.getLastId(), limit);
+    }
+
+    /** Completed steps finished after the cursor and no later than {@code upTo}, oldest first. */
+    public List<CompletedStep> loadCompletedSteps(Cursor after, LocalDateTime upTo, int limit) {
+        Timestamp lastTime = after.getLastTime() != null ? Timestamp.valueOf(after.getLastTime()) : BEGINNING;
+        return jdbcTemplate.query(
+                "SELECT ps.id, ps.machine_id, ps.started_at, ps.finished_at, rs.estimated_cycle_minutes " +
+                        "FROM production_steps ps LEFT JOIN product_route_steps rs ON rs.id = ps.route_step_id " +
+                        "WHERE ps.status = 'COMPLETED' AND ps.machine_id IS NOT NULL AND ps.finished_at <= ? " +
+                        "AND (ps.finished_at > ? OR (ps.finished_at = ? AND ps.id > ?)) " +
+                        "ORDER BY ps.finished_at, ps.id LIMIT ?",
+                (rs, row) -> new CompletedStep(rs.getLong(1), rs.getLong(2), toLocalDateTime(rs, 3),
+                        rs.getTimestamp(4).toLocalDateTime(), rs.getInt(5)),
+                Timestamp.valueOf(upTo), lastTime, lastTime, after.getLastId(), limit);
+    }
+
+    /**
+     * Submitted QC records with a result, after the cursor and no later than
+     * {@code upTo}. Records without a machine of their own count for the machine of
+     * their production step.
+     */
+    public List<QcResult> loadQcResults(Cursor after, LocalDateTime upTo, int limit) {
+        Timestamp lastTime = after.getLastTime() != null ? Timestamp.valueOf(after.getLastTime()) : BEGINNING;
+        return jdbcTemplate.query(
+                "SELECT r.id, COALESCE(r.machine_id, ps.machine_id), r.submitted_at, r.overall_result " +
+                        "FROM qc_form_records r LEFT JOIN production_steps ps ON ps.id = r.production_step_id " +
+                        "WHERE r.status IN ('SUBMITTED', 'APPROVED', 'REJECTED') AND r.overall_result IS NOT NULL " +
+                        "AND COALESCE(r.machine_id, ps.machine_id) IS NOT NULL AND r.submitted_at <= ? " +
+                        "AND (r.submitted_at > ? OR (r.submitted_at = ? AND r.id > ?)) " +
+                        "ORDER BY r.submitted_at, r.id LIMIT ?",
+                (rs, row) -> new QcResult(rs.getLong(1), rs.getLong(2), rs.getTimestamp(3).toLocalDateTime(),
+                        "FAIL".equals(rs.getString(4))),
+                Timestamp.valueOf(upTo), lastTime, lastTime, after.getLastId(), limit);
+    }
+
+    public Map<Long, OpenState> loadOpenStates(Collection<Long> machineIds) {
+        Map<Long, OpenState> states = new HashMap<>();
+        if (machineIds.isEmpty()) {
+            return states;
+        }
+        jdbcTemplate.query(
+                "SELECT machine_id, status, since FROM oee_open_states WHERE machine_id IN (" +
+                        placeholders(machineIds.size()) + ")",
+                rs -> {
+                    OpenState state = toOpenState(rs);
+                    states.put(state.getMachineId(), state);
+                },
+                machineIds.toArray());
+        return states;
+    }
+
+    /** Open states of one machine, of one location, or of every machine. */
+    public List<OpenState> loadOpenStates(Long machineId, Long locationId) {
+        return jdbcTemplate.query(
+                "SELECT o.machine_id, o.status, o.since FROM oee_open_states o " +
+                        "JOIN machines m ON m.id = o.machine_id " +
+                        "WHERE (CAST(? AS BIGINT) IS NULL OR o.machine_id = ?) " +
+                        "AND (CAST(? AS BIGINT) IS NULL OR m.location_id = ?)",
+                (rs, row) -> toOpenState(rs),
+                machineId, machineId, locationId, locationId);
+    }
+
+    public void saveOpenStates(Collection<OpenState> states) {
+        if (states.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(states.size());
+        for (OpenState state : states) {
+            args.add(new Object[] { state.getMachineId(), state.getStatus().name(), Timestamp.valueOf(state.getSince()) });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO oee_open_states (machine_id, status, since) VALUES (?, ?, ?) " +
+                        "ON CONFLICT (machine_id) DO UPDATE SET status = EXCLUDED.status, since = EXCLUDED.since",
+                args);
+    }
+
+    /** Adds the buckets to the stored hours, creating the hours that do not exist yet. */
+    public void addHours(List<OeeBucket> hours) {
+        if (hours.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(hours.size());
+        for (OeeBucket hour : hours) {
+            args.add(new Object[] {
+                    hour.getMachineId(), Timestamp.valueOf(hour.getStart()),
+                    hour.getSeconds(MachineStatusEnum.RUNNING), hour.getSeconds(MachineStatusEnum.IDLE),
+                    hour.getSeconds(MachineStatusEnum.SETUP), hour.getSeconds(MachineStatusEnum.MAINTENANCE),
+                    hour.getSeconds(MachineStatusEnum.BREAKDOWN), hour.getSeconds(MachineStatusEnum.OFFLINE),
+                    hour.getCompletedSteps(), hour.getIdealCycleSeconds(), hour.getActualCycleSeconds(),
+                    hour.getQcRecords(), hour.getQcFailed()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO oee_hourly (machine_id, hour_start, " + HOUR_COLUMNS + ") " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                        "ON CONFLICT (machine_id, hour_start) DO UPDATE SET " +
+                        "running_seconds = oee_hourly.running_seconds + EXCLUDED.running_seconds, " +
+                        "idle_seconds = oee_hourly.idle_seconds + EXCLUDED.idle_seconds, " +
+                        "setup_seconds = oee_hourly.setup_seconds + EXCLUDED.setup_seconds, " +
+                        "maintenance_seconds = oee_hourly.maintenance_seconds + EXCLUDED.maintenance_seconds, " +
+                        "breakdown_seconds = oee_hourly.breakdown_seconds + EXCLUDED.breakdown_seconds, " +
+                        "offline_seconds = oee_hourly.offline_seconds + EXCLUDED.offline_seconds, " +
+                        "completed_steps = oee_hourly.completed_steps + EXCLUDED.completed_steps, " +
+                        "ideal_cycle_seconds = oee_hourly.ideal_cycle_seconds + EXCLUDED.ideal_cycle_seconds, " +
+                        "actual_cycle_seconds = oee_hourly.actual_cycle_seconds + EXCLUDED.actual_cycle_seconds, " +
+                        "qc_records = oee_hourly.qc_records + EXCLUDED.qc_records, " +
+                        "qc_failed = oee_hourly.qc_failed + EXCLUDED.qc_failed",
+                args);
+    }
+
+    /** Adds the minutes to the minute tier of the state history. */
+    public void addStateMinutes(List<StateMinutes.Minute> minutes) {
+        if (minutes.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(minutes.size());
+        for (StateMinutes.Minute minute : minutes) {
+            args.add(new Object[] {
+                    minute.getMachineId(), Timestamp.valueOf(minute.getStart()), minute.getStatus().name(),
+                    minute.getSeconds()
+            });
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO machine_state_minutes (machine_id, minute_start, status, seconds) VALUES (?, ?, ?, ?) " +
+                        "ON CONFLICT (machine_id, minute_start, status) " +
+                        "DO UPDATE SET seconds = machine_state_minutes.seconds + EXCLUDED.seconds",
+                args);
+    }
+
+    /** Stored minutes of one machine in {@code [from, to)}, oldest first. */
+    public List<StateMinutes.Minute> loadStateMinutes(Long machineId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT machine_id, minute_start, status, seconds FROM machine_state_minutes " +
+                        "WHERE machine_id = ? AND minute_start >= ? AND minute_start < ? ORDER BY minute_start",
+                (rs, row) -> new StateMinutes.Minute(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(),
+                        MachineStatusEnum.valueOf(rs.getString(3)), rs.getLong(4)),
+                machineId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Deletes at most {@code limit} of the oldest minutes before the cutoff, returning how many went.
+     */
+    public int purgeStateMinutesBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM machine_state_minutes WHERE (machine_id, minute_start, status) IN (" +
+                        "SELECT machine_id, minute_start, status FROM machine_state_minutes " +
+                        "WHERE minute_start < ? ORDER BY minute_start LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    /**
+     * Stored hours in {@code [from, to)} of one machine, of one location, or of every
+     * machine, ordered by machine and hour.
+     */
+    public List<OeeBucket> loadHours(Long machineId, Long locationId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                "SELECT h.machine_id, h.hour_start, h.running_seconds, h.idle_seconds, h.setup_seconds, " +
+                        "h.maintenance_seconds, h.breakdown_seconds, h.offline_seconds, h.completed_steps, " +
+                        "h.ideal_cycle_seconds, h.actual_cycle_seconds, h.qc_records, h.qc_failed " +
+                        "FROM oee_hourly h JOIN machines m ON m.id = h.machine_id " +
+                        "WHERE h.hour_start >= ? AND h.hour_start < ? " +
+                        "AND (CAST(? AS BIGINT) IS NULL OR h.machine_id = ?) " +
+                        "AND (CAST(? AS BIGINT) IS NULL OR m.location_id = ?) " +
+                        "ORDER BY h.machine_id, h.hour_start",
+                (rs, row) -> {
+                    OeeBucket hour = new OeeBucket(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime());
+                    long[] seconds = new long[MachineStatusEnum.values().length];
+                    seconds[MachineStatusEnum.RUNNING.ordinal()] = rs.getLong(3);
+                    seconds[MachineStatusEnum.IDLE.ordinal()] = rs.getLong(4);
+                    seconds[MachineStatusEnum.SETUP.ordinal()] = rs.getLong(5);
+                    seconds[MachineStatusEnum.MAINTENANCE.ordinal()] = rs.getLong(6);
+                    seconds[MachineStatusEnum.BREAKDOWN.ordinal()] = rs.getLong(7);
+                    seconds[MachineStatusEnum.OFFLINE.ordinal()] = rs.getLong(8);
+                    hour.set(seconds, rs.getInt(9), rs.getLong(10), rs.getLong(11), rs.getInt(12), rs.getInt(13));
+                    return hour;
+                },
+                Timestamp.valueOf(from), Timestamp.valueOf(to), machineId, machineId, locationId, locationId);
+    }
+
+    private static OpenState toOpenState(ResultSet rs) throws SQLException {
+        return new OpenState(rs.getLong(1), MachineStatusEnum.valueOf(rs.getString(2)),
+                rs.getTimestamp(3).toLocalDateTime());
+    }
+
+    private static LocalDateTime toLocalDateTime(ResultSet rs, int column) throws SQLException {
+        Timestamp timestamp = rs.getTimestamp(column);
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /** How far a source has been folded in: rows up to this time and id. */
+    @Getter
+    @AllArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime lastTime;
+        private final long lastId;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class StatusEvent {
+        private final long id;
+        private final Long machineId;
+        private final MachineStatusEnum status;
+        private final LocalDateTime occurredAt;
+        private final LocalDateTime writtenAt;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class CompletedStep {
+        private final long id;
+        private final Long machineId;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+        private final int estimatedCycleMinutes;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class QcResult {
+        private final long id;
+        private final Long machineId;
+        private final LocalDateTime submittedAt;
+        private final boolean failed;
+    }
+
+    /** The state a machine was left in by the last aggregated status event. */
+    @Getter
+    @AllArgsConstructor
+    public static class OpenState {
+        private final Long machineId;
+        private final MachineStatusEnum status;
+        private final LocalDateTime since;
+    }
+}
@@ -0,0 +1,79 @@
+package com.crownbyte.Saphire.oee;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shift boundaries, configured as the start times of the day's shifts. Shifts start
+ * on the hour, so every shift is a whole number of OEE hours. A production day runs
+ * from the start of the first shift to the start of the next day's first shift.
+ */
+@Component
+public class ShiftCalendar {
+
+    /** Start hours, ascending. */
+    private final int[] startHours;
+
+    public ShiftCalendar(@Value("${app.oee.shift-starts:06:00,14:00,22:00}") String shiftStarts) {
+        List<Integer> hours = new ArrayList<>();
+        for (String value : shiftStarts.split(",")) {
+            LocalTime start;
+            try {
+                start = LocalTime.parse(value.trim());
+            } catch (DateTimeParseException e) {
+                throw new IllegalStateException("Invalid shift start: " + value);
+            }
+            if (start.getMinute() != 0 || start.getSecond() != 0) {
+                throw new IllegalStateException("Shifts must start on the hour: " + value);
+            }
+            hours.add(start.getHour());
+        }
+        this.startHours = hours.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        if (startHours.length == 0) {
+            throw new IllegalStateException("At least one shift start is required");
+        }
+    }
+
+    /** Start of the shift that {@code time} falls in. */
+    public LocalDateTime shiftStart(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        for (int i = startHours.length - 1; i >= 0; i--) {
+            if (startHours[i] <= time.getHour()) {
+                return day.plusHours(startHours[i]);
+            }
+        }
+        return day.minusDays(1).plusHours(startHours[startHours.length - 1]);
+    }
+
+    /** End of the shift starting at {@code shiftStart}. */
+    public LocalDateTime shiftEnd(LocalDateTime shiftStart) {
+        int index = shiftNumber(shiftStart) - 1;
+        LocalDateTime day = shiftStart.truncatedTo(ChronoUnit.DAYS);
+        return index + 1 < startHours.length
+                ? day.plusHours(startHours[index + 1])
+                : day.plusDays(1).plusHours(startHours[0]);
+    }
+
+    /** 1-based number of the shift starting at {@code shiftStart} within its day. */
+    public int shiftNumber(LocalDateTime shiftStart) {
+        for (int i = 0; i < startHours.length; i++) {
+            if (startHours[i] == shiftStart.getHour()) {
+                return i + 1;
+            }
+        }
+        throw new IllegalArgumentException("Not a shift start: " + shiftStart);
+    }
+
+    /** Start of the production day that {@code time} falls in. */
+    public LocalDateTime dayStart(LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS).plusHours(startHours[0]);
+        return time.isBefore(day) ? day.minusDays(1) : day;
+    }
+}
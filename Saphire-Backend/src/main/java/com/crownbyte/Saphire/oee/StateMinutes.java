@@ -0,0 +1,89 @@
+package com.crownbyte.Saphire.oee;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Seconds in each state per machine and minute, the minute tier of the state
+ * history. An interval that spans several minutes is split at the minute boundaries.
+ */
+public class StateMinutes {
+
+    private final Map<Key, Long> seconds = new HashMap<>();
+
+    /** Adds the time in {@code status} between {@code from} (inclusive) and {@code to} (exclusive). */
+    public void addState(Long machineId, MachineStatusEnum status, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = from;
+        while (start.isBefore(to)) {
+            LocalDateTime minute = start.truncatedTo(ChronoUnit.MINUTES);
+            LocalDateTime end = minute.plusMinutes(1);
+            if (end.isAfter(to)) {
+                end = to;
+            }
+            seconds.merge(new Key(machineId, minute, status), Duration.between(start, end).getSeconds(), Long::sum);
+            start = end;
+        }
+    }
+
+    public boolean isEmpty() {
+        return seconds.isEmpty();
+    }
+
+    /** The minutes ordered by machine, minute and state. */
+    public List<Minute> minutes() {
+        return seconds.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(e -> new Minute(e.getKey().machineId, e.getKey().minute, e.getKey().status, e.getValue()))
+                .sorted(Comparator.comparing(Minute::getMachineId)
+                        .thenComparing(Minute::getStart)
+                        .thenComparing(Minute::getStatus))
+                .toList();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Minute {
+        private final Long machineId;
+        private final LocalDateTime start;
+        private final MachineStatusEnum status;
+        private final long seconds;
+    }
+
+    private static final class Key {
+        private final Long machineId;
+        private final LocalDateTime minute;
+        private final MachineStatusEnum status;
+
+        private Key(Long machineId, LocalDateTime minute, MachineStatusEnum status) {
+            this.machineId = machineId;
+            this.minute = minute;
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return machineId.equals(other.machineId) && minute.equals(other.minute) && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(machineId, minute, status);
+        }
+    }
+}
@@ -0,0 +1,491 @@
+package com.crownbyte.Saphire.planning;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Finite-capacity plan of the pending and running production steps.
+ * <p>
+ * Every machine works its steps one at a time in dispatch order: running steps first,
+ * then by instance priority, due date and route order. A step starts once its machine
+ * is free and the stage before it on the route has finished; consecutive PARALLEL
+ * steps form one stage and run side by side. Idle gaps are not back-filled, the same
+ * way dispatch hands out work. A step stays on the machine it is assigned to, since
+ * that is the only machine dispatch hands it to; a step without one goes to whichever
+ * available machine of its route step alternatives finishes it first, ties going to
+ * the preferred one.
+ * <p>
+ * Changes are repaired instead of replanned: only the steps whose times may move are
+ * recomputed, in dispatch order (which is also dependency order), and the walk stops
+ * wherever a finish time does not change. Building the plan is the same walk over
+ * every step, taken as one sorted pass.
+ * <p>
+ * Not thread-safe; {@link CapacityPlanner} serializes access.
+ */
+public class CapacityPlan {
+
+    /** Spelled out rather than chained: it runs in every queue and dirty-set operation. */
+    private static final Comparator<Operation> DISPATCH_ORDER = CapacityPlan::compareDispatchOrder;
+
+    private static final MachineCapacity FREE = new MachineCapacity(null, true, null);
+
+    private final Map<Long, MachineCapacity> machines = new HashMap<>();
+    /** Machines of each route step in preference order. */
+    private final Map<Long, List<Long>> alternatives;
+    private final Map<Long, Operation> byStep = new HashMap<>();
+    private final Map<Long, List<List<Operation>>> stagesByInstance = new HashMap<>();
+    private final Map<Long, TreeSet<Operation>> byMachine = new HashMap<>();
+    /** Steps none of whose machines is available. */
+    private final Set<Operation> unplaced = new HashSet<>();
+
+    public CapacityPlan(Collection<MachineCapacity> machines, Map<Long, List<Long>> alternatives) {
+        machines.forEach(machine -> this.machines.put(machine.getMachineId(), machine));
+        this.alternatives = alternatives;
+    }
+
+    public static CapacityPlan build(Collection<MachineCapacity> machines, Map<Long, List<Long>> alternatives,
+            Collection<PlanStep> steps, LocalDateTime now) {
+        CapacityPlan plan = new CapacityPlan(machines, alternatives);
+        Map<Long, List<PlanStep>> byInstance = new LinkedHashMap<>();
+        steps.forEach(step -> byInstance.computeIfAbsent(step.getProductInstanceId(), id -> new ArrayList<>())
+                .add(step));
+        List<Operation> ops = new ArrayList<>(steps.size());
+        byInstance.forEach((instanceId, instanceSteps) -> plan.add(instanceId, instanceSteps, ops));
+        // One pass in dispatch order places every step once: whatever a step dirties
+        // comes later in the pass anyway
+        ops.sort(DISPATCH_ORDER);
+        TreeSet<Operation> dirtied = new TreeSet<>(DISPATCH_ORDER);
+        for (Operation op : ops) {
+            plan.update(op, now, dirtied);
+            dirtied.clear();
+        }
+        return plan;
+    }
+
+    /**
+     * Replaces the steps of instances, e.g. when they are created, held or released;
+     * an instance without steps is taken off the plan. One repair covers the batch.
+     */
+    public void putInstances(Map<Long, List<PlanStep>> stepsByInstance, LocalDateTime now) {
+        TreeSet<Operation> dirty = new TreeSet<>(DISPATCH_ORDER);
+        stepsByInstance.forEach((instanceId, steps) -> {
+            remove(instanceId, dirty);
+            if (!steps.isEmpty()) {
+                add(instanceId, steps, dirty);
+            }
+        });
+        repair(dirty, now);
+    }
+
+    public void removeInstance(Long instanceId, LocalDateTime now) {
+        TreeSet<Operation> dirty = new TreeSet<>(DISPATCH_ORDER);
+        remove(instanceId, dirty);
+        repair(dirty, now);
+    }
+
+    /** Pins a step that was claimed to its machine; the steps queued behind it move. */
+    public void startStep(Long stepId, Long machineId, LocalDateTime startedAt, LocalDateTime now) {
+        Operation op = byStep.get(stepId);
+        if (op == null || op.running) {
+            return;
+        }
+        TreeSet<Operation> dirty = new TreeSet<>(DISPATCH_ORDER);
+        unplace(op, dirty);
+        unplaced.remove(op);
+        op.running = true;
+        op.startedAt = startedAt;
+        if (machineId != null) {
+            op.machineId = machineId;
+        }
+        dirty.add(op);
+        repair(dirty, now);
+    }
+
+    /** Takes a finished step off its machine; its machine and route successors may start earlier. */
+    public void finishStep(Long stepId, LocalDateTime now) {
+        Operation op = byStep.remove(stepId);
+        if (op == null) {
+            return;
+        }
+        TreeSet<Operation> dirty = new TreeSet<>(DISPATCH_ORDER);
+        unplace(op, dirty);
+        unplaced.remove(op);
+
+        Long instanceId = op.step.getProductInstanceId();
+        List<List<Operation>> stages = stagesByInstance.get(instanceId);
+        int index = stageIndex(stages, op.stage);
+        op.stage.remove(op);
+        if (op.stage.isEmpty()) {
+            stages.remove(index);
+        } else {
+            index++;
+        }
+        if (index < stages.size()) {
+            dirty.addAll(stages.get(index));
+        }
+        if (stages.isEmpty()) {
+            stagesByInstance.remove(instanceId);
+        }
+        repair(dirty, now);
+    }
+
+    /**
+     * A machine went into or out of maintenance. Its assigned steps wait unplanned
+     * and unassigned ones move to their alternatives; steps waiting for it come back.
+     * Unassigned work already on alternatives stays there until the next full plan.
+     */
+    public void updateMachine(MachineCapacity machine, LocalDateTime now) {
+        machines.put(machine.getMachineId(), machine);
+        TreeSet<Operation> dirty = new TreeSet<>(DISPATCH_ORDER);
+        TreeSet<Operation> queue = byMachine.get(machine.getMachineId());
+        if (queue != null) {
+            dirty.addAll(queue);
+        }
+        if (machine.isAvailable()) {
+            unplaced.stream()
+                    .filter(op -> op.candidates.contains(machine.getMachineId()))
+                    .forEach(dirty::add);
+        }
+        repair(dirty, now);
+    }
+
+    /** The machine's steps in the order it works them. */
+    public List<ScheduledStep> machineSchedule(Long machineId, int limit) {
+        TreeSet<Operation> queue = byMachine.get(machineId);
+        if (queue == null) {
+            return List.of();
+        }
+        return queue.stream().limit(limit).map(CapacityPlan::toScheduled).toList();
+    }
+
+    /** When the machine finishes its last planned step; null when nothing is planned on it. */
+    public LocalDateTime machineFreeAt(Long machineId) {
+        TreeSet<Operation> queue = byMachine.get(machineId);
+        if (queue == null) {
+            return null;
+        }
+        for (Operation op : queue.descendingSet()) {
+            if (op.finish != null) {
+                return op.finish;
+            }
+        }
+        return null;
+    }
+
+    public int machineDepth(Long machineId) {
+        TreeSet<Operation> queue = byMachine.get(machineId);
+        return queue != null ? queue.size() : 0;
+    }
+
+    /** The instance's remaining steps in route order; empty when it has none. */
+    public List<ScheduledStep> instanceSchedule(Long instanceId) {
+        List<List<Operation>> stages = stagesByInstance.get(instanceId);
+        if (stages == null) {
+            return List.of();
+        }
+        return stages.stream().flatMap(List::stream).map(CapacityPlan::toScheduled).toList();
+    }
+
+    /** The planned steps as they stand; steps claimed since loading carry their start and machine. */
+    public List<PlanStep> steps() {
+        return byStep.values().stream().map(op -> {
+            PlanStep step = op.step;
+            if (op.running == step.isRunning()) {
+                return step;
+            }
+            return new PlanStep(step.getStepId(), step.getProductInstanceId(), step.getSerialNumber(),
+                    step.getLocationId(), step.getPriority(), step.getDueDate(), step.getRouteStepId(),
+                    step.getStepName(), step.getStepOrder(), step.isParallel(), step.getDurationMinutes(),
+                    op.machineId, op.startedAt);
+        }).toList();
+    }
+
+    public List<ScheduledStep> runningSteps() {
+        return byStep.values().stream().filter(op -> op.running).map(CapacityPlan::toScheduled).toList();
+    }
+
+    public int size() {
+        return byStep.size();
+    }
+
+    private void add(Long instanceId, List<PlanStep> steps, Collection<Operation> dirty) {
+        List<PlanStep> sorted = steps.stream()
+                .sorted(Comparator.comparingInt(PlanStep::getStepOrder).thenComparing(PlanStep::getStepId))
+                .toList();
+        List<List<Operation>> stages = new ArrayList<>();
+        PlanStep previous = null;
+        for (PlanStep step : sorted) {
+            Operation op = new Operation(step, candidates(step));
+            if (previous == null || !(step.isParallel() && previous.isParallel())) {
+                stages.add(new ArrayList<>());
+            }
+            op.stage = stages.get(stages.size() - 1);
+            op.stage.add(op);
+            byStep.put(step.getStepId(), op);
+            dirty.add(op);
+            previous = step;
+        }
+        stagesByInstance.put(instanceId, stages);
+    }
+
+    private void remove(Long instanceId, TreeSet<Operation> dirty) {
+        List<List<Operation>> stages = stagesByInstance.remove(instanceId);
+        if (stages == null) {
+            return;
+        }
+        List<Operation> ops = stages.stream().flatMap(List::stream).toList();
+        for (Operation op : ops) {
+            byStep.remove(op.step.getStepId());
+            unplace(op, dirty);
+            unplaced.remove(op);
+        }
+        ops.forEach(dirty::remove);
+    }
+
+    /** Dispatch only hands a step to its assigned machine, so the plan does not move it elsewhere. */
+    private List<Long> candidates(PlanStep step) {
+        if (step.getMachineId() != null) {
+            return List.of(step.getMachineId());
+        }
+        return alternatives.getOrDefault(step.getRouteStepId(), List.of());
+    }
+
+    private void repair(TreeSet<Operation> dirty, LocalDateTime now) {
+        Operation op;
+        while ((op = dirty.pollFirst()) != null) {
+            update(op, now, dirty);
+        }
+    }
+
+    private void update(Operation op, LocalDateTime now, TreeSet<Operation> dirty) {
+        if (op.placed) {
+            recompute(op, now, dirty);
+        } else if (op.running) {
+            // Running steps stay where they run, whatever the machine's state
+            place(op, op.machineId, dirty);
+            recompute(op, now, dirty);
+        } else {
+            placeOnBestMachine(op, now, dirty);
+        }
+    }
+
+    private void recompute(Operation op, LocalDateTime now, TreeSet<Operation> dirty) {
+        if (op.running) {
+            LocalDateTime due = op.startedAt.plusMinutes(op.step.getDurationMinutes());
+            setTimes(op, op.startedAt, later(due, now), dirty);
+            return;
+        }
+        if (!machine(op.machineId).isAvailable()) {
+            unplace(op, dirty);
+            placeOnBestMachine(op, now, dirty);
+            return;
+        }
+        LocalDateTime ready = readyAt(op);
+        if (ready == null) {
+            setTimes(op, null, null, dirty);
+            return;
+        }
+        LocalDateTime start = startOn(op.machineId, op, ready, now);
+        setTimes(op, start, start.plusMinutes(op.step.getDurationMinutes()), dirty);
+    }
+
+    /**
+     * Everything before the step in dispatch order is final by the time it is polled,
+     * so each candidate's finish is what the step would really get there.
+     */
+    private void placeOnBestMachine(Operation op, LocalDateTime now, TreeSet<Operation> dirty) {
+        LocalDateTime ready = readyAt(op);
+        Long best = null;
+        LocalDateTime bestFinish = null;
+        for (Long machineId : op.candidates) {
+            if (!machine(machineId).isAvailable()) {
+                continue;
+            }
+            if (ready == null) {
+                best = machineId;
+                break;
+            }
+            LocalDateTime finish = startOn(machineId, op, ready, now).plusMinutes(op.step.getDurationMinutes());
+            if (bestFinish == null || finish.isBefore(bestFinish)) {
+                best = machineId;
+                bestFinish = finish;
+            }
+        }
+        if (best == null) {
+            unplaced.add(op);
+            setTimes(op, null, null, dirty);
+            return;
+        }
+        unplaced.remove(op);
+        op.machineId = best;
+        place(op, best, dirty);
+        recompute(op, now, dirty);
+    }
+
+    private LocalDateTime startOn(Long machineId, Operation op, LocalDateTime ready, LocalDateTime now) {
+        LocalDateTime start = later(now, ready);
+        LocalDateTime availableFrom = machine(machineId).getAvailableFrom();
+        if (availableFrom != null) {
+            start = later(start, availableFrom);
+        }
+        TreeSet<Operation> queue = byMachine.get(machineId);
+        if (queue != null) {
+            for (Operation previous = queue.lower(op); previous != null; previous = queue.lower(previous)) {
+                if (previous.finish != null) {
+                    return later(start, previous.finish);
+                }
+            }
+        }
+        return start;
+    }
+
+    /** When the stage before the step has finished; null when part of it cannot be planned. */
+    private LocalDateTime readyAt(Operation op) {
+        List<List<Operation>> stages = stagesByInstance.get(op.step.getProductInstanceId());
+        int index = stageIndex(stages, op.stage);
+        LocalDateTime ready = LocalDateTime.MIN;
+        if (index > 0) {
+            for (Operation previous : stages.get(index - 1)) {
+                if (previous.finish == null) {
+                    return null;
+                }
+                ready = later(ready, previous.finish);
+            }
+        }
+        return ready;
+    }
+
+    private void setTimes(Operation op, LocalDateTime start, LocalDateTime finish, TreeSet<Operation> dirty) {
+        boolean moved = !Objects.equals(op.finish, finish);
+        op.start = start;
+        op.finish = finish;
+        if (!moved) {
+            return;
+        }
+        if (op.placed) {
+            dirtySuccessors(op, dirty);
+        }
+        List<List<Operation>> stages = stagesByInstance.get(op.step.getProductInstanceId());
+        int index = stageIndex(stages, op.stage);
+        if (index + 1 < stages.size()) {
+            dirty.addAll(stages.get(index + 1));
+        }
+    }
+
+    private void place(Operation op, Long machineId, TreeSet<Operation> dirty) {
+        byMachine.computeIfAbsent(machineId, id -> new TreeSet<>(DISPATCH_ORDER)).add(op);
+        op.placed = true;
+        dirtySuccessors(op, dirty);
+    }
+
+    private void unplace(Operation op, TreeSet<Operation> dirty) {
+        if (!op.placed) {
+            return;
+        }
+        dirtySuccessors(op, dirty);
+        byMachine.get(op.machineId).remove(op);
+        op.placed = false;
+    }
+
+    /**
+     * The steps behind this one on its machine up to the first planned one: unplanned
+     * steps are skipped when a step looks for the one it waits for.
+     */
+    private void dirtySuccessors(Operation op, TreeSet<Operation> dirty) {
+        TreeSet<Operation> queue = byMachine.get(op.machineId);
+        for (Operation next = queue.higher(op); next != null; next = queue.higher(next)) {
+            dirty.add(next);
+            if (next.finish != null) {
+                return;
+            }
+        }
+    }
+
+    private MachineCapacity machine(Long machineId) {
+        return machines.getOrDefault(machineId, FREE);
+    }
+
+    private static int stageIndex(List<List<Operation>> stages, List<Operation> stage) {
+        for (int i = 0; i < stages.size(); i++) {
+            if (stages.get(i) == stage) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Stage is not part of its instance");
+    }
+
+    private static int compareDispatchOrder(Operation a, Operation b) {
+        if (a == b) {
+            return 0;
+        }
+        if (a.running != b.running) {
+            return a.running ? -1 : 1;
+        }
+        PlanStep x = a.step;
+        PlanStep y = b.step;
+        // Higher priority first, instances without one last
+        Integer px = x.getPriority();
+        Integer py = y.getPriority();
+        int order = px != null && py != null ? py.compareTo(px) : compareNullsLast(px, py);
+        if (order == 0) {
+            order = compareNullsLast(x.getDueDate(), y.getDueDate());
+        }
+        if (order == 0) {
+            order = x.getProductInstanceId().compareTo(y.getProductInstanceId());
+        }
+        if (order == 0) {
+            order = Integer.compare(x.getStepOrder(), y.getStepOrder());
+        }
+        return order != 0 ? order : x.getStepId().compareTo(y.getStepId());
+    }
+
+    private static <T extends Comparable<? super T>> int compareNullsLast(T a, T b) {
+        if (a == null) {
+            return b == null ? 0 : 1;
+        }
+        return b == null ? -1 : a.compareTo(b);
+    }
+
+    private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static ScheduledStep toScheduled(Operation op) {
+        PlanStep step = op.step;
+        return new ScheduledStep(step.getStepId(), step.getProductInstanceId(), step.getSerialNumber(),
+                step.getLocationId(), step.getRouteStepId(), step.getStepName(), step.getStepOrder(), op.machineId,
+                op.running, op.start, op.finish);
+    }
+
+    private static final class Operation {
+        private final PlanStep step;
+        /** Machines that can run the step, in preference order. */
+        private final List<Long> candidates;
+        private List<Operation> stage;
+        private Long machineId;
+        private boolean running;
+        private LocalDateTime startedAt;
+        /** Whether the step sits in the queue of {@link #machineId}. */
+        private boolean placed;
+        private LocalDateTime start;
+        private LocalDateTime finish;
+
+        private Operation(PlanStep step, List<Long> candidates) {
+            this.step = step;
+            this.candidates = candidates;
+            this.machineId = step.getMachineId();
+            this.running = step.isRunning();
+            this.startedAt = step.getStartedAt();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.crownbyte.Saphire.planning;
+
+import com.crownbyte.Saphire.cycletime.CycleTimeEstimator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the {@link CapacityPlan} of all pending and running steps in memory.
+ * <p>
+ * The plan is built from the database on startup and every
+ * {@code replan-interval-ms}, which also picks up route and machine edits and writes
+ * of other instances. In between, claims, finished steps, maintenance switches and
+ * instance changes repair it incrementally once their transaction has committed.
+ * Changes committed while a full plan is being built are replayed onto it, the same
+ * way the dispatch queues are rebuilt.
+ * <p>
+ * After a full plan the projected finish of every running step is written to
+ * {@code machine_status.estimated_finish_at}.
+ * <p>
+ * Step durations are the {@link CycleTimeEstimator}'s learned ones where it has them,
+ * as of when the step entered the plan; a full plan picks up newer estimates.
+ */
+@Component
+@Slf4j
+public class CapacityPlanner {
+
+    private final PlanningStore store;
+    private final CycleTimeEstimator cycleTimes;
+    private final Object replanLock = new Object();
+    private final Timer fullTimer;
+    private final Timer incrementalTimer;
+
+    /** Guarded by {@code this}. */
+    private CapacityPlan plan = new CapacityPlan(List.of(), Map.of());
+    /** Changes applied while a full plan is loading, replayed onto it. Guarded by {@code this}. */
+    private List<Consumer<CapacityPlan>> journal;
+
+    public CapacityPlanner(PlanningStore store, CycleTimeEstimator cycleTimes, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.cycleTimes = cycleTimes;
+        this.fullTimer = replanTimer(meterRegistry, "full");
+        this.incrementalTimer = replanTimer(meterRegistry, "incremental");
+        meterRegistry.gauge("saphire.planning.steps", this, CapacityPlanner::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        replan();
+    }
+
+    @Scheduled(fixedDelayString = "${app.planning.replan-interval-ms:600000}",
+            initialDelayString = "${app.planning.replan-interval-ms:600000}")
+    public void replan() {
+        synchronized (replanLock) {
+            synchronized (this) {
+                journal = new ArrayList<>();
+            }
+            CapacityPlan next;
+            List<ScheduledStep> running;
+            try {
+                Timer.Sample sample = Timer.start();
+                next = CapacityPlan.build(store.loadMachines(), store.loadAlternatives(),
+                        cycleTimes.estimate(store.loadSteps()), now());
+                synchronized (this) {
+                    journal.forEach(change -> change.accept(next));
+                    journal = null;
+                    plan = next;
+                    running = next.runningSteps();
+                }
+                sample.stop(fullTimer);
+            } catch (Exception e) {
+                synchronized (this) {
+                    journal = null;
+                }
+                log.error("Failed to build capacity plan: {}", e.getMessage());
+                return;
+            }
+            int updated = store.updateEstimatedFinish(running);
+            log.info("Planned {} steps; updated estimated finish of {} machines", next.size(), updated);
+        }
+    }
+
+    public synchronized List<ScheduledStep> machineSchedule(Long machineId, int limit) {
+        return plan.machineSchedule(machineId, limit);
+    }
+
+    public synchronized LocalDateTime machineFreeAt(Long machineId) {
+        return plan.machineFreeAt(machineId);
+    }
+
+    public synchronized int machineDepth(Long machineId) {
+        return plan.machineDepth(machineId);
+    }
+
+    public synchronized List<ScheduledStep> instanceSchedule(Long instanceId) {
+        return plan.instanceSchedule(instanceId);
+    }
+
+    /** A copy of the pending and running steps in the plan, e.g. to simulate from. */
+    public synchronized List<PlanStep> steps() {
+        return plan.steps();
+    }
+
+    public synchronized int size() {
+        return plan.size();
+    }
+
+    public void stepStarted(Long stepId, Long machineId, LocalDateTime startedAt) {
+        afterCommit(p -> p.startStep(stepId, machineId, startedAt, now()));
+    }
+
+    public void stepFinished(Long stepId) {
+        afterCommit(p -> p.finishStep(stepId, now()));
+    }
+
+    public void machineChanged(Long machineId, boolean available, LocalDateTime availableFrom) {
+        MachineCapacity machine = new MachineCapacity(machineId, available, availableFrom);
+        afterCommit(p -> p.updateMachine(machine, now()));
+    }
+
+    /** Plans the steps of newly created instances, which are known without reading them back. */
+    public void addSteps(Collection<PlanStep> steps) {
+        Map<Long, List<PlanStep>> byInstance = groupByInstance(cycleTimes.estimate(steps));
+        afterCommit(p -> p.putInstances(byInstance, now()));
+    }
+
+    /**
+     * Re-reads the steps of instances that were created or changed status. Inside a
+     * transaction the read sees its uncommitted changes, so flush JPA changes first.
+     */
+    public void refreshInstances(Collection<Long> instanceIds) {
+        Map<Long, List<PlanStep>> steps = groupByInstance(cycleTimes.estimate(store.loadSteps(instanceIds)));
+        // Instances that have no plannable steps left come off the plan
+        instanceIds.forEach(id -> steps.putIfAbsent(id, List.of()));
+        afterCommit(p -> p.putInstances(steps, now()));
+    }
+
+    public void removeInstance(Long instanceId) {
+        afterCommit(p -> p.removeInstance(instanceId, now()));
+    }
+
+    private void afterCommit(Consumer<CapacityPlan> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<CapacityPlan> change) {
+        incrementalTimer.record(() -> change.accept(plan));
+        if (journal != null) {
+            journal.add(change);
+        }
+    }
+
+    private static Map<Long, List<PlanStep>> groupByInstance(Collection<PlanStep> steps) {
+        Map<Long, List<PlanStep>> byInstance = new LinkedHashMap<>();
+        steps.forEach(step -> byInstance.computeIfAbsent(step.getProductInstanceId(), id -> new ArrayList<>())
+                .add(step));
+        return byInstance;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    private static Timer replanTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder("saphire.planning.replan")
+                .description("Capacity plan builds and incremental repairs")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,18 @@
+package com.crownbyte.Saphire.planning;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/** Whether a machine can take planned work, and from when. */
+@Getter
+@AllArgsConstructor
+public final class MachineCapacity {
+
+    private final Long machineId;
+    /** False for inactive machines and machines in maintenance mode. */
+    private final boolean available;
+    /** Nothing is planned on the machine before this; null when it is free now. */
+    private final LocalDateTime availableFrom;
+}
@@ -0,0 +1,42 @@
+package com.crownbyte.Saphire.planning;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending or running production step as read for planning, with what the plan
+ * needs of its instance and route step.
+ */
+@Getter
+@AllArgsConstructor
+public final class PlanStep {
+
+    private final Long stepId;
+    private final Long productInstanceId;
+    private final String serialNumber;
+    private final Long locationId;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+    private final Long routeStepId;
+    private final String stepName;
+    private final int stepOrder;
+    /** Runs alongside the neighbouring parallel steps instead of after them. */
+    private final boolean parallel;
+    /** Learned cycle time, or the route step's setup plus cycle time until there is one. */
+    private final int durationMinutes;
+    /** The machine the step is assigned to. */
+    private final Long machineId;
+    /** Set when the step is in progress. */
+    private final LocalDateTime startedAt;
+
+    public boolean isRunning() {
+        return startedAt != null;
+    }
+
+    public PlanStep withDurationMinutes(int minutes) {
+        return minutes == durationMinutes ? this : new PlanStep(stepId, productInstanceId, serialNumber, locationId,
+                priority, dueDate, routeStepId, stepName, stepOrder, parallel, minutes, machineId, startedAt);
+    }
+}
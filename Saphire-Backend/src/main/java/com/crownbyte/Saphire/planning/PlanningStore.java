@@ -0,0 +1,119 @@
+package com.crownbyte.Saphire.planning;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * JDBC reads for the capacity plan, and the write-back of the projected finish of
+ * running steps to machine_status.
+ */
+@Component
+public class PlanningStore {
+
+    /** Instances loaded per query when a batch of them is refreshed. */
+    private static final int INSTANCE_CHUNK = 500;
+
+    /** Running steps occupy their machine even when their instance is on hold. */
+    private static final String PLAN_STEPS = "SELECT ps.id, ps.product_instance_id, pi.serial_number, " +
+            "pi.location_id, pi.priority, pi.due_date, ps.route_step_id, rs.step_name, rs.step_order, " +
+            "rs.step_type, rs.estimated_setup_minutes, rs.estimated_cycle_minutes, ps.machine_id, ps.status, " +
+            "ps.started_at " +
+            "FROM production_steps ps " +
+            "JOIN product_instances pi ON pi.id = ps.product_instance_id " +
+            "JOIN product_route_steps rs ON rs.id = ps.route_step_id " +
+            "WHERE (ps.status = 'IN_PROGRESS' " +
+            "OR (ps.status = 'PENDING' AND pi.status IN ('PENDING', 'IN_PROGRESS')))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public PlanningStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<PlanStep> loadSteps() {
+        return jdbcTemplate.query(PLAN_STEPS, (rs, row) -> toPlanStep(rs));
+    }
+
+    /** Steps of the given instances; instances without pending or running steps are left out. */
+    public List<PlanStep> loadSteps(Collection<Long> instanceIds) {
+        List<Long> ids = List.copyOf(instanceIds);
+        List<PlanStep> steps = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += INSTANCE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + INSTANCE_CHUNK, ids.size()));
+            String placeholders = chunk.stream().map(id -> "?").collect(Collectors.joining(", "));
+            steps.addAll(jdbcTemplate.query(PLAN_STEPS + " AND pi.id IN (" + placeholders + ")",
+                    (rs, row) -> toPlanStep(rs), chunk.toArray()));
+        }
+        return steps;
+    }
+
+    /** Route step alternatives, each in preference order. */
+    public Map<Long, List<Long>> loadAlternatives() {
+        Map<Long, List<Long>> alternatives = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT route_step_id, machine_id FROM route_step_machines " +
+                        "ORDER BY route_step_id, preference_order, id",
+                rs -> {
+                    alternatives.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(rs.getLong(2));
+                });
+        return alternatives;
+    }
+
+    public List<MachineCapacity> loadMachines() {
+        return jdbcTemplate.query("SELECT id, active, maintenance_mode, available_from FROM machines",
+                (rs, row) -> new MachineCapacity(rs.getLong(1),
+                        rs.getBoolean(2) && !rs.getBoolean(3),
+                        toLocalDateTime(rs.getTimestamp(4))));
+    }
+
+    /**
+     * Writes the planned finish of each running step to its machine's status row, where
+     * it differs from what is there.
+     */
+    public int updateEstimatedFinish(List<ScheduledStep> runningSteps) {
+        List<Object[]> rows = runningSteps.stream()
+                .map(step -> {
+                    Timestamp finish = Timestamp.valueOf(step.getPlannedFinish());
+                    return new Object[] { finish, step.getMachineId(), step.getStepId(), finish };
+                })
+                .toList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE machine_status SET estimated_finish_at = ? WHERE machine_id = ? AND current_step_id = ? " +
+                        "AND (estimated_finish_at IS NULL OR estimated_finish_at <> ?)",
+                rows);
+        int count = 0;
+        for (int rowsUpdated : updated) {
+            count += Math.max(rowsUpdated, 0);
+        }
+        return count;
+    }
+
+    private static PlanStep toPlanStep(ResultSet rs) throws SQLException {
+        boolean running = "IN_PROGRESS".equals(rs.getString(14));
+        LocalDateTime startedAt = toLocalDateTime(rs.getTimestamp(15));
+        return new PlanStep(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getLong(4),
+                rs.getObject(5, Integer.class), toLocalDateTime(rs.getTimestamp(6)), rs.getLong(7), rs.getString(8),
+                rs.getInt(9), "PARALLEL".equals(rs.getString(10)), rs.getInt(11) + rs.getInt(12),
+                rs.getObject(13, Long.class),
+                // A step marked in progress without a start time is taken as started now
+                running ? (startedAt != null ? startedAt : LocalDateTime.now()) : null);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
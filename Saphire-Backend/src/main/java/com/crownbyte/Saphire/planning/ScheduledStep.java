@@ -0,0 +1,28 @@
+package com.crownbyte.Saphire.planning;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A step as placed by the capacity plan. Start and finish are null when the step
+ * cannot be planned: none of its machines is available, or a step before it on the
+ * route cannot be planned.
+ */
+@Getter
+@AllArgsConstructor
+public final class ScheduledStep {
+
+    private final Long stepId;
+    private final Long productInstanceId;
+    private final String serialNumber;
+    private final Long locationId;
+    private final Long routeStepId;
+    private final String stepName;
+    private final int stepOrder;
+    private final Long machineId;
+    private final boolean running;
+    private final LocalDateTime plannedStart;
+    private final LocalDateTime plannedFinish;
+}
@@ -1,15 +1,20 @@
 package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.master.LocationEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LocationRepository extends JpaRepository<LocationEntity, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<LocationEntity> findByCompanyId(Long companyId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<LocationEntity> findByCompanyIdAndActiveTrue(Long companyId);
 
     Optional<LocationEntity> findByCompanyIdAndCode(Long companyId, String code);
@@ -1,17 +1,27 @@
 package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.master.MachineEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface MachineRepository extends JpaRepository<MachineEntity, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<MachineEntity> findByLocationId(Long locationId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<MachineEntity> findByLocationIdAndActiveTrue(Long locationId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<MachineEntity> findByLocationIdAndActiveTrueAndMaintenanceModeFalse(Long locationId);
 
     Optional<MachineEntity> findByLocationIdAndCode(Long locationId, String code);
@@ -19,4 +29,22 @@ public interface MachineRepository extends JpaRepository<MachineEntity, Long> {
     boolean existsByLocationIdAndCode(Long locationId, String code);
 
     List<MachineEntity> findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(String name, String code);
+
+    /**
+     * Admin listing page. {@code search} is a lower-case LIKE pattern; null
+     * filters are ignored.
+     */
+    @Query(value = "SELECT m FROM MachineEntity m JOIN FETCH m.location l " +
+            "WHERE (:locationId IS NULL OR l.id = :locationId) " +
+            "AND (:includeInactive = true OR m.active = true) " +
+            "AND (:search IS NULL OR LOWER(m.name) LIKE :search OR LOWER(m.code) LIKE :search)",
+            countQuery = "SELECT COUNT(m) FROM MachineEntity m " +
+                    "WHERE (:locationId IS NULL OR m.location.id = :locationId) " +
+                    "AND (:includeInactive = true OR m.active = true) " +
+                    "AND (:search IS NULL OR LOWER(m.name) LIKE :search OR LOWER(m.code) LIKE :search)")
+    Page<MachineEntity> findPage(
+            @Param("locationId") Long locationId,
+            @Param("search") String search,
+            @Param("includeInactive") boolean includeInactive,
+            Pageable pageable);
 }
@@ -3,7 +3,10 @@ package com.crownbyte.Saphire.repository;
 import com.crownbyte.Saphire.entity.master.MachineStatusEntity;
 import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +17,8 @@ public interface MachineStatusRepository extends JpaRepository<MachineStatusEnti
     List<MachineStatusEntity> findByCurrentStatus(MachineStatusEnum status);
 
     List<MachineStatusEntity> findByMachineLocationId(Long locationId);
+
+    /** Statuses of a batch of machines, with the operator the response names. */
+    @Query("SELECT s FROM MachineStatusEntity s LEFT JOIN FETCH s.currentOperator WHERE s.machine.id IN :machineIds")
+    List<MachineStatusEntity> findWithOperatorByMachineIdIn(@Param("machineIds") Collection<Long> machineIds);
 }
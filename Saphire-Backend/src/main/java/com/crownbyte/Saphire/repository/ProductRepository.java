@@ -1,17 +1,22 @@
 package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.master.ProductEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<ProductEntity, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<ProductEntity> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<ProductEntity> findByActiveTrue();
 
     List<ProductEntity> findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(String name, String code);
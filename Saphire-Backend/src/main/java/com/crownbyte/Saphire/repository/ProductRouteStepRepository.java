@@ -2,10 +2,19 @@ package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface ProductRouteStepRepository extends JpaRepository<ProductRouteStepEntity, Long> {
     List<ProductRouteStepEntity> findByRouteIdOrderByStepOrderAsc(Long routeId);
+
+    /** Steps of a route with their machine preferences and machines, for expanding work orders. */
+    @Query("SELECT DISTINCT s FROM ProductRouteStepEntity s " +
+            "LEFT JOIN FETCH s.machines sm " +
+            "LEFT JOIN FETCH sm.machine " +
+            "WHERE s.route.id = :routeId ORDER BY s.stepOrder")
+    List<ProductRouteStepEntity> findWithMachinesByRouteId(@Param("routeId") Long routeId);
 }
@@ -6,6 +6,7 @@ import com.crownbyte.Saphire.entity.qc.enums.RecordStatusEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -27,6 +28,12 @@ public interface QcFormRecordRepository
 
     List<QcFormRecordEntity> findByMachineIdAndCreatedAtBetween(Long machineId, LocalDateTime start, LocalDateTime end);
 
+    @Query("SELECT r.machine.id, COUNT(r) FROM QcFormRecordEntity r " +
+            "WHERE r.overallResult = :result AND r.createdAt BETWEEN :start AND :end " +
+            "GROUP BY r.machine.id HAVING COUNT(r) >= :minCount")
+    List<Object[]> countByMachineWithResultAtLeast(@Param("result") OverallResultEnum result,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end, @Param("minCount") long minCount);
+
     long countByOverallResult(OverallResultEnum result);
 
     long countByOverallResultAndCreatedAtBetween(OverallResultEnum result, LocalDateTime start, LocalDateTime end);
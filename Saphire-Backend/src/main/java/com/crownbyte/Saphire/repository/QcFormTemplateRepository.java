@@ -2,26 +2,45 @@ package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
 import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface QcFormTemplateRepository extends JpaRepository<QcFormTemplateEntity, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<QcFormTemplateEntity> findByCode(String code);
 
     boolean existsByCode(String code);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<QcFormTemplateEntity> findByActiveTrue();
 
     List<QcFormTemplateEntity> findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(String name, String code);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<QcFormTemplateEntity> findByCompanyId(Long companyId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<QcFormTemplateEntity> findByMachinesId(Long machineId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<QcFormTemplateEntity> findByProductId(Long productId);
 
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<QcFormTemplateEntity> findByContextTypeAndActiveTrue(ContextTypeEnum contextType);
+
+    /** Rows of [templateId, active section count, active field count], for the summary lists. */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s.template.id, COUNT(DISTINCT s.id), COUNT(f.id) FROM QcFormSectionEntity s " +
+            "LEFT JOIN s.fields f ON f.active = true " +
+            "WHERE s.template.id IN :templateIds AND s.active = true GROUP BY s.template.id")
+    List<Object[]> countActiveSectionsAndFields(@Param("templateIds") Collection<Long> templateIds);
 }
@@ -0,0 +1,17 @@
+package com.crownbyte.Saphire.repository;
+
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateVersionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface QcFormTemplateVersionRepository extends JpaRepository<QcFormTemplateVersionEntity, Long> {
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    Optional<QcFormTemplateVersionEntity> findByTemplateIdAndVersion(Long templateId, Integer version);
+
+    boolean existsByTemplateIdAndVersion(Long templateId, Integer version);
+}
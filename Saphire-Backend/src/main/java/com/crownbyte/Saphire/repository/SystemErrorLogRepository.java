@@ -1,9 +1,31 @@
 package com.crownbyte.Saphire.repository;
 
 import com.crownbyte.Saphire.entity.SystemErrorLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface SystemErrorLogRepository extends JpaRepository<SystemErrorLog, Long> {
+
+    /**
+     * Newest-first page of logs strictly before the (cursorTime, cursorId) position.
+     */
+    @Query("SELECT l FROM SystemErrorLog l WHERE l.timestamp >= :from " +
+            "AND (l.timestamp < :cursorTime OR (l.timestamp = :cursorTime AND l.id < :cursorId)) " +
+            "AND (:sourceClass IS NULL OR l.sourceClass = :sourceClass) " +
+            "AND (:ipAddress IS NULL OR l.ipAddress = :ipAddress) " +
+            "ORDER BY l.timestamp DESC, l.id DESC")
+    List<SystemErrorLog> findPageBefore(
+            @Param("from") LocalDateTime from,
+            @Param("cursorTime") LocalDateTime cursorTime,
+            @Param("cursorId") Long cursorId,
+            @Param("sourceClass") String sourceClass,
+            @Param("ipAddress") String ipAddress,
+            Pageable pageable);
 }
@@ -3,7 +3,12 @@ package com.crownbyte.Saphire.repository;
 import com.crownbyte.Saphire.entity.master.UserEntity;
 import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,4 +27,26 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
     List<UserEntity> findByActiveTrue();
 
     List<UserEntity> findByUsernameContainingIgnoreCaseOrFullNameContainingIgnoreCase(String username, String fullName);
+
+    @Query("SELECT DISTINCT u FROM UserEntity u " +
+            "LEFT JOIN FETCH u.machines m " +
+            "LEFT JOIN FETCH m.location " +
+            "WHERE u.username = :username")
+    Optional<UserEntity> findByUsernameWithMachines(@Param("username") String username);
+
+    @Query("SELECT u.id, u.tokenVersion FROM UserEntity u")
+    List<Object[]> findAllTokenVersions();
+
+    @Query("SELECT u.id, u.tokenVersion FROM UserEntity u WHERE u.updatedAt >= :since")
+    List<Object[]> findTokenVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("UPDATE UserEntity u SET u.hashedPassword = :hashedPassword WHERE u.username = :username")
+    int updateHashedPassword(@Param("username") String username, @Param("hashedPassword") String hashedPassword);
+
+    @Query("SELECT u.username FROM UserEntity u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM UserEntity u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,54 @@
+package com.crownbyte.Saphire.scheduler;
+
+import com.crownbyte.Saphire.logging.ErrorLogStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deletes system error logs older than the retention period.
+ * Rows go in small batches, each in its own statement, so a large backlog never
+ * turns into one long-running delete holding locks on the table.
+ */
+@Component
+@Slf4j
+public class ErrorLogRetentionScheduler {
+
+    private final ErrorLogStore store;
+    private final int retentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public ErrorLogRetentionScheduler(
+            ErrorLogStore store,
+            @Value("${app.error-log.retention-days:90}") int retentionDays,
+            @Value("${app.error-log.purge-batch-size:5000}") int batchSize,
+            @Value("${app.error-log.purge-max-batches:200}") int maxBatches) {
+        this.store = store;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${app.error-log.retention-cron:0 30 3 * * *}")
+    public void purgeExpiredLogs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        try {
+            long total = 0;
+            for (int i = 0; i < maxBatches; i++) {
+                int deleted = store.purgeLogsBefore(cutoff, batchSize);
+                total += deleted;
+                if (deleted < batchSize) {
+                    break;
+                }
+            }
+            store.purgeHourlyBefore(cutoff);
+            log.info("Purged {} system error logs older than {}", total, cutoff);
+        } catch (Exception e) {
+            log.error("Failed to purge system error logs: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.crownbyte.Saphire.scheduler;
+
+import com.crownbyte.Saphire.oee.OeeStore;
+import com.crownbyte.Saphire.telemetry.MachineStatusEventStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Ages machine state history out of its finer tiers: raw status events after
+ * {@code raw-retention-days}, minute buckets after {@code minute-retention-days}.
+ * The hour tier (oee_hourly) is kept. Rows go in small batches, like the error log
+ * purge, so a large backlog never turns into one long-running delete.
+ */
+@Component
+@Slf4j
+public class MachineStatusRetentionScheduler {
+
+    private final MachineStatusEventStore eventStore;
+    private final OeeStore oeeStore;
+    private final int rawRetentionDays;
+    private final int minuteRetentionDays;
+    private final int batchSize;
+    private final int maxBatches;
+
+    public MachineStatusRetentionScheduler(
+            MachineStatusEventStore eventStore,
+            OeeStore oeeStore,
+            @Value("${app.machine-status.raw-retention-days:7}") int rawRetentionDays,
+            @Value("${app.machine-status.minute-retention-days:14}") int minuteRetentionDays,
+            @Value("${app.machine-status.purge-batch-size:5000}") int batchSize,
+            @Value("${app.machine-status.purge-max-batches:200}") int maxBatches) {
+        this.eventStore = eventStore;
+        this.oeeStore = oeeStore;
+        this.rawRetentionDays = rawRetentionDays;
+        this.minuteRetentionDays = minuteRetentionDays;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${app.machine-status.retention-cron:0 45 3 * * *}")
+    public void purgeExpiredHistory() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            LocalDateTime rawCutoff = now.minusDays(rawRetentionDays);
+            long events = purge(limit -> eventStore.purgeEventsBefore(rawCutoff, limit));
+            LocalDateTime minuteCutoff = now.minusDays(minuteRetentionDays);
+            long minutes = purge(limit -> oeeStore.purgeStateMinutesBefore(minuteCutoff, limit));
+            log.info("Purged {} machine status events older than {} and {} state minutes older than {}",
+                    events, rawCutoff, minutes, minuteCutoff);
+        } catch (Exception e) {
+            log.error("Failed to purge machine status history: {}", e.getMessage());
+        }
+    }
+
+    private long purge(IntUnaryOperator purgeBatch) {
+        long total = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = purgeBatch.applyAsInt(batchSize);
+            total += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,102 @@
+package com.crownbyte.Saphire.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the application password encoder.
+ * <p>
+ * Hashes are stored as {@code {bcrypt}$2a$<cost>$...}, so the algorithm and cost
+ * travel with every hash. The BCrypt cost is configured; with strength 0 it is
+ * picked at startup by timing a hash against a latency target instead, which can
+ * differ between nodes and restarts. Hashes of another algorithm or of a lower cost
+ * report {@code upgradeEncoding() == true} and are rewritten on the next successful
+ * login; stronger hashes are kept, so differing costs never rehash back and forth.
+ * Legacy hashes without an <code>{id}</code> prefix are verified as plain BCrypt.
+ */
+@Slf4j
+public final class AdaptivePasswordEncoderFactory {
+
+    public static final String BCRYPT_ID = "bcrypt";
+
+    private static final String BENCHMARK_PASSWORD = "saphire-benchmark-password";
+
+    private AdaptivePasswordEncoderFactory() {
+    }
+
+    public static PasswordEncoder create(int fixedStrength, long targetMillis, int minStrength, int maxStrength) {
+        int strength = fixedStrength > 0
+                ? fixedStrength
+                : benchmarkStrength(targetMillis, minStrength, maxStrength);
+        log.info("Using BCrypt strength {} for password hashing", strength);
+
+        CostAwareBCryptPasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(strength);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ID, bcrypt);
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    /**
+     * Each BCrypt cost step doubles the work, so a single timing at the minimum
+     * strength is enough to extrapolate the strength closest to the target
+     * without exceeding it.
+     */
+    static int benchmarkStrength(long targetMillis, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(BENCHMARK_PASSWORD); // warm-up
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.encode(BENCHMARK_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        double measuredMillis = Math.max(best / 1_000_000.0, 0.01);
+        int strength = minStrength;
+        double projected = measuredMillis;
+        while (strength < maxStrength && projected * 2 <= targetMillis) {
+            projected *= 2;
+            strength++;
+        }
+        log.info("BCrypt benchmark: strength {} took {} ms, target {} ms -> strength {} (~{} ms)",
+                minStrength, String.format("%.1f", measuredMillis), targetMillis, strength,
+                String.format("%.1f", projected));
+        return strength;
+    }
+
+    /** BCrypt encoder that asks for re-encoding when the stored cost is below the current one. */
+    static class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private static final Pattern BCRYPT_PATTERN = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+        private final int strength;
+
+        CostAwareBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.isEmpty()) {
+                return false;
+            }
+            Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+            if (!matcher.find()) {
+                return true;
+            }
+            return Integer.parseInt(matcher.group(1)) < strength;
+        }
+    }
+}
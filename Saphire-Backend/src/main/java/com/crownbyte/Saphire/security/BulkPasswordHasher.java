@@ -0,0 +1,76 @@
+package com.crownbyte.Saphire.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes many passwords in parallel on a small bounded pool, used by bulk user imports.
+ * The pool is capped so an import cannot starve request threads of CPU; when the queue
+ * is full the submitting thread hashes the password itself.
+ */
+@Component
+public class BulkPasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+
+    public BulkPasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.security.password.bulk-hash-threads:0}") int threads,
+            @Value("${app.security.password.bulk-hash-queue:256}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Encodes the given raw passwords, keeping order. Every password must be non-empty;
+     * nothing is hashed otherwise.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (rawPasswords.get(i) == null || rawPasswords.get(i).isEmpty()) {
+                throw new IllegalArgumentException("Password " + (i + 1) + " of the import is empty");
+            }
+        }
+        List<CompletableFuture<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String raw : rawPasswords) {
+            futures.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(raw), executor));
+        }
+
+        List<String> encoded = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<String> future : futures) {
+                encoded.add(future.join());
+            }
+        } catch (CompletionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+        return encoded;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -3,33 +3,48 @@ package com.crownbyte.Saphire.security;
 import com.crownbyte.Saphire.entity.master.UserEntity;
 import com.crownbyte.Saphire.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-
-import java.util.Collections;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+@Slf4j
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByUsername(username)
+        UserEntity user = userRepository.findByUsernameWithMachines(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        return new User(
-                user.getUsername(),
-                user.getHashedPassword(),
-                user.getActive(),
-                true,
-                true,
-                true,
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())));
+        return SaphireUserDetails.from(user);
+    }
+
+    /**
+     * Called after a successful login when the stored hash uses an outdated algorithm or cost.
+     * The password itself is unchanged, so issued tokens stay valid.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userRepository.updateHashedPassword(user.getUsername(), newPassword);
+        if (updated == 0) {
+            return user;
+        }
+        log.info("Rehashed password for user {}", user.getUsername());
+        if (user instanceof SaphireUserDetails principal) {
+            return new SaphireUserDetails(principal.getId(), principal.getUsername(), newPassword,
+                    principal.isEnabled(), principal.getRole(), principal.getTokenVersion(),
+                    principal.getMachineIds(), principal.getLocationIds(), principal.getCompanyIds());
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
     }
 }
@@ -0,0 +1,67 @@
+package com.crownbyte.Saphire.security;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Compact string form for id sets embedded in tokens, e.g. {1,2,3,4,7,9,10} -> "1-4,7,9-10".
+ * Machine ids assigned to a user are usually contiguous, so this stays short even for large sets.
+ */
+public final class IdRangeCodec {
+
+    private IdRangeCodec() {
+    }
+
+    public static String encode(Set<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return "";
+        }
+        SortedSet<Long> sorted = ids instanceof SortedSet<Long> s ? s : new TreeSet<>(ids);
+        StringBuilder sb = new StringBuilder();
+        Iterator<Long> it = sorted.iterator();
+        long start = it.next();
+        long prev = start;
+        while (it.hasNext()) {
+            long current = it.next();
+            if (current != prev + 1) {
+                appendRange(sb, start, prev);
+                start = current;
+            }
+            prev = current;
+        }
+        appendRange(sb, start, prev);
+        return sb.toString();
+    }
+
+    public static Set<Long> decode(String encoded) {
+        Set<Long> ids = new TreeSet<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return ids;
+        }
+        for (String part : encoded.split(",")) {
+            int dash = part.indexOf('-');
+            if (dash < 0) {
+                ids.add(Long.parseLong(part));
+            } else {
+                long from = Long.parseLong(part.substring(0, dash));
+                long to = Long.parseLong(part.substring(dash + 1));
+                for (long id = from; id <= to; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static void appendRange(StringBuilder sb, long start, long end) {
+        if (sb.length() > 0) {
+            sb.append(',');
+        }
+        sb.append(start);
+        if (end != start) {
+            sb.append('-').append(end);
+        }
+    }
+}
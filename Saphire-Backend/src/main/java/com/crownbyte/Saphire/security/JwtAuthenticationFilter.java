@@ -1,5 +1,6 @@
 package com.crownbyte.Saphire.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionRegistry tokenVersionRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -43,14 +45,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            username = jwtService.extractUsername(jwt);
+            // Signature and expiry are verified here; an invalid token throws.
+            Claims claims = jwtService.parseToken(jwt);
+            username = claims.getSubject();
             log.debug("JWT filter: Extracted username: {}", username);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                log.debug("JWT filter: Loaded UserDetails for {}", username);
+                UserDetails userDetails = resolveUserDetails(claims);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     log.debug("JWT filter: Token is valid for {}", username);
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -73,4 +76,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Tokens carrying principal claims are authorized from the token alone plus the
+     * in-memory token version check; older tokens fall back to loading the user.
+     */
+    private UserDetails resolveUserDetails(Claims claims) {
+        if (jwtService.hasPrincipalClaims(claims)) {
+            SaphireUserDetails principal = jwtService.toUserDetails(claims);
+            if (!tokenVersionRegistry.isCurrent(principal.getId(), principal.getTokenVersion())) {
+                log.warn("JWT filter: Token version {} revoked for {}", principal.getTokenVersion(),
+                        principal.getUsername());
+                return null;
+            }
+            return principal;
+        }
+
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+        log.debug("JWT filter: Loaded UserDetails for {}", claims.getSubject());
+        return userDetails.isEnabled() ? userDetails : null;
+    }
 }
@@ -1,6 +1,8 @@
 package com.crownbyte.Saphire.security;
 
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -17,12 +19,22 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+    public static final String CLAIM_MACHINES = "mch";
+    public static final String CLAIM_LOCATIONS = "loc";
+    public static final String CLAIM_COMPANIES = "cmp";
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    private volatile SecretKey signInKey;
+    private volatile JwtParser parser;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -37,7 +49,16 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof SaphireUserDetails principal) {
+            claims.put(CLAIM_USER_ID, principal.getId());
+            claims.put(CLAIM_ROLE, principal.getRole().name());
+            claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+            claims.put(CLAIM_MACHINES, IdRangeCodec.encode(principal.getMachineIds()));
+            claims.put(CLAIM_LOCATIONS, IdRangeCodec.encode(principal.getLocationIds()));
+            claims.put(CLAIM_COMPANIES, IdRangeCodec.encode(principal.getCompanyIds()));
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
     }
 
     private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
@@ -55,6 +76,34 @@ public class JwtService {
         return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
     }
 
+    /**
+     * Verifies signature and expiry once and returns the claims; throws on an invalid token.
+     */
+    public Claims parseToken(String token) {
+        return extractAllClaims(token);
+    }
+
+    public boolean hasPrincipalClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) != null && claims.get(CLAIM_ROLE) != null;
+    }
+
+    /**
+     * Rebuilds the authenticated principal from a token issued for a {@link SaphireUserDetails}.
+     */
+    public SaphireUserDetails toUserDetails(Claims claims) {
+        Number tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Number.class);
+        return new SaphireUserDetails(
+                claims.get(CLAIM_USER_ID, Number.class).longValue(),
+                claims.getSubject(),
+                null,
+                true,
+                UserRoleEnum.valueOf(claims.get(CLAIM_ROLE, String.class)),
+                tokenVersion != null ? tokenVersion.intValue() : 0,
+                IdRangeCodec.decode(claims.get(CLAIM_MACHINES, String.class)),
+                IdRangeCodec.decode(claims.get(CLAIM_LOCATIONS, String.class)),
+                IdRangeCodec.decode(claims.get(CLAIM_COMPANIES, String.class)));
+    }
+
     private boolean isTokenExpired(String token) {
         return extractExpiration(token).before(new Date());
     }
@@ -64,16 +113,26 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return getParser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSignInKey())
+                    .build();
+        }
+        return parser;
+    }
+
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        if (signInKey == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+            signInKey = Keys.hmacShaKeyFor(keyBytes);
+        }
+        return signInKey;
     }
 
     public long getExpirationTime() {
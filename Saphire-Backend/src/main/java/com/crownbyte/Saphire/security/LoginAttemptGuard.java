@@ -0,0 +1,256 @@
+package com.crownbyte.Saphire.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throttles login attempts per username and per client IP before the password
+ * hash is checked, so looping clients cannot burn CPU on BCrypt.
+ * <p>
+ * Failures are counted in lock-free sliding windows. Past a soft limit each
+ * further attempt must wait an exponentially growing delay; past the hard limit
+ * the key is blocked until failures age out of the window. Local deltas are
+ * flushed to the login_throttle table and cluster-wide totals read back on a
+ * short interval, so every node sees failures made against the others, and when
+ * the latest of them happened. Deltas of a failed flush are kept for the next one.
+ */
+@Component
+@Slf4j
+public class LoginAttemptGuard {
+
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String IP_PREFIX = "ip:";
+    private static final int BUCKETS = 15;
+
+    private final LoginThrottleStore store;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final long usernameMaxFailures;
+    private final long ipMaxFailures;
+    private final long softFailures;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> pendingClears = ConcurrentHashMap.newKeySet();
+
+    private final Counter blockedByUsername;
+    private final Counter blockedByIp;
+    private final Counter failures;
+
+    public LoginAttemptGuard(
+            LoginThrottleStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.login-throttle.enabled:true}") boolean enabled,
+            @Value("${app.security.login-throttle.window-seconds:900}") long windowSeconds,
+            @Value("${app.security.login-throttle.username-max-failures:10}") long usernameMaxFailures,
+            @Value("${app.security.login-throttle.ip-max-failures:50}") long ipMaxFailures,
+            @Value("${app.security.login-throttle.soft-failures:3}") long softFailures,
+            @Value("${app.security.login-throttle.base-delay-ms:1000}") long baseDelayMillis,
+            @Value("${app.security.login-throttle.max-delay-ms:60000}") long maxDelayMillis) {
+        this.store = store;
+        this.enabled = enabled;
+        this.windowMillis = windowSeconds * 1000;
+        this.usernameMaxFailures = usernameMaxFailures;
+        this.ipMaxFailures = ipMaxFailures;
+        this.softFailures = softFailures;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+
+        this.blockedByUsername = Counter.builder("saphire.auth.login.blocked")
+                .tag("reason", "username")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+        this.blockedByIp = Counter.builder("saphire.auth.login.blocked")
+                .tag("reason", "ip")
+                .description("Login attempts rejected before password verification")
+                .register(meterRegistry);
+        this.failures = Counter.builder("saphire.auth.login.failures")
+                .description("Failed login attempts")
+                .register(meterRegistry);
+        meterRegistry.gauge("saphire.auth.login.tracked.keys", entries, Map::size);
+    }
+
+    /**
+     * Returns how many seconds the caller has to wait before another attempt,
+     * or 0 when the attempt may proceed to password verification.
+     */
+    public long retryAfterSeconds(String username, String ipAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+
+        long waitMillis = waitMillis(usernameKey(username), usernameMaxFailures, now);
+        if (waitMillis > 0) {
+            blockedByUsername.increment();
+            return toSeconds(waitMillis);
+        }
+
+        waitMillis = waitMillis(ipKey(ipAddress), ipMaxFailures, now);
+        if (waitMillis > 0) {
+            blockedByIp.increment();
+            return toSeconds(waitMillis);
+        }
+        return 0;
+    }
+
+    public void recordFailure(String username, String ipAddress) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        entry(usernameKey(username)).recordFailure(now);
+        entry(ipKey(ipAddress)).recordFailure(now);
+        failures.increment();
+    }
+
+    public void recordSuccess(String username) {
+        if (!enabled) {
+            return;
+        }
+        String key = usernameKey(username);
+        if (entries.remove(key) != null) {
+            pendingClears.add(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.login-throttle.sync-interval-ms:5000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Set<String> clears = new HashSet<>(pendingClears);
+        pendingClears.removeAll(clears);
+        Map<String, LoginThrottleStore.Delta> deltas = new HashMap<>();
+        entries.forEach((key, entry) -> {
+            long delta = entry.pendingDelta.getAndSet(0);
+            if (delta > 0) {
+                deltas.put(key, new LoginThrottleStore.Delta(delta, toDateTime(entry.window.getLastEventAt())));
+            }
+        });
+        try {
+            store.flush(clears, deltas, toDateTime(now - now % (windowMillis / BUCKETS)));
+        } catch (Exception e) {
+            log.error("Failed to flush login throttle counters: {}", e.getMessage());
+            pendingClears.addAll(clears);
+            deltas.forEach((key, delta) -> {
+                // A key cleared by a successful login since has nothing to restore
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    entry.pendingDelta.addAndGet(delta.getFailures());
+                }
+            });
+            return;
+        }
+
+        try {
+            Map<String, LoginThrottleStore.Total> totals = store.loadTotalsSince(toDateTime(now - windowMillis));
+            entries.forEach((key, entry) -> {
+                if (!totals.containsKey(key)) {
+                    entry.sharedCount = 0;
+                }
+            });
+            totals.forEach((key, total) -> entry(key).share(total));
+
+            store.purgeBefore(toDateTime(now - windowMillis));
+        } catch (Exception e) {
+            log.error("Failed to sync login throttle counters: {}", e.getMessage());
+        }
+        evictIdle(now);
+    }
+
+    private long waitMillis(String key, long maxFailures, long now) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return 0;
+        }
+        long count = entry.count(now);
+        if (count >= maxFailures) {
+            long localWait = entry.window.millisUntilOldestExpires(now);
+            return localWait > 0 ? localWait : entry.window.getBucketMillis();
+        }
+        if (count >= softFailures) {
+            long shift = Math.min(count - softFailures, 20);
+            long delay = Math.min(baseDelayMillis << shift, maxDelayMillis);
+            return entry.lastFailureAt() + delay - now;
+        }
+        return 0;
+    }
+
+    private void evictIdle(long now) {
+        entries.entrySet().removeIf(e -> e.getValue().sharedCount == 0
+                && e.getValue().pendingDelta.get() == 0
+                && now - e.getValue().window.getLastEventAt() > windowMillis);
+    }
+
+    private Entry entry(String key) {
+        return entries.computeIfAbsent(key, k -> new Entry(windowMillis));
+    }
+
+    private String usernameKey(String username) {
+        return USERNAME_PREFIX + (username != null ? username.trim().toLowerCase(Locale.ROOT) : "");
+    }
+
+    private String ipKey(String ipAddress) {
+        return IP_PREFIX + (ipAddress != null ? ipAddress : "unknown");
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static final class Entry {
+        private final SlidingWindowCounter window;
+        private final AtomicLong pendingDelta = new AtomicLong();
+        private volatile long sharedCount;
+        /** Latest failure on any node, in epoch millis, as of the last sync. */
+        private volatile long sharedLastFailureAt;
+
+        private Entry(long windowMillis) {
+            this.window = new SlidingWindowCounter(windowMillis, BUCKETS);
+        }
+
+        private void recordFailure(long now) {
+            window.increment(now);
+            pendingDelta.incrementAndGet();
+        }
+
+        /**
+         * The shared total already includes this node's flushed failures, so the
+         * larger of the two views is used instead of their sum.
+         */
+        private long count(long now) {
+            return Math.max(window.sum(now), sharedCount + pendingDelta.get());
+        }
+
+        private long lastFailureAt() {
+            return Math.max(window.getLastEventAt(), sharedLastFailureAt);
+        }
+
+        private void share(LoginThrottleStore.Total total) {
+            sharedCount = total.getFailures();
+            sharedLastFailureAt = total.getLastFailedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+    }
+}
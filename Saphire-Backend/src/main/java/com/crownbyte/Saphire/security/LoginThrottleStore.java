@@ -0,0 +1,101 @@
+package com.crownbyte.Saphire.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database side of the login throttle, used to share failure counts between nodes.
+ */
+@Component
+public class LoginThrottleStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public LoginThrottleStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Clears the given keys and adds a node's failure deltas, all or nothing, so a
+     * failed flush can be retried without counting anything twice.
+     */
+    public void flush(Collection<String> clears, Map<String, Delta> deltas, LocalDateTime bucketStart) {
+        if (clears.isEmpty() && deltas.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            clear(clears);
+            addFailures(deltas, bucketStart);
+        });
+    }
+
+    public Map<String, Total> loadTotalsSince(LocalDateTime since) {
+        Map<String, Total> totals = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT throttle_key, SUM(failures), MAX(COALESCE(last_failed_at, bucket_start)) " +
+                        "FROM login_throttle WHERE bucket_start >= ? GROUP BY throttle_key",
+                rs -> {
+                    totals.put(rs.getString(1), new Total(rs.getLong(2), rs.getTimestamp(3).toLocalDateTime()));
+                },
+                Timestamp.valueOf(since));
+        return totals;
+    }
+
+    private void addFailures(Map<String, Delta> deltas, LocalDateTime bucketStart) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Timestamp bucket = Timestamp.valueOf(bucketStart);
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> args.add(new Object[] {
+                key, bucket, delta.getFailures(), Timestamp.valueOf(delta.getLastFailedAt()) }));
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO login_throttle (throttle_key, bucket_start, failures, last_failed_at) " +
+                        "VALUES (?, ?, ?, ?) ON CONFLICT (throttle_key, bucket_start) " +
+                        "DO UPDATE SET failures = login_throttle.failures + EXCLUDED.failures, " +
+                        "last_failed_at = GREATEST(login_throttle.last_failed_at, EXCLUDED.last_failed_at)",
+                args);
+    }
+
+    private void clear(Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = keys.stream().map(k -> new Object[] { k }).toList();
+        jdbcTemplate.batchUpdate("DELETE FROM login_throttle WHERE throttle_key = ?", args);
+    }
+
+    public int purgeBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("DELETE FROM login_throttle WHERE bucket_start < ?", Timestamp.valueOf(cutoff));
+    }
+
+    /** Failures a node has not flushed yet, with the latest of them. */
+    @Getter
+    @AllArgsConstructor
+    public static class Delta {
+        private final long failures;
+        private final LocalDateTime lastFailedAt;
+    }
+
+    /** Failures of a key across all nodes within the window, with the latest of them. */
+    @Getter
+    @AllArgsConstructor
+    public static class Total {
+        private final long failures;
+        private final LocalDateTime lastFailedAt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.crownbyte.Saphire.security;
+
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import lombok.Getter;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Authenticated principal carrying everything needed for authorization
+ * decisions, so controllers and services never have to reload the user
+ * or its machine assignments during a request.
+ */
+@Getter
+public class SaphireUserDetails extends User {
+
+    private final Long id;
+    private final UserRoleEnum role;
+    private final int tokenVersion;
+    private final Set<Long> machineIds;
+    private final Set<Long> locationIds;
+    private final Set<Long> companyIds;
+
+    public SaphireUserDetails(Long id, String username, String password, boolean enabled, UserRoleEnum role,
+            int tokenVersion, Set<Long> machineIds, Set<Long> locationIds, Set<Long> companyIds) {
+        super(username, password != null ? password : "", enabled, true, true, true,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.id = id;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.machineIds = Collections.unmodifiableSet(new TreeSet<>(machineIds));
+        this.locationIds = Collections.unmodifiableSet(new TreeSet<>(locationIds));
+        this.companyIds = Collections.unmodifiableSet(new TreeSet<>(companyIds));
+    }
+
+    public static SaphireUserDetails from(UserEntity user) {
+        Set<Long> machineIds = new TreeSet<>();
+        Set<Long> locationIds = new TreeSet<>();
+        Set<Long> companyIds = new TreeSet<>();
+        for (MachineEntity machine : user.getMachines()) {
+            machineIds.add(machine.getId());
+            if (machine.getLocation() != null) {
+                locationIds.add(machine.getLocation().getId());
+                if (machine.getLocation().getCompany() != null) {
+                    companyIds.add(machine.getLocation().getCompany().getId());
+                }
+            }
+        }
+
+        return new SaphireUserDetails(
+                user.getId(),
+                user.getUsername(),
+                user.getHashedPassword(),
+                Boolean.TRUE.equals(user.getActive()),
+                user.getRole(),
+                user.getTokenVersion() != null ? user.getTokenVersion() : 0,
+                machineIds,
+                locationIds,
+                companyIds);
+    }
+
+    public boolean isAdmin() {
+        return role == UserRoleEnum.ADMIN;
+    }
+
+    /**
+     * Admins and supervisors may act on any machine; operators only on the
+     * machines they are assigned to.
+     */
+    public boolean canAccessMachine(Long machineId) {
+        return role != UserRoleEnum.OPERATOR || machineIds.contains(machineId);
+    }
+
+    public boolean canAccessLocation(Long locationId) {
+        return role != UserRoleEnum.OPERATOR || locationIds.contains(locationId);
+    }
+}
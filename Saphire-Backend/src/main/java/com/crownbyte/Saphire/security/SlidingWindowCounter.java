@@ -0,0 +1,94 @@
+package com.crownbyte.Saphire.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free sliding window counter built from a ring of fixed-size buckets.
+ * Each bucket remembers which time slot it belongs to; a stale bucket is
+ * reset with a CAS the first time it is reused. An increment racing with
+ * that reset can be lost, which is acceptable for throttling purposes.
+ */
+public class SlidingWindowCounter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final AtomicLongArray slots;
+    private final AtomicLongArray counts;
+    private final AtomicLong lastEventAt = new AtomicLong();
+
+    public SlidingWindowCounter(long windowMillis, int bucketCount) {
+        this.bucketCount = bucketCount;
+        this.bucketMillis = Math.max(1, windowMillis / bucketCount);
+        this.slots = new AtomicLongArray(bucketCount);
+        this.counts = new AtomicLongArray(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            slots.set(i, -1);
+        }
+    }
+
+    public void increment(long nowMillis) {
+        add(nowMillis, 1);
+    }
+
+    public void add(long nowMillis, long delta) {
+        long slot = nowMillis / bucketMillis;
+        int index = (int) (slot % bucketCount);
+        while (true) {
+            long current = slots.get(index);
+            if (current == slot) {
+                counts.addAndGet(index, delta);
+                break;
+            }
+            if (current > slot) {
+                // Bucket already moved past this (late) event; drop it.
+                break;
+            }
+            if (slots.compareAndSet(index, current, slot)) {
+                counts.set(index, delta);
+                break;
+            }
+        }
+        lastEventAt.accumulateAndGet(nowMillis, Math::max);
+    }
+
+    public long sum(long nowMillis) {
+        long currentSlot = nowMillis / bucketMillis;
+        long oldestSlot = currentSlot - bucketCount + 1;
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            long slot = slots.get(i);
+            if (slot >= oldestSlot && slot <= currentSlot) {
+                total += counts.get(i);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Milliseconds until the oldest bucket that still holds events leaves the window.
+     */
+    public long millisUntilOldestExpires(long nowMillis) {
+        long currentSlot = nowMillis / bucketMillis;
+        long oldestSlot = currentSlot - bucketCount + 1;
+        long oldestUsed = Long.MAX_VALUE;
+        for (int i = 0; i < bucketCount; i++) {
+            long slot = slots.get(i);
+            if (slot >= oldestSlot && slot <= currentSlot && counts.get(i) > 0) {
+                oldestUsed = Math.min(oldestUsed, slot);
+            }
+        }
+        if (oldestUsed == Long.MAX_VALUE) {
+            return 0;
+        }
+        return (oldestUsed + bucketCount) * bucketMillis - nowMillis;
+    }
+
+    public long getLastEventAt() {
+        return lastEventAt.get();
+    }
+
+    public long getBucketMillis() {
+        return bucketMillis;
+    }
+}
@@ -0,0 +1,96 @@
+package com.crownbyte.Saphire.security;
+
+import com.crownbyte.Saphire.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of users.token_version used to revoke issued JWTs without
+ * touching the users table on every request.
+ * Loaded once at startup, updated locally when a user is changed and
+ * periodically re-synced from rows updated on other nodes.
+ * <p>
+ * updated_at is stamped by the writing node's clock at flush, before commit, so a
+ * row can become visible with an updated_at older than the last sync. Each sync
+ * therefore re-reads an overlap window before it; versions only ever go up, so
+ * rows read twice change nothing.
+ */
+@Component
+@Slf4j
+public class TokenVersionRegistry {
+
+    private final UserRepository userRepository;
+    private final Duration overlap;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.MIN;
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${app.security.token-version.sync-overlap-ms:60000}") long overlapMs) {
+        this.userRepository = userRepository;
+        this.overlap = Duration.ofMillis(overlapMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        List<Object[]> rows = userRepository.findAllTokenVersions();
+        rows.forEach(this::apply);
+        lastSync = syncStart;
+        log.info("Loaded token versions for {} users", rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.token-version.sync-interval-ms:30000}")
+    public void sync() {
+        if (lastSync == LocalDateTime.MIN) {
+            return;
+        }
+        try {
+            LocalDateTime syncStart = LocalDateTime.now();
+            userRepository.findTokenVersionsUpdatedSince(lastSync.minus(overlap)).forEach(this::apply);
+            lastSync = syncStart;
+        } catch (Exception e) {
+            log.error("Failed to sync token versions: {}", e.getMessage());
+        }
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return versions.getOrDefault(userId, 0) == tokenVersion;
+    }
+
+    /**
+     * Publishes a new version for the user. Inside a transaction the change is
+     * applied after commit so a rolled back update does not revoke tokens.
+     */
+    public void publish(Long userId, int tokenVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    versions.merge(userId, tokenVersion, Math::max);
+                }
+            });
+        } else {
+            versions.merge(userId, tokenVersion, Math::max);
+        }
+    }
+
+    private void apply(Object[] row) {
+        Long userId = ((Number) row[0]).longValue();
+        int version = row[1] != null ? ((Number) row[1]).intValue() : 0;
+        versions.merge(userId, version, Math::max);
+    }
+}
@@ -0,0 +1,9 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.response.RouteStepCycleTimeResponse;
+
+public interface CycleTimeService {
+
+    /** Learned cycle times of the route step, pooled and per machine, next to the entered estimate. */
+    RouteStepCycleTimeResponse getRouteStepCycleTimes(Long routeStepId);
+}
@@ -0,0 +1,30 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.DispatchQueueResponse;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.FinishedStepResponse;
+import java.util.Optional;
+
+public interface DispatchService {
+
+    /**
+     * Starts the highest-priority pending step of the machine for the operator, or
+     * returns empty when the machine has none. Each step is handed to one caller only,
+     * however many terminals claim at once.
+     */
+    Optional<DispatchedStepResponse> claimNext(Long machineId, Long operatorId);
+
+    /**
+     * Closes a step in progress on the machine as COMPLETED or FAILED and puts the
+     * machine back to IDLE. The instance is completed with its last step. A FAILED
+     * step is requeued as PENDING with its retry count raised, and the instance's
+     * later stages wait until it completes.
+     */
+    FinishedStepResponse finishStep(Long machineId, Long stepId, ProductionStepUpdateRequest request);
+
+    /** Depth and head of the location's pending-step queue, served from memory. */
+    DispatchQueueResponse getLocationQueue(Long locationId, Integer limit);
+
+    DispatchQueueResponse getMachineQueue(Long machineId, Integer limit);
+}
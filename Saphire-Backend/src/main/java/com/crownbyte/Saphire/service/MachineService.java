@@ -2,6 +2,7 @@ package com.crownbyte.Saphire.service;
 
 import com.crownbyte.Saphire.dto.request.MachineRequest;
 import com.crownbyte.Saphire.dto.response.MachineResponse;
+import com.crownbyte.Saphire.dto.response.PageResponse;
 import java.util.List;
 import java.util.Optional;
 
@@ -9,6 +10,13 @@ public interface MachineService {
 
     List<MachineResponse> getAll(String search);
 
+    /**
+     * One page of machines ordered by code, optionally limited to a location
+     * and a name/code search. Inactive machines are left out unless asked for.
+     */
+    PageResponse<MachineResponse> getPage(Long locationId, String search, boolean includeInactive,
+            Integer page, Integer size);
+
     List<MachineResponse> getByLocationId(Long locationId);
 
     List<MachineResponse> getActiveByLocationId(Long locationId);
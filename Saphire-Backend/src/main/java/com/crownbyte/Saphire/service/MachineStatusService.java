@@ -0,0 +1,30 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.request.MachineStatusEventRequest;
+import com.crownbyte.Saphire.dto.response.LiveMachineStatusResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusIngestResponse;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MachineStatusService {
+
+    /**
+     * Applies a batch of device status reports to the live state. Throws
+     * {@link IllegalStateException} when the write buffer is full; nothing from the
+     * batch is applied then.
+     */
+    MachineStatusIngestResponse ingest(List<MachineStatusEventRequest> events);
+
+    List<LiveMachineStatusResponse> getLive(Long locationId);
+
+    Optional<LiveMachineStatusResponse> getLiveByMachineId(Long machineId);
+
+    /**
+     * State history of one machine, from the finest tier that still holds the range
+     * and fits it in at most {@code maxPoints} points.
+     */
+    MachineStatusHistoryResponse getHistory(Long machineId, LocalDateTime from, LocalDateTime to,
+            Integer maxPoints);
+}
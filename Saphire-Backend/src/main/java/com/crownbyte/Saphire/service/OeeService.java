@@ -0,0 +1,16 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.response.OeeResponse;
+import com.crownbyte.Saphire.oee.OeeGranularity;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OeeService {
+
+    /** OEE of one machine per hour, shift or production day, oldest period first. */
+    List<OeeResponse> getMachineOee(Long machineId, OeeGranularity granularity, LocalDateTime from,
+            LocalDateTime to);
+
+    /** OEE of each machine of a location over the whole range. */
+    List<OeeResponse> getLocationOee(Long locationId, LocalDateTime from, LocalDateTime to);
+}
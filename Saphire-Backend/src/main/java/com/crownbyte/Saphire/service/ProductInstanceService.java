@@ -1,7 +1,9 @@
 package com.crownbyte.Saphire.service;
 
 import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.WorkOrderRequest;
 import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderResponse;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +23,12 @@ public interface ProductInstanceService {
 
     ProductInstanceResponse create(ProductInstanceRequest request);
 
+    /**
+     * Creates {@code quantity} instances of a product on one route in one transaction,
+     * with generated serial numbers and every route step expanded into a pending step.
+     */
+    WorkOrderResponse createWorkOrder(WorkOrderRequest request);
+
     ProductInstanceResponse updateStatus(Long id, String status);
 
     void delete(Long id);
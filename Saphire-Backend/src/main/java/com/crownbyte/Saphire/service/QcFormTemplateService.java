@@ -1,7 +1,11 @@
 package com.crownbyte.Saphire.service;
 
 import com.crownbyte.Saphire.dto.request.QcFormTemplateRequest;
+import com.crownbyte.Saphire.dto.response.QcFormFieldResponse;
+import com.crownbyte.Saphire.dto.response.QcFormHeaderFieldResponse;
+import com.crownbyte.Saphire.dto.response.QcFormSectionResponse;
 import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateSummaryResponse;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,12 @@ public interface QcFormTemplateService {
 
     List<QcFormTemplateResponse> getActive();
 
+    List<QcFormTemplateSummaryResponse> getAllSummaries(String search);
+
+    List<QcFormTemplateSummaryResponse> getActiveSummaries();
+
+    List<QcFormTemplateSummaryResponse> getSummariesByMachineId(Long machineId);
+
     List<QcFormTemplateResponse> getByCompanyId(Long companyId);
 
     List<QcFormTemplateResponse> getByMachineId(Long machineId);
@@ -23,6 +33,22 @@ public interface QcFormTemplateService {
 
     Optional<QcFormTemplateResponse> getByCode(String code);
 
+    Optional<List<QcFormHeaderFieldResponse>> getHeaderFields(Long id);
+
+    /**
+     * The active sections of a template without their fields, which are
+     * loaded per section with {@link #getSectionFields}.
+     */
+    Optional<List<QcFormSectionResponse>> getSections(Long id);
+
+    Optional<List<QcFormFieldResponse>> getSectionFields(Long id, Long sectionId);
+
+    /**
+     * The template as published at the given version. Published versions never
+     * change, so the result can be cached indefinitely.
+     */
+    Optional<QcFormTemplateResponse> getVersion(Long id, Integer version);
+
     QcFormTemplateResponse create(QcFormTemplateRequest request);
 
     QcFormTemplateResponse update(Long id, QcFormTemplateRequest request);
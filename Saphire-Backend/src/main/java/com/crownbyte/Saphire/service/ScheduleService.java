@@ -0,0 +1,13 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.response.InstanceScheduleResponse;
+import com.crownbyte.Saphire.dto.response.MachineScheduleResponse;
+
+public interface ScheduleService {
+
+    /** Planned work of the machine from the in-memory capacity plan. */
+    MachineScheduleResponse getMachineSchedule(Long machineId, Integer limit);
+
+    /** Projected start and finish of the instance's remaining steps. */
+    InstanceScheduleResponse getInstanceSchedule(Long productInstanceId);
+}
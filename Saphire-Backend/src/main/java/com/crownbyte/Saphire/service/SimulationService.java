@@ -0,0 +1,13 @@
+package com.crownbyte.Saphire.service;
+
+import com.crownbyte.Saphire.dto.request.SimulationRequest;
+import com.crownbyte.Saphire.dto.response.SimulationResponse;
+
+public interface SimulationService {
+
+    /**
+     * Simulates the floor with and without a hypothetical order mix and reports
+     * utilization, queues and due-date attainment. Nothing is written.
+     */
+    SimulationResponse simulate(SimulationRequest request);
+}
@@ -1,10 +1,17 @@
 package com.crownbyte.Saphire.service;
 
+import com.crownbyte.Saphire.dto.response.CursorPageResponse;
+import com.crownbyte.Saphire.dto.response.ErrorLogHourlyCountResponse;
 import com.crownbyte.Saphire.entity.SystemErrorLog;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SystemErrorLogService {
     void logError(String ipAddress, String sourceClass, String description);
 
-    List<SystemErrorLog> getAllLogs();
+    CursorPageResponse<SystemErrorLog> getLogs(LocalDateTime from, LocalDateTime to, String sourceClass,
+            String ipAddress, String cursor, Integer size);
+
+    List<ErrorLogHourlyCountResponse> getHourlyCounts(LocalDateTime from, LocalDateTime to, String sourceClass);
 }
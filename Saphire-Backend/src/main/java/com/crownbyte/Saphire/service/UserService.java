@@ -19,6 +19,8 @@ public interface UserService {
 
     UserResponse create(UserRequest request);
 
+    List<UserResponse> createAll(List<UserRequest> requests);
+
     UserResponse update(Long id, UserRequest request);
 
     void delete(Long id);
@@ -0,0 +1,55 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.cycletime.CycleTimeEstimator;
+import com.crownbyte.Saphire.cycletime.CycleTimeStats;
+import com.crownbyte.Saphire.dto.response.CycleTimeStatsResponse;
+import com.crownbyte.Saphire.dto.response.RouteStepCycleTimeResponse;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.repository.ProductRouteStepRepository;
+import com.crownbyte.Saphire.service.CycleTimeService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+/** Statistics come from the {@link CycleTimeEstimator}'s memory; only the route step is read. */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CycleTimeServiceImpl implements CycleTimeService {
+
+    private final ProductRouteStepRepository routeStepRepository;
+    private final CycleTimeEstimator cycleTimes;
+
+    @Override
+    public RouteStepCycleTimeResponse getRouteStepCycleTimes(Long routeStepId) {
+        ProductRouteStepEntity routeStep = routeStepRepository.findById(routeStepId)
+                .orElseThrow(() -> new EntityNotFoundException("Route step not found with id: " + routeStepId));
+        List<CycleTimeStats> stats = cycleTimes.routeStepStats(routeStepId);
+        return RouteStepCycleTimeResponse.builder()
+                .routeStepId(routeStepId)
+                .stepName(routeStep.getStepName())
+                .configuredMinutes(minutes(routeStep.getEstimatedSetupMinutes())
+                        + minutes(routeStep.getEstimatedCycleMinutes()))
+                .pooled(stats.isEmpty() ? null : toResponse(stats.get(0)))
+                .machines(stats.stream().skip(1).map(CycleTimeServiceImpl::toResponse).toList())
+                .build();
+    }
+
+    private static CycleTimeStatsResponse toResponse(CycleTimeStats stats) {
+        return CycleTimeStatsResponse.builder()
+                .machineId(stats.getMachineId())
+                .samples(stats.getSamples())
+                .medianSeconds(stats.getMedianSeconds())
+                .p90Seconds(stats.getP90Seconds())
+                .ewmaSeconds(stats.getEwmaSeconds())
+                .estimatedMinutes(stats.getEstimatedMinutes())
+                .lastFinishedAt(stats.getLastFinishedAt())
+                .build();
+    }
+
+    private static int minutes(Integer minutes) {
+        return minutes != null ? minutes : 0;
+    }
+}
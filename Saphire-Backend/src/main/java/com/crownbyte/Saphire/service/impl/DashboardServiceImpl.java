@@ -1,12 +1,12 @@
 package com.crownbyte.Saphire.service.impl;
 
 import com.crownbyte.Saphire.dto.response.dashboard.*;
-import com.crownbyte.Saphire.entity.master.MachineStatusEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
 import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
-import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
 import com.crownbyte.Saphire.entity.qc.enums.OverallResultEnum;
 import com.crownbyte.Saphire.repository.*;
 import com.crownbyte.Saphire.service.DashboardService;
+import com.crownbyte.Saphire.telemetry.MachineStatusTracker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,7 +32,7 @@ public class DashboardServiceImpl implements DashboardService {
         private final QcFormTemplateRepository templateRepository;
         private final QcFormRecordRepository recordRepository;
         private final TaskAssignmentRepository taskRepository;
-        private final MachineStatusRepository machineStatusRepository;
+        private final MachineStatusTracker machineStatusTracker;
 
         public DashboardDataResponse getDashboardData() {
                 return DashboardDataResponse.builder()
@@ -86,9 +87,8 @@ public class DashboardServiceImpl implements DashboardService {
         }
 
         private MachineStatusMetricsResponse getMachineMetrics() {
-                Map<MachineStatusEnum, Long> counts = machineStatusRepository.findAll().stream()
-                                .collect(Collectors.groupingBy(MachineStatusEntity::getCurrentStatus,
-                                                Collectors.counting()));
+                // Live state, so status boards polling the dashboard never query machine_status
+                Map<MachineStatusEnum, Long> counts = machineStatusTracker.countByStatus();
 
                 List<MachineStatusMetricsResponse.StatusCount> distribution = Arrays.stream(MachineStatusEnum.values())
                                 .map(status -> MachineStatusMetricsResponse.StatusCount.builder()
@@ -134,23 +134,24 @@ public class DashboardServiceImpl implements DashboardService {
                 List<DashboardDataResponse.CriticalAlert> alerts = new ArrayList<>();
 
                 // Example: Machine failure trend
-                machineRepository.findAll().forEach(machine -> {
-                        List<QcFormRecordEntity> recent = recordRepository.findByMachineIdAndCreatedAtBetween(
-                                        machine.getId(), LocalDateTime.now().minusHours(24), LocalDateTime.now());
-
-                        long fails = recent.stream().filter(r -> r.getOverallResult() == OverallResultEnum.FAIL)
-                                        .count();
-                        if (fails >= 3) {
-                                alerts.add(DashboardDataResponse.CriticalAlert.builder()
-                                                .id("machine-fail-" + machine.getId())
-                                                .type("ERROR")
-                                                .title("Yüksek Hata Oranı: " + machine.getName())
-                                                .message("Bu makinede son 24 saatte " + fails
-                                                                + " adet hatalı QC kaydı tespit edildi.")
-                                                .timestamp(LocalDateTime.now())
-                                                .build());
-                        }
-                });
+                LocalDateTime now = LocalDateTime.now();
+                Map<Long, Long> failsByMachine = new TreeMap<>();
+                recordRepository.countByMachineWithResultAtLeast(OverallResultEnum.FAIL, now.minusHours(24), now, 3)
+                                .forEach(row -> failsByMachine.put((Long) row[0], (Long) row[1]));
+                if (failsByMachine.isEmpty()) {
+                        return alerts;
+                }
+
+                Map<Long, String> machineNames = machineRepository.findAllById(failsByMachine.keySet()).stream()
+                                .collect(Collectors.toMap(MachineEntity::getId, MachineEntity::getName));
+                failsByMachine.forEach((machineId, fails) -> alerts.add(DashboardDataResponse.CriticalAlert.builder()
+                                .id("machine-fail-" + machineId)
+                                .type("ERROR")
+                                .title("Yüksek Hata Oranı: " + machineNames.get(machineId))
+                                .message("Bu makinede son 24 saatte " + fails
+                                                + " adet hatalı QC kaydı tespit edildi.")
+                                .timestamp(now)
+                                .build()));
 
                 return alerts;
         }
@@ -0,0 +1,268 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.cycletime.CycleTimeEstimator;
+import com.crownbyte.Saphire.dispatch.DispatchQueues;
+import com.crownbyte.Saphire.dispatch.QueuedStep;
+import com.crownbyte.Saphire.dispatch.StepDispatchStore;
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.DispatchQueueResponse;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.FinishedStepResponse;
+import com.crownbyte.Saphire.dto.response.QueuedStepResponse;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.entity.production.enums.ProductionStepStatusEnum;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.service.DispatchService;
+import com.crownbyte.Saphire.telemetry.MachineStatusTracker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Not transactional as a whole: the claim, the instance start and the machine_status
+ * update commit in one short transaction of their own, and the live state is only
+ * moved to RUNNING after that commit.
+ * <p>
+ * Without SKIP LOCKED support the claims of a machine wait in a fair per-machine
+ * queue for the whole transaction, so the next claimer reads the committed result of
+ * the previous one instead of racing it.
+ * <p>
+ * Queue reads come from {@link DispatchQueues} only; a claimed step is taken off the
+ * queues once its transaction has committed. Claimed and finished steps are passed on
+ * to the {@link CapacityPlanner}, and completed ones to the {@link CycleTimeEstimator},
+ * whose learned cycle time also sets the estimated finish of a claim.
+ */
+@Service
+public class DispatchServiceImpl implements DispatchService {
+
+    private static final String SOURCE = "DISPATCH";
+    private static final int DEFAULT_QUEUE_LIMIT = 1;
+    private static final int MAX_QUEUE_LIMIT = 200;
+
+    private final StepDispatchStore store;
+    private final MachineStatusTracker tracker;
+    private final DispatchQueues queues;
+    private final CapacityPlanner planner;
+    private final CycleTimeEstimator cycleTimes;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentHashMap<Long, ReentrantLock> machineQueues = new ConcurrentHashMap<>();
+
+    private final Counter claimed;
+    private final Counter empty;
+    private final Counter finished;
+
+    public DispatchServiceImpl(
+            StepDispatchStore store,
+            MachineStatusTracker tracker,
+            DispatchQueues queues,
+            CapacityPlanner planner,
+            CycleTimeEstimator cycleTimes,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.store = store;
+        this.tracker = tracker;
+        this.queues = queues;
+        this.planner = planner;
+        this.cycleTimes = cycleTimes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.claimed = claimCounter(meterRegistry, "claimed");
+        this.empty = claimCounter(meterRegistry, "empty");
+        this.finished = Counter.builder("saphire.dispatch.finished")
+                .description("Steps finished on machine terminals")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<DispatchedStepResponse> claimNext(Long machineId, Long operatorId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Optional<StepDispatchStore.ClaimedStep> step;
+        if (store.supportsSkipLocked()) {
+            step = claim(machineId, operatorId, now);
+        } else {
+            ReentrantLock queue = machineQueues.computeIfAbsent(machineId, id -> new ReentrantLock(true));
+            queue.lock();
+            try {
+                step = claim(machineId, operatorId, now);
+            } finally {
+                queue.unlock();
+            }
+        }
+
+        if (step.isEmpty()) {
+            if (!store.machineExists(machineId)) {
+                throw new EntityNotFoundException("Machine not found with id: " + machineId);
+            }
+            empty.increment();
+            return Optional.empty();
+        }
+        claimed.increment();
+        queues.remove(step.get().getStepId());
+        planner.stepStarted(step.get().getStepId(), machineId, now);
+        // machine_status already says RUNNING; the report records the transition for
+        // the live view and the state history. A full buffer only delays that.
+        if (tracker.hasRoomFor(1)) {
+            tracker.reportWritten(machineId, step.get().getLocationId(), MachineStatusEnum.RUNNING, now, SOURCE);
+        }
+        return step.map(this::toResponse);
+    }
+
+    @Override
+    public FinishedStepResponse finishStep(Long machineId, Long stepId, ProductionStepUpdateRequest request) {
+        ProductionStepStatusEnum status = ProductionStepStatusEnum.valueOf(
+                request.getStatus().toUpperCase(Locale.ROOT));
+        if (status != ProductionStepStatusEnum.COMPLETED && status != ProductionStepStatusEnum.FAILED) {
+            throw new IllegalArgumentException("A step can only be finished as COMPLETED or FAILED");
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        boolean failed = status == ProductionStepStatusEnum.FAILED;
+        Finished result = transactionTemplate.execute(tx -> {
+            // A failed step goes back in the queue to be retried rather than blocking its later stages
+            boolean closed = failed
+                    ? store.requeueFailedStep(stepId, machineId, request.getFailureReason(),
+                            request.getCorrectiveAction(), request.getNotes(), now)
+                    : store.finishStep(stepId, machineId, status.name(), request.getFailureReason(),
+                            request.getCorrectiveAction(), request.getNotes(), now);
+            if (!closed) {
+                return null;
+            }
+            StepDispatchStore.ClaimedStep step = store.loadClaimedStep(stepId);
+            boolean instanceCompleted = !failed && store.completeInstanceIfDone(step.getProductInstanceId(), now);
+            return new Finished(step, instanceCompleted, store.releaseMachine(machineId, stepId, now));
+        });
+        if (result == null) {
+            if (!store.stepExists(stepId)) {
+                throw new EntityNotFoundException("Production step not found with id: " + stepId);
+            }
+            throw new IllegalArgumentException("Step " + stepId + " is not in progress on machine " + machineId);
+        }
+        finished.increment();
+        StepDispatchStore.ClaimedStep step = result.step();
+        if (failed) {
+            // Planned again as pending, where it holds back the instance's later stages
+            planner.refreshInstances(List.of(step.getProductInstanceId()));
+            queues.refreshInstance(step.getProductInstanceId());
+        } else {
+            planner.stepFinished(stepId);
+            cycleTimes.stepCompleted(stepId, step.getRouteStepId(), machineId, step.getStartedAt(), now);
+            // The next stage of the route may now be dispatchable
+            if (!result.instanceCompleted()) {
+                queues.refreshInstance(step.getProductInstanceId());
+            }
+        }
+        if (result.released() && tracker.hasRoomFor(1)) {
+            tracker.reportWritten(machineId, result.step().getLocationId(), MachineStatusEnum.IDLE, now, SOURCE);
+        }
+
+        return FinishedStepResponse.builder()
+                .stepId(stepId)
+                .productInstanceId(step.getProductInstanceId())
+                .serialNumber(step.getSerialNumber())
+                .machineId(machineId)
+                .operatorId(step.getOperatorId())
+                .status(status.name())
+                .startedAt(step.getStartedAt())
+                .finishedAt(now)
+                .instanceCompleted(result.instanceCompleted())
+                .retryCount(step.getRetryCount())
+                .build();
+    }
+
+    @Override
+    public DispatchQueueResponse getLocationQueue(Long locationId, Integer limit) {
+        return DispatchQueueResponse.builder()
+                .locationId(locationId)
+                .depth(queues.depthAtLocation(locationId))
+                .steps(toResponses(queues.headAtLocation(locationId, queueLimit(limit))))
+                .build();
+    }
+
+    @Override
+    public DispatchQueueResponse getMachineQueue(Long machineId, Integer limit) {
+        return DispatchQueueResponse.builder()
+                .machineId(machineId)
+                .depth(queues.depthForMachine(machineId))
+                .steps(toResponses(queues.headForMachine(machineId, queueLimit(limit))))
+                .build();
+    }
+
+    private Optional<StepDispatchStore.ClaimedStep> claim(Long machineId, Long operatorId, LocalDateTime now) {
+        return transactionTemplate.execute(status -> store.claimNext(machineId, operatorId, now)
+                .map(stepId -> {
+                    StepDispatchStore.ClaimedStep step = store.loadClaimedStep(stepId);
+                    store.startInstance(step.getProductInstanceId(), now);
+                    store.saveRunningStep(step, now, estimatedFinishAt(step));
+                    return step;
+                }));
+    }
+
+    private LocalDateTime estimatedFinishAt(StepDispatchStore.ClaimedStep step) {
+        Integer learned = cycleTimes.estimateMinutes(step.getRouteStepId(), step.getMachineId());
+        return step.getStartedAt().plusMinutes(learned != null
+                ? learned : step.getEstimatedSetupMinutes() + step.getEstimatedCycleMinutes());
+    }
+
+    private DispatchedStepResponse toResponse(StepDispatchStore.ClaimedStep step) {
+        return DispatchedStepResponse.builder()
+                .stepId(step.getStepId())
+                .productInstanceId(step.getProductInstanceId())
+                .serialNumber(step.getSerialNumber())
+                .priority(step.getPriority())
+                .dueDate(step.getDueDate())
+                .routeStepId(step.getRouteStepId())
+                .stepName(step.getStepName())
+                .stepOrder(step.getStepOrder())
+                .machineId(step.getMachineId())
+                .operatorId(step.getOperatorId())
+                .startedAt(step.getStartedAt())
+                .estimatedFinishAt(estimatedFinishAt(step))
+                .build();
+    }
+
+    private static int queueLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_QUEUE_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("'limit' must be positive");
+        }
+        return Math.min(limit, MAX_QUEUE_LIMIT);
+    }
+
+    private static List<QueuedStepResponse> toResponses(List<QueuedStep> steps) {
+        return steps.stream()
+                .map(step -> QueuedStepResponse.builder()
+                        .stepId(step.getStepId())
+                        .productInstanceId(step.getProductInstanceId())
+                        .serialNumber(step.getSerialNumber())
+                        .routeStepId(step.getRouteStepId())
+                        .stepName(step.getStepName())
+                        .machineId(step.getMachineId())
+                        .locationId(step.getLocationId())
+                        .priority(step.getPriority())
+                        .dueDate(step.getDueDate())
+                        .build())
+                .toList();
+    }
+
+    /** Outcome of the finish transaction; {@code released} when the machine went back to IDLE. */
+    private record Finished(StepDispatchStore.ClaimedStep step, boolean instanceCompleted, boolean released) {
+    }
+
+    private static Counter claimCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("saphire.dispatch.claims")
+                .description("Next-step claims by machine terminals")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
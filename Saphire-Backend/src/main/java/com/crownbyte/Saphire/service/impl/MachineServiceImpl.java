@@ -3,19 +3,27 @@ package com.crownbyte.Saphire.service.impl;
 import com.crownbyte.Saphire.dto.request.MachineRequest;
 import com.crownbyte.Saphire.dto.response.MachineResponse;
 import com.crownbyte.Saphire.dto.response.MachineStatusResponse;
+import com.crownbyte.Saphire.dto.response.PageResponse;
 import com.crownbyte.Saphire.entity.master.LocationEntity;
 import com.crownbyte.Saphire.entity.master.MachineEntity;
 import com.crownbyte.Saphire.entity.master.MachineStatusEntity;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
 import com.crownbyte.Saphire.repository.LocationRepository;
 import com.crownbyte.Saphire.repository.MachineRepository;
 import com.crownbyte.Saphire.repository.MachineStatusRepository;
 import com.crownbyte.Saphire.service.MachineService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -23,9 +31,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class MachineServiceImpl implements MachineService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final MachineRepository machineRepository;
     private final LocationRepository locationRepository;
     private final MachineStatusRepository machineStatusRepository;
+    private final CapacityPlanner capacityPlanner;
 
     @Override
     @Transactional(readOnly = true)
@@ -36,36 +48,48 @@ public class MachineServiceImpl implements MachineService {
         } else {
             machines = machineRepository.findAll();
         }
-        return machines.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(machines);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponse<MachineResponse> getPage(Long locationId, String search, boolean includeInactive,
+            Integer page, Integer size) {
+        int pageNumber = page == null || page < 0 ? 0 : page;
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        String pattern = search == null || search.isBlank()
+                ? null
+                : "%" + search.trim().toLowerCase(Locale.ROOT) + "%";
+
+        Page<MachineEntity> machines = machineRepository.findPage(locationId, pattern, includeInactive,
+                PageRequest.of(pageNumber, pageSize, Sort.by("code").and(Sort.by("id"))));
+        return PageResponse.<MachineResponse>builder()
+                .content(toResponses(machines.getContent()))
+                .page(machines.getNumber())
+                .size(machines.getSize())
+                .totalElements(machines.getTotalElements())
+                .totalPages(machines.getTotalPages())
+                .first(machines.isFirst())
+                .last(machines.isLast())
+                .build();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MachineResponse> getByLocationId(Long locationId) {
-        return machineRepository.findByLocationId(locationId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(machineRepository.findByLocationId(locationId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MachineResponse> getActiveByLocationId(Long locationId) {
-        return machineRepository.findByLocationIdAndActiveTrue(locationId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(machineRepository.findByLocationIdAndActiveTrue(locationId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<MachineResponse> getAvailableByLocationId(Long locationId) {
-        return machineRepository.findByLocationIdAndActiveTrueAndMaintenanceModeFalse(locationId)
-                .stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(machineRepository.findByLocationIdAndActiveTrueAndMaintenanceModeFalse(locationId));
     }
 
     @Override
@@ -117,6 +141,7 @@ public class MachineServiceImpl implements MachineService {
         }
 
         MachineEntity saved = machineRepository.save(entity);
+        planCapacity(saved);
         return toResponse(saved);
     }
 
@@ -127,6 +152,7 @@ public class MachineServiceImpl implements MachineService {
 
         entity.setMaintenanceMode(maintenanceMode);
         MachineEntity saved = machineRepository.save(entity);
+        planCapacity(saved);
         return toResponse(saved);
     }
 
@@ -136,13 +162,37 @@ public class MachineServiceImpl implements MachineService {
                 .orElseThrow(() -> new EntityNotFoundException("Machine not found with id: " + id));
         entity.setActive(false);
         machineRepository.save(entity);
+        planCapacity(entity);
+    }
+
+    /** Maintenance and deactivation move the machine's planned work to its alternatives. */
+    private void planCapacity(MachineEntity machine) {
+        capacityPlanner.machineChanged(machine.getId(),
+                Boolean.TRUE.equals(machine.getActive()) && !Boolean.TRUE.equals(machine.getMaintenanceMode()),
+                machine.getAvailableFrom());
     }
 
     private MachineResponse toResponse(MachineEntity entity) {
+        return toResponse(entity, machineStatusRepository.findByMachineId(entity.getId()).orElse(null));
+    }
+
+    private List<MachineResponse> toResponses(List<MachineEntity> machines) {
+        if (machines.isEmpty()) {
+            return List.of();
+        }
+        // One query for all statuses instead of one per machine
+        Map<Long, MachineStatusEntity> statuses = machineStatusRepository
+                .findWithOperatorByMachineIdIn(machines.stream().map(MachineEntity::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(status -> status.getMachine().getId(), Function.identity()));
+        return machines.stream()
+                .map(machine -> toResponse(machine, statuses.get(machine.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private MachineResponse toResponse(MachineEntity entity, MachineStatusEntity status) {
         MachineStatusResponse statusResponse = null;
-        Optional<MachineStatusEntity> statusOpt = machineStatusRepository.findByMachineId(entity.getId());
-        if (statusOpt.isPresent()) {
-            MachineStatusEntity status = statusOpt.get();
+        if (status != null) {
             statusResponse = MachineStatusResponse.builder()
                     .id(status.getId())
                     .machineId(entity.getId())
@@ -0,0 +1,310 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.request.MachineStatusEventRequest;
+import com.crownbyte.Saphire.dto.response.LiveMachineStatusResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryPointResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusIngestResponse;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.oee.OeeBucket;
+import com.crownbyte.Saphire.oee.OeeStore;
+import com.crownbyte.Saphire.oee.StateMinutes;
+import com.crownbyte.Saphire.repository.MachineRepository;
+import com.crownbyte.Saphire.service.MachineStatusService;
+import com.crownbyte.Saphire.telemetry.LiveMachineState;
+import com.crownbyte.Saphire.telemetry.MachineStatusEventStore;
+import com.crownbyte.Saphire.telemetry.MachineStatusTracker;
+import com.crownbyte.Saphire.telemetry.MachineStatusTransition;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Not transactional: ingestion works on memory and must not hold a connection
+ * per request. Only a machine reporting for the first time is looked up.
+ * <p>
+ * History is read from the finest tier that still covers the range: raw events,
+ * then minute buckets, then the state time of the hourly OEE aggregates. Buckets are
+ * summed into points of a width that keeps the count within the requested maximum.
+ */
+@Service
+public class MachineStatusServiceImpl implements MachineStatusService {
+
+    private static final int DEFAULT_HISTORY_POINTS = 500;
+    private static final int MIN_HISTORY_POINTS = 10;
+    private static final int MAX_HISTORY_POINTS = 2000;
+    private static final Duration DEFAULT_HISTORY_WINDOW = Duration.ofDays(1);
+    private static final Duration MAX_HISTORY_WINDOW = Duration.ofDays(366);
+    /** Point widths in minutes; each divides a day, so points line up with midnight. */
+    private static final long[] MINUTE_STEPS = { 1, 2, 5, 10, 15, 30 };
+    private static final long[] HOUR_STEPS = { 60, 120, 180, 240, 360, 720, 1440 };
+
+    private final MachineStatusTracker tracker;
+    private final MachineRepository machineRepository;
+    private final MachineStatusEventStore eventStore;
+    private final OeeStore oeeStore;
+    private final int rawRetentionDays;
+    private final int minuteRetentionDays;
+
+    public MachineStatusServiceImpl(
+            MachineStatusTracker tracker,
+            MachineRepository machineRepository,
+            MachineStatusEventStore eventStore,
+            OeeStore oeeStore,
+            @Value("${app.machine-status.raw-retention-days:7}") int rawRetentionDays,
+            @Value("${app.machine-status.minute-retention-days:14}") int minuteRetentionDays) {
+        this.tracker = tracker;
+        this.machineRepository = machineRepository;
+        this.eventStore = eventStore;
+        this.oeeStore = oeeStore;
+        this.rawRetentionDays = rawRetentionDays;
+        this.minuteRetentionDays = minuteRetentionDays;
+    }
+
+    @Override
+    public MachineStatusIngestResponse ingest(List<MachineStatusEventRequest> events) {
+        List<MachineStatusEnum> statuses = new ArrayList<>(events.size());
+        for (MachineStatusEventRequest event : events) {
+            try {
+                statuses.add(MachineStatusEnum.valueOf(event.getStatus().trim().toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(event.getStatus());
+            }
+        }
+        if (!tracker.hasRoomFor(events.size())) {
+            throw new IllegalStateException("Machine status buffer is full, retry later");
+        }
+
+        LocalDateTime receivedAt = LocalDateTime.now();
+        int transitions = 0;
+        int heartbeats = 0;
+        int stale = 0;
+        int unknown = 0;
+        for (int i = 0; i < events.size(); i++) {
+            MachineStatusEventRequest event = events.get(i);
+            Long locationId = null;
+            if (!tracker.isTracked(event.getMachineId())) {
+                locationId = machineRepository.findById(event.getMachineId())
+                        .map(machine -> machine.getLocation().getId())
+                        .orElse(null);
+                if (locationId == null) {
+                    unknown++;
+                    continue;
+                }
+            }
+            // Device clocks that run ahead must not push the state into the future
+            LocalDateTime at = event.getOccurredAt() == null || event.getOccurredAt().isAfter(receivedAt)
+                    ? receivedAt
+                    : event.getOccurredAt();
+            switch (tracker.report(event.getMachineId(), locationId, statuses.get(i), at, event.getSource(),
+                    receivedAt)) {
+                case TRANSITION -> transitions++;
+                case HEARTBEAT -> heartbeats++;
+                case STALE -> stale++;
+            }
+        }
+        return MachineStatusIngestResponse.builder()
+                .received(events.size())
+                .transitions(transitions)
+                .heartbeats(heartbeats)
+                .stale(stale)
+                .unknownMachines(unknown)
+                .build();
+    }
+
+    @Override
+    public List<LiveMachineStatusResponse> getLive(Long locationId) {
+        return tracker.list(locationId).stream()
+                .sorted(Comparator.comparing(LiveMachineState::getMachineId))
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<LiveMachineStatusResponse> getLiveByMachineId(Long machineId) {
+        return tracker.get(machineId).map(this::toResponse);
+    }
+
+    @Override
+    public MachineStatusHistoryResponse getHistory(Long machineId, LocalDateTime from, LocalDateTime to,
+            Integer maxPoints) {
+        if (!machineRepository.existsById(machineId)) {
+            throw new EntityNotFoundException("Machine not found with id: " + machineId);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime end = to != null ? to : now;
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_HISTORY_WINDOW);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_HISTORY_WINDOW) > 0) {
+            throw new IllegalArgumentException("History is limited to " + MAX_HISTORY_WINDOW.toDays() + " days");
+        }
+        int points = maxPoints != null
+                ? Math.max(MIN_HISTORY_POINTS, Math.min(maxPoints, MAX_HISTORY_POINTS))
+                : DEFAULT_HISTORY_POINTS;
+        LocalDateTime liveEnd = end.isBefore(now) ? end : now;
+
+        if (!start.isBefore(now.minusDays(rawRetentionDays))) {
+            List<MachineStatusTransition> transitions = eventStore.loadTransitions(machineId, start, end, points);
+            if (transitions.size() < points) {
+                return history(machineId, "RAW", 0, start, end, rawPoints(machineId, transitions, start, liveEnd));
+            }
+        }
+
+        long minuteStep = step(MINUTE_STEPS, start, end, points);
+        if (minuteStep > 0 && !start.isBefore(now.minusDays(minuteRetentionDays))) {
+            LocalDateTime first = align(start, minuteStep);
+            Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+            for (StateMinutes.Minute minute : oeeStore.loadStateMinutes(machineId, first, end)) {
+                buckets.computeIfAbsent(align(minute.getStart(), minuteStep), k -> newSeconds())
+                        [minute.getStatus().ordinal()] += minute.getSeconds();
+            }
+            addOpenState(buckets, machineId, minuteStep, first, liveEnd);
+            return history(machineId, "MINUTE", minuteStep * 60, start, end, bucketPoints(buckets, minuteStep));
+        }
+
+        long hourStep = step(HOUR_STEPS, start, end, points);
+        for (long days = 2; hourStep < 0; days++) {
+            hourStep = step(new long[] { days * 1440 }, start, end, points);
+        }
+        LocalDateTime first = align(start, hourStep);
+        Map<LocalDateTime, long[]> buckets = new TreeMap<>();
+        for (OeeBucket hour : oeeStore.loadHours(machineId, null, first, end)) {
+            long[] seconds = buckets.computeIfAbsent(align(hour.getStart(), hourStep), k -> newSeconds());
+            for (MachineStatusEnum status : MachineStatusEnum.values()) {
+                seconds[status.ordinal()] += hour.getSeconds(status);
+            }
+        }
+        addOpenState(buckets, machineId, hourStep, first, liveEnd);
+        return history(machineId, "HOUR", hourStep * 60, start, end, bucketPoints(buckets, hourStep));
+    }
+
+    /** One point per state interval; the interval running at {@code start} is cut there. */
+    private List<MachineStatusHistoryPointResponse> rawPoints(Long machineId,
+            List<MachineStatusTransition> transitions, LocalDateTime start, LocalDateTime liveEnd) {
+        List<MachineStatusHistoryPointResponse> points = new ArrayList<>();
+        // The first transition in range tells what it ended; look further back only without one
+        MachineStatusEnum status = !transitions.isEmpty()
+                ? transitions.get(0).getPreviousStatus()
+                : eventStore.loadTransitionBefore(machineId, start)
+                        .map(MachineStatusTransition::getStatus)
+                        .orElse(null);
+        LocalDateTime since = start;
+        for (MachineStatusTransition transition : transitions) {
+            if (status != null) {
+                addRawPoint(points, status, since, transition.getOccurredAt());
+            }
+            status = transition.getStatus();
+            since = transition.getOccurredAt();
+        }
+        if (status != null) {
+            addRawPoint(points, status, since, liveEnd);
+        }
+        return points;
+    }
+
+    private static void addRawPoint(List<MachineStatusHistoryPointResponse> points, MachineStatusEnum status,
+            LocalDateTime from, LocalDateTime to) {
+        long seconds = Duration.between(from, to).getSeconds();
+        if (seconds > 0) {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            byStatus.put(status.name(), seconds);
+            points.add(MachineStatusHistoryPointResponse.builder().start(from).end(to).seconds(byStatus).build());
+        }
+    }
+
+    /**
+     * Adds the time of the state the machine is still in, which has no closing event
+     * and so is in neither bucket tier yet.
+     */
+    private void addOpenState(Map<LocalDateTime, long[]> buckets, Long machineId, long stepMinutes,
+            LocalDateTime first, LocalDateTime liveEnd) {
+        for (OeeStore.OpenState state : oeeStore.loadOpenStates(machineId, null)) {
+            LocalDateTime at = state.getSince().isAfter(first) ? state.getSince() : first;
+            while (at.isBefore(liveEnd)) {
+                LocalDateTime bucket = align(at, stepMinutes);
+                LocalDateTime next = bucket.plusMinutes(stepMinutes);
+                LocalDateTime until = next.isBefore(liveEnd) ? next : liveEnd;
+                buckets.computeIfAbsent(bucket, k -> newSeconds())[state.getStatus().ordinal()]
+                        += Duration.between(at, until).getSeconds();
+                at = until;
+            }
+        }
+    }
+
+    private static List<MachineStatusHistoryPointResponse> bucketPoints(Map<LocalDateTime, long[]> buckets,
+            long stepMinutes) {
+        List<MachineStatusHistoryPointResponse> points = new ArrayList<>(buckets.size());
+        for (Map.Entry<LocalDateTime, long[]> bucket : buckets.entrySet()) {
+            Map<String, Long> byStatus = new LinkedHashMap<>();
+            for (MachineStatusEnum status : MachineStatusEnum.values()) {
+                long seconds = bucket.getValue()[status.ordinal()];
+                if (seconds > 0) {
+                    byStatus.put(status.name(), seconds);
+                }
+            }
+            points.add(MachineStatusHistoryPointResponse.builder()
+                    .start(bucket.getKey())
+                    .end(bucket.getKey().plusMinutes(stepMinutes))
+                    .seconds(byStatus)
+                    .build());
+        }
+        return points;
+    }
+
+    private static MachineStatusHistoryResponse history(Long machineId, String resolution, long bucketSeconds,
+            LocalDateTime from, LocalDateTime to, List<MachineStatusHistoryPointResponse> points) {
+        return MachineStatusHistoryResponse.builder()
+                .machineId(machineId)
+                .resolution(resolution)
+                .bucketSeconds(bucketSeconds)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+
+    /** The smallest step that covers {@code [start, end)} in at most {@code points} points, or -1. */
+    private static long step(long[] steps, LocalDateTime start, LocalDateTime end, int points) {
+        for (long step : steps) {
+            long minutes = Duration.between(align(start, step), end).toMinutes();
+            if ((minutes + step - 1) / step <= points) {
+                return step;
+            }
+        }
+        return -1;
+    }
+
+    private static LocalDateTime align(LocalDateTime time, long stepMinutes) {
+        long minute = time.toEpochSecond(ZoneOffset.UTC) / 60;
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(minute, stepMinutes) * stepMinutes * 60, 0,
+                ZoneOffset.UTC);
+    }
+
+    private static long[] newSeconds() {
+        return new long[MachineStatusEnum.values().length];
+    }
+
+    private LiveMachineStatusResponse toResponse(LiveMachineState state) {
+        return LiveMachineStatusResponse.builder()
+                .machineId(state.getMachineId())
+                .locationId(state.getLocationId())
+                .status(state.getStatus().name())
+                .since(state.getSince())
+                .lastSeenAt(state.getLastSeenAt())
+                .build();
+    }
+}
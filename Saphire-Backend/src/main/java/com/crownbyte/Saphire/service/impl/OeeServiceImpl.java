@@ -0,0 +1,145 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.response.OeeResponse;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.oee.OeeBucket;
+import com.crownbyte.Saphire.oee.OeeGranularity;
+import com.crownbyte.Saphire.oee.OeeHours;
+import com.crownbyte.Saphire.oee.OeeStore;
+import com.crownbyte.Saphire.oee.ShiftCalendar;
+import com.crownbyte.Saphire.repository.LocationRepository;
+import com.crownbyte.Saphire.repository.MachineRepository;
+import com.crownbyte.Saphire.service.OeeService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads the hourly aggregates and sums them into the requested periods. The state
+ * each machine is currently in has no closing event yet, so its time up to now is
+ * added on the fly.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class OeeServiceImpl implements OeeService {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(1);
+    private static final Duration MAX_HOURLY_WINDOW = Duration.ofDays(7);
+    private static final Duration MAX_WINDOW = Duration.ofDays(93);
+
+    private final OeeStore store;
+    private final ShiftCalendar shiftCalendar;
+    private final MachineRepository machineRepository;
+    private final LocationRepository locationRepository;
+
+    @Override
+    public List<OeeResponse> getMachineOee(Long machineId, OeeGranularity granularity, LocalDateTime from,
+            LocalDateTime to) {
+        if (!machineRepository.existsById(machineId)) {
+            throw new EntityNotFoundException("Machine not found with id: " + machineId);
+        }
+        OeeGranularity unit = granularity != null ? granularity : OeeGranularity.SHIFT;
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = periodStart(unit, from != null ? from : end.minus(DEFAULT_WINDOW));
+        checkRange(start, end, unit == OeeGranularity.HOUR ? MAX_HOURLY_WINDOW : MAX_WINDOW);
+
+        Map<LocalDateTime, OeeBucket> periods = new TreeMap<>();
+        for (OeeBucket hour : hours(machineId, null, start, end)) {
+            periods.computeIfAbsent(periodStart(unit, hour.getStart()), s -> new OeeBucket(machineId, s)).add(hour);
+        }
+        return periods.values().stream()
+                .map(period -> toResponse(period, periodEnd(unit, period.getStart()),
+                        unit == OeeGranularity.SHIFT ? shiftCalendar.shiftNumber(period.getStart()) : null))
+                .toList();
+    }
+
+    @Override
+    public List<OeeResponse> getLocationOee(Long locationId, LocalDateTime from, LocalDateTime to) {
+        if (!locationRepository.existsById(locationId)) {
+            throw new EntityNotFoundException("Location not found with id: " + locationId);
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = (from != null ? from : shiftCalendar.dayStart(end)).truncatedTo(ChronoUnit.HOURS);
+        checkRange(start, end, MAX_WINDOW);
+
+        Map<Long, OeeBucket> machines = new TreeMap<>();
+        for (OeeBucket hour : hours(null, locationId, start, end)) {
+            machines.computeIfAbsent(hour.getMachineId(), id -> new OeeBucket(id, start)).add(hour);
+        }
+        return machines.values().stream()
+                .map(machine -> toResponse(machine, end, null))
+                .toList();
+    }
+
+    private List<OeeBucket> hours(Long machineId, Long locationId, LocalDateTime start, LocalDateTime end) {
+        List<OeeBucket> hours = new ArrayList<>(store.loadHours(machineId, locationId, start, end));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime liveEnd = end.isBefore(now) ? end : now;
+        OeeHours live = new OeeHours();
+        for (OeeStore.OpenState state : store.loadOpenStates(machineId, locationId)) {
+            LocalDateTime liveStart = state.getSince().isAfter(start) ? state.getSince() : start;
+            live.addState(state.getMachineId(), state.getStatus(), liveStart, liveEnd);
+        }
+        hours.addAll(live.buckets());
+        return hours;
+    }
+
+    private LocalDateTime periodStart(OeeGranularity unit, LocalDateTime time) {
+        return switch (unit) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case SHIFT -> shiftCalendar.shiftStart(time);
+            case DAY -> shiftCalendar.dayStart(time);
+        };
+    }
+
+    private LocalDateTime periodEnd(OeeGranularity unit, LocalDateTime start) {
+        return switch (unit) {
+            case HOUR -> start.plusHours(1);
+            case SHIFT -> shiftCalendar.shiftEnd(start);
+            case DAY -> start.plusDays(1);
+        };
+    }
+
+    private static void checkRange(LocalDateTime start, LocalDateTime end, Duration max) {
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(max) > 0) {
+            throw new IllegalArgumentException("OEE ranges are limited to " + max.toDays() + " days");
+        }
+    }
+
+    private static OeeResponse toResponse(OeeBucket bucket, LocalDateTime periodEnd, Integer shift) {
+        return OeeResponse.builder()
+                .machineId(bucket.getMachineId())
+                .periodStart(bucket.getStart())
+                .periodEnd(periodEnd)
+                .shift(shift)
+                .runningSeconds(bucket.getSeconds(MachineStatusEnum.RUNNING))
+                .idleSeconds(bucket.getSeconds(MachineStatusEnum.IDLE))
+                .setupSeconds(bucket.getSeconds(MachineStatusEnum.SETUP))
+                .breakdownSeconds(bucket.getSeconds(MachineStatusEnum.BREAKDOWN))
+                .maintenanceSeconds(bucket.getSeconds(MachineStatusEnum.MAINTENANCE))
+                .offlineSeconds(bucket.getSeconds(MachineStatusEnum.OFFLINE))
+                .plannedSeconds(bucket.getPlannedSeconds())
+                .completedSteps(bucket.getCompletedSteps())
+                .idealCycleSeconds(bucket.getIdealCycleSeconds())
+                .actualCycleSeconds(bucket.getActualCycleSeconds())
+                .qcRecords(bucket.getQcRecords())
+                .qcFailed(bucket.getQcFailed())
+                .availability(bucket.getAvailability())
+                .performance(bucket.getPerformance())
+                .quality(bucket.getQuality())
+                .oee(bucket.getOee())
+                .build();
+    }
+}
@@ -1,23 +1,39 @@
 package com.crownbyte.Saphire.service.impl;
 
+import com.crownbyte.Saphire.dispatch.DispatchQueues;
+import com.crownbyte.Saphire.dispatch.QueuedStep;
 import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.WorkOrderRequest;
 import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
 import com.crownbyte.Saphire.dto.response.ProductionStepResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderInstanceResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderResponse;
 import com.crownbyte.Saphire.entity.master.LocationEntity;
 import com.crownbyte.Saphire.entity.master.ProductEntity;
 import com.crownbyte.Saphire.entity.production.ProductInstanceEntity;
 import com.crownbyte.Saphire.entity.production.ProductionStepEntity;
 import com.crownbyte.Saphire.entity.production.enums.InstanceStatusEnum;
 import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
+import com.crownbyte.Saphire.entity.route.enums.StepTypeEnum;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.planning.PlanStep;
 import com.crownbyte.Saphire.repository.*;
 import com.crownbyte.Saphire.service.ProductInstanceService;
+import com.crownbyte.Saphire.workorder.PlannedStep;
+import com.crownbyte.Saphire.workorder.WorkOrder;
+import com.crownbyte.Saphire.workorder.WorkOrderStore;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +41,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class ProductInstanceServiceImpl implements ProductInstanceService {
 
+    /** Leaves room for the sequence number within the 100 character serial column. */
+    private static final int SERIAL_PREFIX_LENGTH = 80;
+
     private final ProductInstanceRepository productInstanceRepository;
     private final ProductRepository productRepository;
     private final ProductRouteRepository productRouteRepository;
     private final LocationRepository locationRepository;
+    private final ProductRouteStepRepository productRouteStepRepository;
+    private final MachineRepository machineRepository;
+    private final WorkOrderStore workOrderStore;
+    private final DispatchQueues dispatchQueues;
+    private final CapacityPlanner capacityPlanner;
 
     @Override
     @Transactional(readOnly = true)
@@ -94,9 +118,11 @@ public class ProductInstanceServiceImpl implements ProductInstanceService {
                 .orElseThrow(
                         () -> new EntityNotFoundException("Location not found with id: " + request.getLocationId()));
 
+        List<PlannedStep> steps = planSteps(product, route, location);
+
         String serialNumber = request.getSerialNumber();
         if (serialNumber == null || serialNumber.isEmpty()) {
-            serialNumber = UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+            serialNumber = serialNumber(product, workOrderStore.nextSerials(1)[0]);
         }
 
         ProductInstanceEntity entity = ProductInstanceEntity.builder()
@@ -109,11 +135,88 @@ public class ProductInstanceServiceImpl implements ProductInstanceService {
                 .dueDate(request.getDueDate())
                 .notes(request.getNotes())
                 .build();
+        for (PlannedStep step : steps) {
+            entity.getProductionSteps().add(ProductionStepEntity.builder()
+                    .productInstance(entity)
+                    .routeStep(productRouteStepRepository.getReferenceById(step.getRouteStepId()))
+                    .machine(machineRepository.getReferenceById(step.getMachineId()))
+                    .build());
+        }
 
-        ProductInstanceEntity saved = productInstanceRepository.save(entity);
+        // Flushed so the new steps have their ids for the dispatch queues
+        ProductInstanceEntity saved = productInstanceRepository.saveAndFlush(entity);
+        List<QueuedStep> queued = new ArrayList<>(steps.size());
+        List<PlanStep> planned = new ArrayList<>(steps.size());
+        int ready = firstStageSize(steps);
+        for (int i = 0; i < steps.size(); i++) {
+            Long stepId = saved.getProductionSteps().get(i).getId();
+            if (i < ready) {
+                queued.add(toQueuedStep(stepId, saved.getId(), saved.getSerialNumber(), steps.get(i),
+                        location.getId(), saved.getPriority(), saved.getDueDate()));
+            }
+            planned.add(toPlanStep(stepId, saved.getId(), saved.getSerialNumber(), steps.get(i), location.getId(),
+                    saved.getPriority(), saved.getDueDate()));
+        }
+        dispatchQueues.putAll(queued);
+        capacityPlanner.addSteps(planned);
         return toResponse(saved);
     }
 
+    @Override
+    public WorkOrderResponse createWorkOrder(WorkOrderRequest request) {
+        ProductEntity product = productRepository.findById(request.getProductId())
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + request.getProductId()));
+
+        ProductRouteEntity route = productRouteRepository.findById(request.getRouteId())
+                .orElseThrow(() -> new EntityNotFoundException("Route not found with id: " + request.getRouteId()));
+
+        LocationEntity location = locationRepository.findById(request.getLocationId())
+                .orElseThrow(
+                        () -> new EntityNotFoundException("Location not found with id: " + request.getLocationId()));
+
+        List<PlannedStep> steps = planSteps(product, route, location);
+        List<String> serialNumbers = Arrays.stream(workOrderStore.nextSerials(request.getQuantity()))
+                .mapToObj(serial -> serialNumber(product, serial))
+                .toList();
+        Integer priority = request.getPriority() != null ? request.getPriority() : 0;
+
+        WorkOrder order = new WorkOrder(product.getId(), route.getId(), location.getId(), priority,
+                request.getDueDate(), request.getNotes(), serialNumbers, steps);
+        WorkOrderStore.InsertedWorkOrder inserted = workOrderStore.insert(order, LocalDateTime.now());
+
+        long[] instanceIds = inserted.getInstanceIds();
+        long[] stepIds = inserted.getStepIds();
+        List<QueuedStep> queued = new ArrayList<>(stepIds.length);
+        List<PlanStep> planned = new ArrayList<>(stepIds.length);
+        List<WorkOrderInstanceResponse> instances = new ArrayList<>(instanceIds.length);
+        int ready = firstStageSize(steps);
+        for (int i = 0; i < instanceIds.length; i++) {
+            for (int s = 0; s < steps.size(); s++) {
+                if (s < ready) {
+                    queued.add(toQueuedStep(stepIds[i * steps.size() + s], instanceIds[i], serialNumbers.get(i),
+                            steps.get(s), location.getId(), priority, request.getDueDate()));
+                }
+                planned.add(toPlanStep(stepIds[i * steps.size() + s], instanceIds[i], serialNumbers.get(i),
+                        steps.get(s), location.getId(), priority, request.getDueDate()));
+            }
+            instances.add(WorkOrderInstanceResponse.builder()
+                    .id(instanceIds[i])
+                    .serialNumber(serialNumbers.get(i))
+                    .build());
+        }
+        dispatchQueues.putAll(queued);
+        capacityPlanner.addSteps(planned);
+
+        return WorkOrderResponse.builder()
+                .productId(product.getId())
+                .routeId(route.getId())
+                .locationId(location.getId())
+                .quantity(instanceIds.length)
+                .stepsPerInstance(steps.size())
+                .instances(instances)
+                .build();
+    }
+
     @Override
     public ProductInstanceResponse updateStatus(Long id, String status) {
         ProductInstanceEntity entity = productInstanceRepository.findById(id)
@@ -122,7 +225,11 @@ public class ProductInstanceServiceImpl implements ProductInstanceService {
         InstanceStatusEnum statusEnum = InstanceStatusEnum.valueOf(status.toUpperCase());
         entity.setStatus(statusEnum);
 
-        ProductInstanceEntity saved = productInstanceRepository.save(entity);
+        // Flushed so the queue refresh reads the new status; held or finished
+        // instances drop out of dispatch, reactivated ones come back
+        ProductInstanceEntity saved = productInstanceRepository.saveAndFlush(entity);
+        dispatchQueues.refreshInstance(saved.getId());
+        capacityPlanner.refreshInstances(List.of(saved.getId()));
         return toResponse(saved);
     }
 
@@ -132,6 +239,79 @@ public class ProductInstanceServiceImpl implements ProductInstanceService {
             throw new EntityNotFoundException("Product instance not found with id: " + id);
         }
         productInstanceRepository.deleteById(id);
+        dispatchQueues.removeInstance(id);
+        capacityPlanner.removeInstance(id);
+    }
+
+    /**
+     * One production step per route step, on the most preferred machine at the order's
+     * location, or the most preferred machine of the step when none is there.
+     */
+    private List<PlannedStep> planSteps(ProductEntity product, ProductRouteEntity route, LocationEntity location) {
+        if (!route.getProduct().getId().equals(product.getId())) {
+            throw new IllegalArgumentException(
+                    "Route " + route.getId() + " does not belong to product " + product.getId());
+        }
+        return productRouteStepRepository.findWithMachinesByRouteId(route.getId())
+                .stream()
+                .map(step -> new PlannedStep(step.getId(), step.getStepName(), step.getStepOrder(),
+                        step.getStepType() == StepTypeEnum.PARALLEL,
+                        minutes(step.getEstimatedSetupMinutes()) + minutes(step.getEstimatedCycleMinutes()),
+                        preferredMachineId(step, location.getId())))
+                .toList();
+    }
+
+    private static Long preferredMachineId(ProductRouteStepEntity step, Long locationId) {
+        List<RouteStepMachineEntity> machines = step.getMachines()
+                .stream()
+                .sorted(Comparator.comparing(RouteStepMachineEntity::getPreferenceOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+        if (machines.isEmpty()) {
+            throw new IllegalArgumentException("Route step has no machine: " + step.getStepName());
+        }
+        return machines.stream()
+                .filter(machine -> locationId.equals(machine.getMachine().getLocation().getId()))
+                .findFirst()
+                .orElse(machines.get(0))
+                .getMachine()
+                .getId();
+    }
+
+    /**
+     * Leading steps that can be dispatched right away: the first step, and the PARALLEL
+     * steps that run alongside it. The later ones are queued as earlier stages complete.
+     */
+    private static int firstStageSize(List<PlannedStep> steps) {
+        int size = Math.min(steps.size(), 1);
+        while (size < steps.size() && steps.get(size).isParallel() && steps.get(size - 1).isParallel()) {
+            size++;
+        }
+        return size;
+    }
+
+    private static int minutes(Integer minutes) {
+        return minutes != null ? minutes : 0;
+    }
+
+    /** Product code and the zero-padded sequence number; the sequence alone keeps it unique. */
+    private static String serialNumber(ProductEntity product, long serial) {
+        String code = product.getCode();
+        return String.format("%s-%06d", code.length() > SERIAL_PREFIX_LENGTH
+                ? code.substring(0, SERIAL_PREFIX_LENGTH) : code, serial);
+    }
+
+    private static PlanStep toPlanStep(Long stepId, Long instanceId, String serialNumber, PlannedStep step,
+            Long locationId, Integer priority, LocalDateTime dueDate) {
+        return new PlanStep(stepId, instanceId, serialNumber, locationId, priority, dueDate, step.getRouteStepId(),
+                step.getStepName(), step.getStepOrder(), step.isParallel(), step.getDurationMinutes(),
+                step.getMachineId(), null);
+    }
+
+    private static QueuedStep toQueuedStep(Long stepId, Long instanceId, String serialNumber, PlannedStep step,
+            Long locationId, Integer priority, LocalDateTime dueDate) {
+        return new QueuedStep(stepId, instanceId, serialNumber, step.getRouteStepId(), step.getStepName(),
+                step.getMachineId(), locationId, priority, dueDate);
     }
 
     private ProductInstanceResponse toResponse(ProductInstanceEntity entity) {
@@ -3,6 +3,8 @@ package com.crownbyte.Saphire.service.impl;
 import com.crownbyte.Saphire.dto.request.QcFormRecordRequest;
 import com.crownbyte.Saphire.dto.request.QcFormValueRequest;
 import com.crownbyte.Saphire.dto.response.QcFormRecordResponse;
+import com.crownbyte.Saphire.dto.response.QcFormSectionResponse;
+import com.crownbyte.Saphire.dto.response.QcFormFieldResponse;
 import com.crownbyte.Saphire.dto.response.QcFormValueResponse;
 import com.crownbyte.Saphire.entity.master.CompanyEntity;
 import com.crownbyte.Saphire.entity.master.MachineEntity;
@@ -17,6 +19,7 @@ import jakarta.persistence.criteria.JoinType;
 import org.springframework.data.jpa.domain.Specification;
 import com.crownbyte.Saphire.repository.*;
 import com.crownbyte.Saphire.service.QcFormRecordService;
+import com.crownbyte.Saphire.service.QcFormTemplateService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -27,7 +30,10 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,6 +48,7 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
     private final ProductInstanceRepository productInstanceRepository;
     private final ProductionStepRepository productionStepRepository;
     private final UserRepository userRepository;
+    private final QcFormTemplateService templateService;
 
     @Override
     @Transactional(readOnly = true)
@@ -188,10 +195,19 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
         UserEntity filledBy = userRepository.findById(filledById)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + filledById));
 
+        Integer templateVersion = request.getTemplateVersion() != null
+                ? request.getTemplateVersion()
+                : template.getVersion();
+        if (templateVersion < 1 || templateVersion > template.getVersion()) {
+            throw new IllegalArgumentException(
+                    "Template " + template.getId() + " has no version " + templateVersion);
+        }
+
         RecordStatusEnum status = RecordStatusEnum.SUBMITTED;
 
         QcFormRecordEntity entity = QcFormRecordEntity.builder()
                 .template(template)
+                .templateVersion(templateVersion)
                 .headerData(request.getHeaderData())
                 .scheduledFor(request.getScheduledFor())
                 .periodStart(request.getPeriodStart())
@@ -225,11 +241,11 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
             entity.setProductionStep(productionStep);
         }
 
-        if (request.getValues() != null) {
+        if (request.getValues() != null && !request.getValues().isEmpty()) {
+            Map<Long, QcFormFieldEntity> fields = loadVersionFields(template.getId(), templateVersion,
+                    request.getValues());
             for (QcFormValueRequest vReq : request.getValues()) {
-                QcFormFieldEntity field = fieldRepository.findById(vReq.getFieldId())
-                        .orElseThrow(
-                                () -> new EntityNotFoundException("Field not found with id: " + vReq.getFieldId()));
+                QcFormFieldEntity field = fields.get(vReq.getFieldId());
 
                 QcFormValueEntity value = QcFormValueEntity.builder()
                         .record(entity)
@@ -254,6 +270,35 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
         return toResponse(saved, false);
     }
 
+    /**
+     * Loads the fields the values refer to, in one query, after checking that each one is a field of the
+     * template version the record is filled against. The published snapshot lists exactly those fields;
+     * fields of other templates or of other versions of this one are rejected.
+     */
+    private Map<Long, QcFormFieldEntity> loadVersionFields(Long templateId, Integer templateVersion,
+            List<QcFormValueRequest> values) {
+        Set<Long> versionFieldIds = templateService.getVersion(templateId, templateVersion)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Template " + templateId + " has no published version " + templateVersion))
+                .getSections()
+                .stream()
+                .map(QcFormSectionResponse::getFields)
+                .flatMap(List::stream)
+                .map(QcFormFieldResponse::getId)
+                .collect(Collectors.toSet());
+
+        Set<Long> fieldIds = values.stream().map(QcFormValueRequest::getFieldId).collect(Collectors.toSet());
+        for (Long fieldId : fieldIds) {
+            if (!versionFieldIds.contains(fieldId)) {
+                throw new IllegalArgumentException(
+                        "Field " + fieldId + " is not part of template " + templateId + " version " + templateVersion);
+            }
+        }
+        return fieldRepository.findAllById(fieldIds)
+                .stream()
+                .collect(Collectors.toMap(QcFormFieldEntity::getId, Function.identity()));
+    }
+
     @Override
     public QcFormRecordResponse submit(Long id) {
         QcFormRecordEntity entity = recordRepository.findById(id)
@@ -317,7 +362,8 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
         return toResponse(saved, false);
     }
 
-    private QcFormRecordResponse toResponse(QcFormRecordEntity entity, boolean includeLogo) {
+    // Package-private so the JMH benchmarks in Saphire-Benchmarks can call it directly.
+    QcFormRecordResponse toResponse(QcFormRecordEntity entity, boolean includeLogo) {
         List<QcFormValueResponse> valuesResponse = entity.getValues()
                 .stream()
                 .map(v -> QcFormValueResponse.builder()
@@ -353,6 +399,7 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
                 .templateId(entity.getTemplate().getId())
                 .templateCode(entity.getTemplate().getCode())
                 .templateName(entity.getTemplate().getName())
+                .templateVersion(entity.getTemplateVersion())
                 .machineId(entity.getMachine() != null ? entity.getMachine().getId() : null)
                 .machineName(entity.getMachine() != null ? entity.getMachine().getName() : null)
                 .productInstanceId(entity.getProductInstance() != null ? entity.getProductInstance().getId() : null)
@@ -389,7 +436,8 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
         recordRepository.deleteById(id);
     }
 
-    private ValueResultEnum evaluateFieldResult(QcFormFieldEntity field, QcFormValueRequest request) {
+    // Package-private, like calculateOverallResult, for the JMH benchmarks.
+    ValueResultEnum evaluateFieldResult(QcFormFieldEntity field, QcFormValueRequest request) {
         if (request.getValueNumber() != null) {
             BigDecimal value = request.getValueNumber();
 
@@ -420,7 +468,7 @@ public class QcFormRecordServiceImpl implements QcFormRecordService {
         return ValueResultEnum.PASS;
     }
 
-    private OverallResultEnum calculateOverallResult(QcFormRecordEntity record) {
+    OverallResultEnum calculateOverallResult(QcFormRecordEntity record) {
         boolean hasFail = false;
         boolean hasWarning = false;
 
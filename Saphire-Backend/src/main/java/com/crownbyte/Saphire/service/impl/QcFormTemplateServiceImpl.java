@@ -7,13 +7,23 @@ import com.crownbyte.Saphire.entity.qc.*;
 import com.crownbyte.Saphire.entity.qc.enums.*;
 import com.crownbyte.Saphire.repository.*;
 import com.crownbyte.Saphire.service.QcFormTemplateService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +35,8 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
     private final CompanyRepository companyRepository;
     private final MachineRepository machineRepository;
     private final ProductRepository productRepository;
+    private final QcFormTemplateVersionRepository versionRepository;
+    private final ObjectMapper objectMapper;
 
     @Override
     @Transactional(readOnly = true)
@@ -49,6 +61,27 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<QcFormTemplateSummaryResponse> getAllSummaries(String search) {
+        if (search != null && !search.trim().isEmpty()) {
+            return toSummaries(templateRepository.findByNameContainingIgnoreCaseOrCodeContainingIgnoreCase(search, search));
+        }
+        return toSummaries(templateRepository.findAll());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QcFormTemplateSummaryResponse> getActiveSummaries() {
+        return toSummaries(templateRepository.findByActiveTrue());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<QcFormTemplateSummaryResponse> getSummariesByMachineId(Long machineId) {
+        return toSummaries(templateRepository.findByMachinesId(machineId));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<QcFormTemplateResponse> getByCompanyId(Long companyId) {
@@ -93,6 +126,17 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
                 .map(this::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<QcFormTemplateResponse> getVersion(Long id, Integer version) {
+        return versionRepository.findByTemplateIdAndVersion(id, version)
+                .map(published -> objectMapper.convertValue(published.getContent(), QcFormTemplateResponse.class))
+                // Templates that predate versioning have no snapshot of their current version yet
+                .or(() -> templateRepository.findById(id)
+                        .filter(template -> template.getVersion().equals(version))
+                        .map(this::toResponse));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Optional<QcFormTemplateResponse> getByCode(String code) {
@@ -100,6 +144,36 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
                 .map(this::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<QcFormHeaderFieldResponse>> getHeaderFields(Long id) {
+        return templateRepository.findById(id)
+                .map(template -> template.getHeaderFields().stream()
+                        .filter(QcFormHeaderFieldEntity::getActive)
+                        .map(hf -> toHeaderFieldResponse(template, hf))
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<QcFormSectionResponse>> getSections(Long id) {
+        return templateRepository.findById(id)
+                .map(template -> template.getSections().stream()
+                        .filter(QcFormSectionEntity::getActive)
+                        .map(s -> toSectionResponse(template, s, null))
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<List<QcFormFieldResponse>> getSectionFields(Long id, Long sectionId) {
+        return templateRepository.findById(id)
+                .flatMap(template -> template.getSections().stream()
+                        .filter(s -> s.getActive() && s.getId().equals(sectionId))
+                        .findFirst())
+                .map(QcFormTemplateServiceImpl::toFieldResponses);
+    }
+
     @Override
     public QcFormTemplateResponse create(QcFormTemplateRequest request) {
         QcFormTemplateEntity entity = QcFormTemplateEntity.builder()
@@ -175,41 +249,33 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
 
                 if (sReq.getFields() != null) {
                     for (QcFormFieldRequest fReq : sReq.getFields()) {
-                        QcFormFieldEntity field = QcFormFieldEntity.builder()
-                                .section(section)
-                                .fieldOrder(fReq.getFieldOrder())
-                                .fieldKey(fReq.getFieldKey())
-                                .label(fReq.getLabel())
-                                .inputType(InputTypeEnum.valueOf(fReq.getInputType().toUpperCase()))
-                                .minValue(fReq.getMinValue())
-                                .maxValue(fReq.getMaxValue())
-                                .targetValue(fReq.getTargetValue())
-                                .tolerance(fReq.getTolerance())
-                                .unit(fReq.getUnit())
-                                .decimalPlaces(fReq.getDecimalPlaces() != null ? fReq.getDecimalPlaces() : 2)
-                                .options(fReq.getOptions())
-                                .required(fReq.getRequired() != null ? fReq.getRequired() : true)
-                                .failCondition(fReq.getFailCondition())
-                                .helpText(fReq.getHelpText())
-                                .placeholder(fReq.getPlaceholder())
-                                .width(fReq.getWidth() != null ? fReq.getWidth() : "full")
-                                .build();
-                        section.getFields().add(field);
+                        section.getFields().add(newField(section, fReq));
                     }
                 }
                 entity.getSections().add(section);
             }
         }
 
-        QcFormTemplateEntity saved = templateRepository.save(entity);
-        return toResponse(saved);
+        QcFormTemplateEntity saved = templateRepository.saveAndFlush(entity);
+        return publish(saved);
     }
 
+    /**
+     * Publishes the edited template as the next version. Values point at field
+     * rows, so a field whose definition changes is retired and replaced by a
+     * new row instead of being edited; the layout of every version is kept in
+     * its snapshot.
+     */
     @Override
     public QcFormTemplateResponse update(Long id, QcFormTemplateRequest request) {
         QcFormTemplateEntity entity = templateRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("QC Template not found with id: " + id));
 
+        // Templates that predate versioning: keep the version being replaced
+        if (!versionRepository.existsByTemplateIdAndVersion(id, entity.getVersion())) {
+            publish(entity);
+        }
+
         // Update basic properties
         entity.setCode(request.getCode());
         entity.setName(request.getName());
@@ -244,7 +310,8 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
             if (machines.size() != request.getMachineIds().size()) {
                 throw new EntityNotFoundException("Some machines were not found");
             }
-            entity.getMachines().clear();
+            // Set operations, so an unchanged machine list does not rewrite the join table
+            entity.getMachines().retainAll(machines);
             entity.getMachines().addAll(machines);
         }
 
@@ -255,112 +322,15 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
             entity.setProduct(product);
         }
 
-        // Smart Sync for Header Fields
-        if (request.getHeaderFields() != null) {
-            List<QcFormHeaderFieldEntity> existingHeaders = new ArrayList<>(entity.getHeaderFields());
-            // Mark all existing as inactive initially, then reactivate matched ones
-            existingHeaders.forEach(h -> h.setActive(false));
-
-            for (QcFormHeaderFieldRequest hfReq : request.getHeaderFields()) {
-                QcFormHeaderFieldEntity headerField = existingHeaders.stream()
-                        .filter(h -> h.getFieldKey().equals(hfReq.getFieldKey()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (headerField == null) {
-                    headerField = QcFormHeaderFieldEntity.builder().template(entity).build();
-                    entity.getHeaderFields().add(headerField);
-                }
-
-                headerField.setFieldOrder(hfReq.getFieldOrder());
-                headerField.setFieldKey(hfReq.getFieldKey());
-                headerField.setLabel(hfReq.getLabel());
-                headerField.setFieldType(HeaderFieldTypeEnum.valueOf(hfReq.getFieldType().toUpperCase()));
-                headerField.setOptions(hfReq.getOptions());
-                headerField.setRequired(hfReq.getRequired() != null ? hfReq.getRequired() : true);
-                headerField.setDefaultValue(hfReq.getDefaultValue());
-                headerField.setActive(true);
-            }
-        } else {
-            entity.getHeaderFields().forEach(h -> h.setActive(false));
-        }
-
-        // Smart Sync for Sections and Fields
-        if (request.getSections() != null) {
-            List<QcFormSectionEntity> existingSections = new ArrayList<>(entity.getSections());
-            existingSections.forEach(s -> s.setActive(false));
-
-            for (QcFormSectionRequest sReq : request.getSections()) {
-                // Match section by name OR order (name is safer if provided)
-                QcFormSectionEntity section = existingSections.stream()
-                        .filter(s -> s.getName().equals(sReq.getName()))
-                        .findFirst()
-                        .orElse(null);
-
-                if (section == null) {
-                    section = QcFormSectionEntity.builder()
-                            .template(entity)
-                            .fields(new ArrayList<>())
-                            .build();
-                    entity.getSections().add(section);
-                }
-
-                section.setSectionOrder(sReq.getSectionOrder());
-                section.setName(sReq.getName());
-                section.setDescription(sReq.getDescription());
-                section.setIsRepeatable(sReq.getIsRepeatable() != null ? sReq.getIsRepeatable() : false);
-                section.setRepeatCount(sReq.getRepeatCount());
-                section.setRepeatLabelPattern(sReq.getRepeatLabelPattern());
-                section.setHasGroups(sReq.getHasGroups() != null ? sReq.getHasGroups() : false);
-                section.setGroupLabels(sReq.getGroupLabels());
-                section.setActive(true);
-
-                // Sync fields within this section
-                if (sReq.getFields() != null) {
-                    List<QcFormFieldEntity> existingFields = new ArrayList<>(section.getFields());
-                    existingFields.forEach(f -> f.setActive(false));
-
-                    for (QcFormFieldRequest fReq : sReq.getFields()) {
-                        QcFormFieldEntity field = existingFields.stream()
-                                .filter(f -> f.getFieldKey().equals(fReq.getFieldKey()))
-                                .findFirst()
-                                .orElse(null);
-
-                        if (field == null) {
-                            field = QcFormFieldEntity.builder().section(section).build();
-                            section.getFields().add(field);
-                        }
-
-                        field.setFieldOrder(fReq.getFieldOrder());
-                        field.setFieldKey(fReq.getFieldKey());
-                        field.setLabel(fReq.getLabel());
-                        field.setInputType(InputTypeEnum.valueOf(fReq.getInputType().toUpperCase()));
-                        field.setMinValue(fReq.getMinValue());
-                        field.setMaxValue(fReq.getMaxValue());
-                        field.setTargetValue(fReq.getTargetValue());
-                        field.setTolerance(fReq.getTolerance());
-                        field.setUnit(fReq.getUnit());
-                        field.setDecimalPlaces(fReq.getDecimalPlaces() != null ? fReq.getDecimalPlaces() : 2);
-                        field.setOptions(fReq.getOptions());
-                        field.setRequired(fReq.getRequired() != null ? fReq.getRequired() : true);
-                        field.setFailCondition(fReq.getFailCondition());
-                        field.setHelpText(fReq.getHelpText());
-                        field.setPlaceholder(fReq.getPlaceholder());
-                        field.setWidth(fReq.getWidth() != null ? fReq.getWidth() : "full");
-                        field.setActive(true);
-                    }
-                } else {
-                    section.getFields().forEach(f -> f.setActive(false));
-                }
-            }
-        } else {
-            entity.getSections().forEach(s -> s.setActive(false));
-        }
+        // Children are matched through hash indexes, so the diff is linear in the template size.
+        // Only rows whose state actually changes are written, in JDBC batches at flush.
+        syncHeaderFields(entity, request.getHeaderFields());
+        syncSections(entity, request.getSections());
 
         entity.setVersion(entity.getVersion() + 1);
 
-        QcFormTemplateEntity saved = templateRepository.save(entity);
-        return toResponse(saved);
+        QcFormTemplateEntity saved = templateRepository.saveAndFlush(entity);
+        return publish(saved);
     }
 
     @Override
@@ -377,66 +347,199 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
         return templateRepository.existsByCode(code);
     }
 
-    private QcFormTemplateResponse toResponse(QcFormTemplateEntity entity) {
+    private void syncHeaderFields(QcFormTemplateEntity entity, List<QcFormHeaderFieldRequest> requests) {
+        requests = Objects.requireNonNullElse(requests, List.of());
+        Map<String, QcFormHeaderFieldEntity> existing = new HashMap<>();
+        entity.getHeaderFields().forEach(h -> existing.putIfAbsent(h.getFieldKey(), h));
+        Set<QcFormHeaderFieldEntity> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (QcFormHeaderFieldRequest hfReq : requests) {
+            QcFormHeaderFieldEntity headerField = existing.get(hfReq.getFieldKey());
+            if (headerField == null || kept.contains(headerField)) {
+                headerField = QcFormHeaderFieldEntity.builder().template(entity).build();
+                entity.getHeaderFields().add(headerField);
+            }
+            kept.add(headerField);
+
+            headerField.setFieldOrder(hfReq.getFieldOrder());
+            headerField.setFieldKey(hfReq.getFieldKey());
+            headerField.setLabel(hfReq.getLabel());
+            headerField.setFieldType(HeaderFieldTypeEnum.valueOf(hfReq.getFieldType().toUpperCase()));
+            headerField.setOptions(hfReq.getOptions());
+            headerField.setRequired(hfReq.getRequired() != null ? hfReq.getRequired() : true);
+            headerField.setDefaultValue(hfReq.getDefaultValue());
+            headerField.setActive(true);
+        }
+        retireAllBut(entity.getHeaderFields(), kept, QcFormHeaderFieldEntity::setActive);
+    }
+
+    private void syncSections(QcFormTemplateEntity entity, List<QcFormSectionRequest> requests) {
+        requests = Objects.requireNonNullElse(requests, List.of());
+        // Sections are matched by name, including previously removed ones
+        Map<String, QcFormSectionEntity> existing = new HashMap<>();
+        entity.getSections().forEach(s -> existing.putIfAbsent(s.getName(), s));
+        Set<QcFormSectionEntity> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (QcFormSectionRequest sReq : requests) {
+            QcFormSectionEntity section = existing.get(sReq.getName());
+            if (section == null || kept.contains(section)) {
+                section = QcFormSectionEntity.builder()
+                        .template(entity)
+                        .fields(new ArrayList<>())
+                        .build();
+                entity.getSections().add(section);
+            }
+            kept.add(section);
+
+            section.setSectionOrder(sReq.getSectionOrder());
+            section.setName(sReq.getName());
+            section.setDescription(sReq.getDescription());
+            section.setIsRepeatable(sReq.getIsRepeatable() != null ? sReq.getIsRepeatable() : false);
+            section.setRepeatCount(sReq.getRepeatCount());
+            section.setRepeatLabelPattern(sReq.getRepeatLabelPattern());
+            section.setHasGroups(sReq.getHasGroups() != null ? sReq.getHasGroups() : false);
+            section.setGroupLabels(sReq.getGroupLabels());
+            section.setActive(true);
+
+            syncFields(section, sReq.getFields());
+        }
+        retireAllBut(entity.getSections(), kept, QcFormSectionEntity::setActive);
+    }
+
+    // Retired fields are never reused, and a field whose definition changed is replaced by a new row
+    private void syncFields(QcFormSectionEntity section, List<QcFormFieldRequest> requests) {
+        requests = Objects.requireNonNullElse(requests, List.of());
+        Map<String, QcFormFieldEntity> existing = new HashMap<>();
+        section.getFields().stream()
+                .filter(QcFormFieldEntity::getActive)
+                .forEach(f -> existing.putIfAbsent(f.getFieldKey(), f));
+        Set<QcFormFieldEntity> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (QcFormFieldRequest fReq : requests) {
+            QcFormFieldEntity field = existing.get(fReq.getFieldKey());
+            if (field == null || kept.contains(field) || !sameDefinition(field, fReq)) {
+                field = newField(section, fReq);
+                section.getFields().add(field);
+            }
+            kept.add(field);
+
+            field.setFieldOrder(fReq.getFieldOrder());
+        }
+        retireAllBut(section.getFields(), kept, QcFormFieldEntity::setActive);
+    }
+
+    private static <T> void retireAllBut(List<T> rows, Set<T> kept, BiConsumer<T, Boolean> setActive) {
+        for (T row : rows) {
+            if (!kept.contains(row)) {
+                setActive.accept(row, false);
+            }
+        }
+    }
+
+    private QcFormTemplateResponse publish(QcFormTemplateEntity entity) {
+        QcFormTemplateResponse response = toResponse(entity);
+        versionRepository.save(QcFormTemplateVersionEntity.builder()
+                .template(entity)
+                .version(entity.getVersion())
+                .content(objectMapper.convertValue(response, new TypeReference<Map<String, Object>>() {
+                }))
+                .build());
+        return response;
+    }
+
+    private QcFormFieldEntity newField(QcFormSectionEntity section, QcFormFieldRequest fReq) {
+        return QcFormFieldEntity.builder()
+                .section(section)
+                .fieldOrder(fReq.getFieldOrder())
+                .fieldKey(fReq.getFieldKey())
+                .label(fReq.getLabel())
+                .inputType(InputTypeEnum.valueOf(fReq.getInputType().toUpperCase()))
+                .minValue(fReq.getMinValue())
+                .maxValue(fReq.getMaxValue())
+                .targetValue(fReq.getTargetValue())
+                .tolerance(fReq.getTolerance())
+                .unit(fReq.getUnit())
+                .decimalPlaces(fReq.getDecimalPlaces() != null ? fReq.getDecimalPlaces() : 2)
+                .options(fReq.getOptions())
+                .required(fReq.getRequired() != null ? fReq.getRequired() : true)
+                .failCondition(fReq.getFailCondition())
+                .helpText(fReq.getHelpText())
+                .placeholder(fReq.getPlaceholder())
+                .width(fReq.getWidth() != null ? fReq.getWidth() : "full")
+                .build();
+    }
+
+    // Everything but the position; a field that differs in any of these gets a new row
+    private static boolean sameDefinition(QcFormFieldEntity field, QcFormFieldRequest fReq) {
+        return Objects.equals(field.getLabel(), fReq.getLabel())
+                && field.getInputType() == InputTypeEnum.valueOf(fReq.getInputType().toUpperCase())
+                && sameNumber(field.getMinValue(), fReq.getMinValue())
+                && sameNumber(field.getMaxValue(), fReq.getMaxValue())
+                && sameNumber(field.getTargetValue(), fReq.getTargetValue())
+                && sameNumber(field.getTolerance(), fReq.getTolerance())
+                && Objects.equals(field.getUnit(), fReq.getUnit())
+                && Objects.equals(field.getDecimalPlaces(), fReq.getDecimalPlaces() != null ? fReq.getDecimalPlaces() : 2)
+                && Objects.equals(field.getOptions(), fReq.getOptions())
+                && Objects.equals(field.getRequired(), fReq.getRequired() != null ? fReq.getRequired() : true)
+                && Objects.equals(field.getFailCondition(), fReq.getFailCondition())
+                && Objects.equals(field.getHelpText(), fReq.getHelpText())
+                && Objects.equals(field.getPlaceholder(), fReq.getPlaceholder())
+                && Objects.equals(field.getWidth(), fReq.getWidth() != null ? fReq.getWidth() : "full");
+    }
+
+    // Stored numbers come back with the column scale, so 10 and 10.0000 are the same limit
+    private static boolean sameNumber(BigDecimal stored, BigDecimal requested) {
+        return stored == null ? requested == null : requested != null && stored.compareTo(requested) == 0;
+    }
+
+    private List<QcFormTemplateSummaryResponse> toSummaries(List<QcFormTemplateEntity> templates) {
+        if (templates.isEmpty()) {
+            return List.of();
+        }
+        // One grouped query for all counts; the sections and fields themselves are never loaded
+        Map<Long, Object[]> counts = new HashMap<>();
+        for (Object[] row : templateRepository.countActiveSectionsAndFields(
+                templates.stream().map(QcFormTemplateEntity::getId).toList())) {
+            counts.put((Long) row[0], row);
+        }
+        return templates.stream()
+                .map(entity -> {
+                    Object[] row = counts.get(entity.getId());
+                    return QcFormTemplateSummaryResponse.builder()
+                            .id(entity.getId())
+                            .companyId(entity.getCompany() != null ? entity.getCompany().getId() : null)
+                            .companyName(entity.getCompany() != null ? entity.getCompany().getName() : null)
+                            .code(entity.getCode())
+                            .name(entity.getName())
+                            .description(entity.getDescription())
+                            .contextType(entity.getContextType().name())
+                            .productId(entity.getProduct() != null ? entity.getProduct().getId() : null)
+                            .productName(entity.getProduct() != null ? entity.getProduct().getName() : null)
+                            .scheduleType(entity.getScheduleType().name())
+                            .requiresApproval(entity.getRequiresApproval())
+                            .allowPartialSave(entity.getAllowPartialSave())
+                            .version(entity.getVersion())
+                            .active(entity.getActive())
+                            .sectionCount(row != null ? ((Number) row[1]).longValue() : 0)
+                            .fieldCount(row != null ? ((Number) row[2]).longValue() : 0)
+                            .updatedAt(entity.getUpdatedAt())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Package-private so the JMH benchmarks in Saphire-Benchmarks can call it directly.
+    QcFormTemplateResponse toResponse(QcFormTemplateEntity entity) {
         List<QcFormHeaderFieldResponse> headerFieldsResponse = entity.getHeaderFields()
                 .stream()
                 .filter(QcFormHeaderFieldEntity::getActive)
-                .map(hf -> QcFormHeaderFieldResponse.builder()
-                        .id(hf.getId())
-                        .templateId(entity.getId())
-                        .fieldOrder(hf.getFieldOrder())
-                        .fieldKey(hf.getFieldKey())
-                        .label(hf.getLabel())
-                        .fieldType(hf.getFieldType().name())
-                        .options(hf.getOptions())
-                        .required(hf.getRequired())
-                        .defaultValue(hf.getDefaultValue())
-                        .build())
+                .map(hf -> toHeaderFieldResponse(entity, hf))
                 .collect(Collectors.toList());
 
         List<QcFormSectionResponse> sectionsResponse = entity.getSections()
                 .stream()
                 .filter(QcFormSectionEntity::getActive)
-                .map(s -> {
-                    List<QcFormFieldResponse> fieldsResponse = s.getFields()
-                            .stream()
-                            .filter(QcFormFieldEntity::getActive)
-                            .map(f -> QcFormFieldResponse.builder()
-                                    .id(f.getId())
-                                    .sectionId(s.getId())
-                                    .fieldOrder(f.getFieldOrder())
-                                    .fieldKey(f.getFieldKey())
-                                    .label(f.getLabel())
-                                    .inputType(f.getInputType().name())
-                                    .minValue(f.getMinValue())
-                                    .maxValue(f.getMaxValue())
-                                    .targetValue(f.getTargetValue())
-                                    .tolerance(f.getTolerance())
-                                    .unit(f.getUnit())
-                                    .decimalPlaces(f.getDecimalPlaces())
-                                    .options(f.getOptions())
-                                    .required(f.getRequired())
-                                    .failCondition(f.getFailCondition())
-                                    .helpText(f.getHelpText())
-                                    .placeholder(f.getPlaceholder())
-                                    .width(f.getWidth())
-                                    .build())
-                            .collect(Collectors.toList());
-
-                    return QcFormSectionResponse.builder()
-                            .id(s.getId())
-                            .templateId(entity.getId())
-                            .sectionOrder(s.getSectionOrder())
-                            .name(s.getName())
-                            .description(s.getDescription())
-                            .isRepeatable(s.getIsRepeatable())
-                            .repeatCount(s.getRepeatCount())
-                            .repeatLabelPattern(s.getRepeatLabelPattern())
-                            .hasGroups(s.getHasGroups())
-                            .groupLabels(s.getGroupLabels())
-                            .fields(fieldsResponse)
-                            .build();
-                })
+                .map(s -> toSectionResponse(entity, s, toFieldResponses(s)))
                 .collect(Collectors.toList());
 
         return QcFormTemplateResponse.builder()
@@ -468,4 +571,63 @@ public class QcFormTemplateServiceImpl implements QcFormTemplateService {
                 .updatedAt(entity.getUpdatedAt())
                 .build();
     }
+
+    private static QcFormHeaderFieldResponse toHeaderFieldResponse(QcFormTemplateEntity template,
+            QcFormHeaderFieldEntity hf) {
+        return QcFormHeaderFieldResponse.builder()
+                .id(hf.getId())
+                .templateId(template.getId())
+                .fieldOrder(hf.getFieldOrder())
+                .fieldKey(hf.getFieldKey())
+                .label(hf.getLabel())
+                .fieldType(hf.getFieldType().name())
+                .options(hf.getOptions())
+                .required(hf.getRequired())
+                .defaultValue(hf.getDefaultValue())
+                .build();
+    }
+
+    private static QcFormSectionResponse toSectionResponse(QcFormTemplateEntity template, QcFormSectionEntity s,
+            List<QcFormFieldResponse> fields) {
+        return QcFormSectionResponse.builder()
+                .id(s.getId())
+                .templateId(template.getId())
+                .sectionOrder(s.getSectionOrder())
+                .name(s.getName())
+                .description(s.getDescription())
+                .isRepeatable(s.getIsRepeatable())
+                .repeatCount(s.getRepeatCount())
+                .repeatLabelPattern(s.getRepeatLabelPattern())
+                .hasGroups(s.getHasGroups())
+                .groupLabels(s.getGroupLabels())
+                .fields(fields)
+                .build();
+    }
+
+    private static List<QcFormFieldResponse> toFieldResponses(QcFormSectionEntity s) {
+        return s.getFields()
+                .stream()
+                .filter(QcFormFieldEntity::getActive)
+                .map(f -> QcFormFieldResponse.builder()
+                        .id(f.getId())
+                        .sectionId(s.getId())
+                        .fieldOrder(f.getFieldOrder())
+                        .fieldKey(f.getFieldKey())
+                        .label(f.getLabel())
+                        .inputType(f.getInputType().name())
+                        .minValue(f.getMinValue())
+                        .maxValue(f.getMaxValue())
+                        .targetValue(f.getTargetValue())
+                        .tolerance(f.getTolerance())
+                        .unit(f.getUnit())
+                        .decimalPlaces(f.getDecimalPlaces())
+                        .options(f.getOptions())
+                        .required(f.getRequired())
+                        .failCondition(f.getFailCondition())
+                        .helpText(f.getHelpText())
+                        .placeholder(f.getPlaceholder())
+                        .width(f.getWidth())
+                        .build())
+                .collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,86 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.response.InstanceScheduleResponse;
+import com.crownbyte.Saphire.dto.response.MachineScheduleResponse;
+import com.crownbyte.Saphire.dto.response.ScheduledStepResponse;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.planning.ScheduledStep;
+import com.crownbyte.Saphire.service.ScheduleService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/** Served from the {@link CapacityPlanner}'s in-memory plan; no database reads. */
+@Service
+@RequiredArgsConstructor
+public class ScheduleServiceImpl implements ScheduleService {
+
+    private static final int DEFAULT_LIMIT = 20;
+    private static final int MAX_LIMIT = 500;
+
+    private final CapacityPlanner planner;
+
+    @Override
+    public MachineScheduleResponse getMachineSchedule(Long machineId, Integer limit) {
+        return MachineScheduleResponse.builder()
+                .machineId(machineId)
+                .depth(planner.machineDepth(machineId))
+                .freeAt(planner.machineFreeAt(machineId))
+                .steps(toResponses(planner.machineSchedule(machineId, scheduleLimit(limit))))
+                .build();
+    }
+
+    @Override
+    public InstanceScheduleResponse getInstanceSchedule(Long productInstanceId) {
+        List<ScheduledStep> steps = planner.instanceSchedule(productInstanceId);
+        if (steps.isEmpty()) {
+            throw new EntityNotFoundException("No planned steps for product instance: " + productInstanceId);
+        }
+        ScheduledStep first = steps.get(0);
+        LocalDateTime completion = null;
+        boolean planned = true;
+        for (ScheduledStep step : steps) {
+            if (step.getPlannedFinish() == null) {
+                planned = false;
+            } else if (completion == null || step.getPlannedFinish().isAfter(completion)) {
+                completion = step.getPlannedFinish();
+            }
+        }
+        return InstanceScheduleResponse.builder()
+                .productInstanceId(productInstanceId)
+                .serialNumber(first.getSerialNumber())
+                .locationId(first.getLocationId())
+                .estimatedCompletionAt(planned ? completion : null)
+                .steps(toResponses(steps))
+                .build();
+    }
+
+    private static int scheduleLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("'limit' must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    private static List<ScheduledStepResponse> toResponses(List<ScheduledStep> steps) {
+        return steps.stream()
+                .map(step -> ScheduledStepResponse.builder()
+                        .stepId(step.getStepId())
+                        .productInstanceId(step.getProductInstanceId())
+                        .serialNumber(step.getSerialNumber())
+                        .routeStepId(step.getRouteStepId())
+                        .stepName(step.getStepName())
+                        .stepOrder(step.getStepOrder())
+                        .machineId(step.getMachineId())
+                        .running(step.isRunning())
+                        .plannedStart(step.getPlannedStart())
+                        .plannedFinish(step.getPlannedFinish())
+                        .build())
+                .toList();
+    }
+}
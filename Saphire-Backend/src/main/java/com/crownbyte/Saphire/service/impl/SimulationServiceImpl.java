@@ -0,0 +1,263 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.cycletime.CycleTimeEstimator;
+import com.crownbyte.Saphire.dto.request.SimulationOrderRequest;
+import com.crownbyte.Saphire.dto.request.SimulationRequest;
+import com.crownbyte.Saphire.dto.response.BacklogImpactResponse;
+import com.crownbyte.Saphire.dto.response.SimulatedMachineResponse;
+import com.crownbyte.Saphire.dto.response.SimulatedOrderResponse;
+import com.crownbyte.Saphire.dto.response.SimulationResponse;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.planning.MachineCapacity;
+import com.crownbyte.Saphire.planning.PlanStep;
+import com.crownbyte.Saphire.planning.PlanningStore;
+import com.crownbyte.Saphire.service.SimulationService;
+import com.crownbyte.Saphire.simulation.ProductionSimulator;
+import com.crownbyte.Saphire.simulation.RouteStepModel;
+import com.crownbyte.Saphire.simulation.SimulationRun;
+import com.crownbyte.Saphire.simulation.SimulationStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs the simulator twice from now: once on the backlog alone and once with the
+ * hypothetical orders added, so the report shows what the orders cost the work
+ * already promised. The backlog is the capacity plan's in-memory copy of the pending
+ * and running steps; only machines, route alternatives and the orders' routes are
+ * read from the database. Order steps take the learned cycle time of their route step
+ * pooled over its machines, like the backlog does in the plan.
+ */
+@Service
+public class SimulationServiceImpl implements SimulationService {
+
+    private static final int DEFAULT_HORIZON_DAYS = 30;
+    /** Hypothetical instances and steps get ids far above real ones, so they queue behind ties. */
+    private static final long SIMULATED_ID_BASE = Long.MAX_VALUE / 2;
+
+    private final PlanningStore planningStore;
+    private final SimulationStore simulationStore;
+    private final CapacityPlanner planner;
+    private final CycleTimeEstimator cycleTimes;
+    private final Timer runTimer;
+
+    public SimulationServiceImpl(PlanningStore planningStore, SimulationStore simulationStore, CapacityPlanner planner,
+            CycleTimeEstimator cycleTimes, MeterRegistry meterRegistry) {
+        this.planningStore = planningStore;
+        this.simulationStore = simulationStore;
+        this.planner = planner;
+        this.cycleTimes = cycleTimes;
+        this.runTimer = Timer.builder("saphire.simulation.run")
+                .description("What-if simulations, both runs")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SimulationResponse simulate(SimulationRequest request) {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusDays(request.getHorizonDays() != null
+                ? request.getHorizonDays() : DEFAULT_HORIZON_DAYS);
+        boolean includeBacklog = !Boolean.FALSE.equals(request.getIncludeBacklog());
+
+        List<MachineCapacity> machines = machines(request.getUnavailableMachineIds());
+        Map<Long, List<Long>> alternatives = planningStore.loadAlternatives();
+        List<SimulationOrderRequest> orders = request.getOrders();
+        Map<Long, List<RouteStepModel>> routes = routes(orders, alternatives);
+        List<PlanStep> backlog = includeBacklog ? planner.steps() : List.of();
+
+        List<PlanStep> orderSteps = new ArrayList<>();
+        Map<Long, LocalDateTime> releases = new HashMap<>();
+        long[] firstInstanceIds = new long[orders.size()];
+        long instanceId = SIMULATED_ID_BASE;
+        long stepId = SIMULATED_ID_BASE;
+        for (int i = 0; i < orders.size(); i++) {
+            SimulationOrderRequest order = orders.get(i);
+            Integer priority = order.getPriority() != null ? order.getPriority() : 0;
+            firstInstanceIds[i] = instanceId;
+            for (int unit = 0; unit < order.getQuantity(); unit++, instanceId++) {
+                for (RouteStepModel step : routes.get(order.getRouteId())) {
+                    orderSteps.add(new PlanStep(stepId++, instanceId, null, null, priority, order.getDueDate(),
+                            step.getRouteStepId(), step.getStepName(), step.getStepOrder(), step.isParallel(),
+                            step.getDurationMinutes(), null, null));
+                }
+                if (order.getReleaseAt() != null) {
+                    releases.put(instanceId, order.getReleaseAt());
+                }
+            }
+        }
+
+        List<PlanStep> steps = new ArrayList<>(backlog);
+        steps.addAll(cycleTimes.estimate(orderSteps));
+
+        long started = System.nanoTime();
+        SimulationRun baseline = includeBacklog
+                ? new ProductionSimulator(machines, alternatives).run(backlog, Map.of(), start, end)
+                : null;
+        SimulationRun scenario = new ProductionSimulator(machines, alternatives).run(steps, releases, start, end);
+        long elapsed = System.nanoTime() - started;
+        runTimer.record(Duration.ofNanos(elapsed));
+
+        List<SimulatedOrderResponse> orderResponses = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            orderResponses.add(toOrderResponse(orders.get(i), firstInstanceIds[i], scenario, start));
+        }
+        return SimulationResponse.builder()
+                .startAt(start)
+                .horizonEnd(end)
+                .orders(orderResponses)
+                .backlog(baseline != null ? backlogImpact(backlog, baseline, scenario) : null)
+                .machines(toMachineResponses(baseline, scenario))
+                .events(scenario.getEvents())
+                .elapsedMillis(Duration.ofNanos(elapsed).toMillis())
+                .build();
+    }
+
+    private List<MachineCapacity> machines(List<Long> unavailableMachineIds) {
+        List<MachineCapacity> machines = planningStore.loadMachines();
+        if (unavailableMachineIds == null || unavailableMachineIds.isEmpty()) {
+            return machines;
+        }
+        Set<Long> unavailable = new HashSet<>(unavailableMachineIds);
+        Set<Long> known = new HashSet<>();
+        List<MachineCapacity> result = machines.stream()
+                .map(machine -> {
+                    known.add(machine.getMachineId());
+                    return unavailable.contains(machine.getMachineId())
+                            ? new MachineCapacity(machine.getMachineId(), false, null)
+                            : machine;
+                })
+                .toList();
+        unavailable.removeAll(known);
+        if (!unavailable.isEmpty()) {
+            throw new IllegalArgumentException("Unknown machines: " + new TreeSet<>(unavailable));
+        }
+        return result;
+    }
+
+    private Map<Long, List<RouteStepModel>> routes(List<SimulationOrderRequest> orders,
+            Map<Long, List<Long>> alternatives) {
+        Set<Long> routeIds = new HashSet<>();
+        orders.forEach(order -> routeIds.add(order.getRouteId()));
+        Map<Long, List<RouteStepModel>> routes = simulationStore.loadRoutes(routeIds);
+        for (Long routeId : routeIds) {
+            List<RouteStepModel> steps = routes.get(routeId);
+            if (steps == null) {
+                throw new IllegalArgumentException("Route " + routeId + " does not exist or has no steps");
+            }
+            for (RouteStepModel step : steps) {
+                if (alternatives.getOrDefault(step.getRouteStepId(), List.of()).isEmpty()) {
+                    throw new IllegalArgumentException("Route step has no machine: " + step.getStepName());
+                }
+            }
+        }
+        return routes;
+    }
+
+    private static SimulatedOrderResponse toOrderResponse(SimulationOrderRequest order, long firstInstanceId,
+            SimulationRun run, LocalDateTime start) {
+        LocalDateTime release = order.getReleaseAt() != null && order.getReleaseAt().isAfter(start)
+                ? order.getReleaseAt() : start;
+        int completed = 0;
+        int onTime = 0;
+        long leadMinutes = 0;
+        LocalDateTime first = null;
+        LocalDateTime last = null;
+        for (long id = firstInstanceId; id < firstInstanceId + order.getQuantity(); id++) {
+            LocalDateTime completedAt = run.completionOf(id);
+            if (completedAt == null) {
+                continue;
+            }
+            completed++;
+            leadMinutes += Duration.between(release, completedAt).toMinutes();
+            if (order.getDueDate() != null && !completedAt.isAfter(order.getDueDate())) {
+                onTime++;
+            }
+            first = first == null || completedAt.isBefore(first) ? completedAt : first;
+            last = last == null || completedAt.isAfter(last) ? completedAt : last;
+        }
+        boolean hasDueDate = order.getDueDate() != null;
+        return SimulatedOrderResponse.builder()
+                .routeId(order.getRouteId())
+                .quantity(order.getQuantity())
+                .priority(order.getPriority())
+                .dueDate(order.getDueDate())
+                .completed(completed)
+                .onTime(hasDueDate ? onTime : null)
+                .dueDateAttainment(hasDueDate ? (double) onTime / order.getQuantity() : null)
+                .firstCompletionAt(first)
+                .lastCompletionAt(completed == order.getQuantity() ? last : null)
+                .averageLeadTimeMinutes(completed > 0 ? leadMinutes / completed : null)
+                .build();
+    }
+
+    private static BacklogImpactResponse backlogImpact(List<PlanStep> backlog, SimulationRun baseline,
+            SimulationRun scenario) {
+        Map<Long, LocalDateTime> dueDates = new LinkedHashMap<>();
+        backlog.forEach(step -> dueDates.putIfAbsent(step.getProductInstanceId(), step.getDueDate()));
+        int withDueDate = 0;
+        int onTimeBefore = 0;
+        int onTimeAfter = 0;
+        int pushedLate = 0;
+        for (Map.Entry<Long, LocalDateTime> entry : dueDates.entrySet()) {
+            LocalDateTime due = entry.getValue();
+            if (due == null) {
+                continue;
+            }
+            withDueDate++;
+            boolean before = onTime(baseline.completionOf(entry.getKey()), due);
+            boolean after = onTime(scenario.completionOf(entry.getKey()), due);
+            onTimeBefore += before ? 1 : 0;
+            onTimeAfter += after ? 1 : 0;
+            pushedLate += before && !after ? 1 : 0;
+        }
+        return BacklogImpactResponse.builder()
+                .instances(dueDates.size())
+                .withDueDate(withDueDate)
+                .onTimeBefore(onTimeBefore)
+                .onTimeAfter(onTimeAfter)
+                .dueDateAttainmentBefore(withDueDate > 0 ? (double) onTimeBefore / withDueDate : null)
+                .dueDateAttainmentAfter(withDueDate > 0 ? (double) onTimeAfter / withDueDate : null)
+                .pushedLate(pushedLate)
+                .build();
+    }
+
+    private static boolean onTime(LocalDateTime completedAt, LocalDateTime due) {
+        return completedAt != null && !completedAt.isAfter(due);
+    }
+
+    private static List<SimulatedMachineResponse> toMachineResponses(SimulationRun baseline, SimulationRun scenario) {
+        List<SimulatedMachineResponse> responses = new ArrayList<>();
+        new TreeSet<>(scenario.getMachines().keySet()).forEach(machineId -> {
+            SimulationRun.MachineResult result = scenario.getMachines().get(machineId);
+            SimulationRun.MachineResult before = baseline != null ? baseline.getMachines().get(machineId) : null;
+            if (!hadWork(result) && !hadWork(before)) {
+                return;
+            }
+            responses.add(SimulatedMachineResponse.builder()
+                    .machineId(machineId)
+                    .available(result.isAvailable())
+                    .utilization(result.getUtilization())
+                    .baselineUtilization(before != null ? before.getUtilization() : null)
+                    .completedSteps(result.getSteps())
+                    .averageQueueLength(result.getAverageQueueLength())
+                    .maxQueueLength(result.getMaxQueueLength())
+                    .build());
+        });
+        return responses;
+    }
+
+    private static boolean hadWork(SimulationRun.MachineResult result) {
+        return result != null && (result.getBusyMinutes() > 0 || result.getMaxQueueLength() > 0);
+    }
+}
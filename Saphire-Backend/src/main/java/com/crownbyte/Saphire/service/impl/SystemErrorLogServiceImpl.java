@@ -1,31 +1,114 @@
 package com.crownbyte.Saphire.service.impl;
 
+import com.crownbyte.Saphire.dto.response.CursorPageResponse;
+import com.crownbyte.Saphire.dto.response.ErrorLogHourlyCountResponse;
 import com.crownbyte.Saphire.entity.SystemErrorLog;
+import com.crownbyte.Saphire.logging.ErrorLogStore;
+import com.crownbyte.Saphire.logging.ErrorLogWriter;
 import com.crownbyte.Saphire.repository.SystemErrorLogRepository;
 import com.crownbyte.Saphire.service.SystemErrorLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SystemErrorLogServiceImpl implements SystemErrorLogService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final Duration DEFAULT_LOG_WINDOW = Duration.ofDays(7);
+    private static final Duration DEFAULT_HOURLY_WINDOW = Duration.ofHours(24);
+    private static final Duration MAX_HOURLY_WINDOW = Duration.ofDays(90);
+
     private final SystemErrorLogRepository repository;
+    private final ErrorLogWriter errorLogWriter;
+    private final ErrorLogStore errorLogStore;
 
-    @Transactional
     public void logError(String ipAddress, String sourceClass, String description) {
-        SystemErrorLog log = SystemErrorLog.builder()
-                .ipAddress(ipAddress)
-                .sourceClass(sourceClass)
-                .description(description)
+        errorLogWriter.submit(ipAddress, sourceClass, description);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<SystemErrorLog> getLogs(LocalDateTime from, LocalDateTime to, String sourceClass,
+            String ipAddress, String cursor, Integer size) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_LOG_WINDOW);
+        int pageSize = size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        LocalDateTime cursorTime = end;
+        long cursorId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            cursorTime = LocalDateTime.parse(position[0]);
+            cursorId = Long.parseLong(position[1]);
+        }
+
+        // One extra row tells whether another page exists without a count query
+        List<SystemErrorLog> rows = repository.findPageBefore(start, cursorTime, cursorId,
+                blankToNull(sourceClass), blankToNull(ipAddress), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = rows.size() > pageSize;
+        List<SystemErrorLog> items = hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            SystemErrorLog last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getTimestamp(), last.getId());
+        }
+        return CursorPageResponse.<SystemErrorLog>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
                 .build();
-        repository.save(log);
     }
 
-    public List<SystemErrorLog> getAllLogs() {
-        return repository.findAll();
+    @Transactional(readOnly = true)
+    public List<ErrorLogHourlyCountResponse> getHourlyCounts(LocalDateTime from, LocalDateTime to,
+            String sourceClass) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_HOURLY_WINDOW);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_HOURLY_WINDOW) > 0) {
+            throw new IllegalArgumentException("Hourly counts are limited to " + MAX_HOURLY_WINDOW.toDays() + " days");
+        }
+
+        return errorLogStore.loadHourlyCounts(start, end, blankToNull(sourceClass)).entrySet().stream()
+                .map(e -> ErrorLogHourlyCountResponse.builder()
+                        .hour(e.getKey())
+                        .occurrences(e.getValue())
+                        .build())
+                .toList();
+    }
+
+    private String encodeCursor(LocalDateTime timestamp, Long id) {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] position = raw.split("\\|", 2);
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
     }
 }
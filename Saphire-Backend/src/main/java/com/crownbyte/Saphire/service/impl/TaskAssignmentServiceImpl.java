@@ -5,7 +5,10 @@ import com.crownbyte.Saphire.dto.request.TaskScheduleRequest;
 import com.crownbyte.Saphire.dto.response.TaskAssignmentResponse;
 import com.crownbyte.Saphire.dto.response.TaskScheduleResponse;
 import com.crownbyte.Saphire.dto.response.UserResponse;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.ProductEntity;
 import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
 import com.crownbyte.Saphire.entity.qc.TaskAssignmentEntity;
 import com.crownbyte.Saphire.entity.qc.TaskScheduleEntity;
@@ -26,6 +29,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,9 +55,7 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
         } else {
             assignments = taskAssignmentRepository.findAll();
         }
-        return assignments.stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+        return toResponses(assignments);
     }
 
     @Override
@@ -164,7 +168,8 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
         int dayOfWeek = now.getDayOfWeek().getValue();
 
         List<TaskAssignmentEntity> assignments = taskAssignmentRepository.findActiveAssignmentsByUserId(userId);
-        List<TaskAssignmentResponse> activeTasks = new ArrayList<>();
+        List<TaskAssignmentEntity> activeAssignments = new ArrayList<>();
+        List<QcFormRecordEntity> userRecords = null;
 
         for (TaskAssignmentEntity assignment : assignments) {
             for (TaskScheduleEntity schedule : assignment.getSchedules()) {
@@ -185,20 +190,23 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
                     LocalDateTime windowStart = LocalDateTime.of(today, schedule.getStartTime());
                     LocalDateTime windowEnd = LocalDateTime.of(today, schedule.getEndTime());
 
-                    boolean alreadyDone = recordRepository.findByFilledById(userId).stream()
+                    if (userRecords == null) {
+                        userRecords = recordRepository.findByFilledById(userId);
+                    }
+                    boolean alreadyDone = userRecords.stream()
                             .anyMatch(record -> record.getTemplate().getId().equals(assignment.getTemplate().getId())
                                     && record.getCreatedAt().isAfter(windowStart)
                                     && record.getCreatedAt().isBefore(windowEnd));
 
                     if (!alreadyDone) {
-                        activeTasks.add(toResponse(assignment));
+                        activeAssignments.add(assignment);
                         break; // Found a matching schedule that hasn't been completed for today
                     }
                 }
             }
         }
 
-        return activeTasks;
+        return toResponses(activeAssignments);
     }
 
     @Override
@@ -208,6 +216,33 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
                 .orElseThrow(() -> new RuntimeException("Task assignment not found"));
     }
 
+    /**
+     * Maps a list of assignments, loading machine and product names in one query each.
+     */
+    private List<TaskAssignmentResponse> toResponses(List<TaskAssignmentEntity> entities) {
+        Set<Long> machineIds = entities.stream()
+                .map(TaskAssignmentEntity::getMachineId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> productIds = entities.stream()
+                .map(TaskAssignmentEntity::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, String> machineNames = machineIds.isEmpty() ? Map.of()
+                : machineRepository.findAllById(machineIds).stream()
+                        .collect(Collectors.toMap(MachineEntity::getId, MachineEntity::getName));
+        Map<Long, String> productNames = productIds.isEmpty() ? Map.of()
+                : productRepository.findAllById(productIds).stream()
+                        .collect(Collectors.toMap(ProductEntity::getId, ProductEntity::getName));
+
+        return entities.stream()
+                .map(e -> toResponse(e,
+                        e.getMachineId() != null ? machineNames.get(e.getMachineId()) : null,
+                        e.getProductId() != null ? productNames.get(e.getProductId()) : null))
+                .collect(Collectors.toList());
+    }
+
     private TaskAssignmentResponse toResponse(TaskAssignmentEntity entity) {
         String machineName = entity.getMachineId() != null
                 ? machineRepository.findById(entity.getMachineId()).map(m -> m.getName()).orElse(null)
@@ -215,6 +250,10 @@ public class TaskAssignmentServiceImpl implements TaskAssignmentService {
         String productName = entity.getProductId() != null
                 ? productRepository.findById(entity.getProductId()).map(p -> p.getName()).orElse(null)
                 : null;
+        return toResponse(entity, machineName, productName);
+    }
+
+    private TaskAssignmentResponse toResponse(TaskAssignmentEntity entity, String machineName, String productName) {
 
         return TaskAssignmentResponse.builder()
                 .id(entity.getId())
@@ -7,14 +7,22 @@ import com.crownbyte.Saphire.entity.master.UserEntity;
 import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
 import com.crownbyte.Saphire.repository.MachineRepository;
 import com.crownbyte.Saphire.repository.UserRepository;
+import com.crownbyte.Saphire.security.BulkPasswordHasher;
+import com.crownbyte.Saphire.security.TokenVersionRegistry;
 import com.crownbyte.Saphire.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,6 +33,8 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final MachineRepository machineRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionRegistry tokenVersionRegistry;
+    private final BulkPasswordHasher bulkPasswordHasher;
 
     @Override
     @Transactional(readOnly = true)
@@ -75,6 +85,7 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserResponse create(UserRequest request) {
+        requirePassword(request);
         UserRoleEnum role = UserRoleEnum.valueOf(request.getRole().toUpperCase());
 
         UserEntity entity = UserEntity.builder()
@@ -98,11 +109,82 @@ public class UserServiceImpl implements UserService {
         return toResponse(saved);
     }
 
+    @Override
+    public List<UserResponse> createAll(List<UserRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        requests.forEach(UserServiceImpl::requirePassword);
+
+        List<String> usernames = requests.stream().map(UserRequest::getUsername).collect(Collectors.toList());
+        List<String> emails = requests.stream().map(UserRequest::getEmail).collect(Collectors.toList());
+        if (new HashSet<>(usernames).size() != usernames.size()) {
+            throw new IllegalArgumentException("Duplicate usernames in import");
+        }
+        if (new HashSet<>(emails).size() != emails.size()) {
+            throw new IllegalArgumentException("Duplicate emails in import");
+        }
+        List<String> existingUsernames = userRepository.findExistingUsernames(usernames);
+        if (!existingUsernames.isEmpty()) {
+            throw new IllegalArgumentException("Username already exists: " + String.join(", ", existingUsernames));
+        }
+        List<String> existingEmails = userRepository.findExistingEmails(emails);
+        if (!existingEmails.isEmpty()) {
+            throw new IllegalArgumentException("Email already exists: " + String.join(", ", existingEmails));
+        }
+
+        Set<Long> machineIds = requests.stream()
+                .filter(r -> r.getMachineIds() != null)
+                .flatMap(r -> r.getMachineIds().stream())
+                .collect(Collectors.toSet());
+        Map<Long, MachineEntity> machinesById = machineIds.isEmpty()
+                ? Map.of()
+                : machineRepository.findAllById(machineIds).stream()
+                        .collect(Collectors.toMap(MachineEntity::getId, Function.identity()));
+        if (machinesById.size() != machineIds.size()) {
+            throw new EntityNotFoundException("Some machines were not found");
+        }
+
+        // BCrypt dominates import time, so hashes are computed in parallel up front
+        List<String> hashedPasswords = bulkPasswordHasher.encodeAll(
+                requests.stream().map(UserRequest::getPassword).collect(Collectors.toList()));
+
+        List<UserEntity> entities = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            UserRequest request = requests.get(i);
+            UserEntity entity = UserEntity.builder()
+                    .username(request.getUsername())
+                    .email(request.getEmail())
+                    .hashedPassword(hashedPasswords.get(i))
+                    .fullName(request.getFullName())
+                    .role(UserRoleEnum.valueOf(request.getRole().toUpperCase()))
+                    .active(request.getActive() != null ? request.getActive() : true)
+                    .build();
+            if (request.getMachineIds() != null) {
+                request.getMachineIds().forEach(machineId -> entity.getMachines().add(machinesById.get(machineId)));
+            }
+            entities.add(entity);
+        }
+
+        return userRepository.saveAll(entities)
+                .stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public UserResponse update(Long id, UserRequest request) {
         UserEntity entity = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
 
+        String previousUsername = entity.getUsername();
+        String previousPassword = entity.getHashedPassword();
+        UserRoleEnum previousRole = entity.getRole();
+        Boolean previousActive = entity.getActive();
+        Set<Long> previousMachineIds = entity.getMachines().stream()
+                .map(MachineEntity::getId)
+                .collect(Collectors.toSet());
+
         entity.setUsername(request.getUsername());
         entity.setEmail(request.getEmail());
         entity.setFullName(request.getFullName());
@@ -128,6 +210,18 @@ public class UserServiceImpl implements UserService {
             entity.getMachines().addAll(machines);
         }
 
+        // Tokens embed username, role and machine scope, so changing any of them revokes issued tokens
+        boolean authorizationChanged = !Objects.equals(previousUsername, entity.getUsername())
+                || !Objects.equals(previousPassword, entity.getHashedPassword())
+                || previousRole != entity.getRole()
+                || !Objects.equals(previousActive, entity.getActive())
+                || !previousMachineIds.equals(entity.getMachines().stream()
+                        .map(MachineEntity::getId)
+                        .collect(Collectors.toSet()));
+        if (authorizationChanged) {
+            revokeTokens(entity);
+        }
+
         UserEntity saved = userRepository.save(entity);
         return toResponse(saved);
     }
@@ -137,6 +231,7 @@ public class UserServiceImpl implements UserService {
         UserEntity entity = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + id));
         entity.setActive(false);
+        revokeTokens(entity);
         userRepository.save(entity);
     }
 
@@ -152,6 +247,18 @@ public class UserServiceImpl implements UserService {
         return userRepository.existsByEmail(email);
     }
 
+    private void revokeTokens(UserEntity entity) {
+        int nextVersion = (entity.getTokenVersion() != null ? entity.getTokenVersion() : 0) + 1;
+        entity.setTokenVersion(nextVersion);
+        tokenVersionRegistry.publish(entity.getId(), nextVersion);
+    }
+
+    private static void requirePassword(UserRequest request) {
+        if (request.getPassword() == null || request.getPassword().isBlank()) {
+            throw new IllegalArgumentException("Password is required: " + request.getUsername());
+        }
+    }
+
     private UserResponse toResponse(UserEntity entity) {
         return UserResponse.builder()
                 .id(entity.getId())
@@ -0,0 +1,18 @@
+package com.crownbyte.Saphire.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** A route step as the simulator runs it. */
+@Getter
+@AllArgsConstructor
+public final class RouteStepModel {
+
+    private final Long routeId;
+    private final Long routeStepId;
+    private final String stepName;
+    private final int stepOrder;
+    private final boolean parallel;
+    /** Setup plus cycle time. */
+    private final int durationMinutes;
+}
@@ -0,0 +1,45 @@
+package com.crownbyte.Saphire.simulation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/** Outcome of one {@link ProductionSimulator} run; times are minutes from {@link #getStart()}. */
+@Getter
+@AllArgsConstructor
+public final class SimulationRun {
+
+    private final LocalDateTime start;
+    private final long horizonMinutes;
+    private final long events;
+    private final Map<Long, MachineResult> machines;
+    /** Instances that finished their last step within the horizon. */
+    private final Map<Long, Long> completedAt;
+
+    /** When the instance finished, or null when it did not within the horizon. */
+    public LocalDateTime completionOf(Long instanceId) {
+        Long minutes = completedAt.get(instanceId);
+        return minutes != null ? start.plusMinutes(minutes) : null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class MachineResult {
+        private final Long machineId;
+        private final boolean available;
+        private final long busyMinutes;
+        private final long availableMinutes;
+        /** Steps finished within the horizon. */
+        private final int steps;
+        /** Time-weighted mean of the ready steps the machine could have run. */
+        private final double averageQueueLength;
+        private final int maxQueueLength;
+
+        /** Busy share of the available time; null for a machine that was never available. */
+        public Double getUtilization() {
+            return availableMinutes > 0 ? Math.min((double) busyMinutes / availableMinutes, 1.0) : null;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.crownbyte.Saphire.simulation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** JDBC reads of the routes that hypothetical orders follow. */
+@Component
+public class SimulationStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SimulationStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Steps of each route in route order; routes without steps or that do not exist are left out. */
+    public Map<Long, List<RouteStepModel>> loadRoutes(Collection<Long> routeIds) {
+        Map<Long, List<RouteStepModel>> routes = new LinkedHashMap<>();
+        if (routeIds.isEmpty()) {
+            return routes;
+        }
+        List<Long> ids = List.copyOf(routeIds);
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        jdbcTemplate.query(
+                "SELECT route_id, id, step_name, step_order, step_type, estimated_setup_minutes, " +
+                        "estimated_cycle_minutes FROM product_route_steps WHERE route_id IN (" + placeholders + ") " +
+                        "ORDER BY route_id, step_order, id",
+                rs -> {
+                    routes.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(new RouteStepModel(
+                            rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getInt(4),
+                            "PARALLEL".equals(rs.getString(5)), rs.getInt(6) + rs.getInt(7)));
+                },
+                ids.toArray());
+        return routes;
+    }
+}
@@ -0,0 +1,33 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current state of one machine as last reported. Instances are immutable and
+ * compared by identity, so {@link MachineStatusTracker} can swap them with
+ * compare-and-set.
+ */
+@Getter
+@AllArgsConstructor
+public final class LiveMachineState {
+
+    private final Long machineId;
+    private final Long locationId;
+    private final MachineStatusEnum status;
+    /** When the machine entered {@link #status}. */
+    private final LocalDateTime since;
+    /** Time of the newest report, heartbeats included. */
+    private final LocalDateTime lastSeenAt;
+
+    LiveMachineState withLastSeen(LocalDateTime at) {
+        return new LiveMachineState(machineId, locationId, status, since, at);
+    }
+
+    LiveMachineState transitionTo(MachineStatusEnum next, LocalDateTime at) {
+        return new LiveMachineState(machineId, locationId, next, at, at);
+    }
+}
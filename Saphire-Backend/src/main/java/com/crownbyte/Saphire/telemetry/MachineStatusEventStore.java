@@ -0,0 +1,157 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Appends transitions to machine_status_events and moves machine_status to the
+ * newest state of each machine, all in JDBC batches.
+ */
+@Component
+public class MachineStatusEventStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public MachineStatusEventStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Writes the events and the current states in one transaction, so a failed write
+     * leaves nothing behind and the caller can retry the same transitions.
+     */
+    public void write(List<MachineStatusTransition> transitions) {
+        if (transitions.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> writeInTransaction(transitions));
+    }
+
+    private void writeInTransaction(List<MachineStatusTransition> transitions) {
+        // Read by OEE aggregation once a settle window old, in the same clock as its cutoff
+        Timestamp writtenAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> eventArgs = new ArrayList<>(transitions.size());
+        Map<Long, MachineStatusTransition> latest = new LinkedHashMap<>();
+        for (MachineStatusTransition transition : transitions) {
+            eventArgs.add(new Object[] {
+                    transition.getMachineId(),
+                    transition.getPreviousStatus() != null ? transition.getPreviousStatus().name() : null,
+                    transition.getStatus().name(),
+                    Timestamp.valueOf(transition.getOccurredAt()),
+                    Timestamp.valueOf(transition.getReceivedAt()),
+                    transition.getSource(),
+                    writtenAt
+            });
+            if (!transition.isStateWritten()) {
+                latest.merge(transition.getMachineId(), transition,
+                        (older, newer) -> newer.getOccurredAt().isBefore(older.getOccurredAt()) ? older : newer);
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO machine_status_events (machine_id, previous_status, status, occurred_at, " +
+                        "received_at, source, written_at) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                eventArgs);
+
+        List<MachineStatusTransition> current = new ArrayList<>(latest.values());
+        List<Object[]> updateArgs = new ArrayList<>(current.size());
+        for (MachineStatusTransition transition : current) {
+            Timestamp since = Timestamp.valueOf(transition.getOccurredAt());
+            updateArgs.add(new Object[] {
+                    transition.getStatus().name(), since, Timestamp.valueOf(transition.getReceivedAt()),
+                    transition.getMachineId(), since
+            });
+        }
+        // Never move a machine back to an older state written by an earlier flush
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE machine_status SET current_status = ?, status_since = ?, updated_at = ? " +
+                        "WHERE machine_id = ? AND status_since <= ?",
+                updateArgs);
+
+        List<Object[]> insertArgs = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            if (updated[i] != 0) {
+                continue;
+            }
+            MachineStatusTransition transition = current.get(i);
+            insertArgs.add(new Object[] {
+                    transition.getMachineId(), transition.getStatus().name(),
+                    Timestamp.valueOf(transition.getOccurredAt()), Timestamp.valueOf(transition.getReceivedAt()),
+                    transition.getMachineId()
+            });
+        }
+        if (!insertArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO machine_status (machine_id, current_status, status_since, updated_at) " +
+                            "SELECT ?, ?, ?, ? WHERE NOT EXISTS (SELECT 1 FROM machine_status WHERE machine_id = ?)",
+                    insertArgs);
+        }
+    }
+
+    /** The persisted state of every machine that has one. */
+    public List<LiveMachineState> loadCurrentStates() {
+        return jdbcTemplate.query(
+                "SELECT s.machine_id, m.location_id, s.current_status, s.status_since " +
+                        "FROM machine_status s JOIN machines m ON m.id = s.machine_id",
+                (rs, row) -> {
+                    LocalDateTime since = rs.getTimestamp(4).toLocalDateTime();
+                    return new LiveMachineState(rs.getLong(1), rs.getLong(2),
+                            MachineStatusEnum.valueOf(rs.getString(3)), since, since);
+                });
+    }
+
+    /** Transitions of one machine in {@code [from, to)}, oldest first, at most {@code limit}. */
+    public List<MachineStatusTransition> loadTransitions(Long machineId, LocalDateTime from, LocalDateTime to,
+            int limit) {
+        return jdbcTemplate.query(
+                "SELECT machine_id, previous_status, status, occurred_at, received_at, source " +
+                        "FROM machine_status_events WHERE machine_id = ? AND occurred_at >= ? AND occurred_at < ? " +
+                        "ORDER BY occurred_at, id LIMIT ?",
+                (rs, row) -> toTransition(rs),
+                machineId, Timestamp.valueOf(from), Timestamp.valueOf(to), limit);
+    }
+
+    /** The last transition of a machine before {@code at}, if any is still stored. */
+    public Optional<MachineStatusTransition> loadTransitionBefore(Long machineId, LocalDateTime at) {
+        return jdbcTemplate.query(
+                "SELECT machine_id, previous_status, status, occurred_at, received_at, source " +
+                        "FROM machine_status_events WHERE machine_id = ? AND occurred_at < ? " +
+                        "ORDER BY occurred_at DESC, id DESC LIMIT 1",
+                (rs, row) -> toTransition(rs),
+                machineId, Timestamp.valueOf(at)).stream().findFirst();
+    }
+
+    /**
+     * Deletes at most {@code limit} of the oldest events before the cutoff, returning
+     * how many went. Events not yet folded into the minute and hour tiers are kept:
+     * only those written before the aggregation cursor go.
+     */
+    public int purgeEventsBefore(LocalDateTime cutoff, int limit) {
+        return jdbcTemplate.update(
+                "DELETE FROM machine_status_events WHERE id IN (" +
+                        "SELECT id FROM machine_status_events WHERE occurred_at < ? AND written_at < " +
+                        "(SELECT last_time FROM oee_cursors WHERE source = 'STATUS_EVENTS') ORDER BY id LIMIT ?)",
+                Timestamp.valueOf(cutoff), limit);
+    }
+
+    private static MachineStatusTransition toTransition(ResultSet rs) throws SQLException {
+        String previous = rs.getString(2);
+        return new MachineStatusTransition(rs.getLong(1), previous != null ? MachineStatusEnum.valueOf(previous) : null,
+                MachineStatusEnum.valueOf(rs.getString(3)), rs.getTimestamp(4).toLocalDateTime(),
+                rs.getTimestamp(5).toLocalDateTime(), rs.getString(6));
+    }
+}
@@ -0,0 +1,241 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live machine state, kept in memory and fed by status reports from the shop floor.
+ * <p>
+ * Each machine's state is an immutable {@link LiveMachineState} swapped with
+ * compare-and-set, so reports for different machines never contend and readers never
+ * block. A report that repeats the current state only moves {@code lastSeenAt}; a
+ * change of state is queued and written to machine_status_events in batches, off the
+ * request thread. Reports older than the newest one seen for the machine are ignored.
+ * <p>
+ * The state lives in this instance. It is loaded from machine_status on startup and
+ * refreshed from it periodically, which is how transitions reported to other
+ * instances arrive; until the next refresh the previous status recorded for a
+ * transition and the status counts can lag behind those instances.
+ */
+@Component
+@Slf4j
+public class MachineStatusTracker {
+
+    public enum Outcome {
+        TRANSITION,
+        HEARTBEAT,
+        STALE
+    }
+
+    private final MachineStatusEventStore store;
+    private final int maxPending;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<Long, LiveMachineState> states = new ConcurrentHashMap<>();
+    private final Queue<MachineStatusTransition> pending = new ConcurrentLinkedQueue<>();
+    /** Queued plus unwritten transitions; the queue itself has no O(1) size. */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    /** Transitions of a failed flush, retried first. Only touched under the flush lock. */
+    private List<MachineStatusTransition> unwritten = new ArrayList<>();
+
+    private final Counter received;
+    private final Counter transitions;
+    private final Counter stale;
+
+    public MachineStatusTracker(
+            MachineStatusEventStore store,
+            MeterRegistry meterRegistry,
+            @Value("${app.machine-status.max-pending:100000}") int maxPending,
+            @Value("${app.machine-status.batch-size:500}") int batchSize) {
+        this.store = store;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+
+        this.received = Counter.builder("saphire.machinestatus.received")
+                .description("Machine status reports received")
+                .register(meterRegistry);
+        this.transitions = Counter.builder("saphire.machinestatus.transitions")
+                .description("Machine status reports that changed a machine's state")
+                .register(meterRegistry);
+        this.stale = Counter.builder("saphire.machinestatus.stale")
+                .description("Machine status reports ignored because a newer one was already seen")
+                .register(meterRegistry);
+        meterRegistry.gauge("saphire.machinestatus.pending", pendingCount);
+        meterRegistry.gauge("saphire.machinestatus.tracked", states, Map::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        log.info("Loaded live state of {} machines", merge(store.loadCurrentStates()));
+    }
+
+    /** Takes in the transitions other instances wrote since the last refresh. */
+    @Scheduled(fixedDelayString = "${app.machine-status.refresh-interval-ms:30000}",
+            initialDelayString = "${app.machine-status.refresh-interval-ms:30000}")
+    public void refresh() {
+        merge(store.loadCurrentStates());
+    }
+
+    /**
+     * Adopts each persisted state that began after the newest report seen here;
+     * anything this instance saw later stays.
+     */
+    private int merge(List<LiveMachineState> persisted) {
+        for (LiveMachineState state : persisted) {
+            while (true) {
+                LiveMachineState current = states.get(state.getMachineId());
+                if (current == null) {
+                    if (states.putIfAbsent(state.getMachineId(), state) == null) {
+                        break;
+                    }
+                } else if (!state.getSince().isAfter(current.getLastSeenAt())
+                        || states.replace(state.getMachineId(), current, state)) {
+                    break;
+                }
+            }
+        }
+        return persisted.size();
+    }
+
+    public boolean isTracked(Long machineId) {
+        return states.containsKey(machineId);
+    }
+
+    /**
+     * Whether the write buffer can take this many more transitions. Checked per
+     * request before anything is applied, so a full buffer turns whole batches away
+     * and the sender can retry them unchanged.
+     */
+    public boolean hasRoomFor(int reports) {
+        return pendingCount.get() + reports <= maxPending;
+    }
+
+    /**
+     * Applies one report. {@code locationId} is only used the first time a machine
+     * reports.
+     */
+    public Outcome report(Long machineId, Long locationId, MachineStatusEnum status, LocalDateTime at,
+            String source, LocalDateTime receivedAt) {
+        return apply(machineId, locationId, status, at, source, receivedAt, false);
+    }
+
+    /**
+     * Applies a change the caller has already written to machine_status in its own
+     * transaction. Only the event is written later: the buffered state could otherwise
+     * land after a newer synchronous write from the same second and undo it.
+     */
+    public Outcome reportWritten(Long machineId, Long locationId, MachineStatusEnum status, LocalDateTime at,
+            String source) {
+        return apply(machineId, locationId, status, at, source, at, true);
+    }
+
+    private Outcome apply(Long machineId, Long locationId, MachineStatusEnum status, LocalDateTime at,
+            String source, LocalDateTime receivedAt, boolean stateWritten) {
+        received.increment();
+        while (true) {
+            LiveMachineState current = states.get(machineId);
+            LiveMachineState next;
+            Outcome outcome;
+            if (current == null) {
+                next = new LiveMachineState(machineId, locationId, status, at, at);
+                outcome = Outcome.TRANSITION;
+            } else if (at.isBefore(current.getLastSeenAt())) {
+                stale.increment();
+                return Outcome.STALE;
+            } else if (current.getStatus() == status) {
+                next = current.withLastSeen(at);
+                outcome = Outcome.HEARTBEAT;
+            } else {
+                next = current.transitionTo(status, at);
+                outcome = Outcome.TRANSITION;
+            }
+
+            boolean swapped = current == null
+                    ? states.putIfAbsent(machineId, next) == null
+                    : states.replace(machineId, current, next);
+            if (!swapped) {
+                continue;
+            }
+            if (outcome == Outcome.TRANSITION) {
+                pendingCount.incrementAndGet();
+                pending.add(new MachineStatusTransition(machineId, current != null ? current.getStatus() : null,
+                        status, at, receivedAt, source, stateWritten));
+                transitions.increment();
+            }
+            return outcome;
+        }
+    }
+
+    public Optional<LiveMachineState> get(Long machineId) {
+        return Optional.ofNullable(states.get(machineId));
+    }
+
+    /** Live states of one location, or of every machine when {@code locationId} is null. */
+    public List<LiveMachineState> list(Long locationId) {
+        List<LiveMachineState> result = new ArrayList<>();
+        for (LiveMachineState state : states.values()) {
+            if (locationId == null || locationId.equals(state.getLocationId())) {
+                result.add(state);
+            }
+        }
+        return result;
+    }
+
+    public Map<MachineStatusEnum, Long> countByStatus() {
+        Map<MachineStatusEnum, Long> counts = new EnumMap<>(MachineStatusEnum.class);
+        for (LiveMachineState state : states.values()) {
+            counts.merge(state.getStatus(), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${app.machine-status.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<MachineStatusTransition> batch = unwritten;
+        unwritten = new ArrayList<>();
+        MachineStatusTransition transition;
+        while ((transition = pending.poll()) != null) {
+            batch.add(transition);
+        }
+
+        for (int from = 0; from < batch.size(); from += batchSize) {
+            List<MachineStatusTransition> chunk = batch.subList(from, Math.min(from + batchSize, batch.size()));
+            try {
+                store.write(chunk);
+            } catch (Exception e) {
+                log.error("Failed to write {} machine status transitions: {}", batch.size() - from, e.getMessage());
+                unwritten = new ArrayList<>(batch.subList(from, batch.size()));
+                return;
+            }
+            pendingCount.addAndGet(-chunk.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    int pendingCount() {
+        return pendingCount.get();
+    }
+}
@@ -0,0 +1,29 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A state change waiting to be written to machine_status_events.
+ */
+@Getter
+@AllArgsConstructor
+public class MachineStatusTransition {
+
+    private final Long machineId;
+    private final MachineStatusEnum previousStatus;
+    private final MachineStatusEnum status;
+    private final LocalDateTime occurredAt;
+    private final LocalDateTime receivedAt;
+    private final String source;
+    /** Whether the caller has already written this state to machine_status; only its event is left. */
+    private final boolean stateWritten;
+
+    public MachineStatusTransition(Long machineId, MachineStatusEnum previousStatus, MachineStatusEnum status,
+            LocalDateTime occurredAt, LocalDateTime receivedAt, String source) {
+        this(machineId, previousStatus, status, occurredAt, receivedAt, source, false);
+    }
+}
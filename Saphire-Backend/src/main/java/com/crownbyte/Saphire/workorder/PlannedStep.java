@@ -0,0 +1,21 @@
+package com.crownbyte.Saphire.workorder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A route step as it is expanded into a production step of every instance of an
+ * order, with the machine picked from the route step's preferences.
+ */
+@Getter
+@AllArgsConstructor
+public final class PlannedStep {
+
+    private final Long routeStepId;
+    private final String stepName;
+    private final int stepOrder;
+    private final boolean parallel;
+    /** Setup plus cycle time. */
+    private final int durationMinutes;
+    private final Long machineId;
+}
@@ -0,0 +1,25 @@
+package com.crownbyte.Saphire.workorder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The rows of one work order: instances sharing product, route, location, priority
+ * and due date, each with the same planned steps.
+ */
+@Getter
+@AllArgsConstructor
+public final class WorkOrder {
+
+    private final Long productId;
+    private final Long routeId;
+    private final Long locationId;
+    private final Integer priority;
+    private final LocalDateTime dueDate;
+    private final String notes;
+    private final List<String> serialNumbers;
+    private final List<PlannedStep> steps;
+}
@@ -0,0 +1,132 @@
+package com.crownbyte.Saphire.workorder;
+
+import com.crownbyte.Saphire.datagen.JdbcDatasetSink;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC writes for work orders. On PostgreSQL all instance and step ids are reserved
+ * up front from the tables' id sequences, one query each, and the rows go out with
+ * one {@code COPY} per table, so an order of thousands of instances is a handful of
+ * round trips in one transaction. Elsewhere (H2 in tests) rows are inserted one by
+ * one and read their generated ids back.
+ */
+@Component
+@Slf4j
+public class WorkOrderStore {
+
+    /** Created by V23; other databases get it on startup. */
+    static final String SERIAL_SEQUENCE = "product_instance_serial_seq";
+
+    private static final String[] INSTANCE_COLUMNS = { "id", "product_id", "route_id", "location_id",
+            "serial_number", "status", "priority", "due_date", "notes", "created_at", "updated_at" };
+    private static final String[] STEP_COLUMNS = { "id", "product_instance_id", "route_step_id", "machine_id",
+            "status", "retry_count", "created_at", "updated_at" };
+
+    private static final String INSERT_INSTANCE = "INSERT INTO product_instances (product_id, route_id, " +
+            "location_id, serial_number, status, priority, due_date, notes, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, 'PENDING', ?, ?, ?, ?, ?)";
+    private static final String INSERT_STEP = "INSERT INTO production_steps (product_instance_id, route_step_id, " +
+            "machine_id, status, retry_count, created_at, updated_at) VALUES (?, ?, ?, 'PENDING', 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public WorkOrderStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = Boolean.TRUE.equals(jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) con -> con.isWrapperFor(PGConnection.class)));
+        if (!postgres) {
+            // The H2 schema is built from the entities and has no migrations
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SERIAL_SEQUENCE);
+        }
+    }
+
+    /** Reserves {@code count} serial numbers; each one is handed out once. */
+    public long[] nextSerials(int count) {
+        return queryIds("SELECT nextval('" + SERIAL_SEQUENCE + "') FROM generate_series(1, ?)", count);
+    }
+
+    /**
+     * Inserts the instances of the order with one PENDING step per planned step.
+     * Must run inside a transaction.
+     */
+    public InsertedWorkOrder insert(WorkOrder order, LocalDateTime now) {
+        Timestamp at = Timestamp.valueOf(now);
+        Timestamp dueDate = order.getDueDate() != null ? Timestamp.valueOf(order.getDueDate()) : null;
+        List<String> serials = order.getSerialNumbers();
+        List<PlannedStep> steps = order.getSteps();
+        int stepCount = serials.size() * steps.size();
+
+        if (!postgres) {
+            long[] instanceIds = new long[serials.size()];
+            long[] stepIds = new long[stepCount];
+            for (int i = 0; i < instanceIds.length; i++) {
+                instanceIds[i] = insertReturningId(INSERT_INSTANCE,
+                        order.getProductId(), order.getRouteId(), order.getLocationId(), serials.get(i),
+                        order.getPriority(), dueDate, order.getNotes(), at, at);
+                for (int s = 0; s < steps.size(); s++) {
+                    PlannedStep step = steps.get(s);
+                    stepIds[i * steps.size() + s] = insertReturningId(INSERT_STEP,
+                            instanceIds[i], step.getRouteStepId(), step.getMachineId(), at, at);
+                }
+            }
+            return new InsertedWorkOrder(instanceIds, stepIds);
+        }
+
+        // Same id reservation and COPY writer as the synthetic dataset load
+        JdbcDatasetSink sink = new JdbcDatasetSink(jdbcTemplate, Integer.MAX_VALUE);
+        long[] instanceIds = sink.allocateIds("product_instances", serials.size());
+        long[] stepIds = sink.allocateIds("production_steps", stepCount);
+        for (int i = 0; i < instanceIds.length; i++) {
+            sink.append("product_instances", INSTANCE_COLUMNS, instanceIds[i], order.getProductId(),
+                    order.getRouteId(), order.getLocationId(), serials.get(i), "PENDING", order.getPriority(), dueDate,
+                    order.getNotes(), at, at);
+            for (int s = 0; s < steps.size(); s++) {
+                PlannedStep step = steps.get(s);
+                sink.append("production_steps", STEP_COLUMNS, stepIds[i * steps.size() + s], instanceIds[i],
+                        step.getRouteStepId(), step.getMachineId(), "PENDING", 0, at, at);
+            }
+        }
+        sink.flush();
+        log.info("Inserted work order of {} instances and {} steps for route {}", instanceIds.length, stepCount,
+                order.getRouteId());
+        return new InsertedWorkOrder(instanceIds, stepIds);
+    }
+
+    private long[] queryIds(String sql, int count) {
+        return jdbcTemplate.queryForList(sql, Long.class, count).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long insertReturningId(String sql, Object... args) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(con -> {
+            PreparedStatement statement = con.prepareStatement(sql, new String[] { "id" });
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+        return keyHolder.getKeyAs(Long.class);
+    }
+
+    /** Ids of the inserted rows; step ids are grouped per instance in planned step order. */
+    @Getter
+    @AllArgsConstructor
+    public static class InsertedWorkOrder {
+        private final long[] instanceIds;
+        private final long[] stepIds;
+    }
+}
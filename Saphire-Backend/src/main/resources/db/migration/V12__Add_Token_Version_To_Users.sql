@@ -0,0 +1,2 @@
+-- Add token version to users so issued JWTs can be revoked without a per-request user lookup
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
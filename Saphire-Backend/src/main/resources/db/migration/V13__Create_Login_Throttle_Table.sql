@@ -0,0 +1,10 @@
+-- Failed login counters shared between application nodes.
+-- Each node flushes its local deltas per time bucket and reads back the totals.
+CREATE TABLE login_throttle (
+    throttle_key VARCHAR(150) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    failures INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (throttle_key, bucket_start)
+);
+
+CREATE INDEX idx_login_throttle_bucket ON login_throttle(bucket_start);
@@ -0,0 +1,9 @@
+-- Repeated errors are aggregated into a single row per fingerprint and window
+ALTER TABLE system_error_logs ADD COLUMN fingerprint VARCHAR(64);
+ALTER TABLE system_error_logs ADD COLUMN occurrences INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE system_error_logs ADD COLUMN first_seen TIMESTAMP;
+ALTER TABLE system_error_logs ADD COLUMN last_seen TIMESTAMP;
+
+UPDATE system_error_logs SET first_seen = timestamp, last_seen = timestamp;
+
+CREATE INDEX idx_system_error_logs_fingerprint ON system_error_logs(fingerprint, first_seen);
@@ -0,0 +1,16 @@
+-- Keyset pagination orders by (timestamp, id)
+DROP INDEX IF EXISTS idx_system_error_logs_timestamp;
+CREATE INDEX idx_system_error_logs_timestamp ON system_error_logs(timestamp, id);
+
+-- Hourly error counts for the admin console, maintained by the error log writer
+CREATE TABLE system_error_log_hourly (
+    hour_start TIMESTAMP NOT NULL,
+    source_class VARCHAR(255) NOT NULL,
+    occurrences BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (hour_start, source_class)
+);
+
+INSERT INTO system_error_log_hourly (hour_start, source_class, occurrences)
+SELECT date_trunc('hour', timestamp), COALESCE(source_class, ''), SUM(occurrences)
+FROM system_error_logs
+GROUP BY date_trunc('hour', timestamp), COALESCE(source_class, '');
@@ -0,0 +1,63 @@
+-- V16__Align_Route_And_Production_Step_Columns.sql
+-- Route step, route step machine and production step tables drifted from their
+-- entities (V1 column names were never updated). Guarded so databases patched
+-- by hand or by hibernate ddl-auto are left as they are.
+
+DO $$
+BEGIN
+    -- product_route_steps
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name='product_route_steps' AND column_name='name')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_name='product_route_steps' AND column_name='step_name') THEN
+        ALTER TABLE product_route_steps RENAME COLUMN name TO step_name;
+    END IF;
+
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name='product_route_steps' AND column_name='estimated_duration_minutes')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_name='product_route_steps' AND column_name='estimated_cycle_minutes') THEN
+        ALTER TABLE product_route_steps RENAME COLUMN estimated_duration_minutes TO estimated_cycle_minutes;
+    END IF;
+
+    -- route_step_machines
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name='route_step_machines' AND column_name='priority')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_name='route_step_machines' AND column_name='preference_order') THEN
+        ALTER TABLE route_step_machines RENAME COLUMN priority TO preference_order;
+    END IF;
+
+    -- production_steps
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name='production_steps' AND column_name='completed_at')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                       WHERE table_name='production_steps' AND column_name='finished_at') THEN
+        ALTER TABLE production_steps RENAME COLUMN completed_at TO finished_at;
+    END IF;
+END $$;
+
+ALTER TABLE product_route_steps ADD COLUMN IF NOT EXISTS step_type VARCHAR(20) DEFAULT 'SERIAL';
+ALTER TABLE product_route_steps ADD COLUMN IF NOT EXISTS estimated_setup_minutes INTEGER DEFAULT 0;
+ALTER TABLE product_route_steps ADD COLUMN IF NOT EXISTS estimated_cycle_minutes INTEGER DEFAULT 0;
+
+ALTER TABLE route_step_machines ADD COLUMN IF NOT EXISTS preference_order INTEGER DEFAULT 1;
+ALTER TABLE route_step_machines ADD COLUMN IF NOT EXISTS qc_template_id BIGINT REFERENCES qc_form_templates(id);
+ALTER TABLE route_step_machines ADD COLUMN IF NOT EXISTS notes TEXT;
+ALTER TABLE route_step_machines ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP DEFAULT NOW();
+
+ALTER TABLE production_steps ADD COLUMN IF NOT EXISTS finished_at TIMESTAMP;
+ALTER TABLE production_steps ADD COLUMN IF NOT EXISTS retry_count INTEGER DEFAULT 0;
+ALTER TABLE production_steps ADD COLUMN IF NOT EXISTS failure_reason TEXT;
+ALTER TABLE production_steps ADD COLUMN IF NOT EXISTS corrective_action TEXT;
+
+-- machine_status.current_step_id is mapped to a production step, not a route step
+ALTER TABLE machine_status DROP CONSTRAINT IF EXISTS fk_machine_status_step;
+-- Ids written under the old mapping pointed at route steps; those without a matching
+-- production step would fail the new constraint, so they are cleared
+UPDATE machine_status SET current_step_id = NULL
+WHERE current_step_id IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM production_steps ps WHERE ps.id = machine_status.current_step_id);
+ALTER TABLE machine_status
+    ADD CONSTRAINT fk_machine_status_step
+    FOREIGN KEY (current_step_id) REFERENCES production_steps(id);
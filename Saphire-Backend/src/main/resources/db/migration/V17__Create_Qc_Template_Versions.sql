@@ -0,0 +1,15 @@
+-- V17__Create_Qc_Template_Versions.sql
+-- Published template versions are immutable snapshots of the rendered template.
+-- Records remember the version they were filled against; records created
+-- before versioning keep a NULL version.
+
+CREATE TABLE IF NOT EXISTS qc_form_template_versions (
+    id BIGSERIAL PRIMARY KEY,
+    template_id BIGINT NOT NULL REFERENCES qc_form_templates(id),
+    version INTEGER NOT NULL,
+    content JSONB NOT NULL,
+    published_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_qc_template_versions UNIQUE (template_id, version)
+);
+
+ALTER TABLE qc_form_records ADD COLUMN IF NOT EXISTS template_version INTEGER;
@@ -0,0 +1,11 @@
+-- V18__Pool_Qc_Template_Child_Sequences.sql
+-- Header field, section and field ids are taken from their serial sequences in
+-- blocks of 50 (allocationSize on the entities), so template edits can insert
+-- rows in JDBC batches. Plain nextval() callers still get unique ids.
+
+DO $$
+BEGIN
+    EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', pg_get_serial_sequence('qc_form_header_fields', 'id'));
+    EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', pg_get_serial_sequence('qc_form_sections', 'id'));
+    EXECUTE format('ALTER SEQUENCE %s INCREMENT BY 50', pg_get_serial_sequence('qc_form_fields', 'id'));
+END $$;
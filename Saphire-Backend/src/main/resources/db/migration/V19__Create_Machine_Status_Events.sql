@@ -0,0 +1,19 @@
+-- V19__Create_Machine_Status_Events.sql
+-- Append-only log of machine state transitions reported by PLC/edge devices.
+-- Heartbeats that repeat the current state stay in memory; only changes land here,
+-- written in batches. machine_status keeps the latest state per machine.
+
+CREATE TABLE IF NOT EXISTS machine_status_events (
+    id BIGSERIAL PRIMARY KEY,
+    machine_id BIGINT NOT NULL REFERENCES machines(id),
+    previous_status VARCHAR(50),
+    status VARCHAR(50) NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    received_at TIMESTAMP NOT NULL DEFAULT NOW(),
+    source VARCHAR(100)
+);
+
+CREATE INDEX IF NOT EXISTS idx_machine_status_events_machine_time
+    ON machine_status_events (machine_id, occurred_at);
+CREATE INDEX IF NOT EXISTS idx_machine_status_events_time
+    ON machine_status_events (occurred_at);
@@ -0,0 +1,16 @@
+-- V21__Create_Machine_State_Minutes.sql
+-- Minute tier of machine state history: seconds spent in each state per machine and
+-- minute, one row per state that occurred in the minute. Filled by OeeAggregator next
+-- to the hourly tier (the state columns of oee_hourly) and purged after
+-- app.machine-status.minute-retention-days; raw machine_status_events are purged
+-- after app.machine-status.raw-retention-days.
+
+CREATE TABLE IF NOT EXISTS machine_state_minutes (
+    machine_id BIGINT NOT NULL REFERENCES machines(id),
+    minute_start TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    seconds INTEGER NOT NULL,
+    PRIMARY KEY (machine_id, minute_start, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_machine_state_minutes_minute ON machine_state_minutes (minute_start);
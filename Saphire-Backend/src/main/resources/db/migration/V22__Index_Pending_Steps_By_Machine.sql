@@ -0,0 +1,7 @@
+-- V22__Index_Pending_Steps_By_Machine.sql
+-- Step dispatch claims the next PENDING step of a machine with FOR UPDATE SKIP LOCKED.
+-- A partial index keeps that lookup to the machine's pending steps instead of its
+-- whole step history.
+
+CREATE INDEX IF NOT EXISTS idx_production_steps_pending_machine ON production_steps (machine_id, id)
+    WHERE status = 'PENDING';
@@ -0,0 +1,5 @@
+-- V23__Create_Product_Instance_Serial_Sequence.sql
+-- Generated serial numbers come from one sequence, so concurrent orders never pick
+-- the same number. A work order reserves all of its numbers with one nextval query.
+
+CREATE SEQUENCE IF NOT EXISTS product_instance_serial_seq;
@@ -0,0 +1,14 @@
+-- V24__Add_Written_At_To_Machine_Status_Events.sql
+-- OEE aggregation read status events by id, but ids are taken before commit: an
+-- event committed after a higher id had been aggregated was skipped for good.
+-- Events now carry the time they were written and are read by (written_at, id)
+-- once they are a settle window old, like completed steps and QC records.
+--
+-- Existing rows and the cursor get the same timestamp (the migration's transaction
+-- time), so the cursor's last_id still separates folded rows from the rest.
+
+ALTER TABLE machine_status_events ADD COLUMN IF NOT EXISTS written_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP;
+
+UPDATE oee_cursors SET last_time = CURRENT_TIMESTAMP WHERE source = 'STATUS_EVENTS';
+
+CREATE INDEX IF NOT EXISTS idx_machine_status_events_written ON machine_status_events (written_at, id);
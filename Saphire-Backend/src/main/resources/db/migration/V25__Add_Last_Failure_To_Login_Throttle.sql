@@ -0,0 +1,6 @@
+-- V25__Add_Last_Failure_To_Login_Throttle.sql
+-- The soft delay after repeated failed logins runs from the latest failure. Nodes
+-- only shared failure counts, so a node that learned of failures from the others
+-- had no time to delay from. Each bucket now keeps its latest failure as well.
+
+ALTER TABLE login_throttle ADD COLUMN IF NOT EXISTS last_failed_at TIMESTAMP;
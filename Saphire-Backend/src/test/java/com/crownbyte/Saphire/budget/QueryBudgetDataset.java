@@ -0,0 +1,181 @@
+package com.crownbyte.Saphire.budget;
+
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.MachineStatusEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormHeaderFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormSectionEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormValueEntity;
+import com.crownbyte.Saphire.entity.qc.TaskAssignmentEntity;
+import com.crownbyte.Saphire.entity.qc.TaskScheduleEntity;
+import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.HeaderFieldTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.OverallResultEnum;
+import com.crownbyte.Saphire.entity.qc.enums.RecordStatusEnum;
+import com.crownbyte.Saphire.entity.qc.enums.TaskAssignmentTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.ValueResultEnum;
+import jakarta.persistence.EntityManager;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Small but shaped-like-production dataset for the query budget tests. Sizes are
+ * chosen so that any per-row query multiplies the statement count well past the
+ * budgets. Deterministic: the same seed always produces the same rows.
+ */
+@Getter
+public class QueryBudgetDataset {
+
+    public static final int LOCATIONS = 2;
+    public static final int MACHINES_PER_LOCATION = 10;
+    public static final int OPERATORS = 5;
+    public static final int TEMPLATES = 3;
+    public static final int SECTIONS_PER_TEMPLATE = 4;
+    public static final int FIELDS_PER_SECTION = 5;
+    public static final int RECORDS = 60;
+    public static final int ASSIGNMENTS = 12;
+
+    private final List<MachineEntity> machines = new ArrayList<>();
+    private final List<UserEntity> operators = new ArrayList<>();
+    private final List<QcFormTemplateEntity> templates = new ArrayList<>();
+    private final List<MachineStatusEntity> statuses = new ArrayList<>();
+
+    public static QueryBudgetDataset seed(EntityManager em, long seed) {
+        QueryBudgetDataset dataset = new QueryBudgetDataset();
+        dataset.populate(em, new Random(seed));
+        em.flush();
+        em.clear();
+        return dataset;
+    }
+
+    private void populate(EntityManager em, Random random) {
+        CompanyEntity company = CompanyEntity.builder().name("Budget Plant").code("BUDGET").build();
+        em.persist(company);
+
+        for (int l = 0; l < LOCATIONS; l++) {
+            LocationEntity location = LocationEntity.builder()
+                    .company(company).name("Hall " + l).code("H" + l).build();
+            em.persist(location);
+            for (int m = 0; m < MACHINES_PER_LOCATION; m++) {
+                MachineEntity machine = MachineEntity.builder()
+                        .location(location).code("M" + l + "-" + m).name("Machine " + l + "-" + m).type("CNC").build();
+                em.persist(machine);
+                MachineStatusEntity status = MachineStatusEntity.builder()
+                        .machine(machine)
+                        .currentStatus(MachineStatusEnum.values()[random.nextInt(MachineStatusEnum.values().length)])
+                        .statusSince(LocalDateTime.now().minusMinutes(random.nextInt(600)))
+                        .build();
+                em.persist(status);
+                statuses.add(status);
+                machines.add(machine);
+            }
+        }
+
+        for (int u = 0; u < OPERATORS; u++) {
+            UserEntity operator = UserEntity.builder()
+                    .username("operator" + u).email("operator" + u + "@budget.test").fullName("Operator " + u)
+                    .hashedPassword("x").role(UserRoleEnum.OPERATOR).build();
+            for (int m = u; m < machines.size(); m += OPERATORS) {
+                operator.getMachines().add(machines.get(m));
+            }
+            em.persist(operator);
+            operators.add(operator);
+        }
+        // Half of the machines are being run by someone, so status mapping has operators to name
+        for (int m = 0; m < statuses.size(); m += 2) {
+            statuses.get(m).setCurrentOperator(operators.get(m % OPERATORS));
+        }
+
+        for (int t = 0; t < TEMPLATES; t++) {
+            templates.add(createTemplate(em, company, t));
+        }
+
+        for (int r = 0; r < RECORDS; r++) {
+            QcFormTemplateEntity template = templates.get(r % TEMPLATES);
+            QcFormRecordEntity record = QcFormRecordEntity.builder()
+                    .template(template)
+                    .machine(machines.get(random.nextInt(machines.size())))
+                    .filledBy(operators.get(r % OPERATORS))
+                    .headerData(Map.of("shift", "A", "lot", "L" + r))
+                    .status(RecordStatusEnum.SUBMITTED)
+                    .overallResult(random.nextInt(10) == 0 ? OverallResultEnum.FAIL : OverallResultEnum.PASS)
+                    .submittedAt(LocalDateTime.now().minusHours(r))
+                    .createdAt(LocalDateTime.now().minusHours(r))
+                    .build();
+            for (QcFormSectionEntity section : template.getSections()) {
+                for (QcFormFieldEntity field : section.getFields()) {
+                    record.getValues().add(QcFormValueEntity.builder()
+                            .record(record)
+                            .field(field)
+                            .valueNumber(BigDecimal.valueOf(9 + random.nextDouble() * 2))
+                            .result(ValueResultEnum.PASS)
+                            .build());
+                }
+            }
+            em.persist(record);
+        }
+
+        for (int a = 0; a < ASSIGNMENTS; a++) {
+            TaskAssignmentEntity assignment = TaskAssignmentEntity.builder()
+                    .template(templates.get(a % TEMPLATES))
+                    .type(TaskAssignmentTypeEnum.RECURRING)
+                    .machineId(machines.get(a % machines.size()).getId())
+                    .build();
+            assignment.getAssignedUsers().add(operators.get(0));
+            for (int day = 1; day <= 7; day++) {
+                assignment.getSchedules().add(TaskScheduleEntity.builder()
+                        .assignment(assignment)
+                        .dayOfWeek(day)
+                        .startTime(LocalTime.MIN)
+                        .endTime(LocalTime.of(23, 59))
+                        .build());
+            }
+            em.persist(assignment);
+        }
+    }
+
+    private QcFormTemplateEntity createTemplate(EntityManager em, CompanyEntity company, int index) {
+        QcFormTemplateEntity template = QcFormTemplateEntity.builder()
+                .company(company)
+                .code("TPL-" + index)
+                .name("Template " + index)
+                .contextType(ContextTypeEnum.MACHINE)
+                .build();
+        template.getMachines().addAll(machines.subList(0, machines.size() / 2));
+
+        for (int h = 0; h < 3; h++) {
+            template.getHeaderFields().add(QcFormHeaderFieldEntity.builder()
+                    .template(template).fieldOrder(h).fieldKey("h" + h).label("Header " + h)
+                    .fieldType(HeaderFieldTypeEnum.TEXT).build());
+        }
+        for (int s = 0; s < SECTIONS_PER_TEMPLATE; s++) {
+            QcFormSectionEntity section = QcFormSectionEntity.builder()
+                    .template(template).sectionOrder(s).name("Section " + s).build();
+            for (int f = 0; f < FIELDS_PER_SECTION; f++) {
+                section.getFields().add(QcFormFieldEntity.builder()
+                        .section(section).fieldOrder(f).fieldKey("s" + s + "f" + f).label("Field " + f)
+                        .inputType(InputTypeEnum.DECIMAL)
+                        .minValue(BigDecimal.valueOf(9)).maxValue(BigDecimal.valueOf(11))
+                        .build());
+            }
+            template.getSections().add(section);
+        }
+        em.persist(template);
+        return template;
+    }
+}
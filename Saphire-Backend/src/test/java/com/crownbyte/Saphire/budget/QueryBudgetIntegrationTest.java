@@ -0,0 +1,196 @@
+package com.crownbyte.Saphire.budget;
+
+import com.crownbyte.Saphire.dto.request.QcFormFieldRequest;
+import com.crownbyte.Saphire.dto.request.QcFormSectionRequest;
+import com.crownbyte.Saphire.dto.request.QcFormTemplateRequest;
+import com.crownbyte.Saphire.monitoring.SqlScope;
+import com.crownbyte.Saphire.monitoring.SqlScopeHolder;
+import com.crownbyte.Saphire.service.QcFormTemplateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement-count and latency budgets for the heaviest endpoints, run
+ * against H2 in PostgreSQL mode with {@link QueryBudgetDataset}. The dataset has
+ * far more rows than any budget allows statements, so a mapper that goes back to
+ * the database per row fails here instead of in production.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("querybudget")
+class QueryBudgetIntegrationTest {
+
+    /**
+     * Latency is taken as the best of a few runs; budgets are loose enough for a
+     * slow CI machine and only catch order-of-magnitude regressions.
+     */
+    private static final int LATENCY_RUNS = 3;
+
+    private static QueryBudgetDataset dataset;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private QcFormTemplateService templateService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        if (dataset == null) {
+            dataset = new TransactionTemplate(transactionManager)
+                    .execute(status -> QueryBudgetDataset.seed(entityManager, 42L));
+        }
+    }
+
+    @Test
+    void recordsList() throws Exception {
+        assertBudget("GET /api/v1/qc-records", get("/api/v1/qc-records"), 10, 1000);
+    }
+
+    @Test
+    void machinesList() throws Exception {
+        assertBudget("GET /api/v1/machines", get("/api/v1/machines"), 5, 1000);
+    }
+
+    @Test
+    void machinesPage() throws Exception {
+        Long locationId = dataset.getMachines().get(0).getLocation().getId();
+        assertBudget("GET /api/v1/machines/page", get("/api/v1/machines/page")
+                .param("locationId", locationId.toString())
+                .param("search", "machine")
+                .param("size", "5"), 5, 1000);
+    }
+
+    @Test
+    void templateDetail() throws Exception {
+        Long templateId = dataset.getTemplates().get(0).getId();
+        assertBudget("GET /api/v1/qc-templates/{id}", get("/api/v1/qc-templates/{id}", templateId), 10, 1000);
+    }
+
+    @Test
+    void machineTemplateSummaries() throws Exception {
+        Long machineId = dataset.getTemplates().get(0).getMachines().iterator().next().getId();
+        assertBudget("GET /api/v1/qc-templates/machine/{machineId}/summary",
+                get("/api/v1/qc-templates/machine/{machineId}/summary", machineId), 5, 1000);
+    }
+
+    @Test
+    void dashboard() throws Exception {
+        assertBudget("GET /api/v1/dashboard/data", get("/api/v1/dashboard/data"), 35, 1000);
+    }
+
+    @Test
+    void activeTasks() throws Exception {
+        Long userId = dataset.getOperators().get(0).getId();
+        assertBudget("GET /api/v1/task-assignments/active/{userId}",
+                get("/api/v1/task-assignments/active/{userId}", userId), 12, 1000);
+    }
+
+    @Test
+    void templateUpdate() throws Exception {
+        // Every run changes the limits of all 600 fields: 600 retired rows and 600 new ones
+        Long templateId = templateService.create(largeTemplate(0)).getId();
+        assertWriteBudget("PUT /api/v1/qc-templates/{id}", run -> put("/api/v1/qc-templates/{id}", templateId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json(largeTemplate(run + 1))), 80, 2000);
+    }
+
+    private QcFormTemplateRequest largeTemplate(int revision) {
+        List<QcFormSectionRequest> sections = new ArrayList<>();
+        for (int s = 0; s < 12; s++) {
+            List<QcFormFieldRequest> fields = new ArrayList<>();
+            for (int f = 0; f < 50; f++) {
+                QcFormFieldRequest field = new QcFormFieldRequest();
+                field.setFieldOrder(f);
+                field.setFieldKey("s" + s + "-f" + f);
+                field.setLabel("Field " + f);
+                field.setInputType("DECIMAL");
+                field.setMinValue(BigDecimal.ZERO);
+                field.setMaxValue(BigDecimal.valueOf(100 + revision));
+                fields.add(field);
+            }
+            QcFormSectionRequest section = new QcFormSectionRequest();
+            section.setSectionOrder(s);
+            section.setName("Section " + s);
+            section.setFields(fields);
+            sections.add(section);
+        }
+        QcFormTemplateRequest request = new QcFormTemplateRequest();
+        request.setCode("BUDGET-LARGE");
+        request.setName("Large template");
+        request.setContextType("MACHINE");
+        request.setSections(sections);
+        return request;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void assertBudget(String name, RequestBuilder request, int maxStatements, long maxMillis)
+            throws Exception {
+        assertWriteBudget(name, run -> request, maxStatements, maxMillis);
+    }
+
+    /**
+     * Variant for writes: run 0 is the warm-up, and each run gets its own
+     * request so it does real work instead of repeating a no-op.
+     */
+    private void assertWriteBudget(String name, IntFunction<RequestBuilder> requests, int maxStatements, long maxMillis)
+            throws Exception {
+        // Warm-up so class loading and first-query plan caching are not measured
+        mockMvc.perform(requests.apply(0)).andExpect(status().isOk());
+
+        long statements = Long.MAX_VALUE;
+        long bestMillis = Long.MAX_VALUE;
+        for (int i = 0; i < LATENCY_RUNS; i++) {
+            SqlScope scope = SqlScopeHolder.begin(name);
+            try {
+                mockMvc.perform(requests.apply(i + 1)).andExpect(status().isOk());
+            } finally {
+                SqlScopeHolder.end(scope);
+            }
+            statements = Math.min(statements, scope.getStatements());
+            bestMillis = Math.min(bestMillis, scope.getElapsedNanos() / 1_000_000);
+        }
+
+        String measured = String.format("%s: %d SQL statements (budget %d), %d ms (budget %d ms)",
+                name, statements, maxStatements, bestMillis, maxMillis);
+        assertTrue(statements <= maxStatements, measured);
+        assertTrue(bestMillis <= maxMillis, measured);
+    }
+}
@@ -0,0 +1,255 @@
+package com.crownbyte.Saphire.cache;
+
+import com.crownbyte.Saphire.dto.request.QcFormFieldRequest;
+import com.crownbyte.Saphire.dto.request.QcFormSectionRequest;
+import com.crownbyte.Saphire.dto.request.QcFormTemplateRequest;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormHeaderFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormSectionEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.HeaderFieldTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
+import com.crownbyte.Saphire.monitoring.SqlScope;
+import com.crownbyte.Saphire.monitoring.SqlScopeHolder;
+import com.crownbyte.Saphire.service.QcFormTemplateService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Template reads served from the second-level cache, and JPA writes visible on
+ * the next read without any manual eviction. Shares the H2 context of the
+ * query-budget tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("querybudget")
+class MasterDataCacheIntegrationTest {
+
+    private static Long templateId;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MasterDataCache masterDataCache;
+
+    @Autowired
+    private QcFormTemplateService templateService;
+
+    @BeforeEach
+    void seed() {
+        if (templateId == null) {
+            templateId = inTransaction(this::createTemplate);
+        }
+    }
+
+    @Test
+    void templateDetail_ShouldNotHitTheDatabaseOnceCached() throws Exception {
+        getTemplate();
+
+        long statements = statementsFor(this::getTemplate);
+
+        assertEquals(0, statements, "cached template detail ran SQL");
+        assertTrue(hits("qc-templates") > 0);
+        assertTrue(hits("master-data") > 0);
+    }
+
+    @Test
+    void jpaWrites_ShouldBeVisibleOnNextRead() throws Exception {
+        getTemplate();
+
+        inTransaction(() -> {
+            QcFormTemplateEntity template = entityManager.find(QcFormTemplateEntity.class, templateId);
+            template.setName("Renamed " + System.nanoTime());
+            QcFormSectionEntity section = template.getSections().get(0);
+            section.getFields().add(field(section, section.getFields().size()));
+            return null;
+        });
+
+        QcFormTemplateEntity stored = inTransaction(() -> {
+            QcFormTemplateEntity template = entityManager.find(QcFormTemplateEntity.class, templateId);
+            template.getSections().get(0).getFields().size();
+            return template;
+        });
+        getTemplate()
+                .andExpect(jsonPath("$.data.name").value(stored.getName()))
+                .andExpect(jsonPath("$.data.sections[0].fields", hasSize(stored.getSections().get(0).getFields().size())));
+    }
+
+    @Test
+    void evictAll_ShouldSendNextReadToTheDatabase() throws Exception {
+        getTemplate();
+
+        masterDataCache.evictAll();
+
+        assertTrue(statementsFor(this::getTemplate) > 0);
+    }
+
+    @Test
+    void publishedVersion_ShouldStayUnchangedAndBeServedFromCache() throws Exception {
+        Long id = templateService.create(versionedTemplate("VER-TPL", "10")).getId();
+        templateService.update(id, versionedTemplate("VER-TPL", "12"));
+
+        getVersion(id, 1);
+        assertEquals(0, statementsFor(() -> getVersion(id, 1)
+                .andExpect(header().string("Cache-Control", containsString("immutable")))
+                .andExpect(jsonPath("$.data.version").value(1))
+                .andExpect(jsonPath("$.data.sections[0].fields[0].maxValue").value(10))));
+        getVersion(id, 2)
+                .andExpect(jsonPath("$.data.sections[0].fields[0].maxValue").value(12));
+        mockMvc.perform(get("/api/v1/qc-templates/{id}/versions/{version}", id, 3))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void summaryCounts_ShouldFollowTemplateUpdates() throws Exception {
+        QcFormTemplateRequest request = versionedTemplate("SUMMARY-TPL", "10");
+        Long id = templateService.create(request).getId();
+        getSummary().andExpect(jsonPath("$.data[0].fieldCount").value(1));
+
+        QcFormFieldRequest second = new QcFormFieldRequest();
+        second.setFieldOrder(1);
+        second.setFieldKey("length");
+        second.setLabel("Length");
+        second.setInputType("DECIMAL");
+        request.getSections().get(0).setFields(List.of(request.getSections().get(0).getFields().get(0), second));
+        templateService.update(id, request);
+
+        getSummary()
+                .andExpect(jsonPath("$.data[0].sectionCount").value(1))
+                .andExpect(jsonPath("$.data[0].fieldCount").value(2))
+                .andExpect(jsonPath("$.data[0].sections").doesNotExist());
+    }
+
+    private ResultActions getSummary() throws Exception {
+        return mockMvc.perform(get("/api/v1/qc-templates/summary").param("search", "SUMMARY-TPL"))
+                .andExpect(status().isOk());
+    }
+
+    private ResultActions getVersion(Long id, int version) throws Exception {
+        return mockMvc.perform(get("/api/v1/qc-templates/{id}/versions/{version}", id, version))
+                .andExpect(status().isOk());
+    }
+
+    private static QcFormTemplateRequest versionedTemplate(String code, String max) {
+        QcFormFieldRequest field = new QcFormFieldRequest();
+        field.setFieldOrder(0);
+        field.setFieldKey("diameter");
+        field.setLabel("Diameter");
+        field.setInputType("DECIMAL");
+        field.setMaxValue(new BigDecimal(max));
+        QcFormSectionRequest section = new QcFormSectionRequest();
+        section.setSectionOrder(0);
+        section.setName("Dimensions");
+        section.setFields(List.of(field));
+        QcFormTemplateRequest request = new QcFormTemplateRequest();
+        request.setCode(code);
+        request.setName("Versioned template");
+        request.setContextType("MACHINE");
+        request.setSections(List.of(section));
+        return request;
+    }
+
+    private ResultActions getTemplate() throws Exception {
+        return mockMvc.perform(get("/api/v1/qc-templates/{id}", templateId)).andExpect(status().isOk());
+    }
+
+    private long statementsFor(ThrowingRunnable request) throws Exception {
+        SqlScope scope = SqlScopeHolder.begin("cache-test");
+        try {
+            request.run();
+        } finally {
+            SqlScopeHolder.end(scope);
+        }
+        return scope.getStatements();
+    }
+
+    private long hits(String region) {
+        return masterDataCache.regions().stream()
+                .filter(snapshot -> snapshot.getRegion().equals(region))
+                .mapToLong(MasterDataCache.RegionSnapshot::getHits)
+                .sum();
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    private Long createTemplate() {
+        CompanyEntity company = CompanyEntity.builder().name("Cache Plant").code("CACHE").build();
+        entityManager.persist(company);
+        LocationEntity location = LocationEntity.builder().company(company).name("Hall").code("CH").build();
+        entityManager.persist(location);
+
+        QcFormTemplateEntity template = QcFormTemplateEntity.builder()
+                .company(company)
+                .code("CACHE-TPL")
+                .name("Cached template")
+                .contextType(ContextTypeEnum.MACHINE)
+                .build();
+        for (int m = 0; m < 2; m++) {
+            MachineEntity machine = MachineEntity.builder()
+                    .location(location).code("CM" + m).name("Cache machine " + m).build();
+            entityManager.persist(machine);
+            template.getMachines().add(machine);
+        }
+        template.getHeaderFields().add(QcFormHeaderFieldEntity.builder()
+                .template(template).fieldOrder(0).fieldKey("lot").label("Lot")
+                .fieldType(HeaderFieldTypeEnum.TEXT).build());
+        for (int s = 0; s < 2; s++) {
+            QcFormSectionEntity section = QcFormSectionEntity.builder()
+                    .template(template).sectionOrder(s).name("Section " + s).build();
+            for (int f = 0; f < 3; f++) {
+                section.getFields().add(field(section, f));
+            }
+            template.getSections().add(section);
+        }
+        entityManager.persist(template);
+        return template.getId();
+    }
+
+    private static QcFormFieldEntity field(QcFormSectionEntity section, int order) {
+        return QcFormFieldEntity.builder()
+                .section(section).fieldOrder(order).fieldKey(section.getName() + "-f" + order).label("Field " + order)
+                .inputType(InputTypeEnum.DECIMAL)
+                .minValue(BigDecimal.valueOf(9)).maxValue(BigDecimal.valueOf(11))
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,91 @@
+package com.crownbyte.Saphire.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.autoconfigure.web.embedded.TomcatWebServerFactoryCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The client IP seen by the login throttle and the error log, with the server settings
+ * of application.yaml on a real Tomcat. Requests come from 127.0.0.1 and claim another
+ * address in X-Forwarded-For.
+ */
+class ForwardedHeadersTest {
+
+    private static final String SPOOFED = "203.0.113.7";
+
+    @Test
+    void remoteAddr_ShouldIgnoreForwardedFor_ByDefault() throws Exception {
+        assertEquals("127.0.0.1", remoteAddrSeenWith(Map.of()));
+    }
+
+    @Test
+    void remoteAddr_ShouldIgnoreForwardedFor_WhenNoProxyIsTrusted() throws Exception {
+        assertEquals("127.0.0.1", remoteAddrSeenWith(Map.of("server.forward-headers-strategy", "native")));
+    }
+
+    @Test
+    void remoteAddr_ShouldIgnoreForwardedFor_FromAPeerThatIsNotTheProxy() throws Exception {
+        assertEquals("127.0.0.1", remoteAddrSeenWith(Map.of(
+                "server.forward-headers-strategy", "native",
+                "TRUSTED_PROXIES", "10\\.0\\.0\\.5")));
+    }
+
+    @Test
+    void remoteAddr_ShouldUseForwardedFor_FromTheTrustedProxy() throws Exception {
+        assertEquals(SPOOFED, remoteAddrSeenWith(Map.of(
+                "server.forward-headers-strategy", "native",
+                "TRUSTED_PROXIES", "127\\.0\\.0\\.1")));
+    }
+
+    private static String remoteAddrSeenWith(Map<String, Object> overrides) throws Exception {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new MapPropertySource("overrides", overrides));
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yaml"))
+                .forEach(environment.getPropertySources()::addLast);
+        ServerProperties serverProperties = Binder.get(environment)
+                .bind("server", Bindable.ofInstance(new ServerProperties()))
+                .orElseThrow(IllegalStateException::new);
+
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        new TomcatWebServerFactoryCustomizer(environment, serverProperties).customize(factory);
+        factory.setPort(0);
+        WebServer server = factory.getWebServer(servletContext -> servletContext
+                .addServlet("remote-addr", new HttpServlet() {
+                    @Override
+                    protected void doGet(HttpServletRequest request, HttpServletResponse response)
+                            throws IOException {
+                        response.getWriter().write(request.getRemoteAddr());
+                    }
+                })
+                .addMapping("/"));
+        server.start();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/"))
+                    .header("X-Forwarded-For", SPOOFED)
+                    .build();
+            return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+        } finally {
+            server.stop();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.crownbyte.Saphire.dto.request.LoginRequest;
 import com.crownbyte.Saphire.dto.response.UserResponse;
 import com.crownbyte.Saphire.security.JwtAuthenticationFilter;
 import com.crownbyte.Saphire.security.JwtService;
+import com.crownbyte.Saphire.security.LoginAttemptGuard;
 import com.crownbyte.Saphire.service.SystemErrorLogService;
 import com.crownbyte.Saphire.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,9 +22,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -55,6 +60,9 @@ class AuthControllerIntegrationTest {
         @MockitoBean
         private UserDetailsService userDetailsService;
 
+        @MockitoBean
+        private LoginAttemptGuard loginAttemptGuard;
+
         @Test
         void login_ShouldReturnToken() throws Exception {
                 LoginRequest request = new LoginRequest();
@@ -75,4 +83,21 @@ class AuthControllerIntegrationTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.data.token").value("mock-token"));
         }
+
+        @Test
+        void login_ShouldRejectBeforeAuthenticating_WhenThrottled() throws Exception {
+                LoginRequest request = new LoginRequest();
+                request.setUsername("test");
+                request.setPassword("password");
+
+                when(loginAttemptGuard.retryAfterSeconds(anyString(), anyString())).thenReturn(30L);
+
+                mockMvc.perform(post("/api/v1/auth/login")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                                .andExpect(status().isTooManyRequests())
+                                .andExpect(header().string("Retry-After", "30"));
+
+                verify(authenticationManager, never()).authenticate(any());
+        }
 }
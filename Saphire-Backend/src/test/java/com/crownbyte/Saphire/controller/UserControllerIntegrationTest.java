@@ -8,14 +8,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,4 +58,17 @@ class UserControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data[0].username").value("test"));
     }
+
+    @Test
+    void createAll_ShouldValidateEveryUser() throws Exception {
+        String body = "[{\"username\":\"op1\",\"email\":\"op1@example.com\",\"fullName\":\"Op One\"," +
+                "\"password\":\"secret\",\"role\":\"OPERATOR\"}," +
+                "{\"username\":\"\",\"email\":\"not-an-email\",\"fullName\":\"Op Two\"," +
+                "\"password\":\"secret\",\"role\":\"OPERATOR\"}]";
+
+        mockMvc.perform(post("/api/v1/users/bulk").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false));
+        verify(userService, never()).createAll(any());
+    }
 }
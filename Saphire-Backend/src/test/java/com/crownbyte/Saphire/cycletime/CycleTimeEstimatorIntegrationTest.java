@@ -0,0 +1,181 @@
+package com.crownbyte.Saphire.cycletime;
+
+import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.dto.response.RouteStepCycleTimeResponse;
+import com.crownbyte.Saphire.dto.response.ScheduledStepResponse;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.ProductEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.service.CycleTimeService;
+import com.crownbyte.Saphire.service.DispatchService;
+import com.crownbyte.Saphire.service.ProductInstanceService;
+import com.crownbyte.Saphire.service.ScheduleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cycle times are learned from completed steps, follow steps finished through
+ * dispatch, and replace the entered estimate in the plan and in claim ETAs once there
+ * are enough samples. Shares the H2 context of the query-budget tests.
+ */
+@SpringBootTest
+@ActiveProfiles("querybudget")
+class CycleTimeEstimatorIntegrationTest {
+
+    /** Minutes per completed step, oldest first; the first two ran on the spare mill. */
+    private static final int[] HISTORY = { 30, 30, 10, 11, 12, 12, 13, 90 };
+
+    @Autowired
+    private CycleTimeEstimator cycleTimes;
+
+    @Autowired
+    private CycleTimeService cycleTimeService;
+
+    @Autowired
+    private CapacityPlanner planner;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private ProductInstanceService productInstanceService;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void cycleTimes_ShouldBeLearnedFromCompletedStepsAndUsedForPlanning() {
+        long[] ids = new long[7];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CompanyEntity company = CompanyEntity.builder().name("Cycle Plant").code("CYC").build();
+            entityManager.persist(company);
+            LocationEntity location = LocationEntity.builder().company(company).name("Line").code("CY-LN").build();
+            entityManager.persist(location);
+            MachineEntity mill = MachineEntity.builder().location(location).code("CY-M1").name("Mill").build();
+            entityManager.persist(mill);
+            MachineEntity spare = MachineEntity.builder().location(location).code("CY-M2").name("Spare mill")
+                    .build();
+            entityManager.persist(spare);
+            UserEntity operator = UserEntity.builder().username("cycle-op").email("cycle-op@example.com")
+                    .fullName("Cycle Operator").role(UserRoleEnum.OPERATOR).build();
+            entityManager.persist(operator);
+
+            ProductEntity product = ProductEntity.builder().name("Bracket").code("CYC-BRACKET").build();
+            entityManager.persist(product);
+            ProductRouteEntity route = ProductRouteEntity.builder().product(product).name("Bracket route").build();
+            entityManager.persist(route);
+            ProductRouteStepEntity milling = ProductRouteStepEntity.builder().route(route).stepOrder(1)
+                    .stepName("Milling").estimatedSetupMinutes(15).estimatedCycleMinutes(45).build();
+            entityManager.persist(milling);
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(milling).machine(mill)
+                    .preferenceOrder(1).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(milling).machine(spare)
+                    .preferenceOrder(2).build());
+
+            ids[0] = product.getId();
+            ids[1] = route.getId();
+            ids[2] = location.getId();
+            ids[3] = mill.getId();
+            ids[4] = spare.getId();
+            ids[5] = operator.getId();
+            ids[6] = milling.getId();
+        });
+        Long millId = ids[3];
+        Long spareId = ids[4];
+        Long millingId = ids[6];
+
+        List<Long> history = new ArrayList<>();
+        for (int i = 0; i < HISTORY.length; i++) {
+            history.add(create(ids).getProductionSteps().get(0).getId());
+        }
+        LocalDateTime finishedAt = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < HISTORY.length; i++) {
+            finishedAt = finishedAt.plusMinutes(HISTORY[i]);
+            jdbcTemplate.update("UPDATE production_steps SET status = 'COMPLETED', machine_id = ?, started_at = ?, " +
+                    "finished_at = ? WHERE id = ?", i < 2 ? spareId : millId, finishedAt.minusMinutes(HISTORY[i]),
+                    finishedAt, history.get(i));
+        }
+        cycleTimes.refresh();
+
+        CycleTimeStats mill = cycleTimes.stats(millingId, millId);
+        assertEquals(6, mill.getSamples());
+        assertEquals(12 * 60, mill.getMedianSeconds());
+        assertEquals(90 * 60, mill.getP90Seconds());
+        // The 90-minute step enters the average as three times the median
+        assertEquals(17, mill.getEstimatedMinutes());
+        assertEquals(17, cycleTimes.estimateMinutes(millingId, millId));
+        // Two samples are not enough for the spare mill, which falls back to the pooled figure
+        assertNull(cycleTimes.stats(millingId, spareId).getEstimatedMinutes());
+        assertEquals(8, cycleTimes.stats(millingId, null).getSamples());
+        assertEquals(22, cycleTimes.estimateMinutes(millingId, spareId));
+
+        RouteStepCycleTimeResponse response = cycleTimeService.getRouteStepCycleTimes(millingId);
+        assertEquals(60, response.getConfiguredMinutes());
+        assertEquals(22, response.getPooled().getEstimatedMinutes());
+        assertEquals(List.of(millId, spareId), response.getMachines().stream()
+                .map(stats -> stats.getMachineId()).toList());
+        assertThrows(EntityNotFoundException.class, () -> cycleTimeService.getRouteStepCycleTimes(987654L));
+
+        // New work is planned and claimed with the learned time instead of the entered hour
+        ProductInstanceResponse next = create(ids);
+        ScheduledStepResponse planned = scheduleService.getInstanceSchedule(next.getId()).getSteps().get(0);
+        assertEquals(planned.getPlannedStart().plusMinutes(17), planned.getPlannedFinish());
+        planner.replan();
+        planned = scheduleService.getInstanceSchedule(next.getId()).getSteps().get(0);
+        assertEquals(planned.getPlannedStart().plusMinutes(17), planned.getPlannedFinish());
+
+        DispatchedStepResponse claimed = dispatchService.claimNext(millId, ids[5]).orElseThrow();
+        assertEquals(next.getId(), claimed.getProductInstanceId());
+        assertEquals(claimed.getStartedAt().plusMinutes(17), claimed.getEstimatedFinishAt());
+
+        jdbcTemplate.update("UPDATE production_steps SET started_at = ? WHERE id = ?",
+                claimed.getStartedAt().minusMinutes(12), claimed.getStepId());
+        dispatchService.finishStep(millId, claimed.getStepId(),
+                ProductionStepUpdateRequest.builder().status("COMPLETED").build());
+        assertEquals(7, cycleTimes.stats(millingId, millId).getSamples());
+        assertEquals(9, cycleTimes.stats(millingId, null).getSamples());
+        assertTrue(cycleTimes.stats(millingId, millId).getEwmaSeconds() < mill.getEwmaSeconds());
+
+        // A rebuild reads the finished step back instead of counting it twice
+        cycleTimes.refresh();
+        assertEquals(7, cycleTimes.stats(millingId, millId).getSamples());
+    }
+
+    private ProductInstanceResponse create(long[] ids) {
+        return productInstanceService.create(ProductInstanceRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(ids[2]).build());
+    }
+}
@@ -0,0 +1,71 @@
+package com.crownbyte.Saphire.cycletime;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CycleTimeWindowTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    private int minute;
+
+    @Test
+    void add_ShouldTakeNearestRankQuantilesOverTheWindowOnly() {
+        CycleTimeWindow window = new CycleTimeWindow(5, 0.2, 3, 3);
+        add(window, 900, 100, 200, 300, 400, 500);
+
+        // 900 has rolled out of the window
+        assertEquals(5, window.size());
+        assertEquals(300, window.median());
+        assertEquals(500, window.p90());
+        assertEquals(NOW.plusMinutes(5), window.lastFinishedAt());
+
+        add(window, 50, 50, 50);
+        assertEquals(50, window.median());
+        assertEquals(500, window.p90());
+    }
+
+    @Test
+    void add_ShouldClampOutliersBeforeTheyEnterTheAverage() {
+        CycleTimeWindow window = new CycleTimeWindow(10, 0.5, 3, 3);
+        add(window, 600, 600, 600);
+        assertEquals(600, window.ewma(), 1e-9);
+
+        // A step left open over a break counts as three times the median
+        add(window, 36000);
+        assertEquals(1200, window.ewma(), 1e-9);
+        assertEquals(600, window.median());
+        assertEquals(36000, window.p90());
+
+        // ...and a scan that closed it at once as a third of it
+        add(window, 1);
+        assertEquals(700, window.ewma(), 1e-9);
+    }
+
+    @Test
+    void plannedMinutes_ShouldRoundUpOnceThereAreEnoughSamples() {
+        CycleTimeWindow window = new CycleTimeWindow(10, 0.2, 3, 3);
+        add(window, 20, 20);
+        assertFalse(window.isEstimable());
+        assertNull(window.snapshot(1L, 2L).getEstimatedMinutes());
+
+        add(window, 20);
+        assertTrue(window.isEstimable());
+        assertEquals(1, window.plannedMinutes());
+        add(window, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61, 61);
+        assertEquals(2, window.plannedMinutes());
+        CycleTimeStats stats = window.snapshot(1L, 2L);
+        assertEquals(10, stats.getSamples());
+        assertEquals(61, stats.getMedianSeconds());
+        assertEquals(2, stats.getEstimatedMinutes());
+    }
+
+    private void add(CycleTimeWindow window, int... samples) {
+        for (int sample : samples) {
+            window.add(sample, NOW.plusMinutes(minute++));
+        }
+    }
+}
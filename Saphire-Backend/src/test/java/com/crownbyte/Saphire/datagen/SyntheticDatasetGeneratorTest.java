@@ -0,0 +1,174 @@
+package com.crownbyte.Saphire.datagen;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDatasetGeneratorTest {
+
+    @Test
+    void generate_ShouldBeDeterministicForSeed() {
+        RecordingSink first = generate(smallSpec(7));
+        RecordingSink second = generate(smallSpec(7));
+        RecordingSink other = generate(smallSpec(8));
+
+        assertEquals(first.tables.keySet(), second.tables.keySet());
+        first.tables.forEach((table, rows) -> assertEquals(rows, second.tables.get(table), table));
+        assertNotEquals(first.tables.get("qc_form_values"), other.tables.get("qc_form_values"));
+    }
+
+    @Test
+    void generate_ShouldFollowSpecAndWriteParentsFirst() {
+        DatasetSpec spec = smallSpec(1);
+        RecordingSink sink = generate(spec);
+
+        int machines = spec.getCompanies() * spec.getLocationsPerCompany() * spec.getMachinesPerLocation();
+        assertEquals(spec.getCompanies(), sink.count("companies"));
+        assertEquals(machines, sink.count("machines"));
+        assertEquals(machines, sink.count("machine_status"));
+        assertEquals(spec.getCompanies() * spec.getTemplatesPerCompany(), sink.count("qc_form_templates"));
+        assertEquals(spec.getCompanies() * spec.getProductsPerCompany() * spec.getInstancesPerProduct(),
+                sink.count("product_instances"));
+        assertTrue(sink.count("qc_form_records") > 0);
+        assertTrue(sink.count("qc_form_values") > sink.count("qc_form_records"));
+        assertEquals(sink.getRowCounts().get("qc_form_values"), (long) sink.count("qc_form_values"));
+
+        Set<Object> fieldIds = sink.column("qc_form_fields", "id");
+        assertTrue(fieldIds.containsAll(sink.column("qc_form_values", "field_id")));
+        assertTrue(sink.column("qc_form_records", "id").containsAll(sink.column("qc_form_values", "record_id")));
+
+        List<String> order = sink.writeOrder;
+        assertTrue(order.indexOf("companies") < order.indexOf("locations"));
+        assertTrue(order.indexOf("locations") < order.indexOf("machines"));
+        assertTrue(order.indexOf("users") < order.indexOf("user_machines"));
+        assertTrue(order.indexOf("qc_form_sections") < order.indexOf("qc_form_fields"));
+        assertTrue(order.indexOf("product_instances") < order.indexOf("production_steps"));
+    }
+
+    @Test
+    void generate_ShouldStoreResultsMatchingTheEvaluationRules() {
+        DatasetSpec spec = smallSpec(3);
+        spec.setFailRate(0.1);
+        spec.setWarningRate(0.2);
+        RecordingSink sink = generate(spec);
+
+        Map<Object, Object[]> fields = sink.rowsById("qc_form_fields");
+        String[] fieldColumns = SyntheticDatasetGenerator.FIELD_COLUMNS;
+        String[] valueColumns = SyntheticDatasetGenerator.VALUE_COLUMNS;
+        Map<String, Integer> results = new HashMap<>();
+        for (Object[] value : sink.rawRows.get("qc_form_values")) {
+            BigDecimal number = (BigDecimal) value[index(valueColumns, "value_number")];
+            if (number == null) {
+                continue;
+            }
+            Object[] field = fields.get(value[index(valueColumns, "field_id")]);
+            String expected = evaluate(number,
+                    (BigDecimal) field[index(fieldColumns, "min_value")],
+                    (BigDecimal) field[index(fieldColumns, "max_value")],
+                    (BigDecimal) field[index(fieldColumns, "target_value")],
+                    (BigDecimal) field[index(fieldColumns, "tolerance")]);
+            assertEquals(expected, value[index(valueColumns, "result")]);
+            results.merge(expected, 1, Integer::sum);
+        }
+        assertTrue(results.getOrDefault("FAIL", 0) > 0);
+        assertTrue(results.getOrDefault("WARNING", 0) > 0);
+        assertTrue(results.getOrDefault("PASS", 0) > results.get("WARNING"));
+    }
+
+    /**
+     * Same rules as QcFormRecordServiceImpl.evaluateFieldResult for numeric values.
+     */
+    private static String evaluate(BigDecimal value, BigDecimal min, BigDecimal max, BigDecimal target,
+            BigDecimal tolerance) {
+        if (value.compareTo(min) < 0 || value.compareTo(max) > 0) {
+            return "FAIL";
+        }
+        if (value.subtract(target).abs().compareTo(tolerance) > 0) {
+            return "WARNING";
+        }
+        return "PASS";
+    }
+
+    private static DatasetSpec smallSpec(long seed) {
+        DatasetSpec spec = new DatasetSpec();
+        spec.setSeed(seed);
+        spec.setEndDate(LocalDate.of(2024, 6, 30));
+        spec.setCompanies(2);
+        spec.setLocationsPerCompany(2);
+        spec.setMachinesPerLocation(5);
+        spec.setOperatorsPerLocation(3);
+        spec.setSupervisorsPerLocation(1);
+        spec.setProductsPerCompany(3);
+        spec.setInstancesPerProduct(4);
+        spec.setTemplatesPerCompany(4);
+        spec.setHistoryDays(3);
+        spec.setBatchSize(100);
+        return spec;
+    }
+
+    private static RecordingSink generate(DatasetSpec spec) {
+        RecordingSink sink = new RecordingSink(spec.getBatchSize());
+        new SyntheticDatasetGenerator(spec, sink, "{bcrypt}hash").generate();
+        return sink;
+    }
+
+    private static int index(String[] columns, String column) {
+        return Arrays.asList(columns).indexOf(column);
+    }
+
+    private static class RecordingSink extends DatasetSink {
+        private final Map<String, Long> sequences = new HashMap<>();
+        private final Map<String, String[]> columns = new HashMap<>();
+        private final Map<String, List<List<Object>>> tables = new LinkedHashMap<>();
+        private final Map<String, List<Object[]>> rawRows = new HashMap<>();
+        private final List<String> writeOrder = new ArrayList<>();
+
+        RecordingSink(int batchSize) {
+            super(batchSize);
+        }
+
+        @Override
+        public long[] allocateIds(String table, int count) {
+            long[] ids = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = sequences.merge(table, 1L, Long::sum);
+            }
+            return ids;
+        }
+
+        @Override
+        protected void writeBatch(String table, String[] columns, List<Object[]> rows) {
+            this.columns.put(table, columns);
+            if (!writeOrder.contains(table)) {
+                writeOrder.add(table);
+            }
+            List<List<Object>> stored = tables.computeIfAbsent(table, t -> new ArrayList<>());
+            rows.forEach(row -> stored.add(Arrays.asList(row)));
+            rawRows.computeIfAbsent(table, t -> new ArrayList<>()).addAll(rows);
+        }
+
+        int count(String table) {
+            return tables.getOrDefault(table, List.of()).size();
+        }
+
+        Set<Object> column(String table, String column) {
+            int index = index(columns.get(table), column);
+            return tables.get(table).stream().map(row -> row.get(index)).collect(Collectors.toSet());
+        }
+
+        Map<Object, Object[]> rowsById(String table) {
+            return rawRows.get(table).stream().collect(Collectors.toMap(row -> row[0], row -> row));
+        }
+    }
+}
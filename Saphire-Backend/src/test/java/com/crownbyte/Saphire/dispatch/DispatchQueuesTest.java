@@ -0,0 +1,115 @@
+package com.crownbyte.Saphire.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchQueuesTest {
+
+    private static final LocalDateTime DUE = LocalDateTime.of(2026, 3, 2, 12, 0);
+
+    @Mock
+    private StepDispatchStore store;
+
+    private DispatchQueues queues;
+
+    @BeforeEach
+    void setUp() {
+        queues = new DispatchQueues(store, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void queues_ShouldOrderByPriorityThenDueDate() {
+        when(store.loadQueuedSteps()).thenReturn(List.of(
+                step(1L, 10L, 100L, 1, DUE),
+                step(2L, 11L, 100L, 3, DUE.plusHours(2)),
+                step(3L, 12L, 101L, 3, DUE.plusHours(1)),
+                step(4L, 13L, 101L, null, DUE),
+                step(5L, 14L, 100L, 3, null)));
+        queues.rebuild();
+
+        assertEquals(List.of(3L, 2L, 5L, 1L, 4L), stepIds(queues.headAtLocation(1L, 10)));
+        assertEquals(5, queues.depthAtLocation(1L));
+        assertEquals(List.of(2L, 5L), stepIds(queues.headForMachine(100L, 2)));
+        assertEquals(3, queues.depthForMachine(100L));
+        assertEquals(3L, queues.nextForMachine(101L).orElseThrow().getStepId());
+        assertTrue(queues.nextAtLocation(2L).isEmpty());
+        assertEquals(0, queues.depthForMachine(999L));
+    }
+
+    @Test
+    void changes_ShouldMoveStepsBetweenQueues() {
+        when(store.loadQueuedSteps()).thenReturn(List.of(
+                step(1L, 10L, 100L, 1, DUE),
+                step(2L, 10L, 101L, 1, DUE),
+                step(3L, 11L, 100L, 2, DUE)));
+        queues.rebuild();
+
+        queues.remove(3L);
+        assertEquals(1L, queues.nextForMachine(100L).orElseThrow().getStepId());
+        assertEquals(2, queues.depthAtLocation(1L));
+
+        // Instance 10 put on hold: its steps leave both machine queues
+        when(store.loadQueuedSteps(10L)).thenReturn(List.of());
+        queues.refreshInstance(10L);
+        assertEquals(0, queues.depthAtLocation(1L));
+        assertTrue(queues.nextForMachine(101L).isEmpty());
+
+        // Reactivated with a higher priority
+        when(store.loadQueuedSteps(10L)).thenReturn(List.of(step(2L, 10L, 101L, 5, DUE)));
+        queues.refreshInstance(10L);
+        queues.putAll(List.of(step(6L, 12L, 101L, 9, DUE)));
+        assertEquals(List.of(6L, 2L), stepIds(queues.headAtLocation(1L, 10)));
+        assertEquals(2, queues.depthForMachine(101L));
+
+        queues.removeInstance(12L);
+        assertEquals(List.of(2L), stepIds(queues.headForMachine(101L, 10)));
+    }
+
+    @Test
+    void rebuild_ShouldReplayChangesMadeWhileLoading() {
+        when(store.loadQueuedSteps()).thenAnswer(invocation -> {
+            // Committed after the snapshot was read
+            queues.remove(1L);
+            queues.putAll(List.of(step(3L, 12L, 100L, 1, DUE)));
+            return List.of(step(1L, 10L, 100L, 1, DUE), step(2L, 11L, 100L, 1, DUE));
+        });
+        queues.rebuild();
+
+        assertEquals(List.of(2L, 3L), stepIds(queues.headForMachine(100L, 10)));
+        assertEquals(2, queues.depthAtLocation(1L));
+    }
+
+    @Test
+    void rebuild_ShouldKeepQueuesWhenLoadingFails() {
+        when(store.loadQueuedSteps())
+                .thenReturn(List.of(step(1L, 10L, 100L, 1, DUE)))
+                .thenThrow(new IllegalStateException("connection refused"));
+        queues.rebuild();
+        queues.rebuild();
+
+        assertEquals(1, queues.depthForMachine(100L));
+        queues.remove(1L);
+        assertEquals(0, queues.depthForMachine(100L));
+    }
+
+    private static QueuedStep step(Long stepId, Long instanceId, Long machineId, Integer priority,
+            LocalDateTime dueDate) {
+        return new QueuedStep(stepId, instanceId, "SN-" + instanceId, 1L, "Turning", machineId, 1L, priority,
+                dueDate);
+    }
+
+    private static List<Long> stepIds(List<QueuedStep> steps) {
+        return steps.stream().map(QueuedStep::getStepId).toList();
+    }
+}
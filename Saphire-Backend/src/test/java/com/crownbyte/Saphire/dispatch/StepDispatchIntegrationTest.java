@@ -0,0 +1,259 @@
+package com.crownbyte.Saphire.dispatch;
+
+import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.ProductEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.production.ProductInstanceEntity;
+import com.crownbyte.Saphire.entity.production.ProductionStepEntity;
+import com.crownbyte.Saphire.entity.production.enums.InstanceStatusEnum;
+import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
+import com.crownbyte.Saphire.entity.route.enums.StepTypeEnum;
+import com.crownbyte.Saphire.service.DispatchService;
+import com.crownbyte.Saphire.service.ProductInstanceService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Claims from many terminals at once on H2, where dispatch falls back to the
+ * per-machine queue: every pending step goes to exactly one caller, highest
+ * priority first, and held orders are skipped until released. The in-memory
+ * queues follow the claims and the status change. Later route stages are only
+ * handed out once the earlier ones have completed. Shares the H2 context of the
+ * query-budget tests.
+ */
+@SpringBootTest
+@ActiveProfiles("querybudget")
+class StepDispatchIntegrationTest {
+
+    private static final int STEPS = 40;
+    private static final int TERMINALS = 8;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private DispatchQueues dispatchQueues;
+
+    @Autowired
+    private ProductInstanceService productInstanceService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentClaims_ShouldHandEachStepToOneTerminalInPriorityOrder() throws Exception {
+        long[] ids = new long[4];
+        List<Long> heldSteps = new ArrayList<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CompanyEntity company = CompanyEntity.builder().name("Dispatch Plant").code("DISP").build();
+            entityManager.persist(company);
+            LocationEntity location = LocationEntity.builder().company(company).name("Line").code("LN").build();
+            entityManager.persist(location);
+            MachineEntity machine = MachineEntity.builder().location(location).code("DX1").name("Lathe").build();
+            entityManager.persist(machine);
+            UserEntity operator = UserEntity.builder().username("dispatch-op").email("dispatch-op@example.com")
+                    .fullName("Dispatch Operator").role(UserRoleEnum.OPERATOR).build();
+            entityManager.persist(operator);
+            ProductEntity product = ProductEntity.builder().name("Shaft").code("DISP-SHAFT").build();
+            entityManager.persist(product);
+            ProductRouteEntity route = ProductRouteEntity.builder().product(product).name("Shaft route").build();
+            entityManager.persist(route);
+            ProductRouteStepEntity routeStep = ProductRouteStepEntity.builder().route(route).stepOrder(1)
+                    .stepName("Turning").estimatedSetupMinutes(5).estimatedCycleMinutes(20).build();
+            entityManager.persist(routeStep);
+
+            LocalDateTime due = LocalDateTime.of(2026, 3, 2, 12, 0);
+            for (int i = 0; i <= STEPS; i++) {
+                boolean held = i == STEPS;
+                ProductInstanceEntity instance = ProductInstanceEntity.builder().product(product).route(route)
+                        .location(location).serialNumber("DISP-" + i)
+                        .status(held ? InstanceStatusEnum.ON_HOLD : InstanceStatusEnum.PENDING)
+                        .priority(held ? 99 : i % 5).dueDate(due.plusHours(i)).build();
+                entityManager.persist(instance);
+                ProductionStepEntity step = ProductionStepEntity.builder().productInstance(instance)
+                        .routeStep(routeStep).machine(machine).build();
+                entityManager.persist(step);
+                if (held) {
+                    heldSteps.add(step.getId());
+                    ids[3] = instance.getId();
+                }
+            }
+            ids[0] = machine.getId();
+            ids[1] = operator.getId();
+            ids[2] = location.getId();
+        });
+        Long machineId = ids[0];
+        Long operatorId = ids[1];
+        dispatchQueues.rebuild();
+        assertEquals(STEPS, dispatchQueues.depthForMachine(machineId));
+        assertEquals("DISP-4", dispatchQueues.nextAtLocation(ids[2]).orElseThrow().getSerialNumber());
+
+        // Priority first, then due date; the held order outranks everything but is skipped
+        DispatchedStepResponse first = dispatchService.claimNext(machineId, operatorId).orElseThrow();
+        assertEquals("DISP-4", first.getSerialNumber());
+        assertEquals(first.getStartedAt().plusMinutes(25), first.getEstimatedFinishAt());
+
+        List<DispatchedStepResponse> claimed = Collections.synchronizedList(new ArrayList<>(List.of(first)));
+        ExecutorService terminals = Executors.newFixedThreadPool(TERMINALS);
+        try {
+            List<Future<?>> runs = new ArrayList<>();
+            for (int t = 0; t < TERMINALS; t++) {
+                runs.add(terminals.submit(() -> {
+                    Optional<DispatchedStepResponse> step;
+                    while ((step = dispatchService.claimNext(machineId, operatorId)).isPresent()) {
+                        claimed.add(step.get());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            terminals.shutdownNow();
+        }
+
+        assertEquals(STEPS, claimed.size());
+        assertEquals(STEPS, claimed.stream().map(DispatchedStepResponse::getStepId).distinct().count());
+        assertFalse(claimed.stream().anyMatch(step -> heldSteps.contains(step.getStepId())));
+        assertEquals(STEPS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM production_steps WHERE machine_id = ? AND status = 'IN_PROGRESS' " +
+                        "AND operator_id = ? AND started_at IS NOT NULL",
+                Integer.class, machineId, operatorId));
+        assertEquals(STEPS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_instances WHERE location_id = ? AND status = 'IN_PROGRESS'",
+                Integer.class, ids[2]));
+
+        Long currentStep = jdbcTemplate.queryForObject(
+                "SELECT current_step_id FROM machine_status WHERE machine_id = ? AND current_status = 'RUNNING' " +
+                        "AND current_operator_id = ?",
+                Long.class, machineId, operatorId);
+        assertTrue(claimed.stream().anyMatch(step -> step.getStepId().equals(currentStep)));
+
+        assertTrue(dispatchService.claimNext(machineId, operatorId).isEmpty());
+        assertEquals(0, dispatchQueues.depthForMachine(machineId));
+
+        // Releasing the held order queues its step again
+        productInstanceService.updateStatus(ids[3], "PENDING");
+        assertEquals(heldSteps.get(0), dispatchQueues.nextForMachine(machineId).orElseThrow().getStepId());
+        assertEquals(heldSteps.get(0), dispatchService.claimNext(machineId, operatorId).orElseThrow().getStepId());
+        assertEquals(0, dispatchQueues.depthAtLocation(ids[2]));
+        assertThrows(EntityNotFoundException.class, () -> dispatchService.claimNext(987654L, operatorId));
+    }
+
+    @Test
+    void claim_ShouldWaitForEarlierRouteStagesToComplete() {
+        long[] ids = new long[7];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CompanyEntity company = CompanyEntity.builder().name("Stage Plant").code("STG").build();
+            entityManager.persist(company);
+            LocationEntity location = LocationEntity.builder().company(company).name("Line").code("ST-LN").build();
+            entityManager.persist(location);
+            MachineEntity lathe = MachineEntity.builder().location(location).code("ST-L1").name("Lathe").build();
+            entityManager.persist(lathe);
+            MachineEntity drill = MachineEntity.builder().location(location).code("ST-D1").name("Drill").build();
+            entityManager.persist(drill);
+            MachineEntity press = MachineEntity.builder().location(location).code("ST-P1").name("Press").build();
+            entityManager.persist(press);
+            UserEntity operator = UserEntity.builder().username("stage-op").email("stage-op@example.com")
+                    .fullName("Stage Operator").role(UserRoleEnum.OPERATOR).build();
+            entityManager.persist(operator);
+            ProductEntity product = ProductEntity.builder().name("Housing").code("STG-HOUSING").build();
+            entityManager.persist(product);
+            ProductRouteEntity route = ProductRouteEntity.builder().product(product).name("Housing route").build();
+            entityManager.persist(route);
+            // Turning and drilling run side by side, pressing after both
+            ProductRouteStepEntity turning = ProductRouteStepEntity.builder().route(route).stepOrder(1)
+                    .stepName("Turning").stepType(StepTypeEnum.PARALLEL).build();
+            entityManager.persist(turning);
+            ProductRouteStepEntity drilling = ProductRouteStepEntity.builder().route(route).stepOrder(2)
+                    .stepName("Drilling").stepType(StepTypeEnum.PARALLEL).build();
+            entityManager.persist(drilling);
+            ProductRouteStepEntity pressing = ProductRouteStepEntity.builder().route(route).stepOrder(3)
+                    .stepName("Pressing").build();
+            entityManager.persist(pressing);
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(turning).machine(lathe)
+                    .preferenceOrder(1).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(drilling).machine(drill)
+                    .preferenceOrder(1).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(pressing).machine(press)
+                    .preferenceOrder(1).build());
+
+            ids[0] = product.getId();
+            ids[1] = route.getId();
+            ids[2] = location.getId();
+            ids[3] = lathe.getId();
+            ids[4] = drill.getId();
+            ids[5] = press.getId();
+            ids[6] = operator.getId();
+        });
+        Long latheId = ids[3];
+        Long drillId = ids[4];
+        Long pressId = ids[5];
+        Long operatorId = ids[6];
+
+        ProductInstanceResponse instance = productInstanceService.create(ProductInstanceRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(ids[2]).build());
+        assertEquals(2, dispatchQueues.depthAtLocation(ids[2]));
+        assertEquals(0, dispatchQueues.depthForMachine(pressId));
+        assertTrue(dispatchService.claimNext(pressId, operatorId).isEmpty());
+
+        // The parallel stage-mates are both dispatchable
+        DispatchedStepResponse drilling = dispatchService.claimNext(drillId, operatorId).orElseThrow();
+        DispatchedStepResponse turning = dispatchService.claimNext(latheId, operatorId).orElseThrow();
+        assertEquals("Drilling", drilling.getStepName());
+        assertEquals("Turning", turning.getStepName());
+
+        dispatchService.finishStep(drillId, drilling.getStepId(), completed());
+        assertTrue(dispatchService.claimNext(pressId, operatorId).isEmpty());
+        assertEquals(0, dispatchQueues.depthForMachine(pressId));
+
+        dispatchService.finishStep(latheId, turning.getStepId(), completed());
+        assertEquals(1, dispatchQueues.depthForMachine(pressId));
+        DispatchedStepResponse pressing = dispatchService.claimNext(pressId, operatorId).orElseThrow();
+        assertEquals(instance.getId(), pressing.getProductInstanceId());
+        assertEquals("Pressing", pressing.getStepName());
+        assertEquals(0, dispatchQueues.depthAtLocation(ids[2]));
+    }
+
+    private static ProductionStepUpdateRequest completed() {
+        return ProductionStepUpdateRequest.builder().status("COMPLETED").build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.crownbyte.Saphire.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares throughput and latency of a write-heavy and a read-heavy endpoint
+ * across running instances, typically one started with platform threads and one
+ * with {@code VIRTUAL_THREADS_ENABLED=true} on Java 21+.
+ * <p>
+ * Not a unit test; run it by hand against instances sharing a seeded database:
+ * <pre>
+ * mvn test-compile
+ * java -cp target/test-classes com.crownbyte.Saphire.loadtest.ExecutionModeBenchmark \
+ *     --target platform=http://localhost:8080 --target virtual=http://localhost:8081 \
+ *     --username admin --password admin123 --template-id 1 --user-id 1 \
+ *     --concurrency 200 --duration-seconds 60
+ * </pre>
+ */
+public class ExecutionModeBenchmark {
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, String> targets = new LinkedHashMap<>();
+    private String username = "admin";
+    private String password = "admin123";
+    private long templateId = 1;
+    private long userId = 1;
+    private Long machineId;
+    private int concurrency = 200;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 10;
+
+    public static void main(String[] args) throws Exception {
+        ExecutionModeBenchmark benchmark = new ExecutionModeBenchmark();
+        benchmark.parseArgs(args);
+        benchmark.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--target" -> {
+                    String[] parts = value.split("=", 2);
+                    targets.put(parts[0], parts[1]);
+                }
+                case "--username" -> username = value;
+                case "--password" -> password = value;
+                case "--template-id" -> templateId = Long.parseLong(value);
+                case "--user-id" -> userId = Long.parseLong(value);
+                case "--machine-id" -> machineId = Long.parseLong(value);
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--duration-seconds" -> durationSeconds = Integer.parseInt(value);
+                case "--warmup-seconds" -> warmupSeconds = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (targets.isEmpty()) {
+            targets.put("default", "http://localhost:8080");
+        }
+    }
+
+    private void run() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (Map.Entry<String, String> target : targets.entrySet()) {
+            String baseUrl = target.getValue();
+            String token = login(baseUrl);
+
+            Supplier<HttpRequest> createRecord = () -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/api/v1/qc-records"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("X-User-Id", String.valueOf(userId))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(recordBody()))
+                    .build();
+            Supplier<HttpRequest> dashboard = () -> HttpRequest
+                    .newBuilder(URI.create(baseUrl + "/api/v1/dashboard/data"))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+
+            rows.add(measure(target.getKey(), "POST /api/v1/qc-records", createRecord));
+            rows.add(measure(target.getKey(), "GET /api/v1/dashboard/data", dashboard));
+        }
+
+        System.out.printf("%n%-10s %-28s %10s %8s %10s %9s %9s %9s%n",
+                "mode", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        rows.forEach(System.out::println);
+    }
+
+    private String measure(String mode, String name, Supplier<HttpRequest> request) throws Exception {
+        System.out.printf("[%s] %s: warming up %ds, measuring %ds at concurrency %d%n",
+                mode, name, warmupSeconds, durationSeconds, concurrency);
+        drive(request, warmupSeconds);
+        long start = System.nanoTime();
+        LatencyRecorder result = drive(request, durationSeconds);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        return String.format("%-10s %-28s %10d %8d %10.1f %9.1f %9.1f %9.1f",
+                mode, name, result.getCount(), result.getErrors(), result.getCount() / elapsedSeconds,
+                result.percentileMillis(50), result.percentileMillis(99), result.percentileMillis(100));
+    }
+
+    private LatencyRecorder drive(Supplier<HttpRequest> request, int seconds) throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(workers.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request.get(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                recorder.recordError();
+                                continue;
+                            }
+                            recorder.record(System.nanoTime() - sent);
+                        } catch (Exception e) {
+                            recorder.recordError();
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+            List<LatencyRecorder> recorders = new ArrayList<>(concurrency);
+            for (Future<LatencyRecorder> future : futures) {
+                recorders.add(future.get());
+            }
+            return LatencyRecorder.merge(recorders);
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private String recordBody() {
+        return "{\"templateId\":" + templateId
+                + (machineId != null ? ",\"machineId\":" + machineId : "")
+                + ",\"headerData\":{\"source\":\"benchmark\"},\"values\":[]}";
+    }
+
+    private String login(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN_PATTERN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login against " + baseUrl + " failed: HTTP " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+}
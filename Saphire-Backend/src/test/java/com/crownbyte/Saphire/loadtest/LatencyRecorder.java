@@ -0,0 +1,56 @@
+package com.crownbyte.Saphire.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects request latencies from a single worker thread. Recorders from all
+ * workers are merged once the run is over, so recording needs no locking.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int size;
+    private long errors;
+
+    public void record(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+    }
+
+    public void recordError() {
+        errors++;
+    }
+
+    public long getCount() {
+        return size;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public static LatencyRecorder merge(Iterable<LatencyRecorder> recorders) {
+        LatencyRecorder merged = new LatencyRecorder();
+        for (LatencyRecorder recorder : recorders) {
+            for (int i = 0; i < recorder.size; i++) {
+                merged.record(recorder.samples[i]);
+            }
+            merged.errors += recorder.errors;
+        }
+        Arrays.sort(merged.samples, 0, merged.size);
+        return merged;
+    }
+
+    /**
+     * Percentile in milliseconds; only valid on a merged (sorted) recorder.
+     */
+    public double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return samples[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,443 @@
+package com.crownbyte.Saphire.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates a plant shift against a running instance and reports throughput and
+ * latency percentiles per endpoint.
+ * <p>
+ * Every operator logs in, then repeatedly pulls its active tasks (falling back to
+ * the templates of its machines when nothing is due), opens the template and
+ * submits a record with a value for every field and repeat. Every supervisor logs
+ * in, then repeatedly reads the submitted queue of one of its machines, approves
+ * part of it and refreshes the dashboard. Users pause for a random think time
+ * between actions; latencies recorded during the ramp-up are discarded.
+ * <p>
+ * Not a unit test; run it by hand against a database filled by the {@code datagen}
+ * profile, whose usernames are {@code <location>-op001} and {@code <location>-sv01}:
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.crownbyte.Saphire.loadtest.PlantShiftSimulation \
+ *     -Dexec.args="--base-url http://localhost:8080 --location syn-c01-l01 --location syn-c01-l02 \
+ *         --operators-per-location 12 --supervisors-per-location 2 --duration-seconds 300"
+ * </pre>
+ */
+public class PlantShiftSimulation {
+
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final List<String> locations = new ArrayList<>();
+    private String baseUrl = "http://localhost:8080";
+    private String password = "Saphire123!";
+    private int operatorsPerLocation = 12;
+    private int supervisorsPerLocation = 2;
+    private int durationSeconds = 300;
+    private int rampUpSeconds = 30;
+    private int operatorThinkMillis = 2000;
+    private int supervisorThinkMillis = 5000;
+    private int approvalsPerVisit = 5;
+    private double failRate = 0.02;
+    private long seed = 42;
+
+    private final AtomicLong recordsSubmitted = new AtomicLong();
+    private final AtomicLong recordsApproved = new AtomicLong();
+    private long measureFrom;
+    private long deadline;
+
+    public static void main(String[] args) throws Exception {
+        PlantShiftSimulation simulation = new PlantShiftSimulation();
+        simulation.parseArgs(args);
+        simulation.run();
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--base-url" -> baseUrl = value;
+                case "--location" -> locations.add(value);
+                case "--password" -> password = value;
+                case "--operators-per-location" -> operatorsPerLocation = Integer.parseInt(value);
+                case "--supervisors-per-location" -> supervisorsPerLocation = Integer.parseInt(value);
+                case "--duration-seconds" -> durationSeconds = Integer.parseInt(value);
+                case "--ramp-up-seconds" -> rampUpSeconds = Integer.parseInt(value);
+                case "--operator-think-ms" -> operatorThinkMillis = Integer.parseInt(value);
+                case "--supervisor-think-ms" -> supervisorThinkMillis = Integer.parseInt(value);
+                case "--approvals-per-visit" -> approvalsPerVisit = Integer.parseInt(value);
+                case "--fail-rate" -> failRate = Double.parseDouble(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (locations.isEmpty()) {
+            locations.add("syn-c01-l01");
+        }
+    }
+
+    private void run() throws Exception {
+        List<VirtualUser> users = new ArrayList<>();
+        for (String location : locations) {
+            for (int o = 1; o <= operatorsPerLocation; o++) {
+                users.add(new Operator(String.format("%s-op%03d", location, o)));
+            }
+            for (int s = 1; s <= supervisorsPerLocation; s++) {
+                users.add(new Supervisor(String.format("%s-sv%02d", location, s)));
+            }
+        }
+        System.out.printf("Shift against %s: %d users in %d location(s), ramp-up %ds, measuring %ds%n",
+                baseUrl, users.size(), locations.size(), rampUpSeconds, durationSeconds);
+
+        long start = System.nanoTime();
+        measureFrom = start + rampUpSeconds * 1_000_000_000L;
+        deadline = measureFrom + durationSeconds * 1_000_000_000L;
+
+        ExecutorService workers = Executors.newFixedThreadPool(users.size());
+        Map<String, List<LatencyRecorder>> byEndpoint = new TreeMap<>();
+        try {
+            Random starts = new Random(seed);
+            List<Future<Map<String, LatencyRecorder>>> futures = new ArrayList<>(users.size());
+            for (VirtualUser user : users) {
+                // Spread logins over the ramp-up instead of a thundering herd at shift start
+                long delayMillis = rampUpSeconds > 0 ? starts.nextInt(rampUpSeconds * 1000) : 0;
+                futures.add(workers.submit(() -> user.shift(delayMillis)));
+            }
+            for (Future<Map<String, LatencyRecorder>> future : futures) {
+                future.get().forEach((endpoint, recorder) ->
+                        byEndpoint.computeIfAbsent(endpoint, e -> new ArrayList<>()).add(recorder));
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        report(byEndpoint, Math.max(1, System.nanoTime() - measureFrom) / 1_000_000_000.0);
+    }
+
+    private void report(Map<String, List<LatencyRecorder>> byEndpoint, double elapsedSeconds) {
+        System.out.printf("%n%-58s %9s %7s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        List<LatencyRecorder> all = new ArrayList<>();
+        byEndpoint.forEach((endpoint, recorders) -> {
+            all.addAll(recorders);
+            System.out.println(row(endpoint, LatencyRecorder.merge(recorders), elapsedSeconds));
+        });
+        System.out.println(row("TOTAL", LatencyRecorder.merge(all), elapsedSeconds));
+        System.out.printf("%nRecords submitted during the shift: %d, approved: %d%n",
+                recordsSubmitted.get(), recordsApproved.get());
+    }
+
+    private static String row(String endpoint, LatencyRecorder result, double elapsedSeconds) {
+        return String.format("%-58s %9d %7d %8.1f %8.1f %8.1f %8.1f %8.1f",
+                endpoint, result.getCount(), result.getErrors(), result.getCount() / elapsedSeconds,
+                result.percentileMillis(50), result.percentileMillis(90), result.percentileMillis(99),
+                result.percentileMillis(100));
+    }
+
+    /**
+     * One person on the shop floor, driven by a single worker thread, so its
+     * recorders need no locking.
+     */
+    private abstract class VirtualUser {
+
+        final String username;
+        final Random random;
+        final Map<String, LatencyRecorder> recorders = new HashMap<>();
+        String token;
+        long userId;
+        List<Long> machineIds = List.of();
+
+        VirtualUser(String username) {
+            this.username = username;
+            this.random = new Random(seed ^ username.hashCode());
+        }
+
+        Map<String, LatencyRecorder> shift(long delayMillis) throws InterruptedException {
+            Thread.sleep(delayMillis);
+            if (!login()) {
+                System.err.printf("%s could not log in; leaving the shift%n", username);
+                return recorders;
+            }
+            while (System.nanoTime() < deadline) {
+                try {
+                    work();
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    // Counted as an error by call(); keep the user on the floor
+                }
+                think();
+            }
+            return recorders;
+        }
+
+        abstract void work() throws Exception;
+
+        abstract int thinkMillis();
+
+        private void think() throws InterruptedException {
+            long remainingMillis = (deadline - System.nanoTime()) / NANOS_PER_MILLI;
+            // Exponential think time: most pauses are short, a few are long
+            long pause = (long) (-Math.log(1 - random.nextDouble()) * thinkMillis());
+            Thread.sleep(Math.max(0, Math.min(pause, remainingMillis)));
+        }
+
+        private boolean login() {
+            ObjectNode body = mapper.createObjectNode().put("username", username).put("password", password);
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            JsonNode data = call("POST /api/v1/auth/login", request);
+            if (data == null) {
+                return false;
+            }
+            token = data.path("token").asText();
+            userId = data.path("user").path("id").asLong();
+            List<Long> ids = new ArrayList<>();
+            data.path("user").path("machineIds").forEach(id -> ids.add(id.asLong()));
+            machineIds = ids;
+            return true;
+        }
+
+        HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Authorization", "Bearer " + token)
+                    .header("X-User-Id", String.valueOf(userId));
+        }
+
+        HttpRequest get(String path) {
+            return request(path).GET().build();
+        }
+
+        HttpRequest post(String path, JsonNode body) {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(body != null ? HttpRequest.BodyPublishers.ofString(body.toString())
+                            : HttpRequest.BodyPublishers.noBody())
+                    .build();
+        }
+
+        /**
+         * Sends the request and returns the {@code data} node of the ApiResponse, or
+         * null on failure. Samples are kept only inside the measurement window.
+         */
+        JsonNode call(String endpoint, HttpRequest request) {
+            long sent = System.nanoTime();
+            boolean measured = sent >= measureFrom && sent < deadline;
+            LatencyRecorder recorder = recorders.computeIfAbsent(endpoint, e -> new LatencyRecorder());
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                long latency = System.nanoTime() - sent;
+                if (response.statusCode() >= 400) {
+                    if (measured) {
+                        recorder.recordError();
+                    }
+                    return null;
+                }
+                if (measured) {
+                    recorder.record(latency);
+                }
+                return mapper.readTree(response.body()).path("data");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                if (measured) {
+                    recorder.recordError();
+                }
+                return null;
+            }
+        }
+
+        <T> T pick(List<T> items) {
+            return items.get(random.nextInt(items.size()));
+        }
+    }
+
+    private class Operator extends VirtualUser {
+
+        /** Templates per machine, as an operator's tablet would keep them after the first look-up. */
+        private final Map<Long, List<Long>> machineTemplates = new HashMap<>();
+
+        Operator(String username) {
+            super(username);
+        }
+
+        @Override
+        int thinkMillis() {
+            return operatorThinkMillis;
+        }
+
+        @Override
+        void work() {
+            JsonNode tasks = call("GET /api/v1/task-assignments/active/{userId}",
+                    get("/api/v1/task-assignments/active/" + userId));
+            if (tasks == null) {
+                return;
+            }
+
+            Long templateId = null;
+            Long machineId = null;
+            if (tasks.size() > 0) {
+                JsonNode task = tasks.get(random.nextInt(tasks.size()));
+                templateId = task.path("templateId").asLong();
+                machineId = task.hasNonNull("machineId") ? task.path("machineId").asLong() : null;
+            } else if (!machineIds.isEmpty()) {
+                machineId = pick(machineIds);
+                templateId = templateFor(machineId);
+            }
+            if (templateId == null) {
+                return;
+            }
+
+            JsonNode template = call("GET /api/v1/qc-templates/{id}", get("/api/v1/qc-templates/" + templateId));
+            if (template == null) {
+                return;
+            }
+            JsonNode created = call("POST /api/v1/qc-records", post("/api/v1/qc-records",
+                    recordBody(template, machineId)));
+            if (created != null) {
+                recordsSubmitted.incrementAndGet();
+            }
+        }
+
+        private Long templateFor(long machineId) {
+            List<Long> templateIds = machineTemplates.get(machineId);
+            if (templateIds == null) {
+                JsonNode templates = call("GET /api/v1/qc-templates/machine/{machineId}",
+                        get("/api/v1/qc-templates/machine/" + machineId));
+                if (templates == null) {
+                    return null;
+                }
+                templateIds = new ArrayList<>();
+                for (JsonNode template : templates) {
+                    templateIds.add(template.path("id").asLong());
+                }
+                machineTemplates.put(machineId, templateIds);
+            }
+            return templateIds.isEmpty() ? null : pick(templateIds);
+        }
+
+        /**
+         * One value per field and repeat, mostly within tolerance, so the request
+         * carries the same number of values an operator would submit.
+         */
+        private ObjectNode recordBody(JsonNode template, Long machineId) {
+            ObjectNode body = mapper.createObjectNode();
+            body.put("templateId", template.path("id").asLong());
+            if (machineId != null) {
+                body.put("machineId", machineId);
+            }
+            ObjectNode header = body.putObject("headerData");
+            header.put("shift", "LOADTEST");
+            header.put("operator", username);
+
+            ArrayNode values = body.putArray("values");
+            for (JsonNode section : template.path("sections")) {
+                boolean repeatable = section.path("isRepeatable").asBoolean();
+                int repeats = repeatable ? Math.max(1, section.path("repeatCount").asInt(1)) : 1;
+                for (int r = 0; r < repeats; r++) {
+                    for (JsonNode field : section.path("fields")) {
+                        ObjectNode value = mapper.createObjectNode();
+                        value.put("fieldId", field.path("id").asLong());
+                        if (repeatable) {
+                            value.put("repeatIndex", r);
+                        }
+                        if (fill(value, field)) {
+                            values.add(value);
+                        }
+                    }
+                }
+            }
+            return body;
+        }
+
+        private boolean fill(ObjectNode value, JsonNode field) {
+            boolean failing = random.nextDouble() < failRate;
+            switch (field.path("inputType").asText()) {
+                case "NUMBER", "DECIMAL" -> value.put("valueNumber", measurement(field, failing));
+                case "PASS_FAIL", "BOOLEAN", "YES_NO", "VAR_YOK" -> value.put("valueBoolean", !failing);
+                case "TEXT", "TEXTAREA" -> value.put("valueText", "OK");
+                case "SELECT" -> {
+                    JsonNode options = field.path("options");
+                    value.put("valueText", options.size() > 0 ? options.get(0).asText() : "OK");
+                }
+                default -> {
+                    // Photos, signatures and dates are optional on the shop floor
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private BigDecimal measurement(JsonNode field, boolean failing) {
+            int scale = field.path("decimalPlaces").asInt(2);
+            if (!field.hasNonNull("targetValue")) {
+                return BigDecimal.valueOf(random.nextDouble() * 100).setScale(scale, RoundingMode.HALF_UP);
+            }
+            BigDecimal target = field.path("targetValue").decimalValue();
+            double tolerance = field.hasNonNull("tolerance") ? field.path("tolerance").asDouble() : 1;
+            double offset = failing ? tolerance * (2.5 + random.nextDouble())
+                    : tolerance * (random.nextDouble() * 2 - 1);
+            return target.add(BigDecimal.valueOf(failing && random.nextBoolean() ? -offset : offset))
+                    .setScale(scale, RoundingMode.DOWN);
+        }
+    }
+
+    private class Supervisor extends VirtualUser {
+
+        Supervisor(String username) {
+            super(username);
+        }
+
+        @Override
+        int thinkMillis() {
+            return supervisorThinkMillis;
+        }
+
+        @Override
+        void work() {
+            if (!machineIds.isEmpty()) {
+                long machineId = pick(machineIds);
+                JsonNode queue = call("GET /api/v1/qc-records/machine/{machineId}/status/SUBMITTED",
+                        get("/api/v1/qc-records/machine/" + machineId + "/status/SUBMITTED"));
+                if (queue != null) {
+                    int approvals = Math.min(approvalsPerVisit, queue.size());
+                    for (int i = 0; i < approvals; i++) {
+                        long recordId = queue.get(i).path("id").asLong();
+                        if (call("POST /api/v1/qc-records/{id}/approve",
+                                post("/api/v1/qc-records/" + recordId + "/approve", null)) != null) {
+                            recordsApproved.incrementAndGet();
+                        }
+                    }
+                }
+            }
+            call("GET /api/v1/dashboard/data", get("/api/v1/dashboard/data"));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.crownbyte.Saphire.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ErrorLogWriterTest {
+
+    @Mock
+    private ErrorLogStore store;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ErrorLogWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        writer = new ErrorLogWriter(store, meterRegistry, 2, 100, 300);
+    }
+
+    @Test
+    void fingerprint_ShouldIgnoreVariableParts() {
+        assertEquals(
+                ErrorFingerprint.of("com.example.Foo", "Machine not found with id: 12"),
+                ErrorFingerprint.of("com.example.Foo", "Machine not found with id: 7431"));
+        assertEquals(
+                ErrorFingerprint.of("com.example.Foo", "Duplicate key 'abc'"),
+                ErrorFingerprint.of("com.example.Foo", "Duplicate key 'xyz'"));
+        assertNotEquals(
+                ErrorFingerprint.of("com.example.Foo", "Machine not found with id: 12"),
+                ErrorFingerprint.of("com.example.Bar", "Machine not found with id: 12"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldAggregateRepeatsIntoOneRow() {
+        writer.submit("10.0.0.1", "com.example.Foo", "Timeout after 30 ms");
+        writer.submit("10.0.0.2", "com.example.Foo", "Timeout after 31 ms");
+        writer.submit("10.0.0.3", "com.example.Foo", "Timeout after 32 ms");
+
+        writer.flush();
+
+        ArgumentCaptor<List<ErrorAggregate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store).write(captor.capture(), any(LocalDateTime.class));
+        List<ErrorAggregate> written = captor.getValue();
+        assertEquals(1, written.size());
+        assertEquals(3, written.get(0).getCount());
+        assertEquals("Timeout after 30 ms", written.get(0).getDescription());
+        assertEquals("10.0.0.3", written.get(0).getIpAddress());
+    }
+
+    @Test
+    void submit_ShouldDropOldestFingerprint_WhenBufferIsFull() {
+        writer.submit("10.0.0.1", "com.example.A", "first");
+        writer.submit("10.0.0.1", "com.example.B", "second");
+        writer.submit("10.0.0.1", "com.example.C", "third");
+
+        assertEquals(2, writer.pendingCount());
+        assertEquals(1.0, meterRegistry.get("saphire.errorlog.dropped").counter().count());
+    }
+
+    @Test
+    void flush_ShouldRequeue_WhenWriteFails() {
+        writer.submit("10.0.0.1", "com.example.Foo", "boom");
+        doThrow(new RuntimeException("db down")).when(store).write(anyList(), any(LocalDateTime.class));
+
+        writer.flush();
+
+        assertEquals(1, writer.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldRequeueOnlyTheChunksThatFailed() {
+        writer = new ErrorLogWriter(store, meterRegistry, 10, 1, 300);
+        writer.submit("10.0.0.1", "com.example.A", "first");
+        writer.submit("10.0.0.1", "com.example.B", "second");
+        writer.submit("10.0.0.1", "com.example.C", "third");
+        // Chunks of one aggregate; only the second chunk fails
+        doNothing().doThrow(new RuntimeException("db down")).doNothing()
+                .when(store).write(anyList(), any(LocalDateTime.class));
+
+        writer.flush();
+        assertEquals(1, writer.pendingCount());
+
+        writer.flush();
+        ArgumentCaptor<List<ErrorAggregate>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store, times(4)).write(captor.capture(), any(LocalDateTime.class));
+        assertEquals("second", captor.getAllValues().get(3).get(0).getDescription());
+        assertEquals(0, writer.pendingCount());
+    }
+}
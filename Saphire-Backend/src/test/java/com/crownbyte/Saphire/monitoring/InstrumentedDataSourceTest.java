@@ -0,0 +1,73 @@
+package com.crownbyte.Saphire.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:instrumented;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(new InstrumentedDataSource(h2));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS machine");
+        jdbcTemplate.execute("CREATE TABLE machine (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+    }
+
+    @Test
+    void shouldCountStatementsAndRows_WithinScope() {
+        SqlScope scope = SqlScopeHolder.begin("test");
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO machine (id, name) VALUES (?, ?)",
+                    List.of(new Object[] { 1L, "A" }, new Object[] { 2L, "B" }, new Object[] { 3L, "C" }));
+            jdbcTemplate.queryForList("SELECT name FROM machine", String.class);
+        } finally {
+            SqlScopeHolder.end(scope);
+        }
+
+        assertEquals(2, scope.getStatements());
+        assertEquals(6, scope.getRows());
+        assertFalse(SqlScopeHolder.isActive());
+    }
+
+    @Test
+    void shouldIgnoreStatements_WithoutScope() {
+        SqlScope scope = SqlScopeHolder.begin("test");
+        SqlScopeHolder.end(scope);
+
+        jdbcTemplate.queryForList("SELECT name FROM machine", String.class);
+
+        assertEquals(0, scope.getStatements());
+    }
+
+    @Test
+    void registry_ShouldFlagRepeatedSelect() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        SqlHotspotRegistry registry = new SqlHotspotRegistry(meterRegistry, 3);
+
+        SqlScope scope = SqlScopeHolder.begin("MachineServiceImpl.getAll");
+        try {
+            for (long id = 1; id <= 4; id++) {
+                jdbcTemplate.queryForList("SELECT name FROM machine WHERE id = ?", String.class, id);
+            }
+        } finally {
+            SqlScopeHolder.end(scope);
+        }
+        registry.record(SqlHotspotRegistry.KIND_SERVICE, scope);
+
+        SqlHotspotRegistry.HotspotSnapshot snapshot = registry.top(1).get(0);
+        assertEquals("MachineServiceImpl.getAll", snapshot.getName());
+        assertEquals(1, snapshot.getNPlusOneCount());
+        assertEquals(4, snapshot.getWorstRepeat());
+        assertEquals(1.0, meterRegistry.get("saphire.sql.n_plus_one").counter().count());
+    }
+}
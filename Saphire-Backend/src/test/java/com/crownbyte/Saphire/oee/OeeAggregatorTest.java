@@ -0,0 +1,125 @@
+package com.crownbyte.Saphire.oee;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OeeAggregatorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 6, 0);
+    private static final OeeStore.Cursor START = new OeeStore.Cursor(null, 0);
+
+    @Mock
+    private OeeStore store;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OeeAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new OeeAggregator(store, transactionManager, new SimpleMeterRegistry(), 2, 10, 120, 36500);
+        lenient().when(store.lockCursors()).thenReturn(Map.of(
+                OeeStore.STATUS_EVENTS, START,
+                OeeStore.PRODUCTION_STEPS, START,
+                OeeStore.QC_RECORDS, START));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void aggregateBatch_ShouldSplitClosedStateIntervalsAtHourBoundaries() {
+        when(store.loadStatusEvents(START, T0.plusHours(3), 2)).thenReturn(List.of(
+                new OeeStore.StatusEvent(5, 1L, MachineStatusEnum.IDLE, T0.plusHours(2).plusMinutes(15),
+                        T0.plusHours(2).plusMinutes(16)),
+                new OeeStore.StatusEvent(6, 1L, MachineStatusEnum.RUNNING, T0.plusHours(2).plusMinutes(45),
+                        T0.plusHours(2).plusMinutes(46))));
+        when(store.loadOpenStates(anyCollection())).thenReturn(new HashMap<>(Map.of(
+                1L, new OeeStore.OpenState(1L, MachineStatusEnum.RUNNING, T0.plusMinutes(30)))));
+
+        assertTrue(aggregator.aggregateBatch(T0.plusHours(3)), "a full batch should ask for another");
+
+        List<OeeBucket> hours = capturedHours();
+        assertEquals(3, hours.size());
+        assertEquals(1800, hours.get(0).getSeconds(MachineStatusEnum.RUNNING));
+        assertEquals(3600, hours.get(1).getSeconds(MachineStatusEnum.RUNNING));
+        assertEquals(T0.plusHours(2), hours.get(2).getStart());
+        assertEquals(900, hours.get(2).getSeconds(MachineStatusEnum.RUNNING));
+        assertEquals(1800, hours.get(2).getSeconds(MachineStatusEnum.IDLE));
+
+        ArgumentCaptor<List<StateMinutes.Minute>> minutes = ArgumentCaptor.forClass(List.class);
+        verify(store).addStateMinutes(minutes.capture());
+        assertEquals(105 + 30, minutes.getValue().size(), "one row per minute and state");
+        assertEquals(T0.plusMinutes(30), minutes.getValue().get(0).getStart());
+
+        ArgumentCaptor<Collection<OeeStore.OpenState>> open = ArgumentCaptor.forClass(Collection.class);
+        verify(store).saveOpenStates(open.capture());
+        OeeStore.OpenState state = open.getValue().iterator().next();
+        assertEquals(MachineStatusEnum.RUNNING, state.getStatus());
+        assertEquals(T0.plusHours(2).plusMinutes(45), state.getSince());
+
+        ArgumentCaptor<OeeStore.Cursor> cursor = ArgumentCaptor.forClass(OeeStore.Cursor.class);
+        verify(store).saveCursor(eq(OeeStore.STATUS_EVENTS), cursor.capture());
+        assertEquals(6, cursor.getValue().getLastId());
+        assertEquals(T0.plusHours(2).plusMinutes(46), cursor.getValue().getLastTime());
+    }
+
+    @Test
+    void aggregateBatch_ShouldCombineCycleTimesAndQcResultsPerHour() {
+        LocalDateTime finished = T0.plusHours(3).plusMinutes(50);
+        when(store.loadCompletedSteps(START, T0.plusHours(4), 2)).thenReturn(List.of(
+                new OeeStore.CompletedStep(11, 1L, finished.minusMinutes(50), finished, 40)));
+        when(store.loadQcResults(START, T0.plusHours(4), 2)).thenReturn(List.of(
+                new OeeStore.QcResult(21, 1L, finished, false),
+                new OeeStore.QcResult(22, 1L, finished.plusMinutes(5), true)));
+
+        assertTrue(aggregator.aggregateBatch(T0.plusHours(4)), "the QC batch was full");
+
+        OeeBucket hour = capturedHours().get(0);
+        assertEquals(T0.plusHours(3), hour.getStart());
+        assertEquals(1, hour.getCompletedSteps());
+        assertEquals(0.8, hour.getPerformance(), 1e-9);
+        assertEquals(0.5, hour.getQuality(), 1e-9);
+        assertNull(hour.getOee(), "no state time, so no availability");
+        verify(store).saveCursor(eq(OeeStore.QC_RECORDS), argThat(c -> c.getLastId() == 22));
+        verify(store, never()).saveOpenStates(any());
+    }
+
+    @Test
+    void bucket_ShouldLeavePlannedDowntimeOutOfAvailability() {
+        OeeBucket hour = new OeeBucket(1L, T0);
+        hour.addSeconds(MachineStatusEnum.RUNNING, 1800);
+        hour.addSeconds(MachineStatusEnum.BREAKDOWN, 600);
+        hour.addSeconds(MachineStatusEnum.MAINTENANCE, 1200);
+        hour.addStep(600, 600);
+        hour.addQcRecord(false);
+
+        assertEquals(2400, hour.getPlannedSeconds());
+        assertEquals(0.75, hour.getOee(), 1e-9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OeeBucket> capturedHours() {
+        ArgumentCaptor<List<OeeBucket>> hours = ArgumentCaptor.forClass(List.class);
+        verify(store).addHours(hours.capture());
+        return new ArrayList<>(hours.getValue());
+    }
+}
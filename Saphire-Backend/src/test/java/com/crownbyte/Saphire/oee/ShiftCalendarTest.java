@@ -0,0 +1,27 @@
+package com.crownbyte.Saphire.oee;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShiftCalendarTest {
+
+    private final ShiftCalendar calendar = new ShiftCalendar("22:00, 06:00,14:00");
+
+    @Test
+    void nightShift_ShouldSpanMidnight() {
+        LocalDateTime start = calendar.shiftStart(LocalDateTime.of(2026, 3, 3, 2, 15));
+
+        assertEquals(LocalDateTime.of(2026, 3, 2, 22, 0), start);
+        assertEquals(3, calendar.shiftNumber(start));
+        assertEquals(LocalDateTime.of(2026, 3, 3, 6, 0), calendar.shiftEnd(start));
+        assertEquals(LocalDateTime.of(2026, 3, 2, 6, 0), calendar.dayStart(start));
+    }
+
+    @Test
+    void shiftStartOffTheHour_ShouldBeRejected() {
+        assertThrows(IllegalStateException.class, () -> new ShiftCalendar("06:30,14:30"));
+    }
+}
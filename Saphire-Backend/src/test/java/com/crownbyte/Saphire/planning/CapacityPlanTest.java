@@ -0,0 +1,177 @@
+package com.crownbyte.Saphire.planning;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CapacityPlanTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    @Test
+    void build_ShouldQueueStepsPerMachineAfterTheirRoutePredecessor() {
+        CapacityPlan plan = CapacityPlan.build(machines(100L, 101L), Map.of(1L, List.of(100L), 2L, List.of(101L)),
+                twoInstances(), NOW);
+
+        assertPlanned(plan, 1L, 100L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 2L, 101L, at(8, 30), at(8, 50));
+        assertPlanned(plan, 3L, 100L, at(8, 30), at(9, 0));
+        // The lathe is free at 8:50 but the instance's turning only ends at 9:00
+        assertPlanned(plan, 4L, 101L, at(9, 0), at(9, 20));
+        assertEquals(List.of(1L, 3L), stepIds(plan.machineSchedule(100L, 10)));
+        assertEquals(List.of(1L), stepIds(plan.machineSchedule(100L, 1)));
+        assertEquals(at(9, 20), plan.machineFreeAt(101L));
+        assertEquals(2, plan.machineDepth(101L));
+        assertEquals(List.of(3L, 4L), stepIds(plan.instanceSchedule(11L)));
+        assertEquals(4, plan.size());
+
+        plan.removeInstance(10L, NOW);
+        assertPlanned(plan, 3L, 100L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 4L, 101L, at(8, 30), at(8, 50));
+        assertTrue(plan.instanceSchedule(10L).isEmpty());
+    }
+
+    @Test
+    void build_ShouldRunParallelStepsSideBySide() {
+        CapacityPlan plan = CapacityPlan.build(machines(100L, 101L, 102L), Map.of(), List.of(
+                step(1L, 10L, 1, 0, 10L, 1, true, 60, 100L, null),
+                step(2L, 10L, 1, 0, 11L, 2, true, 30, 101L, null),
+                step(3L, 10L, 1, 0, 12L, 3, false, 10, 102L, null)), NOW);
+
+        assertPlanned(plan, 1L, 100L, at(8, 0), at(9, 0));
+        assertPlanned(plan, 2L, 101L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 3L, 102L, at(9, 0), at(9, 10));
+    }
+
+    @Test
+    void build_ShouldPickTheAlternativeThatFinishesFirst() {
+        CapacityPlan plan = CapacityPlan.build(machines(100L, 101L), Map.of(1L, List.of(100L, 101L)), List.of(
+                step(1L, 10L, 5, 0, 1L, 1, false, 60, 100L, at(7, 50)),
+                step(2L, 11L, 3, 0, 1L, 1, false, 30, null, null),
+                step(3L, 12L, 2, 0, 1L, 1, false, 30, null, null),
+                step(4L, 13L, 1, 0, 1L, 1, false, 30, null, null),
+                // Overdue: planned to finish now rather than in the past
+                step(5L, 14L, 1, 0, 1L, 1, false, 10, 102L, at(6, 0)),
+                // Assigned to the lathe, so it waits there although the alternate is free sooner
+                step(6L, 15L, 0, 0, 1L, 1, false, 30, 100L, null)), NOW);
+
+        assertPlanned(plan, 1L, 100L, at(7, 50), at(8, 50));
+        assertPlanned(plan, 2L, 101L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 3L, 101L, at(8, 30), at(9, 0));
+        // Back to the preferred lathe once the alternate is booked further out
+        assertPlanned(plan, 4L, 100L, at(8, 50), at(9, 20));
+        assertPlanned(plan, 5L, 102L, at(6, 0), at(8, 0));
+        assertPlanned(plan, 6L, 100L, at(9, 20), at(9, 50));
+        assertEquals(List.of(1L, 5L), stepIds(plan.runningSteps()).stream().sorted().toList());
+    }
+
+    @Test
+    void finishStep_ShouldPullLaterStepsForwardLikeAFullPlan() {
+        Map<Long, List<Long>> alternatives = Map.of(1L, List.of(100L), 2L, List.of(101L));
+        CapacityPlan plan = CapacityPlan.build(machines(100L, 101L), alternatives, twoInstances(), NOW);
+
+        plan.startStep(1L, 100L, NOW, NOW);
+        assertTrue(plan.instanceSchedule(10L).get(0).isRunning());
+        plan.finishStep(1L, at(8, 10));
+
+        assertPlanned(plan, 2L, 101L, at(8, 10), at(8, 30));
+        assertPlanned(plan, 3L, 100L, at(8, 10), at(8, 40));
+        assertPlanned(plan, 4L, 101L, at(8, 40), at(9, 0));
+
+        CapacityPlan full = CapacityPlan.build(machines(100L, 101L), alternatives,
+                twoInstances().stream().filter(step -> step.getStepId() != 1L).toList(), at(8, 10));
+        for (Long machineId : List.of(100L, 101L)) {
+            assertEquals(times(full.machineSchedule(machineId, 10)), times(plan.machineSchedule(machineId, 10)));
+        }
+    }
+
+    @Test
+    void updateMachine_ShouldMoveUnassignedWorkOffAMachineInMaintenance() {
+        // The first turning is not assigned yet; the second one is assigned to the lathe
+        List<PlanStep> steps = List.of(
+                step(1L, 10L, 2, 0, 1L, 1, false, 30, null, null),
+                step(2L, 10L, 2, 0, 2L, 2, false, 20, 101L, null),
+                step(3L, 11L, 1, 0, 1L, 1, false, 30, 100L, null),
+                step(4L, 11L, 1, 0, 2L, 2, false, 20, 101L, null));
+        CapacityPlan plan = CapacityPlan.build(
+                List.of(new MachineCapacity(100L, true, null), new MachineCapacity(101L, true, null),
+                        new MachineCapacity(102L, false, null)),
+                Map.of(1L, List.of(100L, 102L), 2L, List.of(101L)), steps, NOW);
+        assertPlanned(plan, 1L, 100L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 3L, 100L, at(8, 30), at(9, 0));
+
+        plan.updateMachine(new MachineCapacity(100L, false, null), NOW);
+        assertEquals(0, plan.machineDepth(100L));
+        assertPlanned(plan, 1L, 100L, null, null);
+        assertPlanned(plan, 4L, 101L, null, null);
+        assertNull(plan.machineFreeAt(101L));
+
+        plan.updateMachine(new MachineCapacity(102L, true, at(9, 0)), NOW);
+        assertPlanned(plan, 1L, 102L, at(9, 0), at(9, 30));
+        assertPlanned(plan, 2L, 101L, at(9, 30), at(9, 50));
+        assertPlanned(plan, 3L, 100L, null, null);
+        assertPlanned(plan, 4L, 101L, null, null);
+
+        plan.updateMachine(new MachineCapacity(100L, true, null), NOW);
+        assertPlanned(plan, 1L, 102L, at(9, 0), at(9, 30));
+        assertPlanned(plan, 3L, 100L, at(8, 0), at(8, 30));
+        assertPlanned(plan, 4L, 101L, at(9, 50), at(10, 10));
+    }
+
+    /** Two instances of a turning (30 min) then pressing (20 min) route; instance 10 goes first. */
+    private static List<PlanStep> twoInstances() {
+        return List.of(
+                step(1L, 10L, 2, 0, 1L, 1, false, 30, 100L, null),
+                step(2L, 10L, 2, 0, 2L, 2, false, 20, 101L, null),
+                step(3L, 11L, 1, 0, 1L, 1, false, 30, 100L, null),
+                step(4L, 11L, 1, 0, 2L, 2, false, 20, 101L, null));
+    }
+
+    private static PlanStep step(Long stepId, Long instanceId, int priority, int dueHours, Long routeStepId,
+            int stepOrder, boolean parallel, int minutes, Long machineId, LocalDateTime startedAt) {
+        return new PlanStep(stepId, instanceId, "SN-" + instanceId, 1L, priority, NOW.plusHours(dueHours + 4),
+                routeStepId, "Step " + stepOrder, stepOrder, parallel, minutes, machineId, startedAt);
+    }
+
+    private static List<MachineCapacity> machines(Long... ids) {
+        return Arrays.stream(ids).map(id -> new MachineCapacity(id, true, null)).toList();
+    }
+
+    private static void assertPlanned(CapacityPlan plan, Long stepId, Long machineId, LocalDateTime start,
+            LocalDateTime finish) {
+        ScheduledStep step = plan.instanceSchedule(instanceOf(plan, stepId)).stream()
+                .filter(s -> s.getStepId().equals(stepId))
+                .findFirst().orElseThrow();
+        assertEquals(machineId, step.getMachineId(), "machine of step " + stepId);
+        assertEquals(start, step.getPlannedStart(), "start of step " + stepId);
+        assertEquals(finish, step.getPlannedFinish(), "finish of step " + stepId);
+    }
+
+    private static Long instanceOf(CapacityPlan plan, Long stepId) {
+        for (long instanceId = 10; instanceId < 20; instanceId++) {
+            if (stepIds(plan.instanceSchedule(instanceId)).contains(stepId)) {
+                return instanceId;
+            }
+        }
+        throw new AssertionError("Step " + stepId + " is not planned");
+    }
+
+    private static List<Long> stepIds(List<ScheduledStep> steps) {
+        return steps.stream().map(ScheduledStep::getStepId).toList();
+    }
+
+    private static List<String> times(List<ScheduledStep> steps) {
+        return steps.stream()
+                .map(step -> step.getStepId() + "@" + step.getPlannedStart() + "-" + step.getPlannedFinish())
+                .toList();
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return NOW.withHour(hour).withMinute(minute);
+    }
+}
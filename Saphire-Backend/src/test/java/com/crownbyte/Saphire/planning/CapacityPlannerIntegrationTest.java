@@ -0,0 +1,214 @@
+package com.crownbyte.Saphire.planning;
+
+import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.ProductionStepUpdateRequest;
+import com.crownbyte.Saphire.dto.response.DispatchedStepResponse;
+import com.crownbyte.Saphire.dto.response.FinishedStepResponse;
+import com.crownbyte.Saphire.dto.response.InstanceScheduleResponse;
+import com.crownbyte.Saphire.dto.response.MachineScheduleResponse;
+import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.dto.response.QueuedStepResponse;
+import com.crownbyte.Saphire.dto.response.ScheduledStepResponse;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.ProductEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
+import com.crownbyte.Saphire.service.DispatchService;
+import com.crownbyte.Saphire.service.MachineService;
+import com.crownbyte.Saphire.service.ProductInstanceService;
+import com.crownbyte.Saphire.service.ScheduleService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The capacity plan follows new instances, claims, finished and failed steps and maintenance
+ * without a full replan, and a full replan writes the projected finish of running
+ * steps back to machine_status. Shares the H2 context of the query-budget tests.
+ */
+@SpringBootTest
+@ActiveProfiles("querybudget")
+class CapacityPlannerIntegrationTest {
+
+    @Autowired
+    private CapacityPlanner planner;
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private ProductInstanceService productInstanceService;
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    @Autowired
+    private MachineService machineService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void plan_ShouldFollowClaimsFinishesAndMaintenance() {
+        long[] ids = new long[6];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CompanyEntity company = CompanyEntity.builder().name("Plan Plant").code("PLAN").build();
+            entityManager.persist(company);
+            LocationEntity location = LocationEntity.builder().company(company).name("Line").code("PL-LN").build();
+            entityManager.persist(location);
+            MachineEntity lathe = MachineEntity.builder().location(location).code("PL-L1").name("Lathe").build();
+            entityManager.persist(lathe);
+            MachineEntity spare = MachineEntity.builder().location(location).code("PL-L2").name("Spare lathe")
+                    .maintenanceMode(true).build();
+            entityManager.persist(spare);
+            MachineEntity press = MachineEntity.builder().location(location).code("PL-P1").name("Press").build();
+            entityManager.persist(press);
+            UserEntity operator = UserEntity.builder().username("plan-op").email("plan-op@example.com")
+                    .fullName("Plan Operator").role(UserRoleEnum.OPERATOR).build();
+            entityManager.persist(operator);
+
+            ProductEntity product = ProductEntity.builder().name("Hub").code("PLAN-HUB").build();
+            entityManager.persist(product);
+            ProductRouteEntity route = ProductRouteEntity.builder().product(product).name("Hub route").build();
+            entityManager.persist(route);
+            ProductRouteStepEntity turning = ProductRouteStepEntity.builder().route(route).stepOrder(1)
+                    .stepName("Turning").estimatedSetupMinutes(5).estimatedCycleMinutes(25).build();
+            entityManager.persist(turning);
+            ProductRouteStepEntity pressing = ProductRouteStepEntity.builder().route(route).stepOrder(2)
+                    .stepName("Pressing").estimatedSetupMinutes(0).estimatedCycleMinutes(20).build();
+            entityManager.persist(pressing);
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(turning).machine(lathe)
+                    .preferenceOrder(1).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(turning).machine(spare)
+                    .preferenceOrder(2).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(pressing).machine(press)
+                    .preferenceOrder(1).build());
+
+            ids[0] = product.getId();
+            ids[1] = route.getId();
+            ids[2] = location.getId();
+            ids[3] = lathe.getId();
+            ids[4] = press.getId();
+            ids[5] = operator.getId();
+        });
+        Long latheId = ids[3];
+        Long pressId = ids[4];
+        Long operatorId = ids[5];
+        planner.replan();
+
+        ProductInstanceResponse first = productInstanceService.create(ProductInstanceRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(ids[2]).priority(5).build());
+        ProductInstanceResponse second = productInstanceService.create(ProductInstanceRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(ids[2]).priority(1).build());
+
+        List<ScheduledStepResponse> firstSteps = scheduleService.getInstanceSchedule(first.getId()).getSteps();
+        List<ScheduledStepResponse> secondSteps = scheduleService.getInstanceSchedule(second.getId()).getSteps();
+        assertEquals(List.of("Turning", "Pressing"), firstSteps.stream().map(ScheduledStepResponse::getStepName)
+                .toList());
+        assertEquals(firstSteps.get(0).getPlannedStart().plusMinutes(30), firstSteps.get(0).getPlannedFinish());
+        assertEquals(firstSteps.get(0).getPlannedFinish(), firstSteps.get(1).getPlannedStart());
+        // The second hub waits for the lathe, then for the press to finish the first one
+        assertEquals(firstSteps.get(0).getPlannedFinish(), secondSteps.get(0).getPlannedStart());
+        assertEquals(secondSteps.get(0).getPlannedFinish(), secondSteps.get(1).getPlannedStart());
+        assertEquals(secondSteps.get(1).getPlannedFinish(),
+                scheduleService.getInstanceSchedule(second.getId()).getEstimatedCompletionAt());
+        MachineScheduleResponse lathe = scheduleService.getMachineSchedule(latheId, null);
+        assertEquals(2, lathe.getDepth());
+        assertEquals(secondSteps.get(0).getPlannedFinish(), lathe.getFreeAt());
+
+        DispatchedStepResponse claimed = dispatchService.claimNext(latheId, operatorId).orElseThrow();
+        assertEquals(first.getId(), claimed.getProductInstanceId());
+        ScheduledStepResponse running = scheduleService.getMachineSchedule(latheId, 1).getSteps().get(0);
+        assertTrue(running.isRunning());
+        assertEquals(claimed.getStartedAt(), running.getPlannedStart());
+
+        FinishedStepResponse finished = dispatchService.finishStep(latheId, claimed.getStepId(),
+                ProductionStepUpdateRequest.builder().status("COMPLETED").build());
+        assertFalse(finished.isInstanceCompleted());
+        assertEquals("IDLE", jdbcTemplate.queryForObject(
+                "SELECT current_status FROM machine_status WHERE machine_id = ?", String.class, latheId));
+        InstanceScheduleResponse firstPlan = scheduleService.getInstanceSchedule(first.getId());
+        assertEquals(List.of("Pressing"), firstPlan.getSteps().stream().map(ScheduledStepResponse::getStepName)
+                .toList());
+        // Turning finished well before its planned 30 minutes, so pressing moves up
+        assertTrue(firstPlan.getSteps().get(0).getPlannedStart().isBefore(claimed.getStartedAt().plusMinutes(30)));
+        assertThrows(IllegalArgumentException.class, () -> dispatchService.finishStep(latheId,
+                claimed.getStepId(), ProductionStepUpdateRequest.builder().status("COMPLETED").build()));
+        assertThrows(IllegalArgumentException.class, () -> dispatchService.finishStep(latheId,
+                claimed.getStepId(), ProductionStepUpdateRequest.builder().status("PENDING").build()));
+        assertThrows(EntityNotFoundException.class, () -> dispatchService.finishStep(latheId, 987654L,
+                ProductionStepUpdateRequest.builder().status("FAILED").build()));
+
+        // Maintenance leaves the turning of the second hub unplanned: it is assigned to the lathe
+        machineService.setMaintenanceMode(latheId, true);
+        InstanceScheduleResponse secondPlan = scheduleService.getInstanceSchedule(second.getId());
+        assertNull(secondPlan.getSteps().get(0).getPlannedStart());
+        assertNull(secondPlan.getEstimatedCompletionAt());
+        assertEquals(0, scheduleService.getMachineSchedule(latheId, null).getDepth());
+        machineService.setMaintenanceMode(latheId, false);
+        assertNotNull(scheduleService.getInstanceSchedule(second.getId()).getEstimatedCompletionAt());
+
+        // A failed turning goes back to the lathe's queue and plan; pressing waits until it is redone
+        DispatchedStepResponse turning = dispatchService.claimNext(latheId, operatorId).orElseThrow();
+        assertEquals(second.getId(), turning.getProductInstanceId());
+        FinishedStepResponse failed = dispatchService.finishStep(latheId, turning.getStepId(),
+                ProductionStepUpdateRequest.builder().status("FAILED").failureReason("Chatter marks").build());
+        assertEquals("FAILED", failed.getStatus());
+        assertEquals(1, failed.getRetryCount());
+        assertFalse(failed.isInstanceCompleted());
+        assertEquals("PENDING", jdbcTemplate.queryForObject(
+                "SELECT status FROM production_steps WHERE id = ?", String.class, turning.getStepId()));
+        assertEquals(List.of(turning.getStepId()), dispatchService.getMachineQueue(latheId, null).getSteps()
+                .stream().map(QueuedStepResponse::getStepId).toList());
+        assertEquals(List.of(first.getId()), dispatchService.getMachineQueue(pressId, null).getSteps().stream()
+                .map(QueuedStepResponse::getProductInstanceId).toList());
+        secondPlan = scheduleService.getInstanceSchedule(second.getId());
+        assertEquals(List.of("Turning", "Pressing"), secondPlan.getSteps().stream()
+                .map(ScheduledStepResponse::getStepName).toList());
+        assertFalse(secondPlan.getSteps().get(0).isRunning());
+        assertEquals(latheId, secondPlan.getSteps().get(0).getMachineId());
+        assertEquals(secondPlan.getSteps().get(0).getPlannedFinish(), secondPlan.getSteps().get(1).getPlannedStart());
+        planner.replan();
+        assertEquals(2, scheduleService.getInstanceSchedule(second.getId()).getSteps().size());
+
+        DispatchedStepResponse retried = dispatchService.claimNext(latheId, operatorId).orElseThrow();
+        assertEquals(turning.getStepId(), retried.getStepId());
+        dispatchService.finishStep(latheId, retried.getStepId(),
+                ProductionStepUpdateRequest.builder().status("COMPLETED").build());
+        assertEquals(2, dispatchService.getMachineQueue(pressId, null).getDepth());
+
+        // A full replan restores the projected finish of the running press step
+        DispatchedStepResponse pressing = dispatchService.claimNext(pressId, operatorId).orElseThrow();
+        jdbcTemplate.update("UPDATE machine_status SET estimated_finish_at = NULL WHERE machine_id = ?", pressId);
+        planner.replan();
+        assertEquals(pressing.getStartedAt().plusMinutes(20), jdbcTemplate.queryForObject(
+                "SELECT estimated_finish_at FROM machine_status WHERE machine_id = ?", LocalDateTime.class, pressId));
+
+        dispatchService.finishStep(pressId, pressing.getStepId(),
+                ProductionStepUpdateRequest.builder().status("COMPLETED").build());
+        assertThrows(EntityNotFoundException.class, () -> scheduleService.getInstanceSchedule(first.getId()));
+        assertThrows(IllegalArgumentException.class, () -> scheduleService.getMachineSchedule(pressId, 0));
+    }
+}
@@ -0,0 +1,52 @@
+package com.crownbyte.Saphire.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePasswordEncoderFactoryTest {
+
+    private final PasswordEncoder encoder = AdaptivePasswordEncoderFactory.create(5, 0, 4, 10);
+
+    @Test
+    void encode_ShouldStoreAlgorithmAndCost() {
+        String hash = encoder.encode("secret");
+
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.upgradeEncoding(hash));
+    }
+
+    @Test
+    void matches_ShouldAcceptLegacyHashAndRequestUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldKeepHash_WhenStoredCostIsHigher() {
+        String stronger = "{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret");
+
+        assertTrue(encoder.matches("secret", stronger));
+        assertFalse(encoder.upgradeEncoding(stronger));
+    }
+
+    @Test
+    void upgradeEncoding_ShouldRequestUpgrade_WhenStoredCostIsLower() {
+        String weaker = "{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret");
+
+        assertTrue(encoder.matches("secret", weaker));
+        assertTrue(encoder.upgradeEncoding(weaker));
+    }
+
+    @Test
+    void benchmarkStrength_ShouldStayWithinBounds() {
+        int strength = AdaptivePasswordEncoderFactory.benchmarkStrength(1, 4, 6);
+
+        assertEquals(4, strength);
+    }
+}
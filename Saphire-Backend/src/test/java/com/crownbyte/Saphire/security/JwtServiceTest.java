@@ -0,0 +1,57 @@
+package com.crownbyte.Saphire.security;
+
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey",
+                "ee5ddc7600da0fc86d4bb16f5b3b4862c47c210bbb9f2c854e9b04cf9cfb6de3");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+    }
+
+    @Test
+    void generateToken_ShouldRoundTripPrincipalClaims() {
+        SaphireUserDetails principal = new SaphireUserDetails(7L, "operator", "hash", true,
+                UserRoleEnum.OPERATOR, 3, Set.of(1L, 2L, 3L, 9L), Set.of(4L), Set.of(5L));
+
+        String token = jwtService.generateToken(principal);
+        Claims claims = jwtService.parseToken(token);
+
+        assertTrue(jwtService.hasPrincipalClaims(claims));
+        assertEquals("1-3,9", claims.get(JwtService.CLAIM_MACHINES, String.class));
+
+        SaphireUserDetails restored = jwtService.toUserDetails(claims);
+        assertEquals(7L, restored.getId());
+        assertEquals("operator", restored.getUsername());
+        assertEquals(UserRoleEnum.OPERATOR, restored.getRole());
+        assertEquals(3, restored.getTokenVersion());
+        assertEquals(Set.of(1L, 2L, 3L, 9L), restored.getMachineIds());
+        assertTrue(restored.canAccessMachine(9L));
+        assertFalse(restored.canAccessMachine(4L));
+    }
+
+    @Test
+    void generateToken_ShouldOmitPrincipalClaims_ForPlainUserDetails() {
+        User user = new User("legacy", "hash", Collections.emptyList());
+
+        Claims claims = jwtService.parseToken(jwtService.generateToken(user));
+
+        assertFalse(jwtService.hasPrincipalClaims(claims));
+        assertEquals("legacy", claims.getSubject());
+    }
+}
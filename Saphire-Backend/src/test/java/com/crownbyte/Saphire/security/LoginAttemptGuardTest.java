@@ -0,0 +1,97 @@
+package com.crownbyte.Saphire.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoginAttemptGuardTest {
+
+    @Mock
+    private LoginThrottleStore store;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LoginAttemptGuard guard;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // soft limit of 2 failures, hard limit of 4 per username and 6 per IP
+        guard = new LoginAttemptGuard(store, meterRegistry, true, 900, 4, 6, 2, 1000, 60000);
+    }
+
+    @Test
+    void retryAfterSeconds_ShouldAllow_BelowSoftLimit() {
+        guard.recordFailure("alice", "10.0.0.1");
+
+        assertEquals(0, guard.retryAfterSeconds("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void retryAfterSeconds_ShouldDelay_AfterSoftLimit() {
+        guard.recordFailure("alice", "10.0.0.1");
+        guard.recordFailure("alice", "10.0.0.1");
+
+        assertTrue(guard.retryAfterSeconds("alice", "10.0.0.1") > 0);
+        assertEquals(1.0, meterRegistry.get("saphire.auth.login.blocked").tag("reason", "username").counter().count());
+    }
+
+    @Test
+    void retryAfterSeconds_ShouldBlockIp_AcrossUsernames() {
+        for (int i = 0; i < 6; i++) {
+            guard.recordFailure("user" + i, "10.0.0.2");
+        }
+
+        assertTrue(guard.retryAfterSeconds("someone-else", "10.0.0.2") > 0);
+        assertEquals(0, guard.retryAfterSeconds("someone-else", "10.0.0.3"));
+    }
+
+    @Test
+    void recordSuccess_ShouldResetUsernameCounter() {
+        guard.recordFailure("alice", "10.0.0.1");
+        guard.recordFailure("alice", "10.0.0.1");
+
+        guard.recordSuccess("Alice");
+
+        assertEquals(0, guard.retryAfterSeconds("alice", "10.0.0.4"));
+    }
+
+    @Test
+    void retryAfterSeconds_ShouldDelay_AfterFailuresOnOtherNodes() {
+        when(store.loadTotalsSince(any())).thenReturn(Map.of(
+                "u:bob", new LoginThrottleStore.Total(3, LocalDateTime.now())));
+
+        guard.sync();
+
+        assertTrue(guard.retryAfterSeconds("bob", "10.0.0.5") > 0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sync_ShouldKeepDeltas_WhenFlushFails() {
+        doThrow(new RuntimeException("db down")).doNothing().when(store).flush(anySet(), anyMap(), any());
+        guard.recordFailure("alice", "10.0.0.1");
+        guard.sync();
+        guard.recordFailure("alice", "10.0.0.1");
+
+        guard.sync();
+
+        ArgumentCaptor<Map<String, LoginThrottleStore.Delta>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(store, times(2)).flush(anySet(), deltas.capture(), any());
+        assertEquals(2, deltas.getValue().get("u:alice").getFailures());
+        assertEquals(2, deltas.getValue().get("ip:10.0.0.1").getFailures());
+    }
+}
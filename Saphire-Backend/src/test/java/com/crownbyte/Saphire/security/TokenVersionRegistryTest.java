@@ -0,0 +1,60 @@
+package com.crownbyte.Saphire.security;
+
+import com.crownbyte.Saphire.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TokenVersionRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private TokenVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new TokenVersionRegistry(userRepository, 60000);
+    }
+
+    @Test
+    void sync_ShouldRereadTheOverlapWindowBeforeTheLastSync() {
+        when(userRepository.findAllTokenVersions()).thenReturn(List.<Object[]>of(new Object[] { 1L, 2 }));
+        registry.load();
+        LocalDateTime afterLoad = LocalDateTime.now();
+
+        when(userRepository.findTokenVersionsUpdatedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 3 }));
+        registry.sync();
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(userRepository).findTokenVersionsUpdatedSince(since.capture());
+        assertFalse(since.getValue().isAfter(afterLoad.minusSeconds(60)));
+        assertTrue(registry.isCurrent(1L, 3));
+    }
+
+    @Test
+    void sync_ShouldNeverMoveAVersionBack() {
+        when(userRepository.findAllTokenVersions()).thenReturn(List.of());
+        registry.load();
+        registry.publish(1L, 5);
+
+        // A row read again from the overlap window, older than the version published here
+        when(userRepository.findTokenVersionsUpdatedSince(any()))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 4 }));
+        registry.sync();
+
+        assertTrue(registry.isCurrent(1L, 5));
+        assertFalse(registry.isCurrent(1L, 4));
+    }
+}
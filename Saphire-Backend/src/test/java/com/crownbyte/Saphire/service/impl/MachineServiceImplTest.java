@@ -0,0 +1,91 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.response.MachineResponse;
+import com.crownbyte.Saphire.dto.response.PageResponse;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.MachineStatusEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.planning.CapacityPlanner;
+import com.crownbyte.Saphire.repository.LocationRepository;
+import com.crownbyte.Saphire.repository.MachineRepository;
+import com.crownbyte.Saphire.repository.MachineStatusRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MachineServiceImplTest {
+
+    @Mock
+    private MachineRepository machineRepository;
+    @Mock
+    private LocationRepository locationRepository;
+    @Mock
+    private MachineStatusRepository machineStatusRepository;
+    @Mock
+    private CapacityPlanner capacityPlanner;
+
+    @InjectMocks
+    private MachineServiceImpl machineService;
+
+    private LocationEntity location;
+
+    @BeforeEach
+    void setUp() {
+        location = LocationEntity.builder().id(1L).name("Hall A").code("HA").build();
+    }
+
+    @Test
+    void getAll_ShouldLoadStatusesInOneBatch() {
+        MachineEntity running = machine(1L, "M1");
+        MachineEntity idle = machine(2L, "M2");
+        UserEntity operator = UserEntity.builder().id(7L).fullName("Ayse Kaya").build();
+        when(machineRepository.findAll()).thenReturn(List.of(running, idle));
+        when(machineStatusRepository.findWithOperatorByMachineIdIn(List.of(1L, 2L))).thenReturn(List.of(
+                MachineStatusEntity.builder().id(10L).machine(running).currentStatus(MachineStatusEnum.RUNNING)
+                        .currentOperator(operator).statusSince(LocalDateTime.now()).build()));
+
+        List<MachineResponse> result = machineService.getAll(null);
+
+        assertEquals("RUNNING", result.get(0).getStatus().getCurrentStatus());
+        assertEquals("Ayse Kaya", result.get(0).getStatus().getCurrentOperatorName());
+        assertNull(result.get(1).getStatus());
+        verify(machineStatusRepository, never()).findByMachineId(any());
+    }
+
+    @Test
+    void getPage_ShouldClampSizeAndMatchSearchCaseInsensitively() {
+        when(machineRepository.findPage(eq(1L), any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> new PageImpl<MachineEntity>(List.of(), invocation.getArgument(3), 0));
+
+        PageResponse<MachineResponse> result = machineService.getPage(1L, " CNC ", false, 2, 5000);
+
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(machineRepository).findPage(eq(1L), eq("%cnc%"), eq(false), pageable.capture());
+        assertEquals(200, pageable.getValue().getPageSize());
+        assertEquals(2, result.getPage());
+        assertTrue(result.getContent().isEmpty());
+        verifyNoInteractions(machineStatusRepository);
+    }
+
+    private MachineEntity machine(Long id, String code) {
+        return MachineEntity.builder().id(id).location(location).code(code).name("Machine " + code).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryPointResponse;
+import com.crownbyte.Saphire.dto.response.MachineStatusHistoryResponse;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.oee.OeeBucket;
+import com.crownbyte.Saphire.oee.OeeStore;
+import com.crownbyte.Saphire.oee.StateMinutes;
+import com.crownbyte.Saphire.repository.MachineRepository;
+import com.crownbyte.Saphire.telemetry.MachineStatusEventStore;
+import com.crownbyte.Saphire.telemetry.MachineStatusTracker;
+import com.crownbyte.Saphire.telemetry.MachineStatusTransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MachineStatusServiceImplTest {
+
+    @Mock
+    private MachineStatusTracker tracker;
+    @Mock
+    private MachineRepository machineRepository;
+    @Mock
+    private MachineStatusEventStore eventStore;
+    @Mock
+    private OeeStore oeeStore;
+
+    private MachineStatusServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new MachineStatusServiceImpl(tracker, machineRepository, eventStore, oeeStore, 7, 14);
+        when(machineRepository.existsById(1L)).thenReturn(true);
+    }
+
+    @Test
+    void getHistory_ShouldReturnRawIntervalsForRecentRanges() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusHours(1);
+        when(eventStore.loadTransitions(1L, start, end, 500)).thenReturn(List.of(
+                new MachineStatusTransition(1L, MachineStatusEnum.RUNNING, MachineStatusEnum.IDLE,
+                        start.plusMinutes(30), start.plusMinutes(30), "plc"),
+                transition(MachineStatusEnum.RUNNING, start.plusMinutes(45))));
+
+        MachineStatusHistoryResponse history = service.getHistory(1L, start, end, null);
+
+        assertEquals("RAW", history.getResolution());
+        List<MachineStatusHistoryPointResponse> points = history.getPoints();
+        assertEquals(3, points.size());
+        assertEquals(Map.of("RUNNING", 1800L), points.get(0).getSeconds());
+        assertEquals(start, points.get(0).getStart());
+        assertEquals(Map.of("IDLE", 900L), points.get(1).getSeconds());
+        assertEquals(Map.of("RUNNING", 900L), points.get(2).getSeconds());
+        verifyNoInteractions(oeeStore);
+    }
+
+    @Test
+    void getHistory_ShouldStartWithTheStateRunningAtTheStartOfTheRange() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = start.plusHours(1);
+        when(eventStore.loadTransitionBefore(1L, start))
+                .thenReturn(Optional.of(transition(MachineStatusEnum.SETUP, start.minusDays(1))));
+
+        MachineStatusHistoryResponse history = service.getHistory(1L, start, end, null);
+
+        assertEquals(1, history.getPoints().size());
+        assertEquals(Map.of("SETUP", 3600L), history.getPoints().get(0).getSeconds());
+    }
+
+    @Test
+    void getHistory_ShouldSumMinuteBucketsWhenEventsExceedMaxPoints() {
+        LocalDateTime start = LocalDateTime.now().minusHours(13).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = start.plusHours(12);
+        LocalDateTime minute = start.plusMinutes(20);
+        when(eventStore.loadTransitions(1L, start, end, 100)).thenReturn(
+                Collections.nCopies(100, transition(MachineStatusEnum.IDLE, start)));
+        when(oeeStore.loadStateMinutes(1L, start, end)).thenReturn(List.of(
+                new StateMinutes.Minute(1L, minute, MachineStatusEnum.RUNNING, 60),
+                new StateMinutes.Minute(1L, minute.plusMinutes(1), MachineStatusEnum.RUNNING, 30),
+                new StateMinutes.Minute(1L, minute.plusMinutes(1), MachineStatusEnum.IDLE, 30)));
+
+        MachineStatusHistoryResponse history = service.getHistory(1L, start, end, 100);
+
+        assertEquals("MINUTE", history.getResolution());
+        assertEquals(600, history.getBucketSeconds());
+        assertEquals(1, history.getPoints().size());
+        MachineStatusHistoryPointResponse point = history.getPoints().get(0);
+        assertEquals(minute, point.getStart());
+        assertEquals(Map.of("RUNNING", 90L, "IDLE", 30L), point.getSeconds());
+    }
+
+    @Test
+    void getHistory_ShouldUseHourTierBeyondMinuteRetention() {
+        LocalDateTime start = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime end = start.plusDays(10);
+        OeeBucket hour = new OeeBucket(1L, start.plusHours(5));
+        hour.addSeconds(MachineStatusEnum.RUNNING, 3600);
+        when(oeeStore.loadHours(1L, null, start, end)).thenReturn(List.of(hour));
+        when(oeeStore.loadOpenStates(1L, null)).thenReturn(List.of(
+                new OeeStore.OpenState(1L, MachineStatusEnum.OFFLINE, end.minusHours(1))));
+
+        MachineStatusHistoryResponse history = service.getHistory(1L, start, end, null);
+
+        assertEquals("HOUR", history.getResolution());
+        assertEquals(3600, history.getBucketSeconds());
+        assertEquals(2, history.getPoints().size());
+        assertEquals(Map.of("RUNNING", 3600L), history.getPoints().get(0).getSeconds());
+        assertEquals(Map.of("OFFLINE", 3600L), history.getPoints().get(1).getSeconds());
+        verify(eventStore, never()).loadTransitions(any(), any(), any(), anyInt());
+    }
+
+    private static MachineStatusTransition transition(MachineStatusEnum status, LocalDateTime at) {
+        return new MachineStatusTransition(1L, null, status, at, at, "plc");
+    }
+}
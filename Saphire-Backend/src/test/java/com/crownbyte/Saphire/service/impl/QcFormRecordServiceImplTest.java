@@ -1,12 +1,19 @@
 package com.crownbyte.Saphire.service.impl;
 
 import com.crownbyte.Saphire.dto.request.QcFormRecordRequest;
+import com.crownbyte.Saphire.dto.request.QcFormValueRequest;
+import com.crownbyte.Saphire.dto.response.QcFormFieldResponse;
 import com.crownbyte.Saphire.dto.response.QcFormRecordResponse;
+import com.crownbyte.Saphire.dto.response.QcFormSectionResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
 import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
 import com.crownbyte.Saphire.entity.qc.enums.RecordStatusEnum;
 import com.crownbyte.Saphire.repository.*;
+import com.crownbyte.Saphire.service.QcFormTemplateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,7 +22,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -34,6 +43,8 @@ class QcFormRecordServiceImplTest {
     private MachineRepository machineRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private QcFormTemplateService templateService;
 
     @InjectMocks
     private QcFormRecordServiceImpl recordService;
@@ -47,6 +58,7 @@ class QcFormRecordServiceImplTest {
         templateEntity = new QcFormTemplateEntity();
         templateEntity.setId(1L);
         templateEntity.setName("Test Template");
+        templateEntity.setVersion(3);
 
         userEntity = UserEntity.builder().id(1L).fullName("Test User").build();
 
@@ -86,6 +98,56 @@ class QcFormRecordServiceImplTest {
         verify(recordRepository).save(any());
     }
 
+    @Test
+    void create_ShouldBindRecordToTemplateVersion() {
+        QcFormRecordRequest request = new QcFormRecordRequest();
+        request.setTemplateId(1L);
+        request.setValues(new ArrayList<>());
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        when(recordRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(3, recordService.create(request, 1L).getTemplateVersion());
+
+        request.setTemplateVersion(2);
+        assertEquals(2, recordService.create(request, 1L).getTemplateVersion());
+
+        request.setTemplateVersion(4);
+        assertThrows(IllegalArgumentException.class, () -> recordService.create(request, 1L));
+    }
+
+    @Test
+    void create_ShouldOnlyAcceptFieldsOfTheSubmittedVersion() {
+        QcFormRecordRequest request = new QcFormRecordRequest();
+        request.setTemplateId(1L);
+        request.setTemplateVersion(2);
+        request.setValues(new ArrayList<>(List.of(value(10L))));
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        // Version 2 has field 10; field 11 replaced it in version 3
+        when(templateService.getVersion(1L, 2)).thenReturn(Optional.of(QcFormTemplateResponse.builder()
+                .sections(List.of(QcFormSectionResponse.builder()
+                        .fields(List.of(QcFormFieldResponse.builder().id(10L).build()))
+                        .build()))
+                .build()));
+        when(fieldRepository.findAllById(Set.of(10L))).thenReturn(List.of(QcFormFieldEntity.builder()
+                .id(10L).fieldKey("temp").inputType(InputTypeEnum.TEXT).build()));
+        when(recordRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertEquals(1, recordService.create(request, 1L).getValues().size());
+
+        request.setValues(new ArrayList<>(List.of(value(10L), value(11L))));
+        assertThrows(IllegalArgumentException.class, () -> recordService.create(request, 1L));
+        verify(recordRepository, times(1)).save(any());
+    }
+
+    private static QcFormValueRequest value(Long fieldId) {
+        QcFormValueRequest value = new QcFormValueRequest();
+        value.setFieldId(fieldId);
+        value.setValueText("ok");
+        return value;
+    }
+
     @Test
     void approve_ShouldUpdateStatus() {
         when(recordRepository.findById(1L)).thenReturn(Optional.of(recordEntity));
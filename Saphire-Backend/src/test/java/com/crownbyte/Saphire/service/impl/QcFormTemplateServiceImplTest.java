@@ -1,20 +1,33 @@
 package com.crownbyte.Saphire.service.impl;
 
+import com.crownbyte.Saphire.dto.request.QcFormFieldRequest;
+import com.crownbyte.Saphire.dto.request.QcFormSectionRequest;
 import com.crownbyte.Saphire.dto.request.QcFormTemplateRequest;
+import com.crownbyte.Saphire.dto.response.QcFormSectionResponse;
 import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateSummaryResponse;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormSectionEntity;
 import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateVersionEntity;
 import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
 import com.crownbyte.Saphire.repository.CompanyRepository;
 import com.crownbyte.Saphire.repository.MachineRepository;
 import com.crownbyte.Saphire.repository.ProductRepository;
 import com.crownbyte.Saphire.repository.QcFormTemplateRepository;
+import com.crownbyte.Saphire.repository.QcFormTemplateVersionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -36,6 +49,10 @@ class QcFormTemplateServiceImplTest {
     private MachineRepository machineRepository;
     @Mock
     private ProductRepository productRepository;
+    @Mock
+    private QcFormTemplateVersionRepository versionRepository;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
 
     @InjectMocks
     private QcFormTemplateServiceImpl templateService;
@@ -67,6 +84,35 @@ class QcFormTemplateServiceImplTest {
         verify(templateRepository).findAll();
     }
 
+    @Test
+    void getSummariesByMachineId_ShouldCountWithoutLoadingSections() {
+        QcFormTemplateEntity empty = QcFormTemplateEntity.builder()
+                .id(2L).code("QC002").name("Evening QC").contextType(ContextTypeEnum.MACHINE).build();
+        when(templateRepository.findByMachinesId(5L)).thenReturn(List.of(templateEntity, empty));
+        when(templateRepository.countActiveSectionsAndFields(List.of(1L, 2L)))
+                .thenReturn(List.<Object[]>of(new Object[] { 1L, 3L, 40L }));
+
+        List<QcFormTemplateSummaryResponse> result = templateService.getSummariesByMachineId(5L);
+
+        assertEquals(3, result.get(0).getSectionCount());
+        assertEquals(40, result.get(0).getFieldCount());
+        assertEquals(0, result.get(1).getFieldCount());
+    }
+
+    @Test
+    void getSections_ShouldLeaveFieldsToTheSectionEndpoint() {
+        addField("diameter", "10");
+        addField("length", "20");
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+
+        List<QcFormSectionResponse> sections = templateService.getSections(1L).orElseThrow();
+
+        assertEquals(1, sections.size());
+        assertNull(sections.get(0).getFields());
+        assertEquals(2, templateService.getSectionFields(1L, 10L).orElseThrow().size());
+        assertTrue(templateService.getSectionFields(1L, 99L).isEmpty());
+    }
+
     @Test
     void create_ShouldSaveTemplate() {
         QcFormTemplateRequest request = new QcFormTemplateRequest();
@@ -74,13 +120,80 @@ class QcFormTemplateServiceImplTest {
         request.setName("Morning QC");
         request.setContextType("MACHINE");
 
-        when(templateRepository.save(any())).thenReturn(templateEntity);
+        when(templateRepository.saveAndFlush(any())).thenReturn(templateEntity);
 
         QcFormTemplateResponse result = templateService.create(request);
 
         assertNotNull(result);
         assertEquals("QC001", result.getCode());
-        verify(templateRepository).save(any());
+        verify(templateRepository).saveAndFlush(any());
+    }
+
+    @Test
+    void create_ShouldPublishFirstVersion() {
+        QcFormTemplateRequest request = new QcFormTemplateRequest();
+        request.setCode("QC001");
+        request.setName("Morning QC");
+        request.setContextType("MACHINE");
+        when(templateRepository.saveAndFlush(any())).thenReturn(templateEntity);
+
+        QcFormTemplateResponse result = templateService.create(request);
+
+        QcFormTemplateVersionEntity published = publishedVersions().get(0);
+        assertEquals(1, published.getVersion());
+        assertEquals("QC001", published.getContent().get("code"));
+    }
+
+    @Test
+    void update_ShouldReplaceChangedFieldAndKeepItsRowUnchanged() {
+        QcFormFieldEntity diameter = addField("diameter", "10");
+        QcFormFieldEntity length = addField("length", "20");
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+        when(versionRepository.existsByTemplateIdAndVersion(1L, 1)).thenReturn(true);
+        when(templateRepository.saveAndFlush(templateEntity)).thenReturn(templateEntity);
+
+        templateService.update(1L, request(fieldRequest("diameter", "12", 0), fieldRequest("length", "20", 1)));
+
+        List<QcFormFieldEntity> fields = templateEntity.getSections().get(0).getFields();
+        assertEquals(3, fields.size());
+        assertFalse(diameter.getActive());
+        assertEquals(0, new BigDecimal("10").compareTo(diameter.getMaxValue()));
+        assertTrue(length.getActive());
+        QcFormFieldEntity replacement = fields.get(2);
+        assertEquals("diameter", replacement.getFieldKey());
+        assertEquals(0, new BigDecimal("12").compareTo(replacement.getMaxValue()));
+        assertTrue(replacement.getActive());
+
+        assertEquals(2, templateEntity.getVersion());
+        assertEquals(2, publishedVersions().get(0).getVersion());
+    }
+
+    @Test
+    void update_ShouldPublishPreviousVersionOfUnversionedTemplate() {
+        addField("diameter", "10");
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+        when(versionRepository.existsByTemplateIdAndVersion(1L, 1)).thenReturn(false);
+        when(templateRepository.saveAndFlush(templateEntity)).thenReturn(templateEntity);
+
+        templateService.update(1L, request(fieldRequest("diameter", "12", 0)));
+
+        List<QcFormTemplateVersionEntity> published = publishedVersions();
+        assertEquals(2, published.size());
+        assertEquals(1, published.get(0).getVersion());
+        QcFormTemplateResponse previous = objectMapper.convertValue(published.get(0).getContent(),
+                QcFormTemplateResponse.class);
+        assertEquals(0, new BigDecimal("10").compareTo(
+                previous.getSections().get(0).getFields().get(0).getMaxValue()));
+        assertEquals(2, published.get(1).getVersion());
+    }
+
+    @Test
+    void getVersion_ShouldFallBackToCurrentTemplateOnlyForItsOwnVersion() {
+        when(versionRepository.findByTemplateIdAndVersion(eq(1L), any())).thenReturn(Optional.empty());
+        when(templateRepository.findById(1L)).thenReturn(Optional.of(templateEntity));
+
+        assertTrue(templateService.getVersion(1L, 1).isPresent());
+        assertTrue(templateService.getVersion(1L, 2).isEmpty());
     }
 
     @Test
@@ -92,4 +205,53 @@ class QcFormTemplateServiceImplTest {
         assertFalse(templateEntity.getActive());
         verify(templateRepository).save(templateEntity);
     }
+
+    private List<QcFormTemplateVersionEntity> publishedVersions() {
+        ArgumentCaptor<QcFormTemplateVersionEntity> captor = ArgumentCaptor.forClass(QcFormTemplateVersionEntity.class);
+        verify(versionRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private QcFormFieldEntity addField(String key, String max) {
+        if (templateEntity.getSections().isEmpty()) {
+            templateEntity.getSections().add(QcFormSectionEntity.builder()
+                    .id(10L).template(templateEntity).sectionOrder(0).name("Dimensions").build());
+        }
+        QcFormSectionEntity section = templateEntity.getSections().get(0);
+        QcFormFieldEntity field = QcFormFieldEntity.builder()
+                .id(100L + section.getFields().size())
+                .section(section)
+                .fieldOrder(section.getFields().size())
+                .fieldKey(key)
+                .label(key)
+                .inputType(InputTypeEnum.DECIMAL)
+                .maxValue(new BigDecimal(max).setScale(4))
+                .build();
+        section.getFields().add(field);
+        return field;
+    }
+
+    private static QcFormTemplateRequest request(QcFormFieldRequest... fields) {
+        QcFormSectionRequest section = new QcFormSectionRequest();
+        section.setSectionOrder(0);
+        section.setName("Dimensions");
+        section.setFields(List.of(fields));
+
+        QcFormTemplateRequest request = new QcFormTemplateRequest();
+        request.setCode("QC001");
+        request.setName("Morning QC");
+        request.setContextType("MACHINE");
+        request.setSections(List.of(section));
+        return request;
+    }
+
+    private static QcFormFieldRequest fieldRequest(String key, String max, int order) {
+        QcFormFieldRequest field = new QcFormFieldRequest();
+        field.setFieldOrder(order);
+        field.setFieldKey(key);
+        field.setLabel(key);
+        field.setInputType("DECIMAL");
+        field.setMaxValue(new BigDecimal(max));
+        return field;
+    }
 }
@@ -0,0 +1,82 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.dto.response.CursorPageResponse;
+import com.crownbyte.Saphire.entity.SystemErrorLog;
+import com.crownbyte.Saphire.logging.ErrorLogStore;
+import com.crownbyte.Saphire.logging.ErrorLogWriter;
+import com.crownbyte.Saphire.repository.SystemErrorLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SystemErrorLogServiceImplTest {
+
+    @Mock
+    private SystemErrorLogRepository repository;
+    @Mock
+    private ErrorLogWriter errorLogWriter;
+    @Mock
+    private ErrorLogStore errorLogStore;
+
+    @InjectMocks
+    private SystemErrorLogServiceImpl errorLogService;
+
+    private final LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private final LocalDateTime to = LocalDateTime.of(2026, 1, 2, 0, 0);
+
+    @Test
+    void getLogs_ShouldReturnCursor_WhenMoreRowsExist() {
+        when(repository.findPageBefore(eq(from), eq(to), eq(Long.MAX_VALUE), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(log(3L, 12), log(2L, 11), log(1L, 10)));
+
+        CursorPageResponse<SystemErrorLog> page = errorLogService.getLogs(from, to, null, null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertNotNull(page.getNextCursor());
+
+        when(repository.findPageBefore(eq(from), eq(from.withHour(11)), eq(2L), isNull(), isNull(), any(Pageable.class)))
+                .thenReturn(List.of(log(1L, 10)));
+
+        CursorPageResponse<SystemErrorLog> next = errorLogService.getLogs(from, to, " ", null, page.getNextCursor(), 2);
+
+        assertEquals(1, next.getItems().size());
+        assertFalse(next.isHasMore());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void getLogs_ShouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> errorLogService.getLogs(from, to, null, null, "not-a-cursor", 10));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void getHourlyCounts_ShouldRejectTooWideWindow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> errorLogService.getHourlyCounts(from, from.plusDays(120), null));
+        verifyNoInteractions(errorLogStore);
+    }
+
+    private SystemErrorLog log(Long id, int hour) {
+        return SystemErrorLog.builder()
+                .id(id)
+                .sourceClass("com.example.Foo")
+                .timestamp(LocalDateTime.of(2026, 1, 1, hour, 0))
+                .build();
+    }
+}
@@ -6,6 +6,8 @@ import com.crownbyte.Saphire.entity.master.UserEntity;
 import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
 import com.crownbyte.Saphire.repository.MachineRepository;
 import com.crownbyte.Saphire.repository.UserRepository;
+import com.crownbyte.Saphire.security.BulkPasswordHasher;
+import com.crownbyte.Saphire.security.TokenVersionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +22,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,6 +34,10 @@ class UserServiceImplTest {
     private MachineRepository machineRepository;
     @Mock
     private PasswordEncoder passwordEncoder;
+    @Mock
+    private TokenVersionRegistry tokenVersionRegistry;
+    @Mock
+    private BulkPasswordHasher bulkPasswordHasher;
 
     @InjectMocks
     private UserServiceImpl userService;
@@ -87,6 +94,85 @@ class UserServiceImplTest {
         userService.delete(1L);
 
         assertFalse(userEntity.getActive());
+        assertEquals(1, userEntity.getTokenVersion());
+        verify(tokenVersionRegistry, times(1)).publish(1L, 1);
         verify(userRepository, times(1)).save(userEntity);
     }
+
+    @Test
+    void update_ShouldRevokeTokens_WhenRoleChanges() {
+        UserRequest request = new UserRequest();
+        request.setUsername("testuser");
+        request.setEmail("test@example.com");
+        request.setFullName("Test User");
+        request.setRole("SUPERVISOR");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        when(userRepository.save(any())).thenReturn(userEntity);
+
+        userService.update(1L, request);
+
+        assertEquals(UserRoleEnum.SUPERVISOR, userEntity.getRole());
+        verify(tokenVersionRegistry, times(1)).publish(1L, 1);
+    }
+
+    @Test
+    void update_ShouldKeepTokens_WhenOnlyProfileChanges() {
+        UserRequest request = new UserRequest();
+        request.setUsername("testuser");
+        request.setEmail("changed@example.com");
+        request.setFullName("Changed Name");
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(userEntity));
+        when(userRepository.save(any())).thenReturn(userEntity);
+
+        userService.update(1L, request);
+
+        assertEquals(0, userEntity.getTokenVersion());
+        verify(tokenVersionRegistry, never()).publish(any(), anyInt());
+    }
+
+    @Test
+    void createAll_ShouldHashInBulkAndSaveOnce() {
+        UserRequest first = UserRequest.builder().username("op1").email("op1@example.com")
+                .fullName("Operator One").password("secret1").role("OPERATOR").build();
+        UserRequest second = UserRequest.builder().username("op2").email("op2@example.com")
+                .fullName("Operator Two").password("secret2").role("OPERATOR").build();
+
+        when(userRepository.findExistingUsernames(any())).thenReturn(Collections.emptyList());
+        when(userRepository.findExistingEmails(any())).thenReturn(Collections.emptyList());
+        when(bulkPasswordHasher.encodeAll(List.of("secret1", "secret2"))).thenReturn(List.of("h1", "h2"));
+        when(userRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<UserResponse> result = userService.createAll(List.of(first, second));
+
+        assertEquals(2, result.size());
+        assertEquals("op2", result.get(1).getUsername());
+        verify(userRepository, times(1)).saveAll(any());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
+    @Test
+    void createAll_ShouldReject_WhenUsernameExists() {
+        UserRequest request = UserRequest.builder().username("testuser").email("x@example.com")
+                .fullName("X").password("secret").role("OPERATOR").build();
+
+        when(userRepository.findExistingUsernames(any())).thenReturn(List.of("testuser"));
+
+        assertThrows(IllegalArgumentException.class, () -> userService.createAll(List.of(request)));
+        verify(userRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void createAll_ShouldReject_WhenPasswordIsMissing() {
+        UserRequest withPassword = UserRequest.builder().username("op1").email("op1@example.com")
+                .fullName("Operator One").password("secret1").role("OPERATOR").build();
+        UserRequest withoutPassword = UserRequest.builder().username("op2").email("op2@example.com")
+                .fullName("Operator Two").password("").role("OPERATOR").build();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.createAll(List.of(withPassword, withoutPassword)));
+        verify(bulkPasswordHasher, never()).encodeAll(any());
+        verify(userRepository, never()).saveAll(any());
+    }
 }
@@ -0,0 +1,135 @@
+package com.crownbyte.Saphire.simulation;
+
+import com.crownbyte.Saphire.planning.MachineCapacity;
+import com.crownbyte.Saphire.planning.PlanStep;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductionSimulatorTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 2, 8, 0);
+    private static final LocalDateTime END = NOW.plusHours(8);
+
+    @Test
+    void run_ShouldFollowRouteOrderAndMeasureMachines() {
+        SimulationRun run = new ProductionSimulator(machines(100L, 101L), Map.of(1L, List.of(100L), 2L, List.of(101L)))
+                .run(List.of(
+                        step(1L, 10L, 2, 1L, 1, false, 30, null),
+                        step(2L, 10L, 2, 2L, 2, false, 20, null),
+                        step(3L, 11L, 1, 1L, 1, false, 30, null),
+                        step(4L, 11L, 1, 2L, 2, false, 20, null)), Map.of(), NOW, END);
+
+        assertEquals(at(8, 50), run.completionOf(10L));
+        // The press is free at 8:50 but the instance's turning only ends at 9:00
+        assertEquals(at(9, 20), run.completionOf(11L));
+
+        SimulationRun.MachineResult lathe = run.getMachines().get(100L);
+        assertEquals(60, lathe.getBusyMinutes());
+        assertEquals(2, lathe.getSteps());
+        assertEquals(60.0 / 480, lathe.getUtilization(), 1e-9);
+        // Instance 11 waited half an hour for the lathe
+        assertEquals(1, lathe.getMaxQueueLength());
+        assertEquals(30.0 / 480, lathe.getAverageQueueLength(), 1e-9);
+        assertEquals(0, run.getMachines().get(101L).getMaxQueueLength());
+    }
+
+    @Test
+    void run_ShouldLetWhicheverAlternativeFallsIdleFirstTakeTheStep() {
+        SimulationRun run = new ProductionSimulator(machines(100L, 101L), Map.of(1L, List.of(100L, 101L)))
+                .run(List.of(
+                        step(1L, 10L, 3, 1L, 1, false, 60, null),
+                        step(2L, 11L, 2, 1L, 1, false, 30, null),
+                        step(3L, 12L, 1, 1L, 1, false, 60, null),
+                        // Assigned to the first machine: it waits there, as dispatch would
+                        step(4L, 13L, 0, 1L, 1, false, 30, 100L)), Map.of(), NOW, END);
+
+        assertEquals(at(9, 0), run.completionOf(10L));
+        assertEquals(at(8, 30), run.completionOf(11L));
+        // The preferred machine is still busy, the second one is idle again first
+        assertEquals(at(9, 30), run.completionOf(12L));
+        assertEquals(at(9, 30), run.completionOf(13L));
+        assertEquals(2, run.getMachines().get(100L).getSteps());
+        assertEquals(2, run.getMachines().get(101L).getSteps());
+    }
+
+    @Test
+    void run_ShouldKeepRunningStepsAndLeaveWorkOfDownMachinesUnfinished() {
+        List<MachineCapacity> machines = List.of(new MachineCapacity(100L, true, null),
+                new MachineCapacity(101L, false, null));
+        SimulationRun run = new ProductionSimulator(machines, Map.of(1L, List.of(100L), 2L, List.of(101L)))
+                .run(List.of(
+                        step(1L, 10L, 1, 1L, 1, false, 60, 100L, at(7, 50)),
+                        step(2L, 11L, 5, 1L, 1, false, 30, 100L, null),
+                        step(3L, 12L, 1, 2L, 1, false, 30, 101L, null)), Map.of(), NOW, END);
+
+        // Higher priority does not take the lathe from the step already on it
+        assertEquals(at(8, 50), run.completionOf(10L));
+        assertEquals(at(9, 20), run.completionOf(11L));
+        assertNull(run.completionOf(12L));
+        SimulationRun.MachineResult down = run.getMachines().get(101L);
+        assertFalse(down.isAvailable());
+        assertNull(down.getUtilization());
+        assertEquals(0, down.getSteps());
+    }
+
+    @Test
+    void run_ShouldHoldInstancesUntilReleaseAndMachinesUntilBack() {
+        List<MachineCapacity> machines = List.of(new MachineCapacity(100L, true, at(9, 0)),
+                new MachineCapacity(101L, true, null));
+        SimulationRun run = new ProductionSimulator(machines, Map.of(1L, List.of(100L), 2L, List.of(101L)))
+                .run(List.of(
+                        step(1L, 10L, 1, 1L, 1, false, 30, null),
+                        step(2L, 11L, 1, 2L, 1, false, 30, null),
+                        step(3L, 12L, 1, 2L, 1, false, 30, null)),
+                        Map.of(11L, at(10, 0)), NOW, END);
+
+        assertEquals(at(9, 30), run.completionOf(10L));
+        assertEquals(at(10, 30), run.completionOf(11L));
+        assertEquals(at(8, 30), run.completionOf(12L));
+        assertEquals(420, run.getMachines().get(100L).getAvailableMinutes());
+    }
+
+    @Test
+    void run_ShouldRunParallelStepsSideBySideAndStopAtTheHorizon() {
+        SimulationRun run = new ProductionSimulator(machines(100L, 101L, 102L, 103L), Map.of())
+                .run(List.of(
+                        step(1L, 10L, 1, 10L, 1, true, 60, 100L),
+                        step(2L, 10L, 1, 11L, 2, true, 30, 101L),
+                        step(3L, 10L, 1, 12L, 3, false, 10, 102L),
+                        step(4L, 11L, 1, 13L, 1, false, 600, 103L)), Map.of(), NOW, END);
+
+        // Held up by the longer of its parallel steps
+        assertEquals(at(9, 10), run.completionOf(10L));
+        assertEquals(1, run.getMachines().get(101L).getSteps());
+        assertNull(run.completionOf(11L));
+        // Busy time past the horizon does not count
+        assertEquals(480, run.getMachines().get(103L).getBusyMinutes());
+        assertEquals(1.0, run.getMachines().get(103L).getUtilization(), 1e-9);
+        assertEquals(0, run.getMachines().get(103L).getSteps());
+    }
+
+    private static PlanStep step(Long stepId, Long instanceId, int priority, Long routeStepId, int stepOrder,
+            boolean parallel, int minutes, Long machineId) {
+        return step(stepId, instanceId, priority, routeStepId, stepOrder, parallel, minutes, machineId, null);
+    }
+
+    private static PlanStep step(Long stepId, Long instanceId, int priority, Long routeStepId, int stepOrder,
+            boolean parallel, int minutes, Long machineId, LocalDateTime startedAt) {
+        return new PlanStep(stepId, instanceId, "SN-" + instanceId, 1L, priority, NOW.plusHours(4), routeStepId,
+                "Step " + stepOrder, stepOrder, parallel, minutes, machineId, startedAt);
+    }
+
+    private static List<MachineCapacity> machines(Long... ids) {
+        return Arrays.stream(ids).map(id -> new MachineCapacity(id, true, null)).toList();
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return NOW.withHour(hour).withMinute(minute);
+    }
+}
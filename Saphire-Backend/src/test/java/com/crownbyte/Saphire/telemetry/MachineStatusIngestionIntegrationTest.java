@@ -0,0 +1,151 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import com.crownbyte.Saphire.monitoring.SqlScope;
+import com.crownbyte.Saphire.monitoring.SqlScopeHolder;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Status reports through the HTTP batch endpoint: transitions end up in
+ * machine_status_events and machine_status, heartbeats only in memory, and
+ * live reads never touch the database. Shares the H2 context of the
+ * query-budget tests.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("querybudget")
+class MachineStatusIngestionIntegrationTest {
+
+    private static Long machineId;
+    private static Long locationId;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MachineStatusTracker tracker;
+
+    @BeforeEach
+    void seed() {
+        if (machineId == null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                CompanyEntity company = CompanyEntity.builder().name("Telemetry Plant").code("TELE").build();
+                entityManager.persist(company);
+                LocationEntity location = LocationEntity.builder().company(company).name("Press hall").code("PH").build();
+                entityManager.persist(location);
+                MachineEntity machine = MachineEntity.builder().location(location).code("PR1").name("Press 1").build();
+                entityManager.persist(machine);
+                locationId = location.getId();
+                machineId = machine.getId();
+            });
+        }
+    }
+
+    @Test
+    void transitions_ShouldBePersistedAndHeartbeatsKeptInMemory() throws Exception {
+        postEvents("""
+                {"events": [
+                  {"machineId": %1$d, "status": "IDLE", "occurredAt": "2026-03-02T06:00:00", "source": "plc-7"},
+                  {"machineId": %1$d, "status": "IDLE", "occurredAt": "2026-03-02T06:00:05"},
+                  {"machineId": %1$d, "status": "running", "occurredAt": "2026-03-02T06:00:10"},
+                  {"machineId": %1$d, "status": "SETUP", "occurredAt": "2026-03-02T06:00:07"},
+                  {"machineId": 987654, "status": "IDLE"}
+                ]}
+                """.formatted(machineId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.transitions").value(2))
+                .andExpect(jsonPath("$.data.heartbeats").value(1))
+                .andExpect(jsonPath("$.data.stale").value(1))
+                .andExpect(jsonPath("$.data.unknownMachines").value(1));
+
+        tracker.flush();
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM machine_status_events WHERE machine_id = ?", Integer.class, machineId));
+        assertEquals("RUNNING", jdbcTemplate.queryForObject(
+                "SELECT current_status FROM machine_status WHERE machine_id = ?", String.class, machineId));
+
+        SqlScope scope = SqlScopeHolder.begin("live-status");
+        try {
+            mockMvc.perform(get("/api/v1/machine-status/live").param("locationId", locationId.toString()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.data[0].status").value("RUNNING"))
+                    .andExpect(jsonPath("$.data[0].since").value("2026-03-02T06:00:10"));
+        } finally {
+            SqlScopeHolder.end(scope);
+        }
+        assertEquals(0, scope.getStatements());
+    }
+
+    @Test
+    void writtenState_ShouldOnlyAddItsEvent() {
+        Long[] pressId = new Long[1];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            MachineEntity press = MachineEntity.builder().location(entityManager.find(LocationEntity.class,
+                    locationId)).code("PR2").name("Press 2").build();
+            entityManager.persist(press);
+            pressId[0] = press.getId();
+        });
+        LocalDateTime at = LocalDateTime.of(2026, 3, 2, 7, 0);
+        tracker.reportWritten(pressId[0], locationId, MachineStatusEnum.RUNNING, at, "DISPATCH");
+        // The step finished in the same second and dispatch has already put the machine back to IDLE
+        jdbcTemplate.update("INSERT INTO machine_status (machine_id, current_status, status_since, updated_at) " +
+                "VALUES (?, 'IDLE', ?, ?)", pressId[0], at, at);
+
+        tracker.flush();
+
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM machine_status_events WHERE machine_id = ?", Integer.class, pressId[0]));
+        assertEquals("IDLE", jdbcTemplate.queryForObject(
+                "SELECT current_status FROM machine_status WHERE machine_id = ?", String.class, pressId[0]));
+    }
+
+    @Test
+    void unknownStatus_ShouldRejectTheWholeBatch() throws Exception {
+        postEvents("""
+                {"events": [
+                  {"machineId": %1$d, "status": "RUNNING"},
+                  {"machineId": %1$d, "status": "EXPLODED"}
+                ]}
+                """.formatted(machineId))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ResultActions postEvents(String body) throws Exception {
+        return mockMvc.perform(post("/api/v1/machine-status/events")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+}
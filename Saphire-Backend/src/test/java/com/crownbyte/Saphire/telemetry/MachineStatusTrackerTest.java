@@ -0,0 +1,144 @@
+package com.crownbyte.Saphire.telemetry;
+
+import com.crownbyte.Saphire.entity.master.enums.MachineStatusEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.crownbyte.Saphire.telemetry.MachineStatusTracker.Outcome.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MachineStatusTrackerTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 6, 0);
+
+    @Mock
+    private MachineStatusEventStore store;
+
+    private MachineStatusTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new MachineStatusTracker(store, new SimpleMeterRegistry(), 100, 2);
+    }
+
+    @Test
+    void report_ShouldQueueOnlyStateChanges() {
+        assertEquals(TRANSITION, report(MachineStatusEnum.IDLE, T0));
+        assertEquals(HEARTBEAT, report(MachineStatusEnum.IDLE, T0.plusSeconds(5)));
+        assertEquals(TRANSITION, report(MachineStatusEnum.RUNNING, T0.plusSeconds(10)));
+        assertEquals(STALE, report(MachineStatusEnum.SETUP, T0.plusSeconds(7)));
+
+        LiveMachineState state = tracker.get(1L).orElseThrow();
+        assertEquals(MachineStatusEnum.RUNNING, state.getStatus());
+        assertEquals(T0.plusSeconds(10), state.getSince());
+        assertEquals(2, tracker.pendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_ShouldWriteTransitionsInBatches() {
+        report(MachineStatusEnum.IDLE, T0);
+        report(MachineStatusEnum.RUNNING, T0.plusMinutes(1));
+        report(MachineStatusEnum.BREAKDOWN, T0.plusMinutes(2));
+
+        tracker.flush();
+
+        ArgumentCaptor<List<MachineStatusTransition>> captor = ArgumentCaptor.forClass(List.class);
+        verify(store, times(2)).write(captor.capture());
+        List<MachineStatusTransition> second = captor.getAllValues().get(1);
+        assertEquals(1, second.size());
+        assertEquals(MachineStatusEnum.RUNNING, second.get(0).getPreviousStatus());
+        assertEquals(0, tracker.pendingCount());
+    }
+
+    @Test
+    void flush_ShouldRetryUnwrittenTransitionsAndHoldBackNewReports() {
+        doThrow(new RuntimeException("db down")).doNothing().when(store).write(anyList());
+        for (int i = 0; i < 100; i++) {
+            tracker.report((long) i, 1L, MachineStatusEnum.RUNNING, T0, "plc", T0);
+        }
+
+        tracker.flush();
+        assertFalse(tracker.hasRoomFor(1));
+
+        tracker.flush();
+        assertTrue(tracker.hasRoomFor(100));
+        verify(store, times(51)).write(anyList());
+    }
+
+    @Test
+    void refresh_ShouldTakeInStatesOtherInstancesWroteLater() {
+        report(MachineStatusEnum.RUNNING, T0);
+        report(MachineStatusEnum.RUNNING, T0.plusMinutes(5));
+        when(store.loadCurrentStates()).thenReturn(List.of(
+                new LiveMachineState(1L, 1L, MachineStatusEnum.IDLE, T0.plusMinutes(2), T0.plusMinutes(2)),
+                new LiveMachineState(2L, 1L, MachineStatusEnum.BREAKDOWN, T0, T0)));
+
+        tracker.refresh();
+        // Seen here after the persisted change, so the local state stays
+        assertEquals(MachineStatusEnum.RUNNING, tracker.get(1L).orElseThrow().getStatus());
+        assertEquals(MachineStatusEnum.BREAKDOWN, tracker.get(2L).orElseThrow().getStatus());
+
+        when(store.loadCurrentStates()).thenReturn(List.of(
+                new LiveMachineState(1L, 1L, MachineStatusEnum.IDLE, T0.plusMinutes(6), T0.plusMinutes(6))));
+        tracker.refresh();
+        assertEquals(MachineStatusEnum.IDLE, tracker.get(1L).orElseThrow().getStatus());
+        assertEquals(TRANSITION, report(MachineStatusEnum.RUNNING, T0.plusMinutes(7)));
+        assertEquals(MachineStatusEnum.RUNNING, tracker.get(1L).orElseThrow().getStatus());
+    }
+
+    @Test
+    void report_ShouldKeepOneConsistentStatePerMachineUnderContention() throws Exception {
+        tracker = new MachineStatusTracker(store, new SimpleMeterRegistry(), 1_000_000, 500);
+        int threads = 8;
+        int reportsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                int transitions = 0;
+                for (int i = 0; i < reportsPerThread; i++) {
+                    MachineStatusEnum status = i % 2 == 0 ? MachineStatusEnum.RUNNING : MachineStatusEnum.IDLE;
+                    LocalDateTime at = T0.plusNanos((long) i * threads + thread);
+                    if (tracker.report((long) (i % 10), 1L, status, at, "plc", at) == TRANSITION) {
+                        transitions++;
+                    }
+                }
+                return transitions;
+            }));
+        }
+        start.countDown();
+        int transitions = 0;
+        for (var result : results) {
+            transitions += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(transitions, tracker.pendingCount());
+        assertEquals(10, tracker.list(1L).size());
+    }
+
+    private MachineStatusTracker.Outcome report(MachineStatusEnum status, LocalDateTime at) {
+        return tracker.report(1L, 1L, status, at, "plc-1", at);
+    }
+}
@@ -0,0 +1,149 @@
+package com.crownbyte.Saphire.workorder;
+
+import com.crownbyte.Saphire.dispatch.DispatchQueues;
+import com.crownbyte.Saphire.dto.request.ProductInstanceRequest;
+import com.crownbyte.Saphire.dto.request.WorkOrderRequest;
+import com.crownbyte.Saphire.dto.response.ProductInstanceResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderInstanceResponse;
+import com.crownbyte.Saphire.dto.response.WorkOrderResponse;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.ProductEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteEntity;
+import com.crownbyte.Saphire.entity.route.ProductRouteStepEntity;
+import com.crownbyte.Saphire.entity.route.RouteStepMachineEntity;
+import com.crownbyte.Saphire.service.ProductInstanceService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Work orders on H2: every instance gets a generated serial and one pending step per
+ * route step on the preferred machine of the order's location, and the new steps
+ * are queued for dispatch. Shares the H2 context of the query-budget tests.
+ */
+@SpringBootTest
+@ActiveProfiles("querybudget")
+class WorkOrderIntegrationTest {
+
+    private static final int QUANTITY = 25;
+
+    @Autowired
+    private ProductInstanceService productInstanceService;
+
+    @Autowired
+    private DispatchQueues dispatchQueues;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void workOrder_ShouldCreateInstancesWithStepsOnPreferredMachines() {
+        long[] ids = new long[7];
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            CompanyEntity company = CompanyEntity.builder().name("Order Plant").code("WO").build();
+            entityManager.persist(company);
+            LocationEntity line = LocationEntity.builder().company(company).name("Line").code("WO-LN").build();
+            entityManager.persist(line);
+            LocationEntity annex = LocationEntity.builder().company(company).name("Annex").code("WO-AX").build();
+            entityManager.persist(annex);
+            MachineEntity lathe = MachineEntity.builder().location(line).code("WO-L1").name("Lathe").build();
+            entityManager.persist(lathe);
+            MachineEntity annexLathe = MachineEntity.builder().location(annex).code("WO-A1").name("Lathe").build();
+            entityManager.persist(annexLathe);
+            MachineEntity press = MachineEntity.builder().location(annex).code("WO-A2").name("Press").build();
+            entityManager.persist(press);
+
+            ProductEntity product = ProductEntity.builder().name("Flange").code("WO-FLANGE").build();
+            entityManager.persist(product);
+            ProductRouteEntity route = ProductRouteEntity.builder().product(product).name("Flange route").build();
+            entityManager.persist(route);
+            ProductRouteStepEntity turning = ProductRouteStepEntity.builder().route(route).stepOrder(1)
+                    .stepName("Turning").build();
+            entityManager.persist(turning);
+            ProductRouteStepEntity pressing = ProductRouteStepEntity.builder().route(route).stepOrder(2)
+                    .stepName("Pressing").build();
+            entityManager.persist(pressing);
+            // The annex lathe is preferred, but the line has a lathe of its own
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(turning).machine(annexLathe)
+                    .preferenceOrder(1).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(turning).machine(lathe)
+                    .preferenceOrder(2).build());
+            entityManager.persist(RouteStepMachineEntity.builder().routeStep(pressing).machine(press)
+                    .preferenceOrder(1).build());
+
+            ProductEntity other = ProductEntity.builder().name("Bolt").code("WO-BOLT").build();
+            entityManager.persist(other);
+
+            ids[0] = product.getId();
+            ids[1] = route.getId();
+            ids[2] = line.getId();
+            ids[3] = lathe.getId();
+            ids[4] = press.getId();
+            ids[5] = other.getId();
+            ids[6] = annexLathe.getId();
+        });
+        Long locationId = ids[2];
+
+        WorkOrderResponse order = productInstanceService.createWorkOrder(WorkOrderRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(locationId).quantity(QUANTITY).priority(4)
+                .dueDate(LocalDateTime.of(2026, 3, 2, 12, 0)).build());
+
+        assertEquals(QUANTITY, order.getQuantity());
+        assertEquals(2, order.getStepsPerInstance());
+        assertEquals(QUANTITY, order.getInstances().stream().map(WorkOrderInstanceResponse::getSerialNumber)
+                .distinct().count());
+        assertTrue(order.getInstances().stream()
+                .allMatch(instance -> instance.getSerialNumber().startsWith("WO-FLANGE-")));
+        assertEquals(QUANTITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM product_instances WHERE location_id = ? AND status = 'PENDING' AND priority = 4",
+                Integer.class, locationId));
+        assertEquals(QUANTITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM production_steps WHERE machine_id = ? AND status = 'PENDING'",
+                Integer.class, ids[3]));
+        assertEquals(QUANTITY, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM production_steps WHERE machine_id = ? AND status = 'PENDING'",
+                Integer.class, ids[4]));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM production_steps WHERE machine_id = ?", Integer.class, ids[6]));
+
+        // Only turning is queued; pressing waits for it to complete
+        assertEquals(QUANTITY, dispatchQueues.depthAtLocation(locationId));
+        assertEquals(QUANTITY, dispatchQueues.depthForMachine(ids[3]));
+        assertEquals(order.getInstances().get(0).getSerialNumber(),
+                dispatchQueues.nextForMachine(ids[3]).orElseThrow().getSerialNumber());
+        assertEquals(0, dispatchQueues.depthForMachine(ids[4]));
+
+        // A single instance is expanded the same way and takes the next serial
+        ProductInstanceResponse single = productInstanceService.create(ProductInstanceRequest.builder()
+                .productId(ids[0]).routeId(ids[1]).locationId(locationId).build());
+        assertEquals(2, single.getProductionSteps().size());
+        assertEquals(ids[3], single.getProductionSteps().get(0).getMachineId());
+        assertTrue(single.getSerialNumber().startsWith("WO-FLANGE-"));
+        assertTrue(order.getInstances().stream()
+                .noneMatch(instance -> instance.getSerialNumber().equals(single.getSerialNumber())));
+        assertEquals(QUANTITY + 1, dispatchQueues.depthAtLocation(locationId));
+
+        assertThrows(IllegalArgumentException.class, () -> productInstanceService.createWorkOrder(
+                WorkOrderRequest.builder().productId(ids[5]).routeId(ids[1]).locationId(locationId).quantity(1)
+                        .build()));
+    }
+}
@@ -0,0 +1,214 @@
+package com.crownbyte.Saphire.benchmark;
+
+import com.crownbyte.Saphire.dto.request.QcFormValueRequest;
+import com.crownbyte.Saphire.entity.master.CompanyEntity;
+import com.crownbyte.Saphire.entity.master.LocationEntity;
+import com.crownbyte.Saphire.entity.master.MachineEntity;
+import com.crownbyte.Saphire.entity.master.UserEntity;
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormHeaderFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormSectionEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormValueEntity;
+import com.crownbyte.Saphire.entity.qc.enums.ContextTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.HeaderFieldTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.InputTypeEnum;
+import com.crownbyte.Saphire.entity.qc.enums.RecordStatusEnum;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds detached QC templates and filled records shaped like the ones plants use,
+ * without touching a database. A shape of {@code "10x15"} means 10 sections of 15
+ * fields; every third section is repeatable three times, so the value count is
+ * larger than sections times fields. Deterministic for a given seed.
+ */
+public final class QcFormFixtures {
+
+    public static final int HEADER_FIELDS = 6;
+    public static final int REPEAT_COUNT = 3;
+
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2024, 3, 4, 6, 0);
+
+    private QcFormFixtures() {
+    }
+
+    public static int[] parseShape(String shape) {
+        String[] parts = shape.split("x");
+        return new int[] { Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) };
+    }
+
+    public static QcFormTemplateEntity template(int sections, int fieldsPerSection) {
+        CompanyEntity company = CompanyEntity.builder().id(1L).name("Bench Plant").code("BENCH").build();
+        LocationEntity location = LocationEntity.builder().id(1L).company(company).name("Hall A").code("HA").build();
+        UserEntity author = UserEntity.builder().id(1L).username("engineer").fullName("Quality Engineer")
+                .email("engineer@bench.test").hashedPassword("x").role(UserRoleEnum.ADMIN).build();
+
+        QcFormTemplateEntity template = QcFormTemplateEntity.builder()
+                .id(1L)
+                .company(company)
+                .code("TPL-" + sections + "x" + fieldsPerSection)
+                .name("Line inspection " + sections + "x" + fieldsPerSection)
+                .description("Benchmark template")
+                .contextType(ContextTypeEnum.MACHINE)
+                .createdBy(author)
+                .build();
+        template.setCreatedAt(BASE_TIME);
+        template.setUpdatedAt(BASE_TIME);
+        for (long m = 1; m <= 6; m++) {
+            template.getMachines().add(MachineEntity.builder()
+                    .id(m).location(location).code("M-" + m).name("Machine " + m).type("CNC").build());
+        }
+
+        for (int h = 0; h < HEADER_FIELDS; h++) {
+            template.getHeaderFields().add(QcFormHeaderFieldEntity.builder()
+                    .id((long) h + 1).template(template).fieldOrder(h).fieldKey("h" + h).label("Header " + h)
+                    .fieldType(HeaderFieldTypeEnum.TEXT).build());
+        }
+
+        long fieldId = 1;
+        for (int s = 0; s < sections; s++) {
+            boolean repeatable = s % 3 == 2;
+            QcFormSectionEntity section = QcFormSectionEntity.builder()
+                    .id((long) s + 1)
+                    .template(template)
+                    .sectionOrder(s)
+                    .name("Section " + s)
+                    .isRepeatable(repeatable)
+                    .repeatCount(repeatable ? REPEAT_COUNT : null)
+                    .repeatLabelPattern(repeatable ? "Sample {n}" : null)
+                    .build();
+            for (int f = 0; f < fieldsPerSection; f++) {
+                section.getFields().add(field(section, fieldId++, s, f));
+            }
+            template.getSections().add(section);
+        }
+        return template;
+    }
+
+    /**
+     * Mix seen in real templates: mostly toleranced measurements, some pass/fail
+     * checks and a few free-text remarks.
+     */
+    private static QcFormFieldEntity field(QcFormSectionEntity section, long id, int s, int f) {
+        QcFormFieldEntity.QcFormFieldEntityBuilder builder = QcFormFieldEntity.builder()
+                .id(id)
+                .section(section)
+                .fieldOrder(f)
+                .fieldKey("s" + s + "f" + f)
+                .label("Check " + s + "." + f)
+                .helpText("Measure at the marked point");
+        switch (f % 5) {
+            case 0 -> builder.inputType(InputTypeEnum.PASS_FAIL);
+            case 4 -> builder.inputType(InputTypeEnum.TEXT).required(false);
+            default -> builder.inputType(InputTypeEnum.DECIMAL)
+                    .minValue(BigDecimal.valueOf(9))
+                    .maxValue(BigDecimal.valueOf(11))
+                    .targetValue(BigDecimal.TEN)
+                    .tolerance(new BigDecimal("0.5"))
+                    .unit("mm")
+                    .decimalPlaces(3);
+        }
+        return builder.build();
+    }
+
+    /**
+     * One value request per field and repeat. Roughly 5% of measurements land in
+     * the warning band and 2% out of limits, as on a healthy line.
+     */
+    public static List<QcFormValueRequest> valueRequests(QcFormTemplateEntity template, long seed) {
+        Random random = new Random(seed);
+        List<QcFormValueRequest> requests = new ArrayList<>();
+        for (QcFormSectionEntity section : template.getSections()) {
+            int repeats = Boolean.TRUE.equals(section.getIsRepeatable()) ? section.getRepeatCount() : 1;
+            for (int r = 0; r < repeats; r++) {
+                for (QcFormFieldEntity field : section.getFields()) {
+                    QcFormValueRequest request = new QcFormValueRequest();
+                    request.setFieldId(field.getId());
+                    request.setRepeatIndex(r);
+                    switch (field.getInputType()) {
+                        case PASS_FAIL -> request.setValueBoolean(random.nextInt(50) != 0);
+                        case TEXT -> request.setValueText("ok " + r);
+                        default -> request.setValueNumber(measurement(random));
+                    }
+                    requests.add(request);
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Returns a submitted record carrying the given values; each value's result is
+     * left empty so callers can evaluate it.
+     */
+    public static QcFormRecordEntity record(QcFormTemplateEntity template, List<QcFormValueRequest> requests) {
+        Map<Long, QcFormFieldEntity> fields = fieldsById(template);
+        UserEntity operator = UserEntity.builder().id(2L).username("operator").fullName("Shift Operator")
+                .email("operator@bench.test").hashedPassword("x").role(UserRoleEnum.OPERATOR).build();
+
+        Map<String, Object> headerData = new LinkedHashMap<>();
+        for (QcFormHeaderFieldEntity header : template.getHeaderFields()) {
+            headerData.put(header.getFieldKey(), "value-" + header.getFieldOrder());
+        }
+
+        QcFormRecordEntity record = QcFormRecordEntity.builder()
+                .id(1L)
+                .template(template)
+                .machine(template.getMachines().iterator().next())
+                .headerData(headerData)
+                .status(RecordStatusEnum.SUBMITTED)
+                .filledBy(operator)
+                .startedAt(BASE_TIME)
+                .submittedAt(BASE_TIME.plusMinutes(20))
+                .createdAt(BASE_TIME)
+                .build();
+
+        long valueId = 1;
+        for (QcFormValueRequest request : requests) {
+            record.getValues().add(QcFormValueEntity.builder()
+                    .id(valueId++)
+                    .record(record)
+                    .field(fields.get(request.getFieldId()))
+                    .repeatIndex(request.getRepeatIndex())
+                    .valueText(request.getValueText())
+                    .valueNumber(request.getValueNumber())
+                    .valueBoolean(request.getValueBoolean())
+                    .enteredAt(BASE_TIME.plusMinutes(10))
+                    .build());
+        }
+        return record;
+    }
+
+    public static Map<Long, QcFormFieldEntity> fieldsById(QcFormTemplateEntity template) {
+        Map<Long, QcFormFieldEntity> fields = new LinkedHashMap<>();
+        for (QcFormSectionEntity section : template.getSections()) {
+            for (QcFormFieldEntity field : section.getFields()) {
+                fields.put(field.getId(), field);
+            }
+        }
+        return fields;
+    }
+
+    private static BigDecimal measurement(Random random) {
+        int roll = random.nextInt(100);
+        double value;
+        if (roll < 2) {
+            value = random.nextBoolean() ? 8.5 + random.nextDouble() * 0.4 : 11.1 + random.nextDouble() * 0.4;
+        } else if (roll < 7) {
+            value = random.nextBoolean() ? 9.0 + random.nextDouble() * 0.45 : 10.55 + random.nextDouble() * 0.45;
+        } else {
+            value = 9.6 + random.nextDouble() * 0.8;
+        }
+        return BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,90 @@
+package com.crownbyte.Saphire.dispatch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terminal-facing reads of {@link DispatchQueues}: next job of a machine, the head
+ * of a location queue and its depth, plus the claim cycle that takes the head off
+ * and queues a new step. The queues are filled directly; no database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DispatchQueuesBenchmark {
+
+    private static final int LOCATIONS = 4;
+    private static final int MACHINES_PER_LOCATION = 25;
+
+    /** Pending steps across the plant: a quiet shift, a busy one, a large backlog. */
+    @Param({ "1000", "20000", "200000" })
+    public int pending;
+
+    private DispatchQueues queues;
+    private Random random;
+    private long nextStepId;
+
+    @Setup
+    public void setUp() {
+        queues = new DispatchQueues(null, new SimpleMeterRegistry());
+        random = new Random(42);
+        List<QueuedStep> steps = new ArrayList<>(pending);
+        for (nextStepId = 1; nextStepId <= pending; nextStepId++) {
+            steps.add(randomStep(nextStepId));
+        }
+        queues.putAll(steps);
+    }
+
+    @Benchmark
+    public Optional<QueuedStep> nextForMachine() {
+        return queues.nextForMachine(1L + random.nextInt(LOCATIONS * MACHINES_PER_LOCATION));
+    }
+
+    @Benchmark
+    public List<QueuedStep> headAtLocation() {
+        return queues.headAtLocation(1L + random.nextInt(LOCATIONS), 10);
+    }
+
+    @Benchmark
+    public int depthAtLocation() {
+        return queues.depthAtLocation(1L + random.nextInt(LOCATIONS));
+    }
+
+    @Benchmark
+    public QueuedStep claimAndRequeue() {
+        long machineId = 1L + random.nextInt(LOCATIONS * MACHINES_PER_LOCATION);
+        QueuedStep next = queues.nextForMachine(machineId).orElse(null);
+        if (next != null) {
+            queues.remove(next.getStepId());
+        }
+        queues.putAll(List.of(randomStep(nextStepId++)));
+        return next;
+    }
+
+    private QueuedStep randomStep(long stepId) {
+        long machineId = 1L + random.nextInt(LOCATIONS * MACHINES_PER_LOCATION);
+        long locationId = 1L + (machineId - 1) / MACHINES_PER_LOCATION;
+        return new QueuedStep(stepId, stepId, "SN-" + stepId, 1L, "Turning", machineId, locationId,
+                random.nextInt(5), LocalDateTime.of(2026, 3, 2, 0, 0).plusMinutes(random.nextInt(20_000)));
+    }
+}
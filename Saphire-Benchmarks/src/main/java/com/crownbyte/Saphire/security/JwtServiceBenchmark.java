@@ -0,0 +1,84 @@
+package com.crownbyte.Saphire.security;
+
+import com.crownbyte.Saphire.entity.master.enums.UserRoleEnum;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of JWT authentication: signature check and claim parsing, and
+ * rebuilding the principal from the claims as {@link JwtAuthenticationFilter} does.
+ * Token size grows with the number of machines a user is scoped to.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "ee5ddc7600da0fc86d4bb16f5b3b4862c47c210bbb9f2c854e9b04cf9cfb6de3";
+
+    /** Machines in the token: a single-cell operator, a shift lead, a plant-wide supervisor. */
+    @Param({ "4", "40", "400" })
+    public int machines;
+
+    private JwtService jwtService;
+    private SaphireUserDetails principal;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        setField("secretKey", SECRET);
+        setField("jwtExpiration", 86_400_000L);
+
+        // Every tenth id is skipped so the range encoding has gaps to write.
+        Set<Long> machineIds = new TreeSet<>();
+        for (long id = 1; machineIds.size() < machines; id++) {
+            if (id % 10 != 0) {
+                machineIds.add(id);
+            }
+        }
+        principal = new SaphireUserDetails(7L, "operator", null, true, UserRoleEnum.OPERATOR, 3,
+                machineIds, Set.of(1L, 2L, 5L), Set.of(1L));
+        token = jwtService.generateToken(principal);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public SaphireUserDetails parseToPrincipal() {
+        return jwtService.toUserDetails(jwtService.parseToken(token));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(principal);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtService.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, jwtService, value);
+    }
+}
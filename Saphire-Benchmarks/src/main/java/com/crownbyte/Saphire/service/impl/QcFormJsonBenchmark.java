@@ -0,0 +1,88 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.benchmark.QcFormFixtures;
+import com.crownbyte.Saphire.dto.request.QcFormValueRequest;
+import com.crownbyte.Saphire.dto.response.ApiResponse;
+import com.crownbyte.Saphire.dto.response.QcFormRecordResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing record and template responses as the controllers do: wrapped in
+ * {@link ApiResponse} and serialized with a mapper configured like the application's
+ * (Spring's builder defaults plus the settings from application.yaml).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QcFormJsonBenchmark {
+
+    @Param({ "4x8", "10x15", "20x25" })
+    public String shape;
+
+    private ObjectWriter writer;
+    private ApiResponse<QcFormRecordResponse> recordResponse;
+    private ApiResponse<QcFormTemplateResponse> templateResponse;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .timeZone(TimeZone.getTimeZone("Europe/Istanbul"))
+                .build();
+        writer = objectMapper.writer();
+
+        int[] size = QcFormFixtures.parseShape(shape);
+        QcFormTemplateEntity template = QcFormFixtures.template(size[0], size[1]);
+        List<QcFormValueRequest> requests = QcFormFixtures.valueRequests(template, 42);
+        QcFormRecordEntity record = QcFormFixtures.record(template, requests);
+
+        QcFormRecordServiceImpl recordService = new QcFormRecordServiceImpl(null, null, null, null, null, null, null);
+        Map<Long, QcFormFieldEntity> fields = QcFormFixtures.fieldsById(template);
+        for (int i = 0; i < requests.size(); i++) {
+            QcFormValueRequest request = requests.get(i);
+            record.getValues().get(i).setResult(
+                    recordService.evaluateFieldResult(fields.get(request.getFieldId()), request));
+        }
+        record.setOverallResult(recordService.calculateOverallResult(record));
+
+        recordResponse = ApiResponse.success(recordService.toResponse(record, false));
+        templateResponse = ApiResponse.success(new QcFormTemplateServiceImpl(null, null, null, null, null, null).toResponse(template));
+    }
+
+    @Benchmark
+    public byte[] serializeRecord() throws JsonProcessingException {
+        return writer.writeValueAsBytes(recordResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeTemplate() throws JsonProcessingException {
+        return writer.writeValueAsBytes(templateResponse);
+    }
+}
@@ -0,0 +1,95 @@
+package com.crownbyte.Saphire.service.impl;
+
+import com.crownbyte.Saphire.benchmark.QcFormFixtures;
+import com.crownbyte.Saphire.dto.request.QcFormValueRequest;
+import com.crownbyte.Saphire.dto.response.QcFormRecordResponse;
+import com.crownbyte.Saphire.dto.response.QcFormTemplateResponse;
+import com.crownbyte.Saphire.entity.qc.QcFormFieldEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormRecordEntity;
+import com.crownbyte.Saphire.entity.qc.QcFormTemplateEntity;
+import com.crownbyte.Saphire.entity.qc.enums.OverallResultEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-record CPU cost of submitting and reading a QC record: value evaluation,
+ * the overall result and the entity-to-response mappings. Lives in the service
+ * package to reach the package-private methods; repositories are not needed by
+ * any of them, so the services are built with null dependencies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QcFormRecordBenchmark {
+
+    /** Sections x fields per section: a quick check sheet, a typical line sheet, a full audit. */
+    @Param({ "4x8", "10x15", "20x25" })
+    public String shape;
+
+    private QcFormRecordServiceImpl recordService;
+    private QcFormTemplateServiceImpl templateService;
+
+    private QcFormTemplateEntity template;
+    private QcFormRecordEntity record;
+    private QcFormFieldEntity[] fields;
+    private QcFormValueRequest[] requests;
+
+    @Setup
+    public void setUp() {
+        recordService = new QcFormRecordServiceImpl(null, null, null, null, null, null, null);
+        templateService = new QcFormTemplateServiceImpl(null, null, null, null, null, null);
+
+        int[] size = QcFormFixtures.parseShape(shape);
+        template = QcFormFixtures.template(size[0], size[1]);
+        List<QcFormValueRequest> valueRequests = QcFormFixtures.valueRequests(template, 42);
+        record = QcFormFixtures.record(template, valueRequests);
+
+        Map<Long, QcFormFieldEntity> byId = QcFormFixtures.fieldsById(template);
+        requests = valueRequests.toArray(new QcFormValueRequest[0]);
+        fields = new QcFormFieldEntity[requests.length];
+        for (int i = 0; i < requests.length; i++) {
+            fields[i] = byId.get(requests[i].getFieldId());
+            // Values are created in request order.
+            record.getValues().get(i).setResult(recordService.evaluateFieldResult(fields[i], requests[i]));
+        }
+    }
+
+    @Benchmark
+    public void evaluateFieldResults(Blackhole blackhole) {
+        for (int i = 0; i < requests.length; i++) {
+            blackhole.consume(recordService.evaluateFieldResult(fields[i], requests[i]));
+        }
+    }
+
+    @Benchmark
+    public OverallResultEnum calculateOverallResult() {
+        return recordService.calculateOverallResult(record);
+    }
+
+    @Benchmark
+    public QcFormRecordResponse recordToResponse() {
+        return recordService.toResponse(record, false);
+    }
+
+    @Benchmark
+    public QcFormTemplateResponse templateToResponse() {
+        return templateService.toResponse(template);
+    }
+}
@@ -16,7 +16,10 @@ export const machineApi = {
 export const templateApi = {
     getAll: () => axios.get('/api/v1/qc-templates'),
     getById: (id: number) => axios.get(`/api/v1/qc-templates/${id}`),
-    getByMachine: (machineId: number) => axios.get(`/api/v1/qc-templates?machineId=${machineId}`),
+    getByMachine: (machineId: number) => axios.get(`/api/v1/qc-templates/machine/${machineId}/summary`),
+    getSections: (id: number) => axios.get(`/api/v1/qc-templates/${id}/sections`),
+    getSectionFields: (id: number, sectionId: number) =>
+        axios.get(`/api/v1/qc-templates/${id}/sections/${sectionId}/fields`),
 };
 
 // QC Record API